@@ -0,0 +1,58 @@
+package com.hrms.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodage par dictionnaire d'une colonne catégorielle : chaque valeur distincte reçoit
+ * un code entier dense. Le code 0 est réservé aux valeurs non renseignées.
+ * Non thread-safe : les accès sont protégés par le verrou de {@link WorkforceSnapshot}.
+ */
+public class ValueDictionary {
+
+    public static final int NULL_CODE = 0;
+    public static final String NULL_LABEL = "NON_RENSEIGNE";
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public ValueDictionary() {
+        values.add(NULL_LABEL);
+    }
+
+    /**
+     * Code de la valeur, attribué à la première rencontre
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Code d'une valeur déjà connue, -1 sinon (utilisé par les filtres, sans effet de bord)
+     */
+    public int lookup(String value) {
+        if (value == null || NULL_LABEL.equals(value)) {
+            return NULL_CODE;
+        }
+        return codes.getOrDefault(value, -1);
+    }
+
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hrms.analytics;
+
+import com.hrms.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identifiants des agents modifiés depuis la dernière mise à jour de l'instantané, par tenant.
+ * Alimenté après commit par le bus des changements : un agent signalé ici est déjà lisible en base.
+ */
+@Component
+public class WorkforceChangeTracker {
+
+    private final Map<String, Set<Long>> pendingByTenant = new ConcurrentHashMap<>();
+
+    @Value("${hrms.multi-tenant.default-tenant:default}")
+    private String defaultTenant;
+
+    public void markChanged(String tenant, Collection<Long> personnelIds) {
+        if (personnelIds.isEmpty()) {
+            return;
+        }
+        // compute : l'ajout et le retrait par drain sont atomiques pour le tenant, aucun identifiant
+        // n'est ajouté à un ensemble déjà retiré
+        pendingByTenant.compute(tenant, (key, pending) -> {
+            Set<Long> ids = pending != null ? pending : new HashSet<>();
+            ids.addAll(personnelIds);
+            return ids;
+        });
+    }
+
+    /**
+     * Retire et renvoie les identifiants en attente pour le tenant ; l'ensemble renvoyé n'est plus partagé
+     */
+    public Set<Long> drain(String tenant) {
+        Set<Long> pending = pendingByTenant.remove(tenant);
+        return pending != null ? pending : Set.of();
+    }
+
+    public String currentTenant() {
+        String tenantId = TenantContext.getTenantId();
+        return tenantId != null ? tenantId : defaultTenant;
+    }
+}
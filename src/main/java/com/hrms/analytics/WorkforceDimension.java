@@ -0,0 +1,33 @@
+package com.hrms.analytics;
+
+/**
+ * Axes d'analyse disponibles sur l'instantané des effectifs.
+ * Les dimensions catégorielles sont encodées par dictionnaire ; AGE_BAND est dérivée
+ * de la date de naissance au moment de la requête (tranches de 5 ans).
+ */
+public enum WorkforceDimension {
+    STRUCTURE,
+    GRADE,
+    CORPS,
+    REGION,
+    STATUS,
+    GENDER,
+    SITUATION,
+    AGE_BAND;
+
+    public static final int AGE_BAND_WIDTH = 5;
+
+    /**
+     * Nombre de tranches d'âge (la dernière regroupe 75 ans et plus)
+     */
+    public static final int AGE_BAND_COUNT = 16;
+
+    public boolean isDerived() {
+        return this == AGE_BAND;
+    }
+
+    public static String ageBandLabel(int band) {
+        int from = band * AGE_BAND_WIDTH;
+        return band == AGE_BAND_COUNT - 1 ? from + "+" : from + "-" + (from + AGE_BAND_WIDTH - 1);
+    }
+}
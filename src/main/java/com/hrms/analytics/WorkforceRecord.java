@@ -0,0 +1,38 @@
+package com.hrms.analytics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne de l'instantané des effectifs, telle que chargée depuis la base
+ */
+@Value
+@Builder
+public class WorkforceRecord {
+
+    long personnelId;
+    LocalDate dateOfBirth;
+    LocalDate hireDate;
+    String structure;
+    String grade;
+    String corps;
+    String region;
+    String status;
+    String gender;
+    String situation;
+
+    String valueOf(WorkforceDimension dimension) {
+        return switch (dimension) {
+            case STRUCTURE -> structure;
+            case GRADE -> grade;
+            case CORPS -> corps;
+            case REGION -> region;
+            case STATUS -> status;
+            case GENDER -> gender;
+            case SITUATION -> situation;
+            case AGE_BAND -> throw new IllegalArgumentException("AGE_BAND is derived from the date of birth");
+        };
+    }
+}
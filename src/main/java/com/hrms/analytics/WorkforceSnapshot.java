@@ -0,0 +1,389 @@
+package com.hrms.analytics;
+
+import com.hrms.dto.WorkforceCrossTabDTO;
+import com.hrms.dto.WorkforceQueryDTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Instantané en colonnes des effectifs, pour les tableaux croisés sans requête SQL.
+ *
+ * Chaque agent occupe une ligne ; chaque attribut est stocké dans un tableau primitif
+ * (jours epoch pour les dates, codes de dictionnaire pour les dimensions catégorielles).
+ * Les requêtes filtre + regroupement + comptage parcourent les colonnes par plages,
+ * en parallèle sur un {@link ForkJoinPool} au-delà d'un certain volume.
+ *
+ * Les mises à jour (ajout, modification, suppression d'un agent) sont incrémentales ;
+ * les lignes supprimées sont marquées puis compactées lorsqu'elles deviennent nombreuses.
+ */
+public class WorkforceSnapshot {
+
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PARALLEL_THRESHOLD = 32_768;
+
+    private static final WorkforceDimension[] CATEGORICAL = Arrays.stream(WorkforceDimension.values())
+            .filter(dimension -> !dimension.isDerived())
+            .toArray(WorkforceDimension[]::new);
+
+    private final Map<WorkforceDimension, ValueDictionary> dictionaries = new EnumMap<>(WorkforceDimension.class);
+    private final int[][] codes = new int[CATEGORICAL.length][];
+    private long[] ids;
+    private int[] birthDays;
+    private int[] hireDays;
+    private boolean[] live;
+    private int size;
+    private int liveCount;
+
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LocalDateTime refreshedAt = LocalDateTime.now();
+
+    public WorkforceSnapshot() {
+        for (WorkforceDimension dimension : CATEGORICAL) {
+            dictionaries.put(dimension, new ValueDictionary());
+        }
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // ==================== MISES À JOUR ====================
+
+    /**
+     * Ajoute ou remplace la ligne d'un agent
+     */
+    public void upsert(WorkforceRecord record) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(record.getPersonnelId());
+            if (row == null) {
+                ensureCapacity(size + 1);
+                row = size++;
+                rowById.put(record.getPersonnelId(), row);
+                ids[row] = record.getPersonnelId();
+                live[row] = true;
+                liveCount++;
+            }
+            birthDays[row] = toEpochDay(record.getDateOfBirth());
+            hireDays[row] = toEpochDay(record.getHireDate());
+            for (int i = 0; i < CATEGORICAL.length; i++) {
+                codes[i][row] = dictionaries.get(CATEGORICAL[i]).encode(record.valueOf(CATEGORICAL[i]));
+            }
+            refreshedAt = LocalDateTime.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un agent de l'instantané (suppression ou suppression logique)
+     */
+    public void remove(long personnelId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(personnelId);
+            if (row == null) {
+                return;
+            }
+            live[row] = false;
+            liveCount--;
+            if (size - liveCount > size / 4) {
+                compact();
+            }
+            refreshedAt = LocalDateTime.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int liveCount() {
+        return liveCount;
+    }
+
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Évalue un tableau croisé à la date de référence donnée (pour les âges et anciennetés)
+     */
+    public WorkforceCrossTabDTO count(WorkforceQueryDTO query, LocalDate referenceDate, ForkJoinPool pool) {
+        lock.readLock().lock();
+        try {
+            CountPlan plan = new CountPlan(query, referenceDate);
+            long[] counts = size >= PARALLEL_THRESHOLD
+                    ? pool.invoke(new CountTask(plan, 0, size))
+                    : plan.countRange(0, size);
+            return plan.toResult(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Requête compilée : filtres traduits en tables de codes acceptés et bornes en jours epoch
+     */
+    private class CountPlan {
+
+        private final WorkforceQueryDTO query;
+        private final int[][] filterColumns;
+        private final boolean[][] filterAccepted;
+        private final int minBirthDay;
+        private final int maxBirthDay;
+        private final int minHireDay;
+        private final int maxHireDay;
+        private final int[] ageBandBounds;
+        private final int[] rowColumn;
+        private final int[] columnColumn;
+        private final int rowCardinality;
+        private final int columnCardinality;
+
+        CountPlan(WorkforceQueryDTO query, LocalDate referenceDate) {
+            this.query = query;
+
+            List<Map.Entry<WorkforceDimension, List<String>>> filters = query.getFilters() == null ? List.of()
+                    : query.getFilters().entrySet().stream()
+                    .filter(entry -> entry.getValue() != null && !entry.getValue().isEmpty())
+                    .toList();
+            filterColumns = new int[filters.size()][];
+            filterAccepted = new boolean[filters.size()][];
+            for (int i = 0; i < filters.size(); i++) {
+                WorkforceDimension dimension = filters.get(i).getKey();
+                if (dimension.isDerived()) {
+                    throw new IllegalArgumentException("Filter on " + dimension + " is not supported, use age bounds");
+                }
+                ValueDictionary dictionary = dictionaries.get(dimension);
+                filterColumns[i] = codes[dimension.ordinal()];
+                filterAccepted[i] = new boolean[dictionary.size()];
+                for (String value : filters.get(i).getValue()) {
+                    int code = dictionary.lookup(value);
+                    if (code >= 0) {
+                        filterAccepted[i][code] = true;
+                    }
+                }
+            }
+
+            // Âge >= n  <=>  né au plus tard à (référence - n ans)
+            minBirthDay = query.getMaxAge() != null
+                    ? (int) referenceDate.minusYears(query.getMaxAge() + 1L).plusDays(1).toEpochDay() : NO_DATE;
+            maxBirthDay = query.getMinAge() != null
+                    ? (int) referenceDate.minusYears(query.getMinAge()).toEpochDay() : Integer.MAX_VALUE;
+            minHireDay = query.getMaxSeniorityYears() != null
+                    ? (int) referenceDate.minusYears(query.getMaxSeniorityYears() + 1L).plusDays(1).toEpochDay() : NO_DATE;
+            maxHireDay = query.getMinSeniorityYears() != null
+                    ? (int) referenceDate.minusYears(query.getMinSeniorityYears()).toEpochDay() : Integer.MAX_VALUE;
+
+            ageBandBounds = new int[WorkforceDimension.AGE_BAND_COUNT];
+            for (int band = 0; band < ageBandBounds.length; band++) {
+                ageBandBounds[band] = (int) referenceDate.minusYears((long) band * WorkforceDimension.AGE_BAND_WIDTH).toEpochDay();
+            }
+
+            rowColumn = columnOf(query.getRowDimension());
+            rowCardinality = cardinalityOf(query.getRowDimension());
+            columnColumn = query.getColumnDimension() != null ? columnOf(query.getColumnDimension()) : null;
+            columnCardinality = query.getColumnDimension() != null ? cardinalityOf(query.getColumnDimension()) : 1;
+        }
+
+        private int[] columnOf(WorkforceDimension dimension) {
+            return dimension.isDerived() ? null : codes[dimension.ordinal()];
+        }
+
+        private int cardinalityOf(WorkforceDimension dimension) {
+            return dimension.isDerived() ? WorkforceDimension.AGE_BAND_COUNT + 1 : dictionaries.get(dimension).size();
+        }
+
+        /**
+         * Tranche d'âge + 1 (0 = date de naissance inconnue)
+         */
+        private int ageBandCode(int birthDay) {
+            if (birthDay == NO_DATE) {
+                return ValueDictionary.NULL_CODE;
+            }
+            for (int band = ageBandBounds.length - 1; band > 0; band--) {
+                if (birthDay <= ageBandBounds[band]) {
+                    return band + 1;
+                }
+            }
+            return 1;
+        }
+
+        long[] countRange(int from, int to) {
+            long[] counts = new long[rowCardinality * columnCardinality];
+            boolean dateFilter = minBirthDay != NO_DATE || maxBirthDay != Integer.MAX_VALUE
+                    || minHireDay != NO_DATE || maxHireDay != Integer.MAX_VALUE;
+
+            rows:
+            for (int row = from; row < to; row++) {
+                if (!live[row]) {
+                    continue;
+                }
+                if (dateFilter) {
+                    int birthDay = birthDays[row];
+                    int hireDay = hireDays[row];
+                    if ((minBirthDay != NO_DATE || maxBirthDay != Integer.MAX_VALUE)
+                            && (birthDay == NO_DATE || birthDay < minBirthDay || birthDay > maxBirthDay)) {
+                        continue;
+                    }
+                    if ((minHireDay != NO_DATE || maxHireDay != Integer.MAX_VALUE)
+                            && (hireDay == NO_DATE || hireDay < minHireDay || hireDay > maxHireDay)) {
+                        continue;
+                    }
+                }
+                for (int f = 0; f < filterColumns.length; f++) {
+                    if (!filterAccepted[f][filterColumns[f][row]]) {
+                        continue rows;
+                    }
+                }
+                int rowCode = rowColumn != null ? rowColumn[row] : ageBandCode(birthDays[row]);
+                int columnCode = columnColumn != null ? columnColumn[row]
+                        : query.getColumnDimension() != null ? ageBandCode(birthDays[row]) : 0;
+                counts[rowCode * columnCardinality + columnCode]++;
+            }
+            return counts;
+        }
+
+        WorkforceCrossTabDTO toResult(long[] counts) {
+            Map<String, Map<String, Long>> cells = new LinkedHashMap<>();
+            Map<String, Long> rowTotals = new LinkedHashMap<>();
+            long total = 0;
+            for (int r = 0; r < rowCardinality; r++) {
+                Map<String, Long> columns = new LinkedHashMap<>();
+                long rowTotal = 0;
+                for (int c = 0; c < columnCardinality; c++) {
+                    long count = counts[r * columnCardinality + c];
+                    if (count > 0) {
+                        String columnLabel = query.getColumnDimension() != null
+                                ? labelOf(query.getColumnDimension(), c) : "TOTAL";
+                        columns.put(columnLabel, count);
+                        rowTotal += count;
+                    }
+                }
+                if (rowTotal > 0) {
+                    String rowLabel = labelOf(query.getRowDimension(), r);
+                    cells.put(rowLabel, columns);
+                    rowTotals.put(rowLabel, rowTotal);
+                    total += rowTotal;
+                }
+            }
+
+            return WorkforceCrossTabDTO.builder()
+                    .rowDimension(query.getRowDimension())
+                    .columnDimension(query.getColumnDimension())
+                    .counts(cells)
+                    .rowTotals(rowTotals)
+                    .total(total)
+                    .snapshotSize(liveCount)
+                    .snapshotRefreshedAt(refreshedAt)
+                    .build();
+        }
+
+        private String labelOf(WorkforceDimension dimension, int code) {
+            if (!dimension.isDerived()) {
+                return dictionaries.get(dimension).decode(code);
+            }
+            return code == ValueDictionary.NULL_CODE ? ValueDictionary.NULL_LABEL : WorkforceDimension.ageBandLabel(code - 1);
+        }
+    }
+
+    /**
+     * Découpe récursive de la plage de lignes ; les comptages partiels sont additionnés
+     */
+    private class CountTask extends RecursiveTask<long[]> {
+
+        // Tâche locale au pool, jamais sérialisée
+        private static final long serialVersionUID = 1L;
+
+        private final transient CountPlan plan;
+        private final int from;
+        private final int to;
+
+        CountTask(CountPlan plan, int from, int to) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return plan.countRange(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(plan, from, middle);
+            left.fork();
+            long[] right = new CountTask(plan, middle, to).compute();
+            long[] merged = left.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += right[i];
+            }
+            return merged;
+        }
+    }
+
+    // ==================== STOCKAGE ====================
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        birthDays = new int[capacity];
+        hireDays = new int[capacity];
+        live = new boolean[capacity];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = new int[capacity];
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        birthDays = Arrays.copyOf(birthDays, capacity);
+        hireDays = Arrays.copyOf(hireDays, capacity);
+        live = Arrays.copyOf(live, capacity);
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = Arrays.copyOf(codes[i], capacity);
+        }
+    }
+
+    /**
+     * Supprime physiquement les lignes retirées et renumérote les lignes restantes
+     */
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < size; row++) {
+            if (!live[row]) {
+                continue;
+            }
+            if (target != row) {
+                ids[target] = ids[row];
+                birthDays[target] = birthDays[row];
+                hireDays[target] = hireDays[row];
+                live[target] = true;
+                for (int[] column : codes) {
+                    column[target] = column[row];
+                }
+                rowById.put(ids[target], target);
+            }
+            target++;
+        }
+        Arrays.fill(live, target, size, false);
+        size = target;
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+}
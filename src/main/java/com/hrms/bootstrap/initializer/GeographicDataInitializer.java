@@ -4,6 +4,8 @@ import com.hrms.bootstrap.loader.data.ArrondissementData;
 import com.hrms.bootstrap.loader.data.DepartmentData;
 import com.hrms.bootstrap.loader.data.RegionData;
 import com.hrms.bootstrap.loader.data.TerritorialDataLoader;
+import com.hrms.dto.TemplateInstantiationRequestDTO;
+import com.hrms.dto.TemplateInstantiationResultDTO;
 import com.hrms.entity.AdministrativeStructure;
 import com.hrms.entity.Arrondissement;
 import com.hrms.entity.Department;
@@ -46,7 +48,7 @@ public class GeographicDataInitializer implements CommandLineRunner {
     private final ArrondissementRepository arrondissementRepository;
     private final AdministrativeStructureRepository structureRepository;
     private final TerritorialDataLoader dataLoader;
-    private final com.hrms.service.StructureTemplateService templateService;
+    private final com.hrms.service.TemplateInstantiationService templateInstantiationService;
 
     @Override
     @Transactional
@@ -70,6 +72,11 @@ public class GeographicDataInitializer implements CommandLineRunner {
                 initializeRegion(minat, regionData);
             }
 
+            // Instancier les templates une fois toutes les structures créées : une passe par niveau
+            for (String templateCode : List.of("TPL-GOUV", "TPL-PREF", "TPL-SPREF")) {
+                instantiateTemplate(templateCode);
+            }
+
             log.info("Cameroon geographic data initialized successfully!");
             long totalRegions = regionRepository.count();
             long totalDepartments = departmentRepository.count();
@@ -83,6 +90,21 @@ public class GeographicDataInitializer implements CommandLineRunner {
         }
     }
 
+    /**
+     * Instancie un template sur toutes les structures de son niveau (sous-structures et postes)
+     */
+    private void instantiateTemplate(String templateCode) {
+        try {
+            TemplateInstantiationResultDTO result =
+                    templateInstantiationService.instantiate(templateCode, new TemplateInstantiationRequestDTO());
+            log.info("Template {} instantiated for {} structures ({} positions)",
+                    templateCode, result.getStructureCount(), result.getCreatedPositions());
+        } catch (Exception e) {
+            log.error("Error instantiating template {}: {}", templateCode, e.getMessage());
+            // Continue sans template si erreur
+        }
+    }
+
     /**
      * Initialise une région complète avec ses départements et arrondissements,
      * puis crée les structures administratives associées
@@ -124,7 +146,7 @@ public class GeographicDataInitializer implements CommandLineRunner {
 
     /**
      * Créer un Gouvernorat (structure administrative) lié à une région géographique
-     * Utilise le template organisationnel pour créer automatiquement les sous-structures et postes
+     * (le template organisationnel est instancié ensuite pour tous les gouvernorats à la fois)
      */
     private AdministrativeStructure createGouvernorat(AdministrativeStructure parent,
                                                       Region region, RegionData regionData) {
@@ -144,19 +166,7 @@ public class GeographicDataInitializer implements CommandLineRunner {
         gouvernorat.setCreatedBy("system");
         gouvernorat.setCreatedDate(LocalDate.now());
 
-        gouvernorat = structureRepository.save(gouvernorat);
-
-        // Instancier le template de Gouvernorat pour créer les sous-structures et postes
-        try {
-            templateService.instantiateGovernorateTemplate(region, gouvernorat);
-            log.info("Template instantiated for Gouvernorat: {}", gouvernorat.getCode());
-        } catch (Exception e) {
-            log.error("Error instantiating template for Gouvernorat {}: {}",
-                gouvernorat.getCode(), e.getMessage());
-            // Continue sans template si erreur
-        }
-
-        return gouvernorat;
+        return structureRepository.save(gouvernorat);
     }
 
     /**
@@ -170,16 +180,6 @@ public class GeographicDataInitializer implements CommandLineRunner {
         // 2. Créer la structure administrative Préfecture liée à ce département
         AdministrativeStructure prefecture = createPrefecture(gouvernorat, department, departmentData);
 
-        // 2.1 Instancier le template de Préfecture pour créer les sous-structures et postes
-        try {
-            templateService.instantiatePrefectureTemplate(department, prefecture);
-            log.info("Template instantiated for Prefecture: {}", prefecture.getCode());
-        } catch (Exception e) {
-            log.error("Error instantiating template for Prefecture {}: {}",
-                prefecture.getCode(), e.getMessage());
-            // Continue sans template si erreur
-        }
-
         // 3. Charger les arrondissements depuis le fichier JSON
         String cleanRegionCode = regionCode.replace("GOUV-", "");
         List<ArrondissementData> arrondissements = dataLoader.loadArrondissementsForDepartment(
@@ -321,17 +321,7 @@ public class GeographicDataInitializer implements CommandLineRunner {
         sousPrefecture.setCreatedBy("system");
         sousPrefecture.setCreatedDate(LocalDate.now());
 
-        sousPrefecture = structureRepository.save(sousPrefecture);
-
-        // Instancier le template de Sous-Préfecture pour créer les sous-structures et postes
-        try {
-            templateService.instantiateSousPrefectureTemplate(arrondissement, sousPrefecture);
-            log.info("Template instantiated for Sous-Prefecture: {}", sousPrefecture.getCode());
-        } catch (Exception e) {
-            log.error("Error instantiating template for Sous-Prefecture {}: {}",
-                sousPrefecture.getCode(), e.getMessage());
-            // Continue sans template si erreur
-        }
+        structureRepository.save(sousPrefecture);
     }
 
     /**
@@ -0,0 +1,18 @@
+package com.hrms.compliance;
+
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Situation documentaire d'un agent non conforme : types obligatoires manquants, expirés, non vérifiés
+ */
+@Value
+public class AgentCompliance {
+
+    ComplianceAgent agent;
+    List<DocumentType> missing;
+    List<DocumentType> expired;
+    List<DocumentType> unverified;
+}
@@ -0,0 +1,22 @@
+package com.hrms.compliance;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Agent suivi par la matrice de conformité documentaire
+ */
+@Value
+@Builder
+public class ComplianceAgent {
+
+    Long personnelId;
+    String matricule;
+    String fullName;
+    Long structureId;
+
+    /**
+     * Chemin matérialisé de la structure d'affectation
+     */
+    String structurePath;
+}
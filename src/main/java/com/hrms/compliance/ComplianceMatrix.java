@@ -0,0 +1,235 @@
+package com.hrms.compliance;
+
+import com.hrms.entity.PersonnelDocument.DocumentType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matrice de conformité documentaire des agents.
+ *
+ * Chaque agent a trois masques de bits indexés par type de document (un int suffit pour les
+ * types connus) : présent, en cours de validité, vérifié et en cours de validité. La conformité
+ * d'un agent est un test de masque contre les types obligatoires. Les agents sont rangés par chemin de structure : un sous-arbre
+ * est une plage contiguë de lignes, agrégée en un seul parcours par type et par sous-structure.
+ */
+public class ComplianceMatrix {
+
+    private static final String SUBTREE_END = "\uffff";
+
+    private final List<DocumentType> mandatoryTypes;
+    private final int mandatoryMask;
+    private final boolean requireVerified;
+
+    private final List<ComplianceAgent> agents;
+    private final String[] paths;
+    private final Map<Long, Integer> rowById;
+    private final int[] present;
+    private final int[] valid;
+    private final int[] verified;
+
+    /**
+     * @param requireVerified un document non vérifié ne rend pas l'agent conforme
+     */
+    public ComplianceMatrix(List<ComplianceAgent> agents, Collection<DocumentType> mandatoryTypes, boolean requireVerified) {
+        this.mandatoryTypes = mandatoryTypes.stream().distinct().sorted().toList();
+        this.mandatoryMask = this.mandatoryTypes.stream().mapToInt(ComplianceMatrix::bit).reduce(0, (a, b) -> a | b);
+        this.requireVerified = requireVerified;
+
+        List<ComplianceAgent> sorted = new ArrayList<>(agents);
+        sorted.sort(Comparator.comparing((ComplianceAgent agent) -> path(agent.getStructurePath()))
+                .thenComparing(ComplianceAgent::getPersonnelId));
+        this.agents = List.copyOf(sorted);
+        this.paths = new String[sorted.size()];
+        this.rowById = new HashMap<>(sorted.size() * 2);
+        for (int row = 0; row < sorted.size(); row++) {
+            paths[row] = path(sorted.get(row).getStructurePath());
+            rowById.put(sorted.get(row).getPersonnelId(), row);
+        }
+        this.present = new int[sorted.size()];
+        this.valid = new int[sorted.size()];
+        this.verified = new int[sorted.size()];
+    }
+
+    public static int bit(DocumentType type) {
+        return 1 << type.ordinal();
+    }
+
+    public int agentCount() {
+        return agents.size();
+    }
+
+    public boolean contains(Long personnelId) {
+        return rowById.containsKey(personnelId);
+    }
+
+    /**
+     * Enregistre un document d'un agent ; un document expiré la veille de today ne compte que comme présent
+     */
+    public void record(Long personnelId, DocumentType type, LocalDate expiryDate, boolean isVerified, LocalDate today) {
+        Integer row = rowById.get(personnelId);
+        if (row == null || type == null) {
+            return;
+        }
+        int bit = bit(type);
+        present[row] |= bit;
+        if (expiryDate == null || !expiryDate.isBefore(today)) {
+            valid[row] |= bit;
+            if (isVerified) {
+                verified[row] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Efface les documents d'un agent avant de les réenregistrer
+     */
+    public void clear(Long personnelId) {
+        Integer row = rowById.get(personnelId);
+        if (row != null) {
+            present[row] = 0;
+            valid[row] = 0;
+            verified[row] = 0;
+        }
+    }
+
+    public DocumentStatus status(Long personnelId, DocumentType type) {
+        Integer row = rowById.get(personnelId);
+        return row == null ? DocumentStatus.MISSING : status(row, bit(type));
+    }
+
+    public boolean isCompliant(Long personnelId) {
+        Integer row = rowById.get(personnelId);
+        return row != null && isCompliant(row);
+    }
+
+    /**
+     * Conformité du sous-arbre d'une structure (tous les agents si le chemin est null)
+     */
+    public ComplianceReport report(String structurePath) {
+        String prefix = path(structurePath);
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + SUBTREE_END);
+
+        int[][] byType = new int[mandatoryTypes.size()][DocumentStatus.values().length];
+        Map<String, int[]> byGroup = new LinkedHashMap<>();
+        int compliant = 0;
+        for (int row = from; row < to; row++) {
+            boolean agentCompliant = isCompliant(row);
+            if (agentCompliant) {
+                compliant++;
+            }
+            for (int t = 0; t < mandatoryTypes.size(); t++) {
+                byType[t][status(row, bit(mandatoryTypes.get(t))).ordinal()]++;
+            }
+            int[] group = byGroup.computeIfAbsent(groupPath(prefix, paths[row]), key -> new int[2]);
+            group[0]++;
+            if (agentCompliant) {
+                group[1]++;
+            }
+        }
+
+        List<ComplianceReport.TypeCompliance> types = new ArrayList<>(mandatoryTypes.size());
+        for (int t = 0; t < mandatoryTypes.size(); t++) {
+            int[] counts = byType[t];
+            types.add(new ComplianceReport.TypeCompliance(mandatoryTypes.get(t),
+                    counts[DocumentStatus.OK.ordinal()], counts[DocumentStatus.UNVERIFIED.ordinal()],
+                    counts[DocumentStatus.EXPIRED.ordinal()], counts[DocumentStatus.MISSING.ordinal()]));
+        }
+        List<ComplianceReport.GroupCompliance> groups = new ArrayList<>(byGroup.size());
+        byGroup.forEach((path, counts) -> groups.add(new ComplianceReport.GroupCompliance(path, counts[0], counts[1])));
+        return new ComplianceReport(structurePath, to - from, compliant, types, groups);
+    }
+
+    /**
+     * Agents non conformes du sous-arbre, dans l'ordre des structures ; pour un type donné,
+     * les agents dont ce type n'est pas conforme
+     */
+    public List<AgentCompliance> nonCompliant(String structurePath, DocumentType type, int limit) {
+        String prefix = path(structurePath);
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + SUBTREE_END);
+
+        List<AgentCompliance> result = new ArrayList<>();
+        for (int row = from; row < to && result.size() < limit; row++) {
+            boolean matches = type != null
+                    ? !typeCompliant(row, bit(type))
+                    : !isCompliant(row);
+            if (matches) {
+                result.add(describe(row));
+            }
+        }
+        return result;
+    }
+
+    private AgentCompliance describe(int row) {
+        List<DocumentType> missing = new ArrayList<>();
+        List<DocumentType> expired = new ArrayList<>();
+        List<DocumentType> unverified = new ArrayList<>();
+        for (DocumentType type : mandatoryTypes) {
+            switch (status(row, bit(type))) {
+                case MISSING -> missing.add(type);
+                case EXPIRED -> expired.add(type);
+                case UNVERIFIED -> unverified.add(type);
+                default -> {
+                }
+            }
+        }
+        return new AgentCompliance(agents.get(row), missing, expired, unverified);
+    }
+
+    private boolean isCompliant(int row) {
+        int satisfied = requireVerified ? verified[row] : valid[row];
+        return (satisfied & mandatoryMask) == mandatoryMask;
+    }
+
+    private boolean typeCompliant(int row, int bit) {
+        return ((requireVerified ? verified[row] : valid[row]) & bit) != 0;
+    }
+
+    private DocumentStatus status(int row, int bit) {
+        if ((verified[row] & bit) != 0) {
+            return DocumentStatus.OK;
+        }
+        if ((valid[row] & bit) != 0) {
+            return DocumentStatus.UNVERIFIED;
+        }
+        if ((present[row] & bit) != 0) {
+            return DocumentStatus.EXPIRED;
+        }
+        return DocumentStatus.MISSING;
+    }
+
+    /**
+     * Sous-structure directe du préfixe contenant le chemin, ou le préfixe lui-même
+     */
+    private static String groupPath(String prefix, String path) {
+        int start = Math.max(prefix.length(), 1);
+        int end = path.indexOf('/', start);
+        return path.length() <= prefix.length() || end < 0 ? path : path.substring(0, end + 1);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = paths.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (paths[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String path(String structurePath) {
+        return structurePath != null ? structurePath : "";
+    }
+}
@@ -0,0 +1,36 @@
+package com.hrms.compliance;
+
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Conformité documentaire d'un sous-arbre de structures : global, par type obligatoire et par
+ * sous-structure directe (les agents rattachés à la structure elle-même forment leur propre groupe)
+ */
+@Value
+public class ComplianceReport {
+
+    String structurePath;
+    int agentCount;
+    int compliantCount;
+    List<TypeCompliance> types;
+    List<GroupCompliance> groups;
+
+    @Value
+    public static class TypeCompliance {
+        DocumentType documentType;
+        int ok;
+        int unverified;
+        int expired;
+        int missing;
+    }
+
+    @Value
+    public static class GroupCompliance {
+        String structurePath;
+        int agentCount;
+        int compliantCount;
+    }
+}
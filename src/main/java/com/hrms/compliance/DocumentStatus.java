@@ -0,0 +1,11 @@
+package com.hrms.compliance;
+
+/**
+ * État d'un type de document obligatoire pour un agent
+ */
+public enum DocumentStatus {
+    OK,          // Document en cours de validité et vérifié
+    UNVERIFIED,  // Document en cours de validité, non vérifié
+    EXPIRED,     // Document(s) présent(s), tous expirés
+    MISSING      // Aucun document de ce type
+}
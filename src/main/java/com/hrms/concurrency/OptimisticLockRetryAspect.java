@@ -0,0 +1,116 @@
+package com.hrms.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replays {@link RetryOnConflict} operations whose transaction failed on an optimistic lock.
+ *
+ * Ordered before the transaction interceptor so that each attempt runs in a fresh transaction
+ * and persistence context. Conflicts are counted per entity and operation
+ * (hrms.optimistic-lock.conflicts, outcome retried / exhausted / propagated) and operations that
+ * succeed after a retry are counted in hrms.optimistic-lock.recovered. When attempts are
+ * exhausted the last exception is rethrown and mapped to 409 by the GlobalExceptionHandler.
+ */
+@Slf4j
+@Aspect
+@Component
+// Before the transaction interceptor, but after Spring's ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1)
+// which the @annotation binding of the advice needs
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class OptimisticLockRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxAttempts;
+    private final RetryBackoff backoff;
+
+    public OptimisticLockRetryAspect(MeterRegistry meterRegistry,
+                                     @Value("${hrms.concurrency.retry.max-attempts:4}") int defaultMaxAttempts,
+                                     @Value("${hrms.concurrency.retry.initial-delay-ms:20}") long initialDelayMs,
+                                     @Value("${hrms.concurrency.retry.max-delay-ms:500}") long maxDelayMs,
+                                     @Value("${hrms.concurrency.retry.multiplier:2.0}") double multiplier) {
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxAttempts = Math.max(defaultMaxAttempts, 1);
+        this.backoff = new RetryBackoff(initialDelayMs, maxDelayMs, multiplier);
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+
+        // Inside a caller's transaction the persistence context is already stale: let the caller decide
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                count(e, operation, "propagated");
+                throw e;
+            }
+        }
+
+        int maxAttempts = retryOnConflict.maxAttempts() > 0 ? retryOnConflict.maxAttempts() : defaultMaxAttempts;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    Counter.builder("hrms.optimistic-lock.recovered")
+                            .description("Operations that succeeded after an optimistic lock retry")
+                            .tag("operation", operation)
+                            .register(meterRegistry)
+                            .increment();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    count(e, operation, "exhausted");
+                    log.warn("Optimistic lock conflict on {} in {}: giving up after {} attempts",
+                            entityName(e), operation, attempt);
+                    throw e;
+                }
+                count(e, operation, "retried");
+                long delay = backoff.delay(attempt, ThreadLocalRandom.current().nextDouble());
+                log.debug("Optimistic lock conflict on {} in {} (attempt {}/{}), retrying in {} ms",
+                        entityName(e), operation, attempt, maxAttempts, delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void count(OptimisticLockingFailureException e, String operation, String outcome) {
+        Counter.builder("hrms.optimistic-lock.conflicts")
+                .description("Optimistic lock failures of retryable operations")
+                .tag("entity", entityName(e))
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String entityName(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure
+                && objectFailure.getPersistentClassName() != null) {
+            String className = objectFailure.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,38 @@
+package com.hrms.concurrency;
+
+/**
+ * Exponential backoff with jitter between two attempts of a conflicting transaction.
+ *
+ * The ceiling doubles (by multiplier) on each retry up to maxDelayMs; the actual delay is drawn
+ * in [ceiling / 2, ceiling] so that concurrent writers of the same row do not retry in lockstep
+ * while still waiting long enough for the winning transaction to commit.
+ */
+public class RetryBackoff {
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final double multiplier;
+
+    public RetryBackoff(long initialDelayMs, long maxDelayMs, double multiplier) {
+        this.initialDelayMs = Math.max(initialDelayMs, 1);
+        this.maxDelayMs = Math.max(maxDelayMs, this.initialDelayMs);
+        this.multiplier = Math.max(multiplier, 1.0);
+    }
+
+    /**
+     * Upper bound of the delay before the given retry (1 for the first retry)
+     */
+    public long ceiling(int retry) {
+        double ceiling = initialDelayMs * Math.pow(multiplier, Math.max(retry - 1, 0));
+        return (long) Math.min(ceiling, maxDelayMs);
+    }
+
+    /**
+     * Delay before the given retry, random being uniform in [0, 1)
+     */
+    public long delay(int retry, double random) {
+        long ceiling = ceiling(retry);
+        long half = ceiling / 2;
+        return half + (long) ((ceiling - half) * random);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hrms.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation as safe to replay when its transaction fails on an optimistic lock.
+ *
+ * The operation must re-read and re-validate everything it changes (no client-supplied state
+ * written blindly) and have no side effect outside the database transaction. Retries only
+ * happen at the outermost transactional boundary: when called inside an existing transaction
+ * the conflict is propagated to the caller.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+    /**
+     * Maximum number of attempts including the first one, 0 for hrms.concurrency.retry.max-attempts
+     */
+    int maxAttempts() default 0;
+}
@@ -0,0 +1,36 @@
+package com.hrms.config;
+
+import com.hrms.events.OutboxChangeCapture;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Change capture configuration.
+ * Appends the outbox capture to Hibernate's post-insert, post-update and post-delete listeners
+ * so every flushed change of a tracked entity is recorded in the transactional outbox.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ChangeCaptureConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final OutboxChangeCapture outboxChangeCapture;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, outboxChangeCapture);
+        registry.appendListeners(EventType.POST_UPDATE, outboxChangeCapture);
+        registry.appendListeners(EventType.POST_DELETE, outboxChangeCapture);
+        log.info("Outbox change capture registered on Hibernate post-insert/update/delete events");
+    }
+}
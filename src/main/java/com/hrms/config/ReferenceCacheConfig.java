@@ -0,0 +1,51 @@
+package com.hrms.config;
+
+import com.hrms.service.ReferenceCacheService;
+import com.hrms.tenant.TenantConnectionProvider;
+import com.hrms.tenant.TenantIdentifierResolver;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Second-level cache configuration for reference entities.
+ * With multi-tenancy enabled, Hibernate is given a multi-tenant connection provider so cache
+ * keys carry the tenant (the routing DataSource still picks the pool). When cluster
+ * invalidation is enabled, evictions published by other instances are received on Redis.
+ */
+@Configuration
+public class ReferenceCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hrms.multi-tenant", name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer tenantAwareHibernateCustomizer(
+            DataSource dataSource,
+            @Value("${hrms.multi-tenant.default-tenant}") String defaultTenant) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, new TenantConnectionProvider(dataSource));
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver(defaultTenant));
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hrms.reference-cache", name = "cluster-invalidation", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer referenceCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         ReferenceCacheService referenceCacheService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> referenceCacheService.onRemoteInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ReferenceCacheService.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hrms.config;
+
+import com.hrms.dto.ReferenceCacheRegionDTO;
+import com.hrms.service.ReferenceCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Actuator endpoint for the reference entities second-level cache.
+ * GET /actuator/referencecache reports per-region statistics;
+ * DELETE /actuator/referencecache?types=Region,Grade evicts the given types on every instance
+ * (all reference types when omitted), e.g. after a change made outside the application.
+ */
+@Component
+@Endpoint(id = "referencecache")
+@RequiredArgsConstructor
+public class ReferenceCacheEndpoint {
+
+    private final ReferenceCacheService referenceCacheService;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        List<ReferenceCacheRegionDTO> regions = referenceCacheService.regionStatistics();
+        long hits = regions.stream().mapToLong(ReferenceCacheRegionDTO::getHitCount).sum();
+        long misses = regions.stream().mapToLong(ReferenceCacheRegionDTO::getMissCount).sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", hits);
+        result.put("missCount", misses);
+        result.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        result.put("regions", regions);
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> evict(@Nullable String types) {
+        Set<String> evicted = referenceCacheService.evict(
+                types == null ? List.of() : Arrays.stream(types.split(",")).map(String::trim).toList());
+        return Map.of("evicted", evicted);
+    }
+}
@@ -0,0 +1,118 @@
+package com.hrms.config;
+
+import com.hrms.datasource.ReplicaProperties;
+import com.hrms.datasource.ReplicaRoutingDataSource;
+import com.hrms.tenant.TenantProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read replica configuration.
+ * Wraps the primary "dataSource" bean (single pool or tenant routing) so that
+ * read-only transactions are served by the replicas declared in hrms.read-replica.replicas.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "hrms.read-replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor replicaDataSourcePostProcessor() {
+        return new ReplicaDataSourcePostProcessor();
+    }
+
+    static class ReplicaDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                return bean;
+            }
+
+            Binder binder = Binder.get(environment);
+            ReplicaProperties properties = binder.bind("hrms.read-replica", ReplicaProperties.class)
+                    .orElseGet(ReplicaProperties::new);
+            TenantProperties tenantProperties = binder.bind("hrms.multi-tenant", TenantProperties.class)
+                    .orElseGet(TenantProperties::new);
+
+            if (properties.getReplicas().isEmpty()) {
+                log.warn("Read replica routing enabled but no replica declared");
+                return bean;
+            }
+            if (tenantProperties.isEnabled() && "DATABASE".equalsIgnoreCase(tenantProperties.getStrategy())) {
+                log.warn("Read replica routing is not supported with the DATABASE tenant strategy, reads stay on primary");
+                return bean;
+            }
+
+            List<ReplicaRoutingDataSource.ReplicaPool> replicas = new ArrayList<>();
+            for (ReplicaProperties.Replica replica : properties.getReplicas()) {
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName("replica-" + replica.getName());
+                pool.setJdbcUrl(replica.getUrl());
+                pool.setUsername(replica.getUsername());
+                pool.setPassword(replica.getPassword());
+                pool.setMaximumPoolSize(replica.getMaxPoolSize());
+                pool.setReadOnly(true);
+                replicas.add(new ReplicaRoutingDataSource.ReplicaPool(replica.getName(), pool));
+            }
+
+            // Schéma par tenant sur les connexions réplica
+            Function<String, String> schemaResolver = tenantProperties.isEnabled() ? tenantProperties::schemaFor : null;
+
+            ReplicaRoutingDataSource routing =
+                    new ReplicaRoutingDataSource(primary, replicas, properties, schemaResolver,
+                            tenantProperties.getDefaultTenant());
+            log.info("Read-only transactions routed to {} replica(s)", replicas.size());
+            return new ReplicaAwareDataSourceProxy(routing, primary);
+        }
+    }
+
+    /**
+     * Lazy proxy: the physical connection is obtained on first statement, once the
+     * transaction read-only flag is known. Closes replicas and primary on shutdown.
+     */
+    static class ReplicaAwareDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final ReplicaRoutingDataSource routing;
+        private final DataSource primary;
+
+        ReplicaAwareDataSourceProxy(ReplicaRoutingDataSource routing, DataSource primary) {
+            super(routing);
+            this.routing = routing;
+            this.primary = primary;
+        }
+
+        @Override
+        public void close() {
+            routing.close();
+            if (primary instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Error closing primary data source: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
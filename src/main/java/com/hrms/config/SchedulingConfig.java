@@ -0,0 +1,44 @@
+package com.hrms.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Scheduled task configuration.
+ * Scheduled jobs run on a dedicated pool instead of Spring's single default thread, so the
+ * change bus dispatch keeps its cadence while a nightly rebuild or reconciliation is running.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    @Value("${hrms.scheduling.pool-size:4}")
+    private int poolSize;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler);
+    }
+
+    // Not a bean: a TaskScheduler is also an Executor and would replace the @Async default executor
+    @PostConstruct
+    void initTaskScheduler() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(poolSize);
+        taskScheduler.setThreadNamePrefix("scheduling-");
+        taskScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        taskScheduler.setAwaitTerminationSeconds(30);
+        taskScheduler.initialize();
+    }
+
+    @PreDestroy
+    void shutdownTaskScheduler() {
+        taskScheduler.shutdown();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hrms.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names implicit id sequences after the entity table: positions -> positions_seq.
+ *
+ * Registered through hibernate.id.db_structure_naming_strategy so that every entity using
+ * GenerationType.SEQUENCE without an explicit generator gets its own pooled sequence, matching
+ * the sequences created by Liquibase (changelog 027). Hibernate's default would derive the name
+ * from the entity class (AdministrativeStructure_SEQ) instead.
+ */
+public class TableSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    public static final String SUFFIX = "_seq";
+
+    private final StandardNamingStrategy standard = new StandardNamingStrategy();
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (table == null || table.isBlank()) {
+            return standard.determineSequenceName(catalogName, schemaName, configValues, serviceRegistry);
+        }
+        String tableName = table.substring(table.lastIndexOf('.') + 1);
+        if (Identifier.isQuoted(tableName)) {
+            tableName = Identifier.unQuote(tableName);
+        }
+        Identifier sequenceName = serviceRegistry.getService(JdbcEnvironment.class)
+                .getIdentifierHelper()
+                .toIdentifier(tableName + SUFFIX);
+        return new QualifiedSequenceName(catalogName, schemaName, sequenceName);
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return standard.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+}
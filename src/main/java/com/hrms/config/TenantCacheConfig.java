@@ -0,0 +1,30 @@
+package com.hrms.config;
+
+import com.hrms.tenant.TenantAwareKeyGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache configuration.
+ * Default cache keys are tenant-aware; caches declaring an explicit SpEL key
+ * must include the tenant themselves (e.g. via the tenantKeyGenerator bean).
+ */
+@Configuration
+public class TenantCacheConfig implements CachingConfigurer {
+
+    @Value("${hrms.multi-tenant.default-tenant}")
+    private String defaultTenant;
+
+    @Override
+    public KeyGenerator keyGenerator() {
+        return tenantKeyGenerator();
+    }
+
+    @Bean
+    public TenantAwareKeyGenerator tenantKeyGenerator() {
+        return new TenantAwareKeyGenerator(defaultTenant);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hrms.config;
+
+import com.hrms.tenant.TenantProperties;
+import com.hrms.tenant.TenantRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-tenant DataSource configuration.
+ * Builds one Hikari pool per declared tenant (quota = hrms.multi-tenant.tenants.*.max-pool-size)
+ * and exposes them behind a {@link TenantRoutingDataSource}.
+ * With the SCHEMA strategy the pool sets the tenant schema on every connection it hands out.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+@ConditionalOnProperty(prefix = "hrms.multi-tenant", name = "enabled", havingValue = "true")
+public class TenantDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 TenantProperties tenantProperties,
+                                 MeterRegistry meterRegistry) {
+        Set<String> tenantIds = new LinkedHashSet<>();
+        tenantIds.add(tenantProperties.getDefaultTenant());
+        tenantIds.addAll(tenantProperties.getTenants().keySet());
+
+        Map<Object, Object> pools = new HashMap<>();
+        for (String tenantId : tenantIds) {
+            pools.put(tenantId, createTenantPool(tenantId, dataSourceProperties, tenantProperties, meterRegistry));
+        }
+
+        TenantRoutingDataSource routingDataSource =
+                new TenantRoutingDataSource(tenantProperties.getDefaultTenant(), meterRegistry);
+        routingDataSource.setTargetDataSources(pools);
+        routingDataSource.setDefaultTargetDataSource(pools.get(tenantProperties.getDefaultTenant()));
+        routingDataSource.afterPropertiesSet();
+
+        log.info("Multi-tenant routing enabled ({} strategy) for tenants {}", tenantProperties.getStrategy(), tenantIds);
+        return routingDataSource;
+    }
+
+    private HikariDataSource createTenantPool(String tenantId,
+                                              DataSourceProperties dataSourceProperties,
+                                              TenantProperties tenantProperties,
+                                              MeterRegistry meterRegistry) {
+        TenantProperties.TenantConfig tenantConfig = tenantProperties.getTenants().get(tenantId);
+        boolean databaseStrategy = "DATABASE".equalsIgnoreCase(tenantProperties.getStrategy())
+                && tenantConfig != null && tenantConfig.getUrl() != null;
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("tenant-" + tenantId);
+        pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        if (databaseStrategy) {
+            pool.setJdbcUrl(tenantConfig.getUrl());
+            pool.setUsername(tenantConfig.getUsername() != null ? tenantConfig.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(tenantConfig.getPassword() != null ? tenantConfig.getPassword() : dataSourceProperties.determinePassword());
+        } else {
+            pool.setJdbcUrl(dataSourceProperties.determineUrl());
+            pool.setUsername(dataSourceProperties.determineUsername());
+            pool.setPassword(dataSourceProperties.determinePassword());
+            // Changement de schéma à chaque prise de connexion
+            pool.setSchema(tenantProperties.schemaFor(tenantId));
+        }
+
+        int maxPoolSize = tenantProperties.maxPoolSizeFor(tenantId);
+        pool.setMaximumPoolSize(maxPoolSize);
+        pool.setMinimumIdle(Math.min(tenantProperties.getMinIdle(), maxPoolSize));
+        pool.setConnectionTimeout(tenantProperties.getConnectionTimeout());
+        // Métriques hikaricp.* étiquetées pool=tenant-<id>
+        pool.setMetricRegistry(meterRegistry);
+
+        log.info("Tenant pool {} created (max {} connections)", pool.getPoolName(), maxPoolSize);
+        return pool;
+    }
+}
@@ -1,20 +1,41 @@
 package com.hrms.config;
 
+import com.hrms.tenant.TenantAwareTaskDecorator;
 import com.hrms.tenant.TenantInterceptor;
+import com.hrms.versioning.DataVersionInterceptor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Web MVC configuration.
  * Registers interceptors and other web-related configurations.
+ * Conditional GETs on data-versioned endpoints are answered after the tenant is resolved.
+ * Asynchronous responses (NDJSON streams) run on a bounded pool that carries the request tenant.
  */
 @Configuration
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final TenantInterceptor tenantInterceptor;
+    private final DataVersionInterceptor dataVersionInterceptor;
+
+    @Value("${hrms.streaming.max-concurrency:4}")
+    private int streamingMaxConcurrency;
+
+    @Value("${hrms.streaming.queue-capacity:20}")
+    private int streamingQueueCapacity;
+
+    @Value("${hrms.streaming.timeout-ms:600000}")
+    private long streamingTimeoutMs;
+
+    private ThreadPoolTaskExecutor streamingExecutor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
@@ -27,5 +48,31 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         "/swagger-ui/**",
                         "/swagger-ui.html"
                 );
+        // Après le tenant : les versions des données sont propres à chaque tenant
+        registry.addInterceptor(dataVersionInterceptor)
+                .addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(streamingTimeoutMs);
+    }
+
+    // Not a bean: a second Executor bean would replace the @Async default executor
+    @PostConstruct
+    void initStreamingExecutor() {
+        streamingExecutor = new ThreadPoolTaskExecutor();
+        streamingExecutor.setCorePoolSize(streamingMaxConcurrency);
+        streamingExecutor.setMaxPoolSize(streamingMaxConcurrency);
+        streamingExecutor.setQueueCapacity(streamingQueueCapacity);
+        streamingExecutor.setThreadNamePrefix("stream-");
+        streamingExecutor.setTaskDecorator(new TenantAwareTaskDecorator());
+        streamingExecutor.initialize();
+    }
+
+    @PreDestroy
+    void shutdownStreamingExecutor() {
+        streamingExecutor.shutdown();
     }
 }
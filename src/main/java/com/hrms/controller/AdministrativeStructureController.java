@@ -131,6 +131,13 @@ public class AdministrativeStructureController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/{id}/subtree-statistics")
+    @Operation(summary = "Obtenir les statistiques d'une structure et de toutes ses sous-structures")
+    public ResponseEntity<Map<String, Object>> getSubtreeStatistics(@PathVariable Long id) {
+        Map<String, Object> stats = structureService.getSubtreeStatistics(id);
+        return ResponseEntity.ok(stats);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Supprimer une structure (soft delete)")
     public ResponseEntity<Void> deleteStructure(@PathVariable Long id) {
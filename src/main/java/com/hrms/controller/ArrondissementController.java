@@ -4,11 +4,15 @@ import com.hrms.dto.ArrondissementDTO;
 import com.hrms.dto.GeographicStatisticsDTO;
 import com.hrms.service.GeographicService;
 import com.hrms.service.GeographicStatisticsService;
+import com.hrms.util.NdjsonStreamer;
+import com.hrms.versioning.DataVersioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,6 +20,7 @@ import java.util.List;
  * Contrôleur REST pour la gestion des arrondissements géographiques
  */
 @RestController
+@DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure"})
 @RequestMapping("/api/geography/arrondissements")
 @RequiredArgsConstructor
 @Tag(name = "Geography - Arrondissements", description = "API de consultation des arrondissements géographiques du Cameroun")
@@ -24,6 +29,7 @@ public class ArrondissementController {
 
     private final GeographicService geographicService;
     private final GeographicStatisticsService statisticsService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @GetMapping
     @Operation(summary = "Obtenir tous les arrondissements actifs", 
@@ -44,6 +50,23 @@ public class ArrondissementController {
         return ResponseEntity.ok(arrondissements);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Arrondissements actifs en flux NDJSON (Accept: application/x-ndjson)",
+               description = "Un arrondissement par ligne, écrit au fur et à mesure de la lecture")
+    public ResponseEntity<StreamingResponseBody> streamAllArrondissements(
+            @RequestParam(required = false) Long regionId,
+            @RequestParam(required = false) Long departmentId) {
+        if (regionId != null) {
+            return ndjsonStreamer.stream("arrondissements de la région " + regionId,
+                    () -> geographicService.streamArrondissementsByRegionId(regionId));
+        }
+        if (departmentId != null) {
+            return ndjsonStreamer.stream("arrondissements du département " + departmentId,
+                    () -> geographicService.streamArrondissementsByDepartmentId(departmentId));
+        }
+        return ndjsonStreamer.stream("arrondissements", geographicService::streamAllArrondissements);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtenir un arrondissement par ID", 
                description = "Retourne les détails d'un arrondissement avec ses informations de département et région")
@@ -69,6 +92,7 @@ public class ArrondissementController {
         return ResponseEntity.ok(arrondissements);
     }
 
+    @DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure", "Personnel"})
     @GetMapping("/{id}/statistics")
     @Operation(summary = "Obtenir les statistiques d'un arrondissement", 
                description = "Retourne les statistiques détaillées d'un arrondissement (nombre de personnel)")
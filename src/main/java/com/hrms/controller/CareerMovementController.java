@@ -1,10 +1,13 @@
 package com.hrms.controller;
 
+import com.hrms.dto.CareerMovementBatchRequestDTO;
+import com.hrms.dto.CareerMovementBatchResultDTO;
 import com.hrms.dto.CareerMovementCreateDTO;
 import com.hrms.dto.CareerMovementDTO;
 import com.hrms.dto.CareerMovementUpdateDTO;
 import com.hrms.dto.GlobalMovementStatisticsDTO;
 import com.hrms.dto.StructureMovementStatisticsDTO;
+import com.hrms.service.CareerMovementBatchService;
 import com.hrms.service.CareerMovementService;
 import com.hrms.service.CareerMovementStatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +33,7 @@ public class CareerMovementController {
 
     private final CareerMovementService careerMovementService;
     private final CareerMovementStatisticsService statisticsService;
+    private final CareerMovementBatchService batchService;
 
     @PostMapping
     @Operation(summary = "Créer un mouvement de carrière")
@@ -103,6 +107,13 @@ public class CareerMovementController {
         return ResponseEntity.ok(executed);
     }
 
+    @PostMapping("/batch-execution")
+    @Operation(summary = "Exécuter en lot les mouvements approuvés d'une date d'effet ou d'une décision")
+    public ResponseEntity<CareerMovementBatchResultDTO> executeBatch(
+            @Valid @RequestBody CareerMovementBatchRequestDTO request) {
+        return ResponseEntity.ok(batchService.executeBatch(request));
+    }
+
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Annuler un mouvement de carrière")
     public ResponseEntity<CareerMovementDTO> cancelMovement(@PathVariable Long id) {
@@ -3,6 +3,7 @@ package com.hrms.controller;
 import com.hrms.dto.CartographyDTO;
 import com.hrms.dto.CartographyFilterDTO;
 import com.hrms.service.CartographyService;
+import com.hrms.versioning.DataVersioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@DataVersioned({"AdministrativeStructure", "Position", "Personnel", "Grade", "CorpsMetier"})
 @RequestMapping("/api/cartography")
 @RequiredArgsConstructor
 @Tag(name = "Cartographie", description = "API de cartographie des personnels par structure et poste")
@@ -4,6 +4,7 @@ import com.hrms.dto.DepartmentDTO;
 import com.hrms.dto.GeographicStatisticsDTO;
 import com.hrms.service.GeographicService;
 import com.hrms.service.GeographicStatisticsService;
+import com.hrms.versioning.DataVersioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import java.util.List;
  * Contrôleur REST pour la gestion des départements géographiques
  */
 @RestController
+@DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure"})
 @RequestMapping("/api/geography/departments")
 @RequiredArgsConstructor
 @Tag(name = "Geography - Departments", description = "API de consultation des départements géographiques du Cameroun")
@@ -82,6 +84,7 @@ public class DepartmentController {
         return ResponseEntity.ok(arrondissements);
     }
 
+    @DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure", "Personnel"})
     @GetMapping("/{id}/statistics")
     @Operation(summary = "Obtenir les statistiques d'un département", 
                description = "Retourne les statistiques détaillées d'un département (nombre d'arrondissements, personnel)")
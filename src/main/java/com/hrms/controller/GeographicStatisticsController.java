@@ -2,6 +2,7 @@ package com.hrms.controller;
 
 import com.hrms.dto.GeographicStatisticsDTO;
 import com.hrms.service.GeographicStatisticsService;
+import com.hrms.versioning.DataVersioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
  * Contrôleur REST pour les statistiques géographiques
  */
 @RestController
+@DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure", "Personnel"})
 @RequestMapping("/api/geography/statistics")
 @RequiredArgsConstructor
 @Tag(name = "Geography - Statistics", description = "API de statistiques géographiques")
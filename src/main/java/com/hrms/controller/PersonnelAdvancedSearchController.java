@@ -1,8 +1,12 @@
 package com.hrms.controller;
 
 import com.hrms.dto.PersonnelDTO;
+import com.hrms.dto.PersonnelFacetSearchRequestDTO;
+import com.hrms.dto.PersonnelFacetSearchResultDTO;
 import com.hrms.dto.PersonnelSearchCriteriaDTO;
 import com.hrms.service.PersonnelAdvancedSearchService;
+import com.hrms.service.PersonnelFacetService;
+import com.hrms.util.NdjsonStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,8 +15,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +33,8 @@ import java.util.List;
 public class PersonnelAdvancedSearchController {
 
     private final PersonnelAdvancedSearchService searchService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final PersonnelFacetService facetService;
 
     /**
      * Recherche avancée multi-critères (paginée)
@@ -51,6 +59,16 @@ public class PersonnelAdvancedSearchController {
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * Recherche avancée - tous les résultats en flux (Accept: application/x-ndjson)
+     */
+    @PostMapping(value = "/advanced/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Recherche avancée - tous les résultats en flux NDJSON, un personnel par ligne")
+    public ResponseEntity<StreamingResponseBody> streamAdvancedSearchAll(
+            @Valid @RequestBody PersonnelSearchCriteriaDTO criteria) {
+        return ndjsonStreamer.stream("recherche avancée", () -> searchService.streamAdvancedSearch(criteria));
+    }
+
     /**
      * Compter les résultats d'une recherche (sans récupérer les données)
      */
@@ -62,6 +80,16 @@ public class PersonnelAdvancedSearchController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * Recherche à facettes : identifiants des agents et effectifs de chaque facette en un appel
+     */
+    @PostMapping("/facets")
+    @Operation(summary = "Recherche à facettes (grade, corps, structure, région, statut, sexe) avec effectifs par valeur")
+    public ResponseEntity<PersonnelFacetSearchResultDTO> facetSearch(
+            @Valid @RequestBody PersonnelFacetSearchRequestDTO request) {
+        return ResponseEntity.ok(facetService.search(request));
+    }
+
     /**
      * Recherche rapide par texte (matricule, nom, prénom)
      */
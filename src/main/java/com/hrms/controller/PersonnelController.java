@@ -1,8 +1,10 @@
 package com.hrms.controller;
 
 import com.hrms.dto.*;
+import com.hrms.service.DuplicateDetectionService;
 import com.hrms.service.PersonnelService;
 import com.hrms.service.PersonnelTrainingProfileService;
+import com.hrms.util.NdjsonStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,8 +14,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +32,8 @@ public class PersonnelController {
     private final PersonnelService personnelService;
     private final PersonnelTrainingProfileService trainingProfileService;
     private final com.hrms.service.PersonnelImportService personnelImportService;
+    private final DuplicateDetectionService duplicateDetectionService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @PostMapping
     @Operation(summary = "Créer un nouveau personnel")
@@ -110,6 +116,12 @@ public class PersonnelController {
         return ResponseEntity.ok(results);
     }
 
+    @GetMapping(value = "/retirable/current-year", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Personnels retraitables cette année en flux NDJSON (Accept: application/x-ndjson)")
+    public ResponseEntity<StreamingResponseBody> streamRetirableThisYear() {
+        return ndjsonStreamer.stream("retraitables de l'année", personnelService::streamRetirableThisYear);
+    }
+
     @GetMapping("/retirable/next-year")
     @Operation(summary = "Obtenir les personnels retraitables l'année prochaine")
     public ResponseEntity<List<PersonnelDTO>> getRetirableNextYear() {
@@ -151,6 +163,19 @@ public class PersonnelController {
 
     // ==================== IMPORTATION EN MASSE ====================
 
+    @PostMapping("/duplicates/scan")
+    @Operation(summary = "Rechercher les agents probablement en double sur tout le personnel")
+    public ResponseEntity<DuplicateReportDTO> scanDuplicates(
+            @Valid @RequestBody(required = false) DuplicateScanRequestDTO request) {
+        return ResponseEntity.ok(duplicateDetectionService.scan(request));
+    }
+
+    @GetMapping("/duplicates/report")
+    @Operation(summary = "Dernier rapport de recherche de doublons")
+    public ResponseEntity<DuplicateReportDTO> getDuplicateReport() {
+        return ResponseEntity.ok(duplicateDetectionService.lastReport());
+    }
+
     @PostMapping("/import/excel")
     @Operation(summary = "Importer des personnels depuis un fichier Excel")
     public ResponseEntity<PersonnelImportResultDTO> importFromExcel(
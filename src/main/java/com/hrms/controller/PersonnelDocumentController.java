@@ -1,8 +1,10 @@
 package com.hrms.controller;
 
+import com.hrms.dto.DocumentComplianceDTO;
 import com.hrms.dto.PersonnelDocumentCreateDTO;
 import com.hrms.dto.PersonnelDocumentDTO;
 import com.hrms.entity.PersonnelDocument;
+import com.hrms.service.DocumentComplianceService;
 import com.hrms.service.PersonnelDocumentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,6 +32,7 @@ import java.util.List;
 public class PersonnelDocumentController {
 
     private final PersonnelDocumentService documentService;
+    private final DocumentComplianceService complianceService;
 
     @PostMapping("/upload")
     @Operation(summary = "Télécharger un nouveau document")
@@ -95,12 +98,28 @@ public class PersonnelDocumentController {
     }
 
     @GetMapping("/expiring-soon")
-    @Operation(summary = "Obtenir les documents qui expirent bientôt")
-    public ResponseEntity<List<PersonnelDocumentDTO>> getDocumentsExpiringSoon() {
-        List<PersonnelDocumentDTO> documents = documentService.getDocumentsExpiringSoon();
+    @Operation(summary = "Obtenir les documents qui expirent dans les N prochains jours (30 par défaut)")
+    public ResponseEntity<List<PersonnelDocumentDTO>> getDocumentsExpiringSoon(
+            @RequestParam(defaultValue = "30") int days) {
+        List<PersonnelDocumentDTO> documents = documentService.getDocumentsExpiringWithin(days);
         return ResponseEntity.ok(documents);
     }
 
+    @GetMapping("/compliance")
+    @Operation(summary = "Conformité documentaire d'une structure et de ses sous-structures")
+    public ResponseEntity<DocumentComplianceDTO> getCompliance(@RequestParam(required = false) Long structureId) {
+        return ResponseEntity.ok(complianceService.report(structureId));
+    }
+
+    @GetMapping("/compliance/agents")
+    @Operation(summary = "Agents non conformes d'une structure, éventuellement pour un type de document")
+    public ResponseEntity<List<DocumentComplianceDTO.AgentComplianceDTO>> getNonCompliantAgents(
+            @RequestParam(required = false) Long structureId,
+            @RequestParam(required = false) String documentType,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(complianceService.nonCompliantAgents(structureId, documentType, limit));
+    }
+
     @PostMapping("/{id}/verify")
     @Operation(summary = "Vérifier un document")
     public ResponseEntity<PersonnelDocumentDTO> verifyDocument(@PathVariable Long id) {
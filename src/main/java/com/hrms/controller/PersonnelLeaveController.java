@@ -1,8 +1,10 @@
 package com.hrms.controller;
 
+import com.hrms.dto.LeaveAvailabilityDTO;
 import com.hrms.dto.PersonnelLeaveDTO;
 import com.hrms.dto.PersonnelLeaveCreateDTO;
 import com.hrms.dto.PersonnelLeaveUpdateDTO;
+import com.hrms.service.LeaveCalendarService;
 import com.hrms.service.PersonnelLeaveService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,10 +14,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -26,6 +30,7 @@ import java.util.List;
 public class PersonnelLeaveController {
 
     private final PersonnelLeaveService leaveService;
+    private final LeaveCalendarService leaveCalendarService;
 
     @PostMapping
     @Operation(summary = "Créer une mise en congé")
@@ -82,6 +87,16 @@ public class PersonnelLeaveController {
         return ResponseEntity.ok(leaves);
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Calendrier de disponibilité d'une structure et de ses sous-structures")
+    public ResponseEntity<LeaveAvailabilityDTO> getAvailability(
+            @RequestParam(required = false) Long structureId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> reasons) {
+        return ResponseEntity.ok(leaveCalendarService.availability(structureId, from, to, reasons));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Supprimer une mise en congé (soft delete)")
     public ResponseEntity<Void> deleteLeave(@PathVariable Long id) {
@@ -1,6 +1,9 @@
 package com.hrms.controller;
 
 import com.hrms.dto.*;
+import com.hrms.service.PositionBulkAssignmentService;
+import com.hrms.service.PositionMatchingService;
+import com.hrms.service.PositionOccupancyService;
 import com.hrms.service.PositionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -25,6 +28,9 @@ import java.util.Map;
 public class PositionController {
 
     private final PositionService positionService;
+    private final PositionMatchingService positionMatchingService;
+    private final PositionOccupancyService positionOccupancyService;
+    private final PositionBulkAssignmentService positionBulkAssignmentService;
 
     @PostMapping
     @Operation(summary = "Créer un nouveau poste")
@@ -137,6 +143,38 @@ public class PositionController {
         return ResponseEntity.ok(position);
     }
 
+    @GetMapping("/{positionId}/candidates")
+    @Operation(summary = "Obtenir les agents les mieux adaptés à un poste vacant")
+    public ResponseEntity<List<PositionMatchDTO>> getCandidatesForPosition(
+            @PathVariable Long positionId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(positionMatchingService.getCandidatesForPosition(positionId, limit));
+    }
+
+    @GetMapping("/matching/personnel/{personnelId}")
+    @Operation(summary = "Obtenir les postes vacants les mieux adaptés à un agent")
+    public ResponseEntity<List<PositionMatchDTO>> getPositionsForPersonnel(
+            @PathVariable Long personnelId,
+            @RequestParam(required = false) String rank,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(positionMatchingService.getPositionsForPersonnel(personnelId, rank, limit));
+    }
+
+    @GetMapping("/matching/structure/{structureId}/fill-plan")
+    @Operation(summary = "Proposer un agent pour chaque poste vacant d'une structure et de ses sous-structures")
+    public ResponseEntity<VacancyFillPlanDTO> getFillPlan(
+            @PathVariable Long structureId,
+            @RequestParam(required = false) Integer candidatesPerVacancy) {
+        return ResponseEntity.ok(positionMatchingService.getFillPlan(structureId, candidatesPerVacancy));
+    }
+
+    @PostMapping("/bulk-assignments")
+    @Operation(summary = "Appliquer une vague d'affectations et de libérations de postes")
+    public ResponseEntity<BulkAssignmentResultDTO> applyBulkAssignment(
+            @Valid @RequestBody BulkAssignmentRequestDTO request) {
+        return ResponseEntity.ok(positionBulkAssignmentService.applyBulkAssignment(request));
+    }
+
     @GetMapping("/statistics")
     @Operation(summary = "Obtenir les statistiques des postes")
     public ResponseEntity<Map<String, Object>> getPositionStatistics() {
@@ -144,6 +182,18 @@ public class PositionController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/statistics/structure/{structureId}")
+    @Operation(summary = "Obtenir les compteurs de postes d'une structure et de ses sous-structures")
+    public ResponseEntity<Map<String, Object>> getStructurePositionStatistics(@PathVariable Long structureId) {
+        return ResponseEntity.ok(positionOccupancyService.getStructureCounters(structureId));
+    }
+
+    @PostMapping("/statistics/reconcile")
+    @Operation(summary = "Recalculer les compteurs de postes et corriger les écarts")
+    public ResponseEntity<Map<String, Integer>> reconcilePositionCounters() {
+        return ResponseEntity.ok(Map.of("repairedStructures", positionOccupancyService.reconcile()));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Supprimer un poste (soft delete)")
     public ResponseEntity<Void> deletePosition(@PathVariable Long id) {
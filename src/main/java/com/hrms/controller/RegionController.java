@@ -4,6 +4,7 @@ import com.hrms.dto.GeographicStatisticsDTO;
 import com.hrms.dto.RegionDTO;
 import com.hrms.service.GeographicService;
 import com.hrms.service.GeographicStatisticsService;
+import com.hrms.versioning.DataVersioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import java.util.List;
  * Contrôleur REST pour la gestion des régions géographiques
  */
 @RestController
+@DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure"})
 @RequestMapping("/api/geography/regions")
 @RequiredArgsConstructor
 @Tag(name = "Geography - Regions", description = "API de consultation des régions géographiques du Cameroun")
@@ -76,6 +78,7 @@ public class RegionController {
         return ResponseEntity.ok(departments);
     }
 
+    @DataVersioned({"Region", "Department", "Arrondissement", "AdministrativeStructure", "Personnel"})
     @GetMapping("/{id}/statistics")
     @Operation(summary = "Obtenir les statistiques d'une région", 
                description = "Retourne les statistiques détaillées d'une région (nombre de départements, arrondissements, personnel)")
@@ -3,6 +3,8 @@ package com.hrms.controller;
 import com.hrms.dto.ExportConfigurationDTO;
 import com.hrms.dto.PersonnelSearchDTO;
 import com.hrms.dto.StatisticsDTO;
+import com.hrms.dto.WorkforceCrossTabDTO;
+import com.hrms.dto.WorkforceQueryDTO;
 import com.hrms.entity.Personnel;
 import com.hrms.repository.PersonnelRepository;
 import com.hrms.repository.PositionRepository;
@@ -11,9 +13,12 @@ import com.hrms.service.PersonnelService;
 import com.hrms.service.PersonnelFicheExportService;
 import com.hrms.service.PositionService;
 import com.hrms.service.AdministrativeStructureService;
+import com.hrms.service.DashboardAggregationService;
+import com.hrms.service.WorkforceAnalyticsService;
 import com.itextpdf.text.DocumentException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -26,7 +31,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,6 +49,8 @@ public class ReportController {
     private final ExportService exportService;
     private final PersonnelFicheExportService personnelFicheExportService;
     private final com.hrms.service.PersonnelCustomExportService customExportService;
+    private final DashboardAggregationService dashboardAggregationService;
+    private final WorkforceAnalyticsService workforceAnalyticsService;
 
     /**
      * Get overall statistics
@@ -53,43 +59,16 @@ public class ReportController {
     @Operation(summary = "Obtenir les statistiques globales")
     public ResponseEntity<StatisticsDTO> getStatistics() {
         log.info("Fetching overall statistics");
+        return ResponseEntity.ok(dashboardAggregationService.getDashboardStatistics());
+    }
 
-        StatisticsDTO stats = StatisticsDTO.builder()
-                .totalPersonnel((long) personnelRepository.findAll().size())
-                .retirableThisYear((long) personnelRepository.findRetirableThisYear().size())
-                .retirableNextYear((long) personnelRepository.findRetirableNextYear().size())
-                .build();
-
-        // Get personnel by situation
-        Map<String, Long> bySituation = new HashMap<>();
-        for (Personnel.PersonnelSituation situation : Personnel.PersonnelSituation.values()) {
-            long count = personnelRepository.countBySituationAndDeletedFalse(situation);
-            bySituation.put(situation.name(), count);
-        }
-        stats.setPersonnelBySituation(bySituation);
-
-        // Get personnel by grade
-        Map<String, Long> byGrade = new HashMap<>();
-        personnelRepository.countByGrade().forEach(obj -> {
-            byGrade.put((String) obj[0], (Long) obj[1]);
-        });
-        stats.setPersonnelByGrade(byGrade);
-
-        // Get personnel by corps
-        Map<String, Long> byCorps = new HashMap<>();
-        personnelRepository.countByCorps().forEach(obj -> {
-            byCorps.put((String) obj[0], (Long) obj[1]);
-        });
-        stats.setPersonnelByCorps(byCorps);
-
-        // Get personnel by structure
-        Map<String, Long> byStructure = new HashMap<>();
-        personnelRepository.countByStructure().forEach(obj -> {
-            byStructure.put((String) obj[0], (Long) obj[1]);
-        });
-        stats.setPersonnelByStructure(byStructure);
-
-        return ResponseEntity.ok(stats);
+    /**
+     * Workforce cross-tab computed on the in-memory snapshot
+     */
+    @PostMapping("/workforce/cross-tab")
+    @Operation(summary = "Tableau croisé des effectifs (filtres + regroupement sur une ou deux dimensions)")
+    public ResponseEntity<WorkforceCrossTabDTO> getWorkforceCrossTab(@Valid @RequestBody WorkforceQueryDTO query) {
+        return ResponseEntity.ok(workforceAnalyticsService.crossTab(query));
     }
 
     /**
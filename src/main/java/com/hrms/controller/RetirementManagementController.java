@@ -2,6 +2,7 @@ package com.hrms.controller;
 
 import com.hrms.dto.RetirablePersonnelDTO;
 import com.hrms.service.RetirementManagementService;
+import com.hrms.util.NdjsonStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +10,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +29,7 @@ import java.util.Map;
 public class RetirementManagementController {
 
     private final RetirementManagementService retirementService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     /**
      * Obtenir tous les personnels retraitables (ayant atteint l'âge de la retraite)
@@ -38,6 +42,15 @@ public class RetirementManagementController {
         return ResponseEntity.ok(retirable);
     }
 
+    /**
+     * Tous les personnels retraitables en flux, par date de départ (Accept: application/x-ndjson)
+     */
+    @GetMapping(value = "/retirable", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Tous les personnels retraitables en flux NDJSON, par date de départ")
+    public ResponseEntity<StreamingResponseBody> streamRetirablePersonnel() {
+        return ndjsonStreamer.stream("personnels retraitables", retirementService::streamRetirablePersonnel);
+    }
+
     /**
      * Obtenir les personnels retraitables pour une année spécifique
      */
@@ -55,9 +68,11 @@ public class RetirementManagementController {
     @Operation(summary = "Obtenir les retraites d'une structure pour une année donnée")
     public ResponseEntity<List<RetirablePersonnelDTO>> getRetirablePersonnelByStructureAndYear(
             @PathVariable Long structureId,
-            @PathVariable int year) {
-        List<RetirablePersonnelDTO> retirable = retirementService
-                .getRetirablePersonnelByStructureAndYear(structureId, year);
+            @PathVariable int year,
+            @RequestParam(defaultValue = "false") boolean includeSubStructures) {
+        List<RetirablePersonnelDTO> retirable = includeSubStructures
+                ? retirementService.getRetirablePersonnelBySubtreeAndYear(structureId, year)
+                : retirementService.getRetirablePersonnelByStructureAndYear(structureId, year);
         return ResponseEntity.ok(retirable);
     }
 
@@ -0,0 +1,36 @@
+package com.hrms.controller;
+
+import com.hrms.dto.TemplateInstantiationRequestDTO;
+import com.hrms.dto.TemplateInstantiationResultDTO;
+import com.hrms.service.TemplateInstantiationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/structure-templates")
+@RequiredArgsConstructor
+@Tag(name = "Structure Templates", description = "API d'instanciation des templates organisationnels territoriaux")
+@CrossOrigin(origins = "*")
+public class StructureTemplateController {
+
+    private final TemplateInstantiationService instantiationService;
+
+    @PostMapping("/{templateCode}/instantiate")
+    @Operation(summary = "Instancier un template sur des structures (toutes celles du niveau sans template par défaut)")
+    public ResponseEntity<TemplateInstantiationResultDTO> instantiate(
+            @PathVariable String templateCode,
+            @RequestBody(required = false) TemplateInstantiationRequestDTO request) {
+        return ResponseEntity.ok(instantiationService.instantiate(templateCode, request));
+    }
+
+    @PostMapping("/{templateCode}/resync")
+    @Operation(summary = "Aligner les structures instanciées sur la version courante du template")
+    public ResponseEntity<TemplateInstantiationResultDTO> resync(
+            @PathVariable String templateCode,
+            @RequestBody(required = false) TemplateInstantiationRequestDTO request) {
+        return ResponseEntity.ok(instantiationService.resync(templateCode, request));
+    }
+}
@@ -2,6 +2,7 @@ package com.hrms.controller;
 
 import com.hrms.dto.StructureTreeNodeDTO;
 import com.hrms.service.AdministrativeStructureTreeService;
+import com.hrms.versioning.DataVersioned;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import java.util.List;
  * Contrôleur REST pour la gestion de l'arbre hiérarchique des structures administratives
  */
 @RestController
+@DataVersioned({"AdministrativeStructure", "Region", "Department", "Arrondissement", "Personnel", "Position"})
 @RequestMapping("/api/structures/tree")
 @RequiredArgsConstructor
 @Tag(name = "Arbre des Structures", description = "API de gestion de l'arbre hiérarchique des structures")
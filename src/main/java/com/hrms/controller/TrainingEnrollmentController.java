@@ -56,6 +56,15 @@ public class TrainingEnrollmentController {
         return ResponseEntity.ok(enrollments);
     }
 
+    @PostMapping("/session/{sessionId}/priority-candidates")
+    @Operation(summary = "Inscrire les agents prioritaires (sans formation récente dans le domaine) à une session")
+    public ResponseEntity<List<TrainingEnrollmentDTO>> enrollPriorityCandidates(
+            @PathVariable Long sessionId,
+            @RequestParam(required = false) Integer count) {
+        List<TrainingEnrollmentDTO> enrollments = enrollmentService.enrollPriorityCandidates(sessionId, count);
+        return new ResponseEntity<>(enrollments, HttpStatus.CREATED);
+    }
+
     @GetMapping("/session/{sessionId}/paged")
     @Operation(summary = "Obtenir les inscriptions d'une session (paginé)")
     public ResponseEntity<Page<TrainingEnrollmentDTO>> getEnrollmentsBySession(
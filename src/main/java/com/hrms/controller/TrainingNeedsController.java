@@ -0,0 +1,35 @@
+package com.hrms.controller;
+
+import com.hrms.dto.TrainingGapAnalysisDTO;
+import com.hrms.dto.TrainingGapQueryDTO;
+import com.hrms.service.TrainingNeedsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/training-needs")
+@RequiredArgsConstructor
+@Tag(name = "Besoins de Formation", description = "API d'analyse des besoins de formation des effectifs")
+@CrossOrigin(origins = "*")
+public class TrainingNeedsController {
+
+    private final TrainingNeedsService trainingNeedsService;
+
+    @PostMapping("/gap-analysis")
+    @Operation(summary = "Agents d'une cohorte sans formation récente dans un domaine, par priorité")
+    public ResponseEntity<TrainingGapAnalysisDTO> analyze(@Valid @RequestBody TrainingGapQueryDTO query) {
+        return ResponseEntity.ok(trainingNeedsService.analyze(query));
+    }
+
+    @GetMapping("/sessions/{sessionId}/candidates")
+    @Operation(summary = "Agents prioritaires pour une session (non inscrits, sans formation récente dans le domaine)")
+    public ResponseEntity<TrainingGapAnalysisDTO> candidatesForSession(
+            @PathVariable Long sessionId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(trainingNeedsService.candidatesForSession(sessionId, limit));
+    }
+}
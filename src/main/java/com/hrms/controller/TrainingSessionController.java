@@ -1,8 +1,13 @@
 package com.hrms.controller;
 
+import com.hrms.dto.SessionCompletionRequestDTO;
+import com.hrms.dto.SessionCompletionResultDTO;
+import com.hrms.dto.TrainingPlanValidationRequestDTO;
+import com.hrms.dto.TrainingPlanValidationResultDTO;
 import com.hrms.dto.TrainingSessionCreateDTO;
 import com.hrms.dto.TrainingSessionDTO;
 import com.hrms.dto.TrainingSessionUpdateDTO;
+import com.hrms.service.TrainingScheduleService;
 import com.hrms.service.TrainingSessionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -25,6 +30,7 @@ import java.util.List;
 public class TrainingSessionController {
 
     private final TrainingSessionService sessionService;
+    private final TrainingScheduleService scheduleService;
 
     @PostMapping
     @Operation(summary = "Créer une nouvelle session de formation")
@@ -106,6 +112,14 @@ public class TrainingSessionController {
         return ResponseEntity.ok(session);
     }
 
+    @PostMapping("/{id}/close")
+    @Operation(summary = "Clôturer une session : présences, certificats et historique en une opération")
+    public ResponseEntity<SessionCompletionResultDTO> closeSession(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) SessionCompletionRequestDTO request) {
+        return ResponseEntity.ok(sessionService.closeSession(id, request));
+    }
+
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Annuler une session")
     public ResponseEntity<TrainingSessionDTO> cancelSession(
@@ -115,6 +129,13 @@ public class TrainingSessionController {
         return ResponseEntity.ok(session);
     }
 
+    @PostMapping("/plan-validation")
+    @Operation(summary = "Valider un plan annuel de sessions (conflits de formateurs et de lieux)")
+    public ResponseEntity<TrainingPlanValidationResultDTO> validatePlan(
+            @Valid @RequestBody TrainingPlanValidationRequestDTO request) {
+        return ResponseEntity.ok(scheduleService.validatePlan(request));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Supprimer une session (soft delete)")
     public ResponseEntity<Void> deleteSession(@PathVariable Long id) {
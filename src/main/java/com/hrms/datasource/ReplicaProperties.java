@@ -0,0 +1,38 @@
+package com.hrms.datasource;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica configuration (hrms.read-replica.*).
+ */
+@Data
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Replica lag above which the replica is bypassed
+     */
+    private long maxLagMs = 5000;
+
+    /**
+     * After a committed write, reads of the same session stay on the primary for this duration
+     */
+    private long pinWindowMs = 10000;
+
+    private long healthCheckIntervalMs = 5000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+    }
+}
@@ -0,0 +1,254 @@
+package com.hrms.datasource;
+
+import com.hrms.tenant.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * DataSource sending read-only transactions to replica pools and everything else to the primary.
+ *
+ * - Replicas whose replication lag exceeds max-lag-ms (or that fail) are bypassed until the
+ *   next successful health check; with no available replica, reads go to the primary.
+ * - Read-your-writes: once a session (authenticated user, or HTTP session) commits a write,
+ *   its read-only transactions stay on the primary for pin-window-ms.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy so that the connection is requested
+ * after the transaction read-only flag has been set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final ReplicaProperties properties;
+    private final Function<String, String> tenantSchemaResolver;
+    private final String defaultTenant;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> lastWriteBySession = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * @param tenantSchemaResolver tenant → schema to set on replica connections, or null when the
+     *                             replicas are not schema-per-tenant
+     * @param defaultTenant        tenant whose schema is used for work without tenant context
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaPool> replicas,
+                                    ReplicaProperties properties,
+                                    Function<String, String> tenantSchemaResolver,
+                                    String defaultTenant) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.properties = properties;
+        this.tenantSchemaResolver = tenantSchemaResolver;
+        this.defaultTenant = defaultTenant;
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0,
+                properties.getHealthCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String sessionKey = currentSessionKey();
+
+        if (isReadOnlyTransaction() && !isPinnedToPrimary(sessionKey)) {
+            ReplicaPool replica = nextAvailableReplica();
+            if (replica != null) {
+                try {
+                    Connection connection = replica.getDataSource().getConnection();
+                    applyTenantSchema(connection);
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("Replica {} unavailable, falling back to primary: {}", replica.getName(), e.getMessage());
+                    replica.markUnavailable();
+                }
+            }
+        }
+
+        Connection connection = primary.getConnection();
+        recordWriteOnCommit(sessionKey);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean isReadOnlyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private boolean isPinnedToPrimary(String sessionKey) {
+        if (sessionKey == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteBySession.get(sessionKey);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < properties.getPinWindowMs();
+    }
+
+    /**
+     * A read-write transaction pins its session to the primary once it has committed
+     */
+    private void recordWriteOnCommit(String sessionKey) {
+        if (sessionKey == null || isReadOnlyTransaction()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteBySession.put(sessionKey, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private ReplicaPool nextAvailableReplica() {
+        int size = replicas.size();
+        for (int i = 0; i < size; i++) {
+            ReplicaPool candidate = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), size));
+            if (candidate.isAvailable()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pooled connections keep the schema of their previous borrower: it is set on every borrow,
+     * work without tenant context getting the default tenant's schema
+     */
+    private void applyTenantSchema(Connection connection) throws SQLException {
+        if (tenantSchemaResolver == null) {
+            return;
+        }
+        String tenantId = TenantContext.getTenantId();
+        connection.setSchema(tenantSchemaResolver.apply(tenantId != null ? tenantId : defaultTenant));
+    }
+
+    /**
+     * Session identity used for read-your-writes: tenant + authenticated user,
+     * or tenant + HTTP session id for anonymous callers.
+     */
+    private String currentSessionKey() {
+        String tenant = TenantContext.getTenantId() != null ? TenantContext.getTenantId() : "";
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getPrincipal())) {
+            return tenant + ":user:" + authentication.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            return tenant + ":session:" + attributes.getSessionId();
+        }
+        return null;
+    }
+
+    /**
+     * Measures the replication lag of every replica and expires old write pins
+     */
+    void checkReplicas() {
+        for (ReplicaPool replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                long lagMs = resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+                replica.update(lagMs, lagMs <= properties.getMaxLagMs());
+                if (!replica.isAvailable()) {
+                    log.warn("Replica {} lag {} ms exceeds {} ms, reads go to primary",
+                            replica.getName(), lagMs, properties.getMaxLagMs());
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} health check failed: {}", replica.getName(), e.getMessage());
+                replica.markUnavailable();
+            }
+        }
+
+        long expiry = System.currentTimeMillis() - properties.getPinWindowMs();
+        lastWriteBySession.values().removeIf(lastWrite -> lastWrite < expiry);
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Stop health checks and close replica pools (invoked by Spring on shutdown)
+     */
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    /**
+     * A replica pool with its last measured state
+     */
+    public static class ReplicaPool {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean available = false;
+        private volatile long lagMs = -1;
+
+        public ReplicaPool(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public long getLagMs() {
+            return lagMs;
+        }
+
+        void update(long lagMs, boolean available) {
+            this.lagMs = lagMs;
+            this.available = available;
+        }
+
+        void markUnavailable() {
+            this.available = false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hrms.dedup;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Données d'état civil d'un agent comparées lors de la recherche de doublons
+ */
+@Value
+@Builder
+public class AgentIdentity {
+
+    Long personnelId;
+    String matricule;
+    String lastName;
+    String firstName;
+    LocalDate dateOfBirth;
+    String placeOfBirth;
+    String cniNumber;
+    Long structureId;
+}
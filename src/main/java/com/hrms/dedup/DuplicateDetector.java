@@ -0,0 +1,249 @@
+package com.hrms.dedup;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Détection des agents en double par blocage puis comparaison approchée.
+ *
+ * Chaque agent reçoit quelques clés de blocage : année de naissance avec le plus petit et le plus
+ * grand code phonétique de ses noms (insensible à l'ordre nom / prénom et à une faute sur un des
+ * mots), lieu et date de naissance, numéro de CNI. Seuls les agents d'un même bloc sont comparés,
+ * les blocs en parallèle ; une paire présente dans plusieurs blocs n'est évaluée que dans le
+ * premier bloc comparé qu'elle partage. Les blocs plus grands que maxBlockSize sont ignorés.
+ */
+public class DuplicateDetector {
+
+    private static final double NAME_WEIGHT = 0.6;
+    private static final double BIRTH_WEIGHT = 0.3;
+    private static final double PLACE_WEIGHT = 0.1;
+
+    private final double threshold;
+    private final int maxBlockSize;
+
+    public DuplicateDetector(double threshold, int maxBlockSize) {
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    /**
+     * Paires au-dessus du seuil, les plus probables d'abord, limitées à limit
+     */
+    public Result detect(List<AgentIdentity> agents, int limit, ForkJoinPool pool) {
+        Profile[] profiles = new Profile[agents.size()];
+        Map<String, List<Integer>> blocks = new HashMap<>();
+        for (int row = 0; row < profiles.length; row++) {
+            profiles[row] = new Profile(agents.get(row));
+            for (String key : profiles[row].keys) {
+                blocks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(row);
+            }
+        }
+
+        List<Map.Entry<String, List<Integer>>> comparable = new ArrayList<>();
+        Set<String> skipped = new HashSet<>();
+        for (Map.Entry<String, List<Integer>> block : blocks.entrySet()) {
+            if (block.getValue().size() > maxBlockSize) {
+                skipped.add(block.getKey());
+            } else if (block.getValue().size() > 1) {
+                comparable.add(block);
+            }
+        }
+
+        LongAdder comparisons = new LongAdder();
+        List<DuplicatePair> pairs;
+        try {
+            pairs = pool.submit(() -> comparable.parallelStream()
+                    .flatMap(block -> compareBlock(block.getKey(), block.getValue(), profiles, skipped, comparisons).stream())
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recherche de doublons interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Recherche de doublons en échec", e.getCause());
+        }
+
+        pairs.sort(Comparator.comparingDouble(DuplicatePair::getScore).reversed()
+                .thenComparing(pair -> pair.getFirst().getPersonnelId())
+                .thenComparing(pair -> pair.getSecond().getPersonnelId()));
+        return Result.builder()
+                .agentCount(agents.size())
+                .blockCount(comparable.size())
+                .skippedBlockCount(skipped.size())
+                .comparisonCount(comparisons.sum())
+                .pairCount(pairs.size())
+                .pairs(List.copyOf(pairs.subList(0, Math.min(limit, pairs.size()))))
+                .build();
+    }
+
+    /**
+     * Score d'une paire d'agents, sans blocage
+     */
+    public DuplicatePair score(AgentIdentity first, AgentIdentity second) {
+        return score(new Profile(first), new Profile(second));
+    }
+
+    private List<DuplicatePair> compareBlock(String key, List<Integer> rows, Profile[] profiles,
+                                             Set<String> skippedKeys, LongAdder comparisons) {
+        List<DuplicatePair> pairs = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Profile a = profiles[rows.get(i)];
+            for (int j = i + 1; j < rows.size(); j++) {
+                Profile b = profiles[rows.get(j)];
+                if (!key.equals(firstSharedKey(a, b, skippedKeys))) {
+                    continue;
+                }
+                comparisons.increment();
+                DuplicatePair pair = a.agent.getPersonnelId() <= b.agent.getPersonnelId() ? score(a, b) : score(b, a);
+                if (pair.getScore() >= threshold) {
+                    pairs.add(pair);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Premier bloc comparé commun aux deux agents ; un bloc ignoré (trop grand) ne compte pas,
+     * sinon la paire ne serait évaluée nulle part
+     */
+    private static String firstSharedKey(Profile a, Profile b, Set<String> skippedKeys) {
+        for (String key : a.keys) {
+            if (skippedKeys.contains(key)) {
+                continue;
+            }
+            for (String other : b.keys) {
+                if (key.equals(other)) {
+                    return key;
+                }
+            }
+        }
+        return null;
+    }
+
+    private DuplicatePair score(Profile a, Profile b) {
+        List<String> reasons = new ArrayList<>();
+
+        double direct = NameKeys.jaroWinkler(a.lastFirst, b.lastFirst);
+        double swapped = NameKeys.jaroWinkler(a.lastFirst, b.firstLast);
+        double sorted = NameKeys.jaroWinkler(a.sortedTokens, b.sortedTokens);
+        double nameScore = Math.max(direct, Math.max(swapped, sorted));
+        if (swapped > direct + 0.05 && swapped >= sorted) {
+            reasons.add("Nom et prénom inversés");
+        }
+
+        double birthScore = birthScore(a.agent.getDateOfBirth(), b.agent.getDateOfBirth(), reasons);
+
+        double placeScore = 0.5;
+        if (!a.place.isEmpty() && !b.place.isEmpty()) {
+            placeScore = NameKeys.jaroWinkler(a.place, b.place);
+            if (placeScore == 1.0) {
+                reasons.add("Même lieu de naissance");
+            }
+        }
+
+        double score = NAME_WEIGHT * nameScore + BIRTH_WEIGHT * birthScore + PLACE_WEIGHT * placeScore;
+        if (!a.cni.isEmpty() && !b.cni.isEmpty()) {
+            if (a.cni.equals(b.cni)) {
+                reasons.add("CNI identique");
+                score = Math.max(score, 0.95);
+            } else {
+                score -= 0.2;
+            }
+        }
+        return new DuplicatePair(a.agent, b.agent, round(score), round(nameScore), round(birthScore),
+                round(placeScore), reasons);
+    }
+
+    private static double birthScore(LocalDate a, LocalDate b, List<String> reasons) {
+        if (a == null || b == null) {
+            return 0.5;
+        }
+        if (a.equals(b)) {
+            reasons.add("Même date de naissance");
+            return 1.0;
+        }
+        if (a.getYear() == b.getYear() && a.getMonthValue() == b.getDayOfMonth() && a.getDayOfMonth() == b.getMonthValue()) {
+            reasons.add("Jour et mois de naissance inversés");
+            return 0.9;
+        }
+        if (a.getYear() == b.getYear()) {
+            return a.getMonthValue() == b.getMonthValue() ? 0.7 : 0.5;
+        }
+        return Math.abs(a.getYear() - b.getYear()) == 1 && a.getDayOfYear() == b.getDayOfYear() ? 0.6 : 0.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(Math.max(value, 0.0) * 1000.0) / 1000.0;
+    }
+
+    /**
+     * Formes normalisées et clés de blocage d'un agent, calculées une seule fois
+     */
+    private static final class Profile {
+        private final AgentIdentity agent;
+        private final String lastFirst;
+        private final String firstLast;
+        private final String sortedTokens;
+        private final String place;
+        private final String cni;
+        private final String[] keys;
+
+        Profile(AgentIdentity agent) {
+            this.agent = agent;
+            String last = NameKeys.normalize(agent.getLastName());
+            String first = NameKeys.normalize(agent.getFirstName());
+            this.lastFirst = (last + " " + first).trim();
+            this.firstLast = (first + " " + last).trim();
+            List<String> tokens = NameKeys.tokens(agent.getLastName(), agent.getFirstName());
+            this.sortedTokens = tokens.stream().sorted().collect(Collectors.joining(" "));
+            this.place = NameKeys.normalize(agent.getPlaceOfBirth());
+            this.cni = agent.getCniNumber() != null ? agent.getCniNumber().replaceAll("[^0-9A-Za-z]", "").toUpperCase() : "";
+
+            List<String> codes = tokens.stream().map(NameKeys::phonetic).filter(code -> !code.isEmpty())
+                    .sorted().distinct().toList();
+            LocalDate birth = agent.getDateOfBirth();
+            String year = birth != null ? String.valueOf(birth.getYear()) : "?";
+            List<String> blockingKeys = new ArrayList<>(4);
+            if (!codes.isEmpty()) {
+                blockingKeys.add("N|" + year + "|" + codes.get(0));
+                blockingKeys.add("N|" + year + "|" + codes.get(codes.size() - 1));
+            }
+            if (!place.isEmpty() && birth != null) {
+                blockingKeys.add("P|" + place + "|" + birth);
+            }
+            if (!cni.isEmpty()) {
+                blockingKeys.add("C|" + cni);
+            }
+            this.keys = blockingKeys.stream().distinct().toArray(String[]::new);
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Result {
+        int agentCount;
+        int blockCount;
+        int skippedBlockCount;
+        long comparisonCount;
+
+        /**
+         * Paires au-dessus du seuil, avant limitation
+         */
+        int pairCount;
+
+        List<DuplicatePair> pairs;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hrms.dedup;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Paire d'agents probablement en double, avec le détail du score
+ */
+@Value
+public class DuplicatePair {
+
+    AgentIdentity first;
+    AgentIdentity second;
+
+    /**
+     * Score global entre 0 et 1
+     */
+    double score;
+
+    double nameScore;
+    double birthScore;
+    double placeScore;
+
+    /**
+     * Indices relevés : CNI identique, noms inversés, même date de naissance...
+     */
+    List<String> reasons;
+}
@@ -0,0 +1,133 @@
+package com.hrms.dedup;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalisation, clé phonétique et similarité de Jaro-Winkler des noms d'agents
+ */
+public final class NameKeys {
+
+    private static final int PHONETIC_LENGTH = 6;
+
+    /**
+     * Substitutions appliquées dans l'ordre avant le codage (graphies françaises courantes)
+     */
+    private static final String[][] SPELLINGS = {
+            {"EAU", "O"}, {"SCH", "S"}, {"PH", "F"}, {"GN", "N"}, {"QU", "K"}, {"CK", "K"}, {"KH", "K"},
+            {"TH", "T"}, {"CH", "S"}, {"OU", "U"}, {"AU", "O"}, {"AI", "E"}, {"EI", "E"},
+            {"CE", "SE"}, {"CI", "SI"}, {"CY", "SI"}, {"C", "K"}, {"Q", "K"}, {"X", "KS"},
+            {"Z", "S"}, {"W", "V"}, {"Y", "I"}, {"H", ""}};
+
+    private NameKeys() {
+    }
+
+    /**
+     * Majuscules sans accents, lettres et chiffres seulement, espaces simples
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", " ").trim();
+    }
+
+    /**
+     * Mots normalisés de plusieurs champs (nom et prénoms), dans l'ordre
+     */
+    public static List<String> tokens(String... values) {
+        List<String> tokens = new ArrayList<>();
+        for (String value : values) {
+            String normalized = normalize(value);
+            if (!normalized.isEmpty()) {
+                tokens.addAll(Arrays.asList(normalized.split(" ")));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Squelette phonétique d'un mot : première lettre, puis consonnes sans doublons
+     */
+    public static String phonetic(String token) {
+        String word = normalize(token).replace(" ", "");
+        if (word.isEmpty()) {
+            return "";
+        }
+        for (String[] spelling : SPELLINGS) {
+            word = word.replace(spelling[0], spelling[1]);
+        }
+        if (word.isEmpty()) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder(PHONETIC_LENGTH);
+        code.append(word.charAt(0));
+        char previous = word.charAt(0);
+        for (int i = 1; i < word.length() && code.length() < PHONETIC_LENGTH; i++) {
+            char c = word.charAt(i);
+            if (c != previous && !isVowel(c)) {
+                code.append(c);
+            }
+            previous = c;
+        }
+        return code.toString();
+    }
+
+    /**
+     * Similarité de Jaro-Winkler entre deux chaînes, 1.0 si identiques
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return a.isEmpty() ? 0.0 : 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int window = Math.max(Math.max(a.length(), b.length()) / 2 - 1, 0);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'A' || c == 'E' || c == 'I' || c == 'O' || c == 'U';
+    }
+}
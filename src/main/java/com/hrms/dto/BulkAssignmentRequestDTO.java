@@ -0,0 +1,64 @@
+package com.hrms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO pour une vague d'affectations / libérations de postes (ex: décret de nominations)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAssignmentRequestDTO {
+
+    /**
+     * Couples personnel / poste à affecter
+     */
+    @Valid
+    @Builder.Default
+    private List<AssignmentItemDTO> assignments = new ArrayList<>();
+
+    /**
+     * Postes à libérer (appliqué avant les affectations)
+     */
+    @Builder.Default
+    private List<Long> releasePositionIds = new ArrayList<>();
+
+    /**
+     * Cumul de poste autorisé pour cette vague
+     */
+    private Boolean allowCumul;
+
+    /**
+     * true = aucune modification si un seul couple est rejeté
+     */
+    private Boolean allOrNothing;
+
+    /**
+     * Mode de validation (true = vérification seule, false = application)
+     */
+    private Boolean validationOnly;
+
+    private LocalDate effectiveDate;
+    private String decisionNumber;
+    private LocalDate decisionDate;
+    private String reason;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AssignmentItemDTO {
+        @NotNull(message = "Le personnel est obligatoire")
+        private Long personnelId;
+
+        @NotNull(message = "Le poste est obligatoire")
+        private Long positionId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO pour le résultat d'une vague d'affectations
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAssignmentResultDTO {
+
+    private Integer requestedCount;
+    private Integer appliedCount;
+    private Integer rejectedCount;
+
+    /**
+     * Mode de validation (true = rien n'a été appliqué)
+     */
+    private Boolean validationOnly;
+
+    /**
+     * Résultat de chaque couple et de chaque libération, dans l'ordre de la demande
+     */
+    private List<OutcomeDTO> outcomes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OutcomeDTO {
+        private Long personnelId;
+        private Long positionId;
+        private String action;  // ASSIGN, RELEASE
+        private String status;  // APPLIED, VALID, REJECTED
+        private String message;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DTO pour l'exécution en lot des mouvements approuvés
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CareerMovementBatchRequestDTO {
+
+    /**
+     * Date d'effet des mouvements à exécuter
+     */
+    private LocalDate movementDate;
+
+    /**
+     * Numéro de la décision (décret, arrêté) dont les mouvements sont à exécuter
+     */
+    private String decisionNumber;
+
+    /**
+     * Mode de validation (true = planification et détection des conflits seulement)
+     */
+    private Boolean validationOnly;
+
+    /**
+     * Nombre de mouvements par transaction
+     */
+    private Integer chunkSize;
+}
@@ -0,0 +1,43 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO pour le résultat de l'exécution en lot des mouvements
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CareerMovementBatchResultDTO {
+
+    private Integer totalCount;
+    private Integer executedCount;
+    private Integer conflictCount;
+    private Integer failedCount;
+    private Integer chunkCount;
+    private Boolean validationOnly;
+
+    private Long durationMs;
+
+    /**
+     * Mouvements exécutés par seconde
+     */
+    private Double throughputPerSecond;
+
+    private List<MovementOutcomeDTO> outcomes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MovementOutcomeDTO {
+        private Long movementId;
+        private Long personnelId;
+        private String status;  // EXECUTED, PLANNED, CONFLICT, FAILED
+        private String message;
+        private Integer chunk;
+    }
+}
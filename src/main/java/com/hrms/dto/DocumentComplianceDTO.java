@@ -0,0 +1,71 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO pour la conformité documentaire d'une structure et de ses sous-structures
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentComplianceDTO {
+
+    private Long structureId;
+    private List<String> mandatoryTypes;
+    private Boolean verificationRequired;
+
+    private Integer agentCount;
+    private Integer compliantCount;
+    private Double complianceRate;
+
+    private Long durationMs;
+
+    private List<TypeComplianceDTO> types;
+
+    /**
+     * Sous-structures directes ; les agents rattachés à la structure elle-même ont leur propre ligne
+     */
+    private List<StructureComplianceDTO> structures;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TypeComplianceDTO {
+        private String documentType;
+        private Integer ok;
+        private Integer unverified;
+        private Integer expired;
+        private Integer missing;
+        private Double complianceRate;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StructureComplianceDTO {
+        private Long structureId;
+        private String structureName;
+        private Integer agentCount;
+        private Integer compliantCount;
+        private Double complianceRate;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AgentComplianceDTO {
+        private Long personnelId;
+        private String matricule;
+        private String fullName;
+        private Long structureId;
+        private List<String> missing;
+        private List<String> expired;
+        private List<String> unverified;
+    }
+}
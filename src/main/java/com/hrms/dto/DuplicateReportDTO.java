@@ -0,0 +1,64 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO pour le rapport de recherche de doublons : paires classées par score décroissant
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DuplicateReportDTO {
+
+    private LocalDateTime generatedAt;
+    private Double threshold;
+
+    private Integer agentCount;
+    private Integer blockCount;
+
+    /**
+     * Blocs trop grands non comparés (clé trop fréquente)
+     */
+    private Integer skippedBlockCount;
+
+    private Long comparisonCount;
+    private Integer pairCount;
+    private Long durationMs;
+
+    private List<DuplicatePairDTO> pairs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DuplicatePairDTO {
+        private Integer rank;
+        private Double score;
+        private Double nameScore;
+        private Double birthScore;
+        private Double placeScore;
+        private List<String> reasons;
+        private AgentIdentityDTO first;
+        private AgentIdentityDTO second;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AgentIdentityDTO {
+        private Long personnelId;
+        private String matricule;
+        private String lastName;
+        private String firstName;
+        private LocalDate dateOfBirth;
+        private String placeOfBirth;
+        private String cniNumber;
+        private Long structureId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hrms.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.*;
+
+/**
+ * DTO pour le lancement d'une recherche de doublons sur tout le personnel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DuplicateScanRequestDTO {
+
+    /**
+     * Score minimal d'une paire retenue (0 à 1), valeur configurée si null
+     */
+    @DecimalMin("0.5")
+    @DecimalMax("1.0")
+    private Double threshold;
+
+    /**
+     * Nombre maximal de paires rapportées, valeur configurée si null
+     */
+    @Min(1)
+    private Integer limit;
+}
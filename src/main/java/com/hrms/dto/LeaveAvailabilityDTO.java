@@ -0,0 +1,46 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO pour le calendrier de disponibilité d'une structure et de ses sous-structures
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveAvailabilityDTO {
+
+    private Long structureId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<String> reasons;
+
+    private Integer headcount;
+
+    /**
+     * Agents distincts absents au moins un jour de la période
+     */
+    private Integer absentAgentCount;
+
+    private LocalDate peakDate;
+    private Integer peakAbsent;
+
+    private Long durationMs;
+
+    private List<DayAvailabilityDTO> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DayAvailabilityDTO {
+        private LocalDate date;
+        private Integer absent;
+        private Integer available;
+        private Double availabilityRate;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hrms.dto;
+
+import com.hrms.facets.PersonnelFacet;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de la recherche à facettes de personnels
+ * Les valeurs choisies d'une même facette sont combinées en OU, les facettes entre elles en ET
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonnelFacetSearchRequestDTO {
+
+    /**
+     * Valeurs choisies par facette : identifiants pour GRADE, CORPS, STRUCTURE et REGION,
+     * nom de la valeur d'énumération pour STATUS et GENDER
+     */
+    @Builder.Default
+    private Map<PersonnelFacet, List<String>> selections = new EnumMap<>(PersonnelFacet.class);
+
+    @Min(value = 0, message = "La page doit être positive")
+    @Builder.Default
+    private Integer page = 0;
+
+    @Min(value = 1, message = "La taille de page doit être au moins 1")
+    @Max(value = 1000, message = "La taille de page ne peut dépasser 1000")
+    @Builder.Default
+    private Integer size = 50;
+}
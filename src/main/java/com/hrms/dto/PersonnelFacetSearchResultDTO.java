@@ -0,0 +1,27 @@
+package com.hrms.dto;
+
+import com.hrms.facets.PersonnelFacet;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO du résultat d'une recherche à facettes : page d'identifiants d'agents et effectifs
+ * de chaque valeur de chaque facette
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonnelFacetSearchResultDTO {
+
+    private long totalElements;
+    private int page;
+    private int size;
+    private List<Long> personnelIds;
+    private Map<PersonnelFacet, Map<String, Integer>> facets;
+}
@@ -0,0 +1,38 @@
+package com.hrms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Couple poste vacant / agent proposé par le moteur de rapprochement
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionMatchDTO {
+
+    private Long positionId;
+    private String positionCode;
+    private String positionTitle;
+    private String positionRank;
+    private Long positionStructureId;
+
+    private Long personnelId;
+    private String matricule;
+    private String fullName;
+    private Long personnelStructureId;
+    private Integer seniorityYears;
+
+    /**
+     * Agent déjà titulaire d'un poste (proposition au titre du cumul)
+     */
+    private Boolean cumul;
+
+    /**
+     * Score d'adéquation (plus élevé = meilleur)
+     */
+    private Integer score;
+}
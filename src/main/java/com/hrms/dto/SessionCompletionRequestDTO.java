@@ -0,0 +1,48 @@
+package com.hrms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO pour la clôture d'une session en une seule opération
+ * Les inscriptions non listées gardent leur statut ; les inscriptions APPROVED
+ * sont considérées présentes si approvedAsAttended est vrai
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionCompletionRequestDTO {
+
+    @Valid
+    @NotNull(message = "La liste des présences ne peut pas être nulle")
+    @Builder.Default
+    private List<@NotNull(message = "Une présence ne peut pas être nulle") AttendanceDTO> attendances = new ArrayList<>();
+
+    @Builder.Default
+    private Boolean approvedAsAttended = true;
+
+    @Builder.Default
+    private Boolean issueCertificates = true;
+
+    /**
+     * Taux de présence minimal (0-100) pour délivrer un certificat, aucun seuil si null
+     */
+    private Double minAttendanceRate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AttendanceDTO {
+        private Long enrollmentId;
+        private Boolean attended;
+        private Double attendanceRate;
+        private Integer score;
+        private String evaluation;
+    }
+}
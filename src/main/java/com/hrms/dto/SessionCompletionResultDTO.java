@@ -0,0 +1,28 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+/**
+ * DTO pour le résultat de la clôture d'une session
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SessionCompletionResultDTO {
+
+    private Long sessionId;
+    private String sessionCode;
+    private Integer enrollmentCount;
+    private Integer attendedCount;
+    private Integer absentCount;
+    private Integer certificatesIssued;
+
+    /**
+     * Lignes ProfessionalTraining créées / déjà présentes pour les participants
+     */
+    private Integer historyCreated;
+    private Integer historyAlreadyPresent;
+
+    private Long durationMs;
+}
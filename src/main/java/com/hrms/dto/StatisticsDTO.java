@@ -1,6 +1,7 @@
 package com.hrms.dto;
 
 import lombok.*;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,4 +42,7 @@ public class StatisticsDTO {
 
     // By structure
     private Map<String, Long> positionsByStructure;
+
+    // Agrégats non calculés (délai dépassé ou erreur)
+    private List<String> unavailableAggregates;
 }
@@ -0,0 +1,25 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO pour l'instanciation ou la resynchronisation d'un template organisationnel
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemplateInstantiationRequestDTO {
+
+    /**
+     * Structures racines visées ; vide = toutes les structures concernées par le template
+     */
+    private List<Long> structureIds;
+
+    /**
+     * Mode simulation (true = écarts calculés, rien n'est écrit)
+     */
+    private Boolean dryRun;
+}
@@ -0,0 +1,65 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO pour le résultat d'une instanciation ou d'une resynchronisation de template
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemplateInstantiationResultDTO {
+
+    private String templateCode;
+    private Boolean dryRun;
+
+    /**
+     * Postes et sous-structures prévus par le template pour une structure racine
+     */
+    private Integer plannedStructureCount;
+    private Integer plannedPositionCount;
+
+    private Integer structureCount;
+    private Integer createdStructures;
+    private Integer createdPositions;
+
+    /**
+     * Postes retirés lors d'une resynchronisation précédente et revenus dans le template
+     */
+    private Integer restoredPositions;
+
+    private Integer updatedPositions;
+    private Integer retiredPositions;
+
+    /**
+     * Postes occupés absents du template, conservés
+     */
+    private Integer keptOccupiedPositions;
+
+    private Long durationMs;
+
+    /**
+     * Détail par structure racine
+     */
+    private List<StructureOutcomeDTO> structures;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StructureOutcomeDTO {
+        private Long structureId;
+        private String structureCode;
+        private String status;  // INSTANTIATED, SYNCHRONIZED, UNCHANGED, SKIPPED
+        private Integer createdStructures;
+        private Integer createdPositions;
+        private Integer restoredPositions;
+        private Integer updatedPositions;
+        private Integer retiredPositions;
+        private List<String> keptOccupiedPositionCodes;
+        private String message;
+    }
+}
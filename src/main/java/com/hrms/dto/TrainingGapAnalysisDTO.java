@@ -0,0 +1,54 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO du résultat d'une analyse des besoins de formation : agents prioritaires de la cohorte
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainingGapAnalysisDTO {
+
+    private String trainingField;
+    private Integer recencyYears;
+
+    /**
+     * Formation attendue depuis cette date
+     */
+    private LocalDate trainedSince;
+
+    private Integer cohortSize;
+    private Integer gapCount;
+    private Integer neverTrainedCount;
+
+    /**
+     * Part de la cohorte en écart (0-100)
+     */
+    private Double gapRate;
+
+    private Long durationMs;
+
+    private List<TrainingGapDTO> candidates;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TrainingGapDTO {
+        private Long personnelId;
+        private String matricule;
+        private String fullName;
+        private Long structureId;
+        private String grade;
+        private String corps;
+        private LocalDate lastTrainingDate;
+        private Long daysWithoutTraining;
+        private Boolean neverTrained;
+        private Integer priority;
+    }
+}
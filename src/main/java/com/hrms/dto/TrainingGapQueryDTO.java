@@ -0,0 +1,48 @@
+package com.hrms.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO des critères d'une analyse des besoins de formation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainingGapQueryDTO {
+
+    /**
+     * Structure analysée, avec ses sous-structures (toutes si null)
+     */
+    private Long structureId;
+
+    /**
+     * Grades (code ou libellé), corps (code ou libellé) et catégories retenus
+     */
+    private List<String> grades;
+    private List<String> corps;
+    private List<String> categories;
+
+    /**
+     * Domaine de formation (toute formation si null)
+     */
+    private String trainingField;
+
+    /**
+     * Agents sans formation dans le domaine depuis ce nombre d'années
+     */
+    @Min(value = 0, message = "L'ancienneté de formation ne peut pas être négative")
+    @Max(value = 50, message = "L'ancienneté de formation est limitée à 50 ans")
+    private Integer recencyYears;
+
+    /**
+     * Nombre maximum d'agents rendus
+     */
+    @Min(value = 0, message = "La limite ne peut pas être négative")
+    @Max(value = 5000, message = "La limite est plafonnée à 5000 agents")
+    private Integer limit;
+}
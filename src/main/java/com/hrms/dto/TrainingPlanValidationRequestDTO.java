@@ -0,0 +1,53 @@
+package com.hrms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO pour la validation d'un plan annuel de sessions de formation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainingPlanValidationRequestDTO {
+
+    @NotEmpty(message = "Le plan doit contenir au moins une session")
+    @Valid
+    private List<PlannedSessionDTO> sessions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PlannedSessionDTO {
+
+        /**
+         * Référence de la session dans le plan (code ou clé libre)
+         */
+        private String reference;
+
+        /**
+         * Session existante déplacée par le plan (null pour une nouvelle session)
+         */
+        private Long sessionId;
+
+        @NotNull(message = "Le formateur est obligatoire")
+        private Long trainerId;
+
+        private List<Long> coTrainerIds;
+
+        private String location;
+
+        @NotNull(message = "La date de début est obligatoire")
+        private LocalDate startDate;
+
+        @NotNull(message = "La date de fin est obligatoire")
+        private LocalDate endDate;
+    }
+}
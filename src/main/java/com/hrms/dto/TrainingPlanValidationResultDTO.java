@@ -0,0 +1,58 @@
+package com.hrms.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO pour le résultat de la validation d'un plan de sessions
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrainingPlanValidationResultDTO {
+
+    private Integer sessionCount;
+    private Integer conflictingSessionCount;
+    private Integer invalidSessionCount;
+    private Integer conflictCount;
+    private Boolean valid;
+
+    /**
+     * Sessions déjà programmées sur la période du plan, prises en compte
+     */
+    private Integer scheduledSessionCount;
+
+    private Long durationMs;
+
+    private List<SessionConflictDTO> conflicts;
+    private List<InvalidSessionDTO> invalidSessions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SessionConflictDTO {
+        private String reference;
+        private String resource;  // TRAINER, LOCATION
+        private Long trainerId;
+        private String location;
+        private String conflictingReference;
+        private Long conflictingSessionId;
+        private Boolean conflictingPlanned;
+        private LocalDate overlapStart;
+        private LocalDate overlapEnd;
+        private String message;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class InvalidSessionDTO {
+        private String reference;
+        private String message;
+    }
+}
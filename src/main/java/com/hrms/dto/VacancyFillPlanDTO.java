@@ -0,0 +1,27 @@
+package com.hrms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Propositions de pourvoi des postes vacants d'une structure et de ses sous-structures
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacancyFillPlanDTO {
+
+    private Long structureId;
+    private Integer vacancyCount;
+    private List<PositionMatchDTO> proposals;
+
+    /**
+     * Postes sans candidat compatible disponible
+     */
+    private List<Long> unfilledPositionIds;
+}
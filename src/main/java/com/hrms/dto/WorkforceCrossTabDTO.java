@@ -0,0 +1,40 @@
+package com.hrms.dto;
+
+import com.hrms.analytics.WorkforceDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Résultat d'un tableau croisé des effectifs
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkforceCrossTabDTO {
+
+    private WorkforceDimension rowDimension;
+    private WorkforceDimension columnDimension;
+
+    /**
+     * Ligne → (colonne → effectif). Sans dimension de colonne, la colonne unique est "TOTAL".
+     * Les lignes et colonnes vides sont omises.
+     */
+    private Map<String, Map<String, Long>> counts;
+
+    private Map<String, Long> rowTotals;
+
+    private long total;
+
+    /**
+     * Nombre d'agents présents dans l'instantané interrogé
+     */
+    private int snapshotSize;
+
+    private LocalDateTime snapshotRefreshedAt;
+}
@@ -0,0 +1,49 @@
+package com.hrms.dto;
+
+import com.hrms.analytics.WorkforceDimension;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête de tableau croisé sur l'instantané des effectifs :
+ * filtres + regroupement sur une ou deux dimensions + comptage
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkforceQueryDTO {
+
+    /**
+     * Dimension des lignes du tableau croisé
+     */
+    @NotNull
+    private WorkforceDimension rowDimension;
+
+    /**
+     * Dimension des colonnes (optionnelle : simple répartition si absente)
+     */
+    private WorkforceDimension columnDimension;
+
+    /**
+     * Valeurs acceptées par dimension catégorielle (ex: GENDER → [FEMALE])
+     */
+    @Builder.Default
+    private Map<WorkforceDimension, List<String>> filters = new HashMap<>();
+
+    private Integer minAge;
+    private Integer maxAge;
+
+    /**
+     * Ancienneté dans l'administration (depuis la date d'embauche)
+     */
+    private Integer minSeniorityYears;
+    private Integer maxSeniorityYears;
+}
@@ -2,6 +2,10 @@ package com.hrms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Administrative Structure entity representing the hierarchical organization
@@ -36,6 +40,13 @@ public class AdministrativeStructure extends BaseEntity {
     @Column(name = "level")
     private Integer level; // 1: Ministere, 2: Gouvernorat, 3: Prefecture, 4: Sous-Prefecture
 
+    /**
+     * Chemin matérialisé des identifiants depuis la racine, ex: "/1/5/23/".
+     * Le sous-arbre d'une structure correspond à path LIKE '<path de la structure>%'.
+     */
+    @Column(name = "path", length = 1000)
+    private String path;
+
     /**
      * Référence vers la Région géographique (uniquement pour GOUVERNORAT)
      * Relation OneToOne bidirectionnelle
@@ -84,15 +95,33 @@ public class AdministrativeStructure extends BaseEntity {
     @Column(name = "active")
     private boolean active = true;
 
-    @Column(name = "total_positions")
+    /*
+     * Compteurs de postes : tenus à jour par incréments en base (PositionOccupancyService),
+     * jamais écrits depuis l'entité pour qu'une structure chargée ne les écrase pas.
+     * Les compteurs de sous-arbre d'une structure racine restent à 0 (calculés à la lecture).
+     */
+    @ColumnDefault("0")
+    @Column(name = "total_positions", insertable = false, updatable = false)
     private Integer totalPositions; // Nombre total de postes
 
-    @Column(name = "occupied_positions")
+    @ColumnDefault("0")
+    @Column(name = "occupied_positions", insertable = false, updatable = false)
     private Integer occupiedPositions = 0; // Postes occupés
 
-    @Column(name = "vacant_positions")
+    @ColumnDefault("0")
+    @Column(name = "vacant_positions", insertable = false, updatable = false)
     private Integer vacantPositions = 0; // Postes vacants
 
+    @ColumnDefault("0")
+    @Column(name = "subtree_total_positions", insertable = false, updatable = false)
+    @Builder.Default
+    private Integer subtreeTotalPositions = 0; // Postes de la structure et de ses sous-structures
+
+    @ColumnDefault("0")
+    @Column(name = "subtree_occupied_positions", insertable = false, updatable = false)
+    @Builder.Default
+    private Integer subtreeOccupiedPositions = 0; // Postes occupés du sous-arbre
+
     /**
      * Référence au template organisationnel utilisé pour créer cette structure
      * Permet de savoir quel template a été instancié
@@ -118,9 +147,20 @@ public class AdministrativeStructure extends BaseEntity {
     }
 
     /**
-     * Calculate level based on structure type
+     * Niveau et chemin matérialisé avant l'insertion.
+     * L'identifiant est déjà tiré de la séquence : le chemin part avec l'INSERT.
      */
     @PrePersist
+    private void prePersist() {
+        calculateLevel();
+        if (this.path == null) {
+            this.path = buildPath(this.parentStructure);
+        }
+    }
+
+    /**
+     * Calculate level based on structure type
+     */
     @PreUpdate
     private void calculateLevel() {
         if (this.type != null) {
@@ -144,12 +184,34 @@ public class AdministrativeStructure extends BaseEntity {
     }
 
     /**
-     * Update position statistics
+     * Chemin de cette structure si elle est rattachée au parent donné
+     */
+    public String buildPath(AdministrativeStructure parent) {
+        String parentPath = parent != null && parent.getPath() != null ? parent.getPath() : "/";
+        return parentPath + getId() + "/";
+    }
+
+    /**
+     * Indique si cette structure est la structure donnée ou l'une de ses descendantes
+     */
+    public boolean isInSubtreeOf(AdministrativeStructure ancestor) {
+        return path != null && ancestor.getPath() != null && path.startsWith(ancestor.getPath());
+    }
+
+    /**
+     * Identifiants des structures d'un chemin matérialisé, de la racine à la structure elle-même
      */
-    public void updatePositionStatistics(int total, int occupied) {
-        this.totalPositions = total;
-        this.occupiedPositions = occupied;
-        this.vacantPositions = total - occupied;
+    public static List<Long> pathIds(String path) {
+        List<Long> ids = new ArrayList<>();
+        if (path == null) {
+            return ids;
+        }
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                ids.add(Long.valueOf(segment));
+            }
+        }
+        return ids;
     }
 
     /**
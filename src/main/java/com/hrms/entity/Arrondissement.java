@@ -2,12 +2,16 @@ package com.hrms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entité géographique représentant un Arrondissement du Cameroun
  * Un arrondissement est une subdivision d'un département (~360 arrondissements au total)
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Table(name = "arrondissements")
 @Getter
 @Setter
@@ -21,8 +21,12 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    /**
+     * Pooled sequence per table (positions_seq, ...), see TableSequenceNamingStrategy.
+     * Unlike IDENTITY, ids are known before the insert so Hibernate can batch the statements.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @CreatedDate
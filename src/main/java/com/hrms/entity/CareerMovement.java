@@ -140,11 +140,6 @@ public class CareerMovement extends BaseEntity {
         }
 
         // Update personnel
-        if (destinationPosition != null) {
-            personnel.setCurrentPosition(destinationPosition);
-            personnel.setServiceStartDate(movementDate);
-        }
-
         if (destinationStructure != null) {
             personnel.setStructure(destinationStructure);
         }
@@ -185,18 +180,31 @@ public class CareerMovement extends BaseEntity {
         }
 
         // Update position status
-        if (sourcePosition != null && !Boolean.TRUE.equals(isOfficialCumul)) {
+        // Le poste quitté n'est libéré que s'il n'a pas déjà été réattribué (permutations exécutées en lot)
+        if (sourcePosition != null && !Boolean.TRUE.equals(isOfficialCumul) && !isHeldByAnotherPersonnel(sourcePosition)) {
             sourcePosition.releasePersonnel();
+            if (personnel.getCurrentPosition() != null
+                    && personnel.getCurrentPosition().getId().equals(sourcePosition.getId())) {
+                personnel.setCurrentPosition(null);
+            }
         }
 
         if (destinationPosition != null) {
             // Passer le flag cumul à la méthode assignPersonnel
+            // (le poste actuel du personnel doit être libéré avant, sinon l'affectation exige un cumul)
             destinationPosition.assignPersonnel(personnel, Boolean.TRUE.equals(isOfficialCumul));
+            personnel.setCurrentPosition(destinationPosition);
+            personnel.setServiceStartDate(movementDate);
         }
 
         this.status = MovementStatus.EXECUTED;
     }
 
+    private boolean isHeldByAnotherPersonnel(Position position) {
+        return position.getCurrentPersonnel() != null
+                && !position.getCurrentPersonnel().getId().equals(personnel.getId());
+    }
+
     /**
      * Vérifie si le type de mouvement est compatible avec un cumul de poste
      *
@@ -2,6 +2,8 @@ package com.hrms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +18,8 @@ import java.util.List;
  * - Régies Financières
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Table(name = "corps_metiers")
 @Data
 @Builder
@@ -25,7 +29,7 @@ import java.util.List;
 public class CorpsMetier extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     /**
@@ -73,6 +77,7 @@ public class CorpsMetier extends BaseEntity {
      * Relation bidirectionnelle
      */
     @OneToMany(mappedBy = "corpsMetier", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     @Builder.Default
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -2,6 +2,8 @@ package com.hrms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Représente un grade au sein d'un corps de métier.
@@ -13,6 +15,8 @@ import lombok.*;
  * - Secrétaire d'Administration Principal (niveau 3, catégorie B1)
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Table(name = "grades", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"code"}),
     @UniqueConstraint(columnNames = {"corps_metier_id", "level"})
@@ -25,7 +29,7 @@ import lombok.*;
 public class Grade extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     /**
@@ -2,6 +2,8 @@ package com.hrms.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Template d'organisation réutilisable pour les structures territoriales.
@@ -13,6 +15,8 @@ import lombok.*;
  * - Template Préfecture (1) → Instancié 58 fois (1 par département)
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Table(name = "organizational_templates")
 @Getter
 @Setter
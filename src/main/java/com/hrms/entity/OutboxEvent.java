@@ -0,0 +1,50 @@
+package com.hrms.entity;
+
+import com.hrms.events.ChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de l'outbox des changements d'entités.
+ * Écrite par {@link com.hrms.events.OutboxChangeCapture} dans la transaction du changement
+ * (identifiant tiré de outbox_events_seq), marquée publiée une fois remise aux abonnés.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_unpublished", columnList = "published_at, id"),
+    @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type, aggregate_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false, length = 100)
+    private String tenantId;
+
+    @Column(name = "aggregate_type", nullable = false, length = 100)
+    private String aggregateType; // Nom simple de l'entité (Personnel, Position, etc.)
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @Column(name = "changed_properties", columnDefinition = "TEXT")
+    private String changedProperties; // Propriétés modifiées, séparées par des virgules
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -1035,6 +1035,15 @@ public class Personnel extends BaseEntity {
 
     // ==================== MÉTHODES MÉTIER ====================
 
+    /**
+     * Situations compatibles avec une affectation (E.C.I inclus)
+     */
+    public static final java.util.Set<PersonnelSituation> ASSIGNABLE_SITUATIONS = java.util.EnumSet.of(
+        PersonnelSituation.EN_FONCTION,
+        PersonnelSituation.EN_ATTENTE_AFFECTATION,
+        PersonnelSituation.EN_COURS_INTEGRATION
+    );
+
     /**
      * Vérifie si le personnel peut être affecté à un poste
      * IMPORTANT: Un personnel E.C.I (sans matricule) PEUT être affecté
@@ -1055,9 +1064,7 @@ public class Personnel extends BaseEntity {
     public boolean canBeAssignedToPosition(boolean movementAllowsCumul) {
         // Vérifier le statut et la situation
         boolean isEligible = status == PersonnelStatus.ACTIVE &&
-               (situation == PersonnelSituation.EN_FONCTION ||
-                situation == PersonnelSituation.EN_ATTENTE_AFFECTATION ||
-                situation == PersonnelSituation.EN_COURS_INTEGRATION); // E.C.I peut être affecté
+               ASSIGNABLE_SITUATIONS.contains(situation); // E.C.I peut être affecté
 
         if (!isEligible) {
             return false;
@@ -1093,9 +1100,7 @@ public class Personnel extends BaseEntity {
             return String.format("Le personnel n'est pas actif (statut: %s)", status);
         }
 
-        if (situation != PersonnelSituation.EN_FONCTION &&
-            situation != PersonnelSituation.EN_ATTENTE_AFFECTATION &&
-            situation != PersonnelSituation.EN_COURS_INTEGRATION) {
+        if (!ASSIGNABLE_SITUATIONS.contains(situation)) {
             return String.format("La situation du personnel n'est pas compatible avec une affectation (situation: %s)",
                                  situation);
         }
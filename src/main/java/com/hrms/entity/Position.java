@@ -158,6 +158,13 @@ public class Position extends BaseEntity {
         return active && status == PositionStatus.VACANT;
     }
 
+    /**
+     * Check if position is occupied
+     */
+    public boolean isOccupied() {
+        return status == PositionStatus.OCCUPE;
+    }
+
     /**
      * Get full position title with structure
      */
@@ -0,0 +1,95 @@
+package com.hrms.events;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lot de changements d'un tenant remis aux abonnés, dans l'ordre de l'outbox
+ */
+@Value
+public class ChangeBatch {
+
+    String tenant;
+
+    List<EntityChange> changes;
+
+    /**
+     * Changements des types d'agrégats donnés, tous si l'ensemble est vide
+     */
+    public ChangeBatch only(Set<String> aggregateTypes) {
+        if (aggregateTypes == null || aggregateTypes.isEmpty()) {
+            return this;
+        }
+        return new ChangeBatch(tenant, changes.stream()
+                .filter(change -> aggregateTypes.contains(change.getAggregateType()))
+                .toList());
+    }
+
+    /**
+     * Identifiants distincts des agrégats d'un type, dans l'ordre de leur premier changement
+     */
+    public Set<Long> aggregateIds(String aggregateType) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (EntityChange change : changes) {
+            if (change.getAggregateType().equals(aggregateType)) {
+                ids.add(change.getAggregateId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Sépare les changements remis de ceux qui rompraient l'ordre de leur agrégat.
+     *
+     * Pour chaque agrégat, les changements remis suivent exactement ses changements non publiés de
+     * l'outbox, à partir du plus ancien. Un changement déjà publié (par la reprise, ou un lot
+     * précédent) est écarté ; un changement précédé d'un changement non publié absent du lot
+     * (remise en échec, publication pas encore arrivée) est retenu, avec tous ceux qui le suivent.
+     *
+     * @param unpublished identifiants d'outbox non publiés, croissants, jusqu'au dernier changement
+     *                    du lot, par {@link EntityChange#aggregateKey()}
+     */
+    public Ordering inAggregateOrder(Map<String, List<Long>> unpublished) {
+        List<EntityChange> deliverable = new ArrayList<>(changes.size());
+        List<EntityChange> held = new ArrayList<>();
+        Map<String, Integer> next = new HashMap<>();
+        Set<String> blocked = new HashSet<>();
+        for (EntityChange change : changes) {
+            String key = change.aggregateKey();
+            List<Long> pending = unpublished.getOrDefault(key, List.of());
+            if (!pending.contains(change.getOutboxId())) {
+                continue;
+            }
+            int position = next.getOrDefault(key, 0);
+            if (!blocked.contains(key) && pending.get(position) == change.getOutboxId()) {
+                deliverable.add(change);
+                next.put(key, position + 1);
+            } else {
+                blocked.add(key);
+                held.add(change);
+            }
+        }
+        return new Ordering(new ChangeBatch(tenant, deliverable), held);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    /**
+     * Résultat de {@link #inAggregateOrder(Map)} : lot à remettre et changements retenus
+     */
+    public record Ordering(ChangeBatch deliverable, List<EntityChange> held) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.hrms.events;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * File des changements en attente de remise, par tenant et dans l'ordre de l'outbox.
+ *
+ * Un changement déjà en file (même identifiant d'outbox) n'est pas ajouté deux fois : la reprise
+ * depuis l'outbox peut ainsi recouvrir les changements publiés en direct. Les tenants sont servis
+ * à tour de rôle pour qu'un import massif n'affame pas les autres.
+ *
+ * Les changements retenus à la remise (un changement plus ancien du même agrégat manque) sont mis
+ * de côté : ils reviennent en file dès qu'un lot de leur agrégat est remis, sinon la reprise
+ * depuis l'outbox les relit.
+ */
+public class ChangeQueue {
+
+    private final Map<String, TreeMap<Long, EntityChange>> byTenant = new LinkedHashMap<>();
+    private final Map<String, Map<String, List<EntityChange>>> heldByTenant = new HashMap<>();
+    private int size;
+
+    /**
+     * @return nombre de changements effectivement ajoutés
+     */
+    public synchronized int offer(Collection<EntityChange> changes) {
+        int added = 0;
+        for (EntityChange change : changes) {
+            TreeMap<Long, EntityChange> queue = byTenant.computeIfAbsent(change.getTenant(), key -> new TreeMap<>());
+            if (queue.putIfAbsent(change.getOutboxId(), change) == null) {
+                added++;
+            }
+        }
+        size += added;
+        return added;
+    }
+
+    /**
+     * Retire les plus anciens changements du prochain tenant servi
+     *
+     * @param max taille maximale du lot
+     * @return le lot, ou null si la file est vide
+     */
+    public synchronized ChangeBatch poll(int max) {
+        Iterator<Map.Entry<String, TreeMap<Long, EntityChange>>> tenants = byTenant.entrySet().iterator();
+        if (!tenants.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, TreeMap<Long, EntityChange>> next = tenants.next();
+        String tenant = next.getKey();
+        TreeMap<Long, EntityChange> queue = next.getValue();
+        tenants.remove();
+
+        List<EntityChange> changes = new ArrayList<>(Math.min(max, queue.size()));
+        while (changes.size() < max && !queue.isEmpty()) {
+            changes.add(queue.pollFirstEntry().getValue());
+        }
+        size -= changes.size();
+        if (!queue.isEmpty()) {
+            // Fin du tour : le tenant repasse derrière les autres
+            byTenant.put(tenant, queue);
+        }
+        return new ChangeBatch(tenant, changes);
+    }
+
+    /**
+     * Met de côté des changements retenus, jusqu'à la remise d'un lot de leur agrégat
+     */
+    public synchronized void hold(String tenant, Collection<EntityChange> changes) {
+        Map<String, List<EntityChange>> held = heldByTenant.computeIfAbsent(tenant, key -> new HashMap<>());
+        for (EntityChange change : changes) {
+            held.computeIfAbsent(change.aggregateKey(), key -> new ArrayList<>()).add(change);
+        }
+    }
+
+    /**
+     * Remet en file les changements retenus des agrégats d'un lot remis
+     *
+     * @return nombre de changements remis en file
+     */
+    public synchronized int release(ChangeBatch delivered) {
+        Map<String, List<EntityChange>> held = heldByTenant.get(delivered.getTenant());
+        if (held == null) {
+            return 0;
+        }
+        int released = 0;
+        for (EntityChange change : delivered.getChanges()) {
+            List<EntityChange> waiting = held.remove(change.aggregateKey());
+            if (waiting != null) {
+                released += offer(waiting);
+            }
+        }
+        if (held.isEmpty()) {
+            heldByTenant.remove(delivered.getTenant());
+        }
+        return released;
+    }
+
+    /**
+     * Oublie les changements retenus d'un tenant enregistrés avant une date : la reprise les relit
+     */
+    public synchronized void dropHeld(String tenant, LocalDateTime before) {
+        Map<String, List<EntityChange>> held = heldByTenant.get(tenant);
+        if (held == null) {
+            return;
+        }
+        held.values().forEach(waiting -> waiting.removeIf(change -> change.getOccurredAt().isBefore(before)));
+        held.values().removeIf(List::isEmpty);
+        if (held.isEmpty()) {
+            heldByTenant.remove(tenant);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,10 @@
+package com.hrms.events;
+
+/**
+ * Nature d'un changement d'entité ; une suppression logique (deleted = true) est un DELETED
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,49 @@
+package com.hrms.events;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Changement validé d'une entité suivie, tel qu'enregistré dans l'outbox
+ */
+@Value
+@Builder
+public class EntityChange {
+
+    /**
+     * Identifiant de la ligne d'outbox : croissant dans l'ordre des commits pour un même agrégat
+     */
+    long outboxId;
+
+    String tenant;
+
+    /**
+     * Nom simple de l'entité (Personnel, Position, ...)
+     */
+    String aggregateType;
+
+    long aggregateId;
+
+    ChangeType changeType;
+
+    /**
+     * Propriétés modifiées (UPDATED uniquement)
+     */
+    Set<String> changedProperties;
+
+    LocalDateTime occurredAt;
+
+    /**
+     * Clé de l'agrégat modifié, unique au sein d'un tenant
+     */
+    public String aggregateKey() {
+        return aggregateKey(aggregateType, aggregateId);
+    }
+
+    public static String aggregateKey(String aggregateType, long aggregateId) {
+        return aggregateType + '#' + aggregateId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hrms.events;
+
+import java.util.Set;
+
+/**
+ * Abonné aux changements d'entités publiés après commit.
+ * La remise est « au moins une fois » : un lot peut être rejoué depuis l'outbox après un arrêt
+ * ou un échec d'abonné ; le traitement doit donc être idempotent (relecture de l'état courant).
+ */
+public interface EntityChangeSubscriber {
+
+    /**
+     * Types d'agrégats suivis (nom simple de l'entité), tous si vide
+     */
+    Set<String> aggregateTypes();
+
+    /**
+     * Lot de changements validés, appelé dans le contexte du tenant du lot
+     */
+    void onChanges(ChangeBatch batch);
+}
@@ -0,0 +1,204 @@
+package com.hrms.events;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.service.ChangeEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Capture des changements d'entités dans l'outbox transactionnelle.
+ *
+ * Les écouteurs Hibernate (insertion, mise à jour, suppression) accumulent les changements des
+ * entités suivies (hrms.events.aggregates) par session. Juste avant le commit, après le dernier
+ * flush, ils sont insérés en un lot JDBC dans outbox_events sur la connexion de la transaction :
+ * ils sont validés ou annulés avec elle. Après un commit réussi, ils sont confiés à
+ * {@link ChangeEventService} pour la remise aux abonnés.
+ *
+ * Les identifiants d'outbox sont tirés au moment du commit : deux transactions modifiant le même
+ * agrégat sont sérialisées par le verrou de ligne, leurs changements sont donc numérotés dans
+ * l'ordre des commits. Les requêtes JPQL de masse (UPDATE/DELETE) ne passent pas par ces écouteurs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxChangeCapture implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String SEQUENCE = "outbox_events_seq";
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events " +
+            "(id, tenant_id, aggregate_type, aggregate_id, change_type, changed_properties, occurred_at) " +
+            "VALUES (%s, ?, ?, ?, ?, ?, ?)";
+
+    private final WorkforceChangeTracker changeTracker;
+
+    private final ChangeEventService changeEventService;
+
+    @Value("${hrms.events.aggregates:Personnel,Position,CareerMovement,AdministrativeStructure,PersonnelLeave,PersonnelDocument," +
+            "Region,Department,Arrondissement,CorpsMetier,Grade,PositionTemplate,OrganizationalTemplate,Organization," +
+            "TrainingEnrollment,ProfessionalTraining}")
+    private List<String> aggregates;
+
+    private final Map<EventSource, PendingChanges> pendingBySession = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId(), ChangeType.CREATED, Set.of());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            record(event.getSession(), event.getPersister(), event.getId(), ChangeType.UPDATED, Set.of());
+            return;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        Set<String> changed = new LinkedHashSet<>();
+        ChangeType type = ChangeType.UPDATED;
+        for (int index : dirty) {
+            changed.add(names[index]);
+            // Suppression logique (BaseEntity.deleted)
+            if ("deleted".equals(names[index]) && Boolean.TRUE.equals(event.getState()[index])) {
+                type = ChangeType.DELETED;
+            }
+        }
+        record(event.getSession(), event.getPersister(), event.getId(), type, changed);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId(), ChangeType.DELETED, Set.of());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, EntityPersister persister, Object id,
+                        ChangeType changeType, Set<String> changedProperties) {
+        String aggregateType = persister.getMappedClass().getSimpleName();
+        if (!aggregates.contains(aggregateType) || !(id instanceof Long aggregateId)) {
+            return;
+        }
+        PendingChanges pending = pendingBySession.get(session);
+        if (pending == null) {
+            PendingChanges created = new PendingChanges(changeTracker.currentTenant());
+            session.getActionQueue().registerProcess(
+                    (BeforeTransactionCompletionProcess) completing -> writeOutbox(completing, created));
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> afterCompletion(session, created, success));
+            pendingBySession.put(session, created);
+            pending = created;
+        }
+        pending.captured.add(new CapturedChange(aggregateType, aggregateId, changeType,
+                changedProperties, LocalDateTime.now()));
+    }
+
+    private void writeOutbox(SessionImplementor session, PendingChanges pending) {
+        if (pending.captured.isEmpty()) {
+            return;
+        }
+        String nextId = session.getJdbcServices().getDialect().getSequenceSupport()
+                .getSelectSequenceNextValString(SEQUENCE);
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    String.format(INSERT_SQL, nextId), new String[] {"id"})) {
+                for (CapturedChange change : pending.captured) {
+                    statement.setString(1, pending.tenant);
+                    statement.setString(2, change.aggregateType);
+                    statement.setLong(3, change.aggregateId);
+                    statement.setString(4, change.changeType.name());
+                    statement.setString(5, change.changedProperties.isEmpty()
+                            ? null : String.join(",", change.changedProperties));
+                    statement.setTimestamp(6, Timestamp.valueOf(change.occurredAt));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next()) {
+                        pending.written.add(pending.captured.get(index++).toEntityChange(keys.getLong(1), pending.tenant));
+                    }
+                }
+            }
+        });
+    }
+
+    private void afterCompletion(EventSource session, PendingChanges pending, boolean success) {
+        pendingBySession.remove(session);
+        if (!success || pending.written.isEmpty()) {
+            return;
+        }
+        try {
+            changeEventService.publish(pending.written);
+        } catch (Exception e) {
+            // Les lignes d'outbox restent non publiées : elles seront reprises
+            log.warn("Publication de {} changements différée à la reprise de l'outbox: {}",
+                    pending.written.size(), e.getMessage());
+        }
+    }
+
+    private static class PendingChanges {
+        private final String tenant;
+        private final List<CapturedChange> captured = new ArrayList<>();
+        private final List<EntityChange> written = new ArrayList<>();
+
+        PendingChanges(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    private static class CapturedChange {
+        private final String aggregateType;
+        private final long aggregateId;
+        private final ChangeType changeType;
+        private final Set<String> changedProperties;
+        private final LocalDateTime occurredAt;
+
+        CapturedChange(String aggregateType, long aggregateId, ChangeType changeType,
+                       Set<String> changedProperties, LocalDateTime occurredAt) {
+            this.aggregateType = aggregateType;
+            this.aggregateId = aggregateId;
+            this.changeType = changeType;
+            this.changedProperties = changedProperties;
+            this.occurredAt = occurredAt;
+        }
+
+        EntityChange toEntityChange(long outboxId, String tenant) {
+            return EntityChange.builder()
+                    .outboxId(outboxId)
+                    .tenant(tenant)
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .changeType(changeType)
+                    .changedProperties(changedProperties)
+                    .occurredAt(occurredAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hrms.expiry;
+
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Échéance d'un document d'agent : le document est expiré le lendemain de sa date d'expiration
+ */
+@Value
+@Builder
+public class DocumentExpiry {
+
+    Long documentId;
+    Long personnelId;
+    DocumentType documentType;
+    LocalDate expiryDate;
+}
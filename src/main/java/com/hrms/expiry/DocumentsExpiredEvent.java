@@ -0,0 +1,22 @@
+package com.hrms.expiry;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lot de documents arrivés à expiration, publié une fois par document et par tenant
+ */
+@Value
+public class DocumentsExpiredEvent {
+
+    String tenant;
+
+    /**
+     * Jour de la détection : les documents ont une date d'expiration antérieure
+     */
+    LocalDate detectedOn;
+
+    List<DocumentExpiry> documents;
+}
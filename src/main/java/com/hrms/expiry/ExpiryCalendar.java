@@ -0,0 +1,136 @@
+package com.hrms.expiry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Échéancier des documents rangés par jour d'expiration.
+ *
+ * Les documents sont regroupés dans un seau par jour, les seaux triés par date : « expirés »
+ * et « expirant dans N jours » sont des plages de seaux, sans parcours du reste. Un curseur
+ * marque le premier jour d'expiration non encore notifié ; {@link #advanceTo(LocalDate)} rend
+ * les documents expirés depuis le dernier passage et avance le curseur. Un document ajouté ou
+ * modifié avec une échéance déjà dépassée est rendu au passage suivant.
+ */
+public class ExpiryCalendar {
+
+    private final NavigableMap<LocalDate, Map<Long, DocumentExpiry>> byDay = new TreeMap<>();
+    private final Map<Long, DocumentExpiry> byId = new HashMap<>();
+    private final Map<Long, DocumentExpiry> late = new LinkedHashMap<>();
+
+    /**
+     * Premier jour d'expiration dont les documents n'ont pas encore été notifiés
+     */
+    private LocalDate notifiedBefore;
+
+    /**
+     * @param notifiedBefore les documents expirés avant cette date sont considérés comme déjà notifiés
+     */
+    public ExpiryCalendar(LocalDate notifiedBefore) {
+        this.notifiedBefore = notifiedBefore;
+    }
+
+    /**
+     * Chargement initial : une échéance déjà dépassée est considérée comme notifiée
+     */
+    public void load(DocumentExpiry expiry) {
+        remove(expiry.getDocumentId());
+        insert(expiry);
+    }
+
+    /**
+     * Document ajouté ou modifié : une échéance qui vient de passer sous le curseur sera notifiée
+     */
+    public void upsert(DocumentExpiry expiry) {
+        boolean wasLate = late.containsKey(expiry.getDocumentId());
+        DocumentExpiry previous = remove(expiry.getDocumentId());
+        if (!insert(expiry)) {
+            return;
+        }
+        boolean alreadyPast = expiry.getExpiryDate().isBefore(notifiedBefore);
+        boolean wasPast = previous != null && previous.getExpiryDate().isBefore(notifiedBefore);
+        if (alreadyPast && (!wasPast || wasLate)) {
+            late.put(expiry.getDocumentId(), expiry);
+        }
+    }
+
+    /**
+     * Retire un document, renvoie son échéance précédente
+     */
+    public DocumentExpiry remove(Long documentId) {
+        DocumentExpiry previous = byId.remove(documentId);
+        if (previous == null) {
+            return null;
+        }
+        late.remove(documentId);
+        Map<Long, DocumentExpiry> bucket = byDay.get(previous.getExpiryDate());
+        bucket.remove(documentId);
+        if (bucket.isEmpty()) {
+            byDay.remove(previous.getExpiryDate());
+        }
+        return previous;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public LocalDate getNotifiedBefore() {
+        return notifiedBefore;
+    }
+
+    /**
+     * Documents expirés au jour donné (date d'expiration antérieure), les plus anciens d'abord
+     */
+    public List<DocumentExpiry> expiredOn(LocalDate today) {
+        return flatten(byDay.headMap(today, false).values());
+    }
+
+    /**
+     * Documents dont la date d'expiration est comprise entre deux dates incluses
+     */
+    public List<DocumentExpiry> expiringBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+        return flatten(byDay.subMap(from, true, to, true).values());
+    }
+
+    /**
+     * Documents expirés depuis le dernier passage (et retardataires), puis avance du curseur
+     */
+    public List<DocumentExpiry> advanceTo(LocalDate today) {
+        List<DocumentExpiry> due = new ArrayList<>(late.values());
+        late.clear();
+        if (today.isAfter(notifiedBefore)) {
+            due.addAll(flatten(byDay.subMap(notifiedBefore, true, today, false).values()));
+            notifiedBefore = today;
+        }
+        return due;
+    }
+
+    private boolean insert(DocumentExpiry expiry) {
+        if (expiry.getExpiryDate() == null) {
+            return false;
+        }
+        byId.put(expiry.getDocumentId(), expiry);
+        byDay.computeIfAbsent(expiry.getExpiryDate(), day -> new LinkedHashMap<>())
+                .put(expiry.getDocumentId(), expiry);
+        return true;
+    }
+
+    private static List<DocumentExpiry> flatten(Collection<Map<Long, DocumentExpiry>> buckets) {
+        List<DocumentExpiry> expiries = new ArrayList<>();
+        for (Map<Long, DocumentExpiry> bucket : buckets) {
+            expiries.addAll(bucket.values());
+        }
+        return expiries;
+    }
+}
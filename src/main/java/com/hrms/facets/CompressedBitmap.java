@@ -0,0 +1,478 @@
+package com.hrms.facets;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Ensemble compressé d'entiers positifs, sur le principe des bitmaps « roaring ».
+ *
+ * Les valeurs sont rangées par blocs de 65 536 (16 bits de poids fort) ; chaque bloc est un
+ * tableau trié de 16 bits tant qu'il contient au plus {@link #ARRAY_MAX} valeurs, puis un bitmap
+ * de 8 Ko au-delà. Les intersections et unions se font bloc à bloc, mot à mot pour les blocs denses.
+ * Non synchronisé : l'appelant protège les accès concurrents.
+ */
+public class CompressedBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private final TreeMap<Integer, Container> blocks = new TreeMap<>();
+
+    public void add(int value) {
+        checkValue(value);
+        int key = value >>> 16;
+        Container block = blocks.get(key);
+        blocks.put(key, block == null ? new ArrayContainer().add((char) value) : block.add((char) value));
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int key = value >>> 16;
+        Container block = blocks.get(key);
+        if (block == null) {
+            return;
+        }
+        Container updated = block.remove((char) value);
+        if (updated.cardinality() == 0) {
+            blocks.remove(key);
+        } else {
+            blocks.put(key, updated);
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        Container block = blocks.get(value >>> 16);
+        return block != null && block.contains((char) value);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (Container block : blocks.values()) {
+            cardinality += block.cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    /**
+     * Intersection, nouvel ensemble
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        Iterator<Map.Entry<Integer, Container>> left = blocks.entrySet().iterator();
+        Iterator<Map.Entry<Integer, Container>> right = other.blocks.entrySet().iterator();
+        Map.Entry<Integer, Container> l = left.hasNext() ? left.next() : null;
+        Map.Entry<Integer, Container> r = right.hasNext() ? right.next() : null;
+        while (l != null && r != null) {
+            int compare = Integer.compare(l.getKey(), r.getKey());
+            if (compare == 0) {
+                Container block = l.getValue().and(r.getValue());
+                if (block.cardinality() > 0) {
+                    result.blocks.put(l.getKey(), block);
+                }
+            }
+            if (compare <= 0) {
+                l = left.hasNext() ? left.next() : null;
+            }
+            if (compare >= 0) {
+                r = right.hasNext() ? right.next() : null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Taille de l'intersection, sans la construire
+     */
+    public int andCardinality(CompressedBitmap other) {
+        CompressedBitmap smaller = blocks.size() <= other.blocks.size() ? this : other;
+        CompressedBitmap larger = smaller == this ? other : this;
+        int cardinality = 0;
+        for (Map.Entry<Integer, Container> entry : smaller.blocks.entrySet()) {
+            Container block = larger.blocks.get(entry.getKey());
+            if (block != null) {
+                cardinality += entry.getValue().andCardinality(block);
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Union, nouvel ensemble
+     */
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = copy();
+        for (Map.Entry<Integer, Container> entry : other.blocks.entrySet()) {
+            Container block = result.blocks.get(entry.getKey());
+            result.blocks.put(entry.getKey(), block == null ? entry.getValue().copy() : block.or(entry.getValue()));
+        }
+        return result;
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap();
+        for (Map.Entry<Integer, Container> entry : blocks.entrySet()) {
+            copy.blocks.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Parcourt les valeurs dans l'ordre croissant jusqu'à ce que le visiteur renvoie false
+     */
+    public void forEach(IntPredicate visitor) {
+        for (Map.Entry<Integer, Container> entry : blocks.entrySet()) {
+            if (!entry.getValue().forEach(entry.getKey() << 16, visitor)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Valeurs dans l'ordre croissant, à partir du rang offset et au plus limit
+     */
+    public int[] slice(int offset, int limit) {
+        int[] values = new int[Math.max(0, Math.min(limit, cardinality() - offset))];
+        int[] rank = {0};
+        int[] filled = {0};
+        if (values.length == 0) {
+            return values;
+        }
+        forEach(value -> {
+            if (rank[0]++ >= offset) {
+                values[filled[0]++] = value;
+            }
+            return filled[0] < values.length;
+        });
+        return values;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Valeur négative: " + value);
+        }
+    }
+
+    /**
+     * Bloc de 65 536 valeurs possibles
+     */
+    private interface Container {
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        Container and(Container other);
+
+        int andCardinality(Container other);
+
+        Container or(Container other);
+
+        Container copy();
+
+        boolean forEach(int base, IntPredicate visitor);
+    }
+
+    /**
+     * Bloc creux : valeurs triées
+     */
+    private static final class ArrayContainer implements Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int insertAt = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] == array.values[j]) {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    } else if (values[i] < array.values[j]) {
+                        i++;
+                    } else {
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        public int andCardinality(Container other) {
+            if (other instanceof ArrayContainer array) {
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] == array.values[j]) {
+                        count++;
+                        i++;
+                        j++;
+                    } else if (values[i] < array.values[j]) {
+                        i++;
+                    } else {
+                        j++;
+                    }
+                }
+                return count;
+            }
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_MAX) {
+                return toBitmap().or(array);
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || array.values[j] < values[i]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        public boolean forEach(int base, IntPredicate visitor) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!visitor.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Bloc dense : 1 024 mots de 64 bits
+     */
+    private static final class BitmapContainer implements Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[words.length];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                result[i] = words[i] & bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapContainer intersection = new BitmapContainer(result, count);
+            return count <= ARRAY_MAX ? intersection.toArray() : intersection;
+        }
+
+        @Override
+        public int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                count += Long.bitCount(words[i] & bitmap.words[i]);
+            }
+            return count;
+        }
+
+        @Override
+        public Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            if (other instanceof BitmapContainer bitmap) {
+                int count = 0;
+                for (int i = 0; i < words.length; i++) {
+                    result.words[i] |= bitmap.words[i];
+                    count += Long.bitCount(result.words[i]);
+                }
+                result.cardinality = count;
+            } else {
+                other.forEach(0, value -> {
+                    result.add((char) value);
+                    return true;
+                });
+            }
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        public boolean forEach(int base, IntPredicate visitor) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    if (!visitor.test(base | (i << 6) | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int[] count = {0};
+            forEach(0, value -> {
+                values[count[0]++] = (char) value;
+                return true;
+            });
+            return new ArrayContainer(values, count[0]);
+        }
+    }
+}
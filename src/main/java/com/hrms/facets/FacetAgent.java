@@ -0,0 +1,17 @@
+package com.hrms.facets;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Valeurs de facettes d'un agent ; une facette absente (ou sans valeur) n'est pas indexée
+ */
+@Value
+@Builder
+public class FacetAgent {
+
+    Long personnelId;
+    Map<PersonnelFacet, String> values;
+}
@@ -0,0 +1,178 @@
+package com.hrms.facets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index à facettes des agents.
+ *
+ * Chaque agent reçoit un rang (entier dense, attribué à son premier ajout) ; chaque valeur de
+ * facette porte le {@link CompressedBitmap} des rangs des agents qui l'ont. Une recherche combine
+ * les valeurs choisies en OU au sein d'une facette et en ET entre facettes. L'effectif d'une valeur
+ * est calculé avec les choix des autres facettes seulement, pour que la barre latérale montre ce
+ * que donnerait l'ajout ou le remplacement d'une valeur. Les agents sont rendus dans l'ordre des rangs
+ * (identifiant croissant au chargement, puis ordre d'ajout).
+ * Non synchronisé : l'appelant protège les accès concurrents.
+ */
+public class FacetIndex {
+
+    private final Map<Long, Integer> rankById = new HashMap<>();
+    private final List<Long> idByRank = new ArrayList<>();
+    private final Map<Integer, Map<PersonnelFacet, String>> valuesByRank = new HashMap<>();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<PersonnelFacet, Map<String, CompressedBitmap>> bitmaps = new EnumMap<>(PersonnelFacet.class);
+
+    public FacetIndex() {
+        for (PersonnelFacet facet : PersonnelFacet.values()) {
+            bitmaps.put(facet, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Ajoute un agent ou remplace ses valeurs de facettes
+     */
+    public void upsert(FacetAgent agent) {
+        Integer rank = rankById.get(agent.getPersonnelId());
+        if (rank == null) {
+            rank = idByRank.size();
+            idByRank.add(agent.getPersonnelId());
+            rankById.put(agent.getPersonnelId(), rank);
+        }
+        Map<PersonnelFacet, String> values = new EnumMap<>(PersonnelFacet.class);
+        agent.getValues().forEach((facet, value) -> {
+            if (value != null) {
+                values.put(facet, value);
+            }
+        });
+        Map<PersonnelFacet, String> previous = valuesByRank.put(rank, values);
+        for (PersonnelFacet facet : PersonnelFacet.values()) {
+            String before = previous == null ? null : previous.get(facet);
+            String after = values.get(facet);
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (before != null) {
+                unmark(facet, before, rank);
+            }
+            if (after != null) {
+                bitmaps.get(facet).computeIfAbsent(after, key -> new CompressedBitmap()).add(rank);
+            }
+        }
+        all.add(rank);
+    }
+
+    /**
+     * Retire un agent (supprimé) ; son rang n'est pas réattribué
+     */
+    public void remove(Long personnelId) {
+        Integer rank = rankById.get(personnelId);
+        if (rank == null) {
+            return;
+        }
+        Map<PersonnelFacet, String> previous = valuesByRank.remove(rank);
+        if (previous != null) {
+            previous.forEach((facet, value) -> unmark(facet, value, rank));
+        }
+        all.remove(rank);
+    }
+
+    public boolean contains(Long personnelId) {
+        Integer rank = rankById.get(personnelId);
+        return rank != null && all.contains(rank);
+    }
+
+    public int size() {
+        return all.cardinality();
+    }
+
+    /**
+     * Recherche : agents correspondant aux valeurs choisies, page [offset, offset + limit),
+     * et effectifs de toutes les valeurs de toutes les facettes
+     *
+     * @param selections valeurs choisies par facette ; une facette absente ou vide ne filtre pas
+     */
+    public FacetResult search(Map<PersonnelFacet, ? extends Collection<String>> selections, int offset, int limit) {
+        Map<PersonnelFacet, CompressedBitmap> selected = new EnumMap<>(PersonnelFacet.class);
+        selections.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                selected.put(facet, union(facet, values));
+            }
+        });
+
+        CompressedBitmap matching = intersect(selected, null);
+
+        Map<PersonnelFacet, Map<String, Integer>> counts = new EnumMap<>(PersonnelFacet.class);
+        for (PersonnelFacet facet : PersonnelFacet.values()) {
+            // Sans choix sur cette facette, les autres choix donnent exactement le résultat
+            CompressedBitmap base = selected.containsKey(facet) ? intersect(selected, facet) : matching;
+            Collection<String> chosen = selections.get(facet);
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, CompressedBitmap> value : bitmaps.get(facet).entrySet()) {
+                int count = base.andCardinality(value.getValue());
+                if (count > 0 || (chosen != null && chosen.contains(value.getKey()))) {
+                    facetCounts.put(value.getKey(), count);
+                }
+            }
+            if (chosen != null) {
+                for (String value : chosen) {
+                    facetCounts.putIfAbsent(value, 0);
+                }
+            }
+            counts.put(facet, facetCounts);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (int rank : matching.slice(Math.max(offset, 0), Math.max(limit, 0))) {
+            ids.add(idByRank.get(rank));
+        }
+        return FacetResult.builder()
+                .total(matching.cardinality())
+                .personnelIds(ids)
+                .counts(counts)
+                .build();
+    }
+
+    private CompressedBitmap union(PersonnelFacet facet, Collection<String> values) {
+        CompressedBitmap union = new CompressedBitmap();
+        for (String value : Set.copyOf(values)) {
+            CompressedBitmap bitmap = bitmaps.get(facet).get(value);
+            if (bitmap != null) {
+                union = union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Intersection de tous les agents et des choix de chaque facette, sauf celle exclue
+     */
+    private CompressedBitmap intersect(Map<PersonnelFacet, CompressedBitmap> selected, PersonnelFacet excluded) {
+        CompressedBitmap result = all;
+        for (Map.Entry<PersonnelFacet, CompressedBitmap> entry : selected.entrySet()) {
+            if (entry.getKey() != excluded) {
+                result = result.and(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void unmark(PersonnelFacet facet, String value, int rank) {
+        Map<String, CompressedBitmap> facetBitmaps = bitmaps.get(facet);
+        CompressedBitmap bitmap = facetBitmaps.get(value);
+        if (bitmap == null) {
+            return;
+        }
+        bitmap.remove(rank);
+        if (bitmap.isEmpty()) {
+            facetBitmaps.remove(value);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hrms.facets;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat d'une recherche à facettes : page d'identifiants et effectifs par valeur de facette
+ */
+@Value
+@Builder
+public class FacetResult {
+
+    int total;
+    List<Long> personnelIds;
+    Map<PersonnelFacet, Map<String, Integer>> counts;
+}
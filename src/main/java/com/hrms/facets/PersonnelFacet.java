@@ -0,0 +1,13 @@
+package com.hrms.facets;
+
+/**
+ * Facettes de la recherche de personnels
+ */
+public enum PersonnelFacet {
+    GRADE,
+    CORPS,
+    STRUCTURE,
+    REGION,
+    STATUS,
+    GENDER
+}
@@ -0,0 +1,57 @@
+package com.hrms.leavecalendar;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Série journalière des agents absents d'un sous-arbre de structures sur une période.
+ * Un agent couvert par plusieurs congés le même jour n'est compté qu'une fois.
+ */
+@Value
+public class AvailabilitySeries {
+
+    LocalDate from;
+    LocalDate to;
+
+    /**
+     * Effectif du sous-arbre
+     */
+    int headcount;
+
+    /**
+     * Agents distincts absents au moins un jour de la période
+     */
+    int absentAgentCount;
+
+    int[] absentByDay;
+
+    public int days() {
+        return absentByDay.length;
+    }
+
+    public LocalDate date(int day) {
+        return from.plusDays(day);
+    }
+
+    public int absent(int day) {
+        return absentByDay[day];
+    }
+
+    public int available(int day) {
+        return Math.max(headcount - absentByDay[day], 0);
+    }
+
+    /**
+     * Premier jour où le nombre d'absents est maximal
+     */
+    public int peakDay() {
+        int peak = 0;
+        for (int day = 1; day < absentByDay.length; day++) {
+            if (absentByDay[day] > absentByDay[peak]) {
+                peak = day;
+            }
+        }
+        return peak;
+    }
+}
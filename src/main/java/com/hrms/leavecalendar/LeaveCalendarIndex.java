@@ -0,0 +1,144 @@
+package com.hrms.leavecalendar;
+
+import com.hrms.entity.PersonnelLeave.LeaveReason;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index des congés par chemin de structure.
+ *
+ * Les congés sont rangés par chemin matérialisé trié : le sous-arbre d'une structure est une
+ * plage contiguë de clés. Une série journalière parcourt une seule fois les congés de la plage,
+ * fusionne les périodes qui se chevauchent pour un même agent puis balaie les événements
+ * début/fin dans un tableau de différences. Les congés sont ajoutés, remplacés ou retirés un à un.
+ */
+public class LeaveCalendarIndex {
+
+    private static final String SUBTREE_END = "\uffff";
+
+    private static final Comparator<LeaveInterval> BY_AGENT_THEN_START = Comparator
+            .comparing(LeaveInterval::getPersonnelId)
+            .thenComparing(LeaveInterval::getStartDate);
+
+    private final NavigableMap<String, Map<Long, LeaveInterval>> leavesByPath = new TreeMap<>();
+    private final Map<Long, LeaveInterval> leavesById = new HashMap<>();
+    private final NavigableMap<String, Integer> headcountByPath = new TreeMap<>();
+
+    /**
+     * Ajoute ou remplace un congé (dates, motif ou structure modifiés)
+     */
+    public void upsert(LeaveInterval leave) {
+        if (leave.getStartDate() == null || leave.getEndDate() == null
+                || leave.getEndDate().isBefore(leave.getStartDate())) {
+            remove(leave.getLeaveId());
+            return;
+        }
+        remove(leave.getLeaveId());
+        leavesById.put(leave.getLeaveId(), leave);
+        leavesByPath.computeIfAbsent(key(leave.getStructurePath()), path -> new HashMap<>())
+                .put(leave.getLeaveId(), leave);
+    }
+
+    public void remove(Long leaveId) {
+        LeaveInterval previous = leavesById.remove(leaveId);
+        if (previous == null) {
+            return;
+        }
+        String path = key(previous.getStructurePath());
+        Map<Long, LeaveInterval> leaves = leavesByPath.get(path);
+        leaves.remove(leaveId);
+        if (leaves.isEmpty()) {
+            leavesByPath.remove(path);
+        }
+    }
+
+    public void setHeadcount(String structurePath, int headcount) {
+        headcountByPath.put(key(structurePath), headcount);
+    }
+
+    public int leaveCount() {
+        return leavesById.size();
+    }
+
+    /**
+     * Absents par jour du sous-arbre de la structure (tout l'index si le chemin est null)
+     *
+     * @param reasons motifs retenus, tous si null ou vide
+     */
+    public AvailabilitySeries series(String structurePath, LocalDate from, LocalDate to, Set<LeaveReason> reasons) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        String prefix = key(structurePath);
+
+        List<LeaveInterval> matching = new ArrayList<>();
+        for (Map<Long, LeaveInterval> leaves : subtree(leavesByPath, prefix).values()) {
+            for (LeaveInterval leave : leaves.values()) {
+                if (leave.overlaps(from, to) && (reasons == null || reasons.isEmpty() || reasons.contains(leave.getReason()))) {
+                    matching.add(leave);
+                }
+            }
+        }
+        matching.sort(BY_AGENT_THEN_START);
+
+        // Fusion par agent puis balayage : +1 au premier jour, -1 au lendemain du dernier
+        int[] delta = new int[days + 1];
+        int absentAgents = 0;
+        Long currentAgent = null;
+        int runStart = 0;
+        int runEnd = -1;
+        for (LeaveInterval leave : matching) {
+            int start = Math.max((int) ChronoUnit.DAYS.between(from, leave.getStartDate()), 0);
+            int end = Math.min((int) ChronoUnit.DAYS.between(from, leave.getEndDate()), days - 1);
+            if (!leave.getPersonnelId().equals(currentAgent)) {
+                if (currentAgent != null) {
+                    delta[runStart]++;
+                    delta[runEnd + 1]--;
+                }
+                currentAgent = leave.getPersonnelId();
+                absentAgents++;
+                runStart = start;
+                runEnd = end;
+            } else if (start <= runEnd + 1) {
+                runEnd = Math.max(runEnd, end);
+            } else {
+                delta[runStart]++;
+                delta[runEnd + 1]--;
+                runStart = start;
+                runEnd = end;
+            }
+        }
+        if (currentAgent != null) {
+            delta[runStart]++;
+            delta[runEnd + 1]--;
+        }
+
+        int[] absentByDay = new int[days];
+        int running = 0;
+        for (int day = 0; day < days; day++) {
+            running += delta[day];
+            absentByDay[day] = running;
+        }
+
+        int headcount = 0;
+        for (int count : subtree(headcountByPath, prefix).values()) {
+            headcount += count;
+        }
+        return new AvailabilitySeries(from, to, headcount, absentAgents, absentByDay);
+    }
+
+    private static <V> NavigableMap<String, V> subtree(NavigableMap<String, V> byPath, String prefix) {
+        return byPath.subMap(prefix, true, prefix + SUBTREE_END, false);
+    }
+
+    private static String key(String structurePath) {
+        return structurePath != null ? structurePath : "";
+    }
+}
@@ -0,0 +1,31 @@
+package com.hrms.leavecalendar;
+
+import com.hrms.entity.PersonnelLeave.LeaveReason;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Période de congé d'un agent, bornes incluses, rattachée au chemin de sa structure
+ */
+@Value
+@Builder
+public class LeaveInterval {
+
+    Long leaveId;
+    Long personnelId;
+
+    /**
+     * Chemin matérialisé de la structure de l'agent
+     */
+    String structurePath;
+
+    LocalDate startDate;
+    LocalDate endDate;
+    LeaveReason reason;
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return !startDate.isAfter(to) && !endDate.isBefore(from);
+    }
+}
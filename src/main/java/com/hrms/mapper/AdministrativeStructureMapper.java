@@ -22,6 +22,7 @@ public interface AdministrativeStructureMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "parentStructure", ignore = true)
     @Mapping(target = "level", ignore = true)
+    @Mapping(target = "path", ignore = true)
     @Mapping(target = "totalPositions", ignore = true)
     @Mapping(target = "occupiedPositions", constant = "0")
     @Mapping(target = "vacantPositions", constant = "0")
@@ -39,6 +40,7 @@ public interface AdministrativeStructureMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "parentStructure", ignore = true)
     @Mapping(target = "level", ignore = true)
+    @Mapping(target = "path", ignore = true)
     @Mapping(target = "totalPositions", ignore = true)
     @Mapping(target = "occupiedPositions", ignore = true)
     @Mapping(target = "vacantPositions", ignore = true)
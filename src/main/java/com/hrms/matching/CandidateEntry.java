@@ -0,0 +1,42 @@
+package com.hrms.matching;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Agent affectable tel qu'indexé par le moteur de rapprochement
+ */
+@Value
+@Builder
+public class CandidateEntry {
+
+    long personnelId;
+    String matricule;
+    String fullName;
+
+    /**
+     * Code et libellé du grade / du corps, normalisés ({@link MatchingIndex#normalize})
+     */
+    String gradeCode;
+    String gradeName;
+    String gradeCategory;
+    String corpsCode;
+    String corpsName;
+
+    Long structureId;
+    String structurePath;
+    int seniorityYears;
+
+    /**
+     * Agent déjà titulaire d'un poste (affectable uniquement au titre du cumul officiel)
+     */
+    boolean holdingPosition;
+
+    boolean hasGrade(String key) {
+        return key.equals(gradeCode) || key.equals(gradeName);
+    }
+
+    boolean hasCorps(String key) {
+        return key.equals(corpsCode) || key.equals(corpsName);
+    }
+}
@@ -0,0 +1,343 @@
+package com.hrms.matching;
+
+import lombok.Value;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index en mémoire des postes vacants et des agents affectables.
+ *
+ * - Postes indexés par grade requis et par chemin de structure (plage de préfixe pour un sous-arbre)
+ * - Agents indexés par grade (code et libellé) et par corps
+ *
+ * Une recherche ne parcourt que le compartiment correspondant à l'exigence la plus sélective
+ * du poste (ou au grade de l'agent) puis applique le score de {@link #score}.
+ * L'index est immuable : une mise à jour ({@link #withChanges}) produit un nouvel index à partir
+ * des entrées en mémoire, les recherches en cours gardent l'ancien.
+ */
+public class MatchingIndex {
+
+    public static final int INCOMPATIBLE = -1;
+
+    /**
+     * Clé des postes sans exigence de grade
+     */
+    private static final String ANY = "*";
+
+    private final Map<Long, VacancyEntry> vacanciesById = new HashMap<>();
+    private final Map<String, List<VacancyEntry>> vacanciesByGrade = new HashMap<>();
+    private final TreeMap<String, List<VacancyEntry>> vacanciesByPath = new TreeMap<>();
+
+    private final Map<Long, CandidateEntry> candidatesById = new HashMap<>();
+    private final Map<String, List<CandidateEntry>> candidatesByGrade = new HashMap<>();
+    private final Map<String, List<CandidateEntry>> candidatesByCorps = new HashMap<>();
+    private final List<CandidateEntry> allCandidates;
+
+    public MatchingIndex(List<VacancyEntry> vacancies, List<CandidateEntry> candidates) {
+        for (VacancyEntry vacancy : vacancies) {
+            vacanciesById.put(vacancy.getPositionId(), vacancy);
+            String gradeKey = vacancy.getRequiredGrade() != null ? vacancy.getRequiredGrade() : ANY;
+            vacanciesByGrade.computeIfAbsent(gradeKey, key -> new ArrayList<>()).add(vacancy);
+            if (vacancy.getStructurePath() != null) {
+                vacanciesByPath.computeIfAbsent(vacancy.getStructurePath(), key -> new ArrayList<>()).add(vacancy);
+            }
+        }
+
+        allCandidates = candidates;
+        for (CandidateEntry candidate : candidates) {
+            candidatesById.put(candidate.getPersonnelId(), candidate);
+            addKey(candidatesByGrade, candidate.getGradeCode(), candidate);
+            if (!Objects.equals(candidate.getGradeName(), candidate.getGradeCode())) {
+                addKey(candidatesByGrade, candidate.getGradeName(), candidate);
+            }
+            addKey(candidatesByCorps, candidate.getCorpsCode(), candidate);
+            if (!Objects.equals(candidate.getCorpsName(), candidate.getCorpsCode())) {
+                addKey(candidatesByCorps, candidate.getCorpsName(), candidate);
+            }
+        }
+    }
+
+    /**
+     * Nouvel index où les postes et agents modifiés sont remplacés par leur état relu.
+     * Un identifiant modifié absent des entrées relues n'est plus vacant (ou plus affectable).
+     */
+    public MatchingIndex withChanges(Set<Long> changedPositionIds, List<VacancyEntry> vacancies,
+                                     Set<Long> changedPersonnelIds, List<CandidateEntry> candidates) {
+        List<VacancyEntry> nextVacancies = new ArrayList<>(vacanciesById.size() + vacancies.size());
+        for (VacancyEntry vacancy : vacanciesById.values()) {
+            if (!changedPositionIds.contains(vacancy.getPositionId())) {
+                nextVacancies.add(vacancy);
+            }
+        }
+        nextVacancies.addAll(vacancies);
+
+        List<CandidateEntry> nextCandidates = new ArrayList<>(allCandidates.size() + candidates.size());
+        for (CandidateEntry candidate : allCandidates) {
+            if (!changedPersonnelIds.contains(candidate.getPersonnelId())) {
+                nextCandidates.add(candidate);
+            }
+        }
+        nextCandidates.addAll(candidates);
+        return new MatchingIndex(nextVacancies, nextCandidates);
+    }
+
+    private static void addKey(Map<String, List<CandidateEntry>> index, String key, CandidateEntry candidate) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(candidate);
+        }
+    }
+
+    public VacancyEntry getVacancy(long positionId) {
+        return vacanciesById.get(positionId);
+    }
+
+    public CandidateEntry getCandidate(long personnelId) {
+        return candidatesById.get(personnelId);
+    }
+
+    public int vacancyCount() {
+        return vacanciesById.size();
+    }
+
+    public int candidateCount() {
+        return candidatesById.size();
+    }
+
+    // ==================== RECHERCHES ====================
+
+    /**
+     * Meilleurs agents pour un poste, par score décroissant
+     */
+    public List<Match> candidatesFor(VacancyEntry vacancy, int limit) {
+        List<CandidateEntry> bucket;
+        if (vacancy.getRequiredGrade() != null) {
+            bucket = candidatesByGrade.getOrDefault(vacancy.getRequiredGrade(), List.of());
+        } else if (vacancy.getRequiredCorps() != null) {
+            bucket = candidatesByCorps.getOrDefault(vacancy.getRequiredCorps(), List.of());
+        } else {
+            bucket = allCandidates;
+        }
+
+        TopK topK = new TopK(limit);
+        Set<Long> seen = new HashSet<>();
+        for (CandidateEntry candidate : bucket) {
+            if (seen.add(candidate.getPersonnelId())) {
+                topK.offer(vacancy, candidate);
+            }
+        }
+        return topK.toSortedList();
+    }
+
+    /**
+     * Meilleurs postes vacants pour un agent, éventuellement restreints à un rang
+     */
+    public List<Match> vacanciesFor(CandidateEntry candidate, String rank, int limit) {
+        TopK topK = new TopK(limit);
+        Set<String> gradeKeys = new HashSet<>();
+        gradeKeys.add(ANY);
+        if (candidate.getGradeCode() != null) {
+            gradeKeys.add(candidate.getGradeCode());
+        }
+        if (candidate.getGradeName() != null) {
+            gradeKeys.add(candidate.getGradeName());
+        }
+
+        for (String gradeKey : gradeKeys) {
+            for (VacancyEntry vacancy : vacanciesByGrade.getOrDefault(gradeKey, List.of())) {
+                if (rank == null || rank.equalsIgnoreCase(vacancy.getRank())) {
+                    topK.offer(vacancy, candidate);
+                }
+            }
+        }
+        return topK.toSortedList();
+    }
+
+    /**
+     * Postes vacants d'une structure et de ses sous-structures (plage de clés commençant par le chemin)
+     */
+    public List<VacancyEntry> vacanciesInSubtree(String path) {
+        List<VacancyEntry> result = new ArrayList<>();
+        vacanciesByPath.subMap(path, true, path + Character.MAX_VALUE, false).values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Proposition de pourvoi de tous les postes vacants d'un sous-arbre.
+     *
+     * Les listes de candidats sont calculées en parallèle (une par poste, au plus
+     * candidatesPerVacancy), puis les postes sont servis du plus contraint (le moins de
+     * candidats) au moins contraint, chacun prenant son meilleur candidat encore libre.
+     */
+    public FillPlan fillPlan(String path, int candidatesPerVacancy) {
+        List<VacancyEntry> vacancies = vacanciesInSubtree(path);
+
+        List<List<Match>> rankedLists = vacancies.parallelStream()
+                .map(vacancy -> candidatesFor(vacancy, candidatesPerVacancy))
+                .toList();
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < vacancies.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingInt(i -> rankedLists.get(i).size())
+                .thenComparingLong(i -> vacancies.get(i).getPositionId()));
+
+        List<Match> proposals = new ArrayList<>();
+        List<VacancyEntry> unfilled = new ArrayList<>();
+        Set<Long> taken = new HashSet<>();
+        for (int i : order) {
+            Match chosen = rankedLists.get(i).stream()
+                    .filter(match -> !taken.contains(match.getCandidate().getPersonnelId()))
+                    .findFirst()
+                    .orElse(null);
+            if (chosen != null) {
+                taken.add(chosen.getCandidate().getPersonnelId());
+                proposals.add(chosen);
+            } else {
+                unfilled.add(vacancies.get(i));
+            }
+        }
+        return new FillPlan(vacancies.size(), proposals, unfilled);
+    }
+
+    // ==================== SCORE ====================
+
+    /**
+     * Score d'adéquation agent / poste, {@link #INCOMPATIBLE} si une exigence n'est pas remplie.
+     *
+     * Exigences bloquantes : grade requis, corps requis, expérience minimale.
+     * Bonus : exigences satisfaites, catégorie identique, proximité dans la hiérarchie
+     * (niveaux communs des chemins de structure), ancienneté, agent sans poste.
+     */
+    public static int score(VacancyEntry vacancy, CandidateEntry candidate) {
+        if (vacancy.getRequiredGrade() != null && !candidate.hasGrade(vacancy.getRequiredGrade())) {
+            return INCOMPATIBLE;
+        }
+        if (vacancy.getRequiredCorps() != null && !candidate.hasCorps(vacancy.getRequiredCorps())) {
+            return INCOMPATIBLE;
+        }
+        if (vacancy.getMinExperienceYears() != null && candidate.getSeniorityYears() < vacancy.getMinExperienceYears()) {
+            return INCOMPATIBLE;
+        }
+
+        int score = 0;
+        if (vacancy.getRequiredGrade() != null) {
+            score += 40;
+        }
+        if (vacancy.getRequiredCorps() != null) {
+            score += 20;
+        }
+        if (vacancy.getCategory() != null && vacancy.getCategory().equalsIgnoreCase(candidate.getGradeCategory())) {
+            score += 10;
+        }
+        score += Math.min(20, 5 * commonDepth(vacancy.getStructurePath(), candidate.getStructurePath()));
+        score += Math.min(candidate.getSeniorityYears(), 30) / 2;
+        if (!candidate.isHoldingPosition()) {
+            score += 10;
+        }
+        return score;
+    }
+
+    /**
+     * Nombre d'ancêtres communs de deux chemins matérialisés ("/1/5/23/")
+     */
+    static int commonDepth(String path, String otherPath) {
+        if (path == null || otherPath == null) {
+            return 0;
+        }
+        int depth = 0;
+        int length = Math.min(path.length(), otherPath.length());
+        for (int i = 1; i < length; i++) {
+            if (path.charAt(i) != otherPath.charAt(i)) {
+                break;
+            }
+            if (path.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Clé de comparaison des grades et corps : sans accents, espaces réduits, en majuscules
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String withoutAccents = Normalizer.normalize(value.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    // ==================== RÉSULTATS ====================
+
+    /**
+     * Couple poste / agent avec son score
+     */
+    @Value
+    public static class Match {
+        VacancyEntry vacancy;
+        CandidateEntry candidate;
+        int score;
+    }
+
+    /**
+     * Propositions d'affectation pour un ensemble de postes vacants
+     */
+    @Value
+    public static class FillPlan {
+        int vacancyCount;
+        List<Match> proposals;
+        List<VacancyEntry> unfilled;
+    }
+
+    /**
+     * Conserve les k meilleurs couples (tas min borné)
+     */
+    private static class TopK {
+
+        // À score égal, l'identifiant le plus petit l'emporte (résultats stables)
+        private static final Comparator<Match> ORDER = Comparator.comparingInt(Match::getScore)
+                .thenComparingLong(match -> -match.getCandidate().getPersonnelId())
+                .thenComparingLong(match -> -match.getVacancy().getPositionId());
+
+        private final int limit;
+        private final PriorityQueue<Match> heap;
+
+        TopK(int limit) {
+            this.limit = Math.max(limit, 1);
+            this.heap = new PriorityQueue<>(ORDER);
+        }
+
+        void offer(VacancyEntry vacancy, CandidateEntry candidate) {
+            int score = score(vacancy, candidate);
+            if (score == INCOMPATIBLE) {
+                return;
+            }
+            Match match = new Match(vacancy, candidate, score);
+            if (heap.size() < limit) {
+                heap.add(match);
+            } else if (ORDER.compare(match, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        List<Match> toSortedList() {
+            List<Match> result = new ArrayList<>(heap);
+            result.sort(ORDER.reversed());
+            return result;
+        }
+    }
+}
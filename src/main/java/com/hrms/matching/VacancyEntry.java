@@ -0,0 +1,27 @@
+package com.hrms.matching;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Poste vacant tel qu'indexé par le moteur de rapprochement
+ */
+@Value
+@Builder
+public class VacancyEntry {
+
+    long positionId;
+    String code;
+    String title;
+    String rank;
+    String category;
+    Long structureId;
+    String structurePath;
+
+    /**
+     * Exigences normalisées ({@link MatchingIndex#normalize}), null si aucune
+     */
+    String requiredGrade;
+    String requiredCorps;
+    Integer minExperienceYears;
+}
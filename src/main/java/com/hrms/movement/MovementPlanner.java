@@ -0,0 +1,200 @@
+package com.hrms.movement;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordonnancement d'un lot de mouvements de carrière.
+ *
+ * Un mouvement dont le poste visé est occupé dépend du mouvement du lot qui libère ce poste
+ * (départ de son titulaire sans cumul). Chaque mouvement ayant au plus une dépendance, le
+ * graphe est fait de chaînes et de cycles (permutations de postes) :
+ * - les chaînes sont exécutées dans l'ordre des dépendances (profondeur croissante),
+ * - les cycles forment une unité indivisible, exécutée dans une même transaction en
+ *   libérant d'abord tous les postes quittés.
+ * Les conflits (doublons, poste indisponible ou non libéré) sont détectés avant toute écriture
+ * et se propagent aux mouvements qui en dépendent.
+ */
+public final class MovementPlanner {
+
+    private MovementPlanner() {
+    }
+
+    public static Plan plan(List<PlannedMovement> movements) {
+        Map<Long, String> conflicts = new LinkedHashMap<>();
+
+        Map<Long, Integer> byPersonnel = new HashMap<>();
+        Map<Long, Integer> byDestination = new HashMap<>();
+        for (PlannedMovement movement : movements) {
+            byPersonnel.merge(movement.getPersonnelId(), 1, Integer::sum);
+            if (movement.getDestinationPositionId() != null) {
+                byDestination.merge(movement.getDestinationPositionId(), 1, Integer::sum);
+            }
+        }
+
+        for (PlannedMovement movement : movements) {
+            String conflict = null;
+            Long destination = movement.getDestinationPositionId();
+            if (byPersonnel.get(movement.getPersonnelId()) > 1) {
+                conflict = "Plusieurs mouvements pour le même personnel dans le lot";
+            } else if (destination != null && byDestination.get(destination) > 1) {
+                conflict = "Poste de destination visé par plusieurs mouvements du lot";
+            } else if (destination != null && destination.equals(movement.getSourcePositionId())) {
+                conflict = "Le poste de destination est le poste quitté";
+            } else if (destination != null && !movement.isDestinationAvailable()) {
+                conflict = "Poste de destination indisponible";
+            } else if (movement.getSourcePositionId() != null && !movement.isKeepsSource()
+                    && movement.getSourceHolderId() != null
+                    && movement.getSourceHolderId() != movement.getPersonnelId()) {
+                conflict = "Le poste quitté est occupé par un autre personnel";
+            }
+            if (conflict != null) {
+                conflicts.put(movement.getMovementId(), conflict);
+            }
+        }
+
+        // Mouvement qui libère chaque poste
+        Map<Long, PlannedMovement> freedBy = new HashMap<>();
+        for (PlannedMovement movement : movements) {
+            if (!conflicts.containsKey(movement.getMovementId()) && movement.frees()) {
+                freedBy.put(movement.getSourcePositionId(), movement);
+            }
+        }
+
+        Map<Long, PlannedMovement> dependency = new HashMap<>();
+        for (PlannedMovement movement : movements) {
+            if (conflicts.containsKey(movement.getMovementId()) || movement.getDestinationHolderId() == null) {
+                continue;
+            }
+            PlannedMovement freer = freedBy.get(movement.getDestinationPositionId());
+            if (movement.getDestinationHolderId() == movement.getPersonnelId()) {
+                conflicts.put(movement.getMovementId(), "Le personnel occupe déjà le poste de destination");
+            } else if (freer != null && freer.getPersonnelId() == movement.getDestinationHolderId()) {
+                dependency.put(movement.getMovementId(), freer);
+            } else {
+                conflicts.put(movement.getMovementId(), "Poste de destination occupé et non libéré par ce lot");
+            }
+        }
+
+        // Propagation des conflits aux mouvements dépendants
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (PlannedMovement movement : movements) {
+                PlannedMovement freer = dependency.get(movement.getMovementId());
+                if (freer != null && !conflicts.containsKey(movement.getMovementId())
+                        && conflicts.containsKey(freer.getMovementId())) {
+                    conflicts.put(movement.getMovementId(),
+                            "Dépend du mouvement " + freer.getMovementId() + " qui ne peut pas être exécuté");
+                    changed = true;
+                }
+            }
+        }
+
+        List<PlannedMovement> valid = movements.stream()
+                .filter(movement -> !conflicts.containsKey(movement.getMovementId()))
+                .toList();
+        Map<Long, Long> dependencies = new HashMap<>();
+        dependency.forEach((movementId, freer) -> dependencies.put(movementId, freer.getMovementId()));
+        return new Plan(buildUnits(valid, dependency), conflicts, dependencies);
+    }
+
+    /**
+     * Unités d'exécution (cycles ou mouvements isolés) triées par profondeur de dépendance
+     */
+    private static List<Unit> buildUnits(List<PlannedMovement> valid, Map<Long, PlannedMovement> dependency) {
+        Map<Long, Unit> unitOf = new HashMap<>();
+        Map<Long, Integer> state = new HashMap<>(); // 1 = chemin en cours, 2 = traité
+
+        // Détection des cycles : chaque mouvement a au plus un successeur (sa dépendance)
+        for (PlannedMovement start : valid) {
+            List<PlannedMovement> path = new ArrayList<>();
+            PlannedMovement current = start;
+            while (current != null && !state.containsKey(current.getMovementId())) {
+                state.put(current.getMovementId(), 1);
+                path.add(current);
+                current = dependency.get(current.getMovementId());
+            }
+            if (current != null && state.get(current.getMovementId()) == 1) {
+                int from = path.indexOf(current);
+                Unit cycle = new Unit(new ArrayList<>(path.subList(from, path.size())), true, 0);
+                cycle.getMovements().sort(Comparator.comparingLong(PlannedMovement::getMovementId));
+                for (PlannedMovement member : cycle.getMovements()) {
+                    unitOf.put(member.getMovementId(), cycle);
+                }
+            }
+            path.forEach(movement -> state.put(movement.getMovementId(), 2));
+        }
+
+        // Profondeur : 0 sans dépendance ou dans un cycle, sinon profondeur de la dépendance + 1
+        Map<Long, Integer> depth = new HashMap<>();
+        for (PlannedMovement start : valid) {
+            List<PlannedMovement> path = new ArrayList<>();
+            PlannedMovement current = start;
+            int base = -1;
+            while (current != null) {
+                Integer known = depth.get(current.getMovementId());
+                if (known != null) {
+                    base = known;
+                    break;
+                }
+                if (unitOf.containsKey(current.getMovementId())) {
+                    depth.put(current.getMovementId(), 0);
+                    base = 0;
+                    break;
+                }
+                path.add(current);
+                current = dependency.get(current.getMovementId());
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                base++;
+                depth.put(path.get(i).getMovementId(), base);
+            }
+        }
+
+        List<Unit> units = new ArrayList<>();
+        List<Unit> added = new ArrayList<>();
+        for (PlannedMovement movement : valid) {
+            Unit cycle = unitOf.get(movement.getMovementId());
+            if (cycle == null) {
+                units.add(new Unit(List.of(movement), false, depth.get(movement.getMovementId())));
+            } else if (!added.contains(cycle)) {
+                added.add(cycle);
+                units.add(cycle);
+            }
+        }
+        units.sort(Comparator.comparingInt(Unit::getDepth));
+        return units;
+    }
+
+    /**
+     * Mouvements exécutés ensemble : un mouvement isolé ou une permutation de postes
+     */
+    @Value
+    public static class Unit {
+        List<PlannedMovement> movements;
+        boolean cycle;
+        int depth;
+    }
+
+    @Value
+    public static class Plan {
+        List<Unit> units;
+
+        /**
+         * Mouvements écartés avant exécution, avec leur motif
+         */
+        Map<Long, String> conflicts;
+
+        /**
+         * Mouvement dont dépend chaque mouvement (celui qui libère son poste de destination)
+         */
+        Map<Long, Long> dependencies;
+    }
+}
@@ -0,0 +1,42 @@
+package com.hrms.movement;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Mouvement approuvé tel que vu par le planificateur : identifiants et occupation des postes
+ */
+@Value
+@Builder
+public class PlannedMovement {
+
+    long movementId;
+    long personnelId;
+
+    /**
+     * Poste quitté, null si aucun ; conservé en cas de cumul officiel
+     */
+    Long sourcePositionId;
+    boolean keepsSource;
+
+    /**
+     * Titulaire actuel du poste quitté (null si vacant)
+     */
+    Long sourceHolderId;
+
+    Long destinationPositionId;
+
+    /**
+     * Titulaire actuel du poste visé (null si vacant)
+     */
+    Long destinationHolderId;
+
+    /**
+     * Poste visé actif et ni en création ni supprimé
+     */
+    boolean destinationAvailable;
+
+    boolean frees() {
+        return sourcePositionId != null && !keepsSource && Long.valueOf(personnelId).equals(sourceHolderId);
+    }
+}
@@ -5,10 +5,12 @@ import com.hrms.entity.AdministrativeStructure.StructureType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,15 +60,99 @@ public interface AdministrativeStructureRepository extends JpaRepository<Adminis
            "AND s.deleted = false ORDER BY s.level, s.name")
     List<AdministrativeStructure> findChildren(@Param("structureId") Long structureId);
 
-    // Get all descendants (recursive)
-    @Query(value = "WITH RECURSIVE structure_tree AS ( " +
-           "SELECT id, parent_structure_id, name, code, level FROM administrative_structures WHERE id = :structureId " +
-           "UNION ALL " +
-           "SELECT s.id, s.parent_structure_id, s.name, s.code, s.level " +
-           "FROM administrative_structures s " +
-           "INNER JOIN structure_tree st ON s.parent_structure_id = st.id " +
-           ") SELECT * FROM structure_tree", nativeQuery = true)
-    List<AdministrativeStructure> findAllDescendants(@Param("structureId") Long structureId);
+    // Active structures of a type not yet linked to an organizational template
+    @Query("SELECT s FROM AdministrativeStructure s WHERE s.type = :type AND s.organizationalTemplateId IS NULL " +
+           "AND s.active = true AND s.deleted = false ORDER BY s.code")
+    List<AdministrativeStructure> findNotInstantiatedByType(@Param("type") StructureType type);
+
+    // Root and sub-structures created from an organizational template
+    @Query("SELECT s FROM AdministrativeStructure s WHERE s.organizationalTemplateId = :templateId " +
+           "AND s.deleted = false")
+    List<AdministrativeStructure> findByOrganizationalTemplateId(@Param("templateId") Long templateId);
+
+    // Materialized path of a structure
+    @Query("SELECT s.path FROM AdministrativeStructure s WHERE s.id = :structureId")
+    Optional<String> findPathById(@Param("structureId") Long structureId);
+
+    // Get structure and all its descendants (path prefix)
+    @Query("SELECT s FROM AdministrativeStructure s WHERE s.path LIKE CONCAT(:path, '%') " +
+           "AND s.deleted = false ORDER BY s.level, s.name")
+    List<AdministrativeStructure> findSubtreeByPath(@Param("path") String path);
+
+    // Count structures of a subtree (root included)
+    @Query("SELECT COUNT(s) FROM AdministrativeStructure s WHERE s.path LIKE CONCAT(:path, '%') " +
+           "AND s.deleted = false")
+    long countSubtreeByPath(@Param("path") String path);
+
+    // Rewrite the path prefix of a whole subtree after re-parenting
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AdministrativeStructure s " +
+           "SET s.path = CONCAT(:newPath, SUBSTRING(s.path, LENGTH(:oldPath) + 1)) " +
+           "WHERE s.path LIKE CONCAT(:oldPath, '%')")
+    int moveSubtree(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    // Apply the same delta to the position counters of the given structures
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AdministrativeStructure s SET s.totalPositions = s.totalPositions + :total, " +
+           "s.occupiedPositions = s.occupiedPositions + :occupied, " +
+           "s.vacantPositions = s.vacantPositions + :total - :occupied " +
+           "WHERE s.id IN :structureIds")
+    int incrementPositionCounters(@Param("structureIds") Collection<Long> structureIds,
+                                  @Param("total") int total,
+                                  @Param("occupied") int occupied);
+
+    // Apply a delta to the subtree position counters of a structure and its ancestors
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AdministrativeStructure s " +
+           "SET s.subtreeTotalPositions = s.subtreeTotalPositions + :total, " +
+           "s.subtreeOccupiedPositions = s.subtreeOccupiedPositions + :occupied " +
+           "WHERE s.id IN :structureIds")
+    int incrementSubtreePositionCounters(@Param("structureIds") Collection<Long> structureIds,
+                                         @Param("total") int total,
+                                         @Param("occupied") int occupied);
+
+    // Subtree position counters of a structure [subtree total, subtree occupied]
+    // Root rows do not store them (see PositionOccupancyService): own counters + children subtrees
+    @Query("SELECT CASE WHEN s.parentStructure IS NULL THEN s.totalPositions + " +
+           "COALESCE((SELECT SUM(c.subtreeTotalPositions) FROM AdministrativeStructure c " +
+           "WHERE c.parentStructure.id = s.id), 0) ELSE s.subtreeTotalPositions END, " +
+           "CASE WHEN s.parentStructure IS NULL THEN s.occupiedPositions + " +
+           "COALESCE((SELECT SUM(c.subtreeOccupiedPositions) FROM AdministrativeStructure c " +
+           "WHERE c.parentStructure.id = s.id), 0) ELSE s.subtreeOccupiedPositions END " +
+           "FROM AdministrativeStructure s WHERE s.id = :structureId")
+    List<Object[]> findSubtreePositionCounters(@Param("structureId") Long structureId);
+
+    // Global position counters: roots' own counters + subtrees of their children [total, occupied]
+    @Query("SELECT COALESCE(SUM(CASE WHEN p IS NULL THEN s.totalPositions ELSE s.subtreeTotalPositions END), 0), " +
+           "COALESCE(SUM(CASE WHEN p IS NULL THEN s.occupiedPositions ELSE s.subtreeOccupiedPositions END), 0) " +
+           "FROM AdministrativeStructure s LEFT JOIN s.parentStructure p " +
+           "WHERE p IS NULL OR p.parentStructure IS NULL")
+    List<Object[]> sumRootPositionCounters();
+
+    // Stored counters for reconciliation
+    // [id, path, total, occupied, vacant, subtree total, subtree occupied]
+    @Query("SELECT s.id, s.path, s.totalPositions, s.occupiedPositions, s.vacantPositions, " +
+           "s.subtreeTotalPositions, s.subtreeOccupiedPositions FROM AdministrativeStructure s")
+    List<Object[]> findPositionCounterRows();
+
+    // Overwrite drifted counters, only if they have not moved since they were read
+    @Modifying
+    @Query("UPDATE AdministrativeStructure s SET s.totalPositions = :total, s.occupiedPositions = :occupied, " +
+           "s.vacantPositions = :total - :occupied, " +
+           "s.subtreeTotalPositions = :subtreeTotal, s.subtreeOccupiedPositions = :subtreeOccupied " +
+           "WHERE s.id = :structureId AND s.totalPositions = :observedTotal " +
+           "AND s.occupiedPositions = :observedOccupied " +
+           "AND s.subtreeTotalPositions = :observedSubtreeTotal " +
+           "AND s.subtreeOccupiedPositions = :observedSubtreeOccupied")
+    int repairPositionCounters(@Param("structureId") Long structureId,
+                               @Param("total") int total,
+                               @Param("occupied") int occupied,
+                               @Param("subtreeTotal") int subtreeTotal,
+                               @Param("subtreeOccupied") int subtreeOccupied,
+                               @Param("observedTotal") int observedTotal,
+                               @Param("observedOccupied") int observedOccupied,
+                               @Param("observedSubtreeTotal") int observedSubtreeTotal,
+                               @Param("observedSubtreeOccupied") int observedSubtreeOccupied);
 
     // Count by type
     @Query("SELECT s.type, COUNT(s) FROM AdministrativeStructure s " +
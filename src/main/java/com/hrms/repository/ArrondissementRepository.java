@@ -2,25 +2,54 @@ package com.hrms.repository;
 
 import com.hrms.entity.Arrondissement;
 import com.hrms.entity.Arrondissement.ArrondissementType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ArrondissementRepository extends JpaRepository<Arrondissement, Long> {
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<Arrondissement> findByCode(String code);
 
     Optional<Arrondissement> findByName(String name);
 
     boolean existsByCode(String code);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<Arrondissement> findByActiveTrue();
 
+    /**
+     * Arrondissements actifs avec département et région, lus par curseur (réponses NDJSON)
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Arrondissement a LEFT JOIN FETCH a.department d LEFT JOIN FETCH d.region " +
+           "WHERE a.active = true ORDER BY a.id")
+    Stream<Arrondissement> streamActiveWithDepartmentAndRegion();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Arrondissement a JOIN FETCH a.department d JOIN FETCH d.region r " +
+           "WHERE r.id = :regionId AND a.active = true ORDER BY a.name")
+    Stream<Arrondissement> streamActiveByRegionId(@Param("regionId") Long regionId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Arrondissement a JOIN FETCH a.department d LEFT JOIN FETCH d.region " +
+           "WHERE d.id = :departmentId AND a.active = true ORDER BY a.name")
+    Stream<Arrondissement> streamActiveByDepartmentId(@Param("departmentId") Long departmentId);
+
     List<Arrondissement> findByDepartmentId(Long departmentId);
 
     @Query("SELECT a FROM Arrondissement a WHERE a.department.id = :departmentId AND a.active = true ORDER BY a.name")
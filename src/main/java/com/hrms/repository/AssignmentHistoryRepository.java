@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +40,13 @@ public interface AssignmentHistoryRepository extends JpaRepository<AssignmentHis
            "AND ah.status = 'ACTIVE' AND ah.endDate IS NULL AND ah.deleted = false")
     AssignmentHistory findActiveAssignmentByPersonnel(@Param("personnelId") Long personnelId);
 
+    /**
+     * Trouve les affectations actives d'un lot de personnels
+     */
+    @Query("SELECT ah FROM AssignmentHistory ah WHERE ah.personnel.id IN :personnelIds " +
+           "AND ah.status = 'ACTIVE' AND ah.endDate IS NULL AND ah.deleted = false")
+    List<AssignmentHistory> findActiveAssignmentsByPersonnelIds(@Param("personnelIds") Collection<Long> personnelIds);
+
     /**
      * Trouve les affectations par type de mouvement
      */
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +40,23 @@ public interface CareerMovementRepository extends JpaRepository<CareerMovement,
     @Query("SELECT cm FROM CareerMovement cm WHERE cm.status = 'PENDING' AND cm.deleted = false")
     List<CareerMovement> findPendingMovements();
 
+    // Approved movements to execute in batch, by effective date and/or decision reference
+    @Query("SELECT cm FROM CareerMovement cm JOIN FETCH cm.personnel " +
+           "LEFT JOIN FETCH cm.sourcePosition LEFT JOIN FETCH cm.destinationPosition " +
+           "WHERE cm.status = 'APPROVED' AND cm.deleted = false " +
+           "AND (:movementDate IS NULL OR cm.movementDate = :movementDate) " +
+           "AND (:decisionNumber IS NULL OR cm.decisionNumber = :decisionNumber) " +
+           "ORDER BY cm.movementDate, cm.id")
+    List<CareerMovement> findApprovedForExecution(@Param("movementDate") LocalDate movementDate,
+                                                  @Param("decisionNumber") String decisionNumber);
+
+    // Movements of an execution chunk, with personnel and positions
+    @Query("SELECT cm FROM CareerMovement cm JOIN FETCH cm.personnel " +
+           "LEFT JOIN FETCH cm.sourcePosition sp LEFT JOIN FETCH sp.structure " +
+           "LEFT JOIN FETCH cm.destinationPosition dp LEFT JOIN FETCH dp.structure " +
+           "WHERE cm.id IN :ids")
+    List<CareerMovement> findAllForExecutionByIdIn(@Param("ids") Collection<Long> ids);
+
     // Find movements by date range
     @Query("SELECT cm FROM CareerMovement cm WHERE cm.movementDate BETWEEN :startDate AND :endDate " +
            "AND cm.deleted = false ORDER BY cm.movementDate DESC")
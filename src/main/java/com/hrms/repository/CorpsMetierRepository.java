@@ -1,8 +1,11 @@
 package com.hrms.repository;
 
 import com.hrms.entity.CorpsMetier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,6 +21,8 @@ public interface CorpsMetierRepository extends JpaRepository<CorpsMetier, Long>
     /**
      * Trouve un corps de métier par son code
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<CorpsMetier> findByCode(String code);
 
     /**
@@ -28,6 +33,8 @@ public interface CorpsMetierRepository extends JpaRepository<CorpsMetier, Long>
     /**
      * Trouve tous les corps de métiers actifs
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<CorpsMetier> findByActiveTrue();
 
     /**
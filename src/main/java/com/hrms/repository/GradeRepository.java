@@ -2,8 +2,11 @@ package com.hrms.repository;
 
 import com.hrms.entity.CorpsMetier;
 import com.hrms.entity.Grade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -19,6 +22,8 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
     /**
      * Trouve un grade par son code
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<Grade> findByCode(String code);
 
     /**
@@ -29,6 +34,8 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
     /**
      * Trouve tous les grades actifs
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<Grade> findByActiveTrue();
 
     /**
@@ -2,7 +2,10 @@ package com.hrms.repository;
 
 import com.hrms.entity.AdministrativeStructure;
 import com.hrms.entity.OrganizationalTemplate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,12 +14,18 @@ import java.util.Optional;
 @Repository
 public interface OrganizationalTemplateRepository extends JpaRepository<OrganizationalTemplate, Long> {
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<OrganizationalTemplate> findByCode(String code);
 
     List<OrganizationalTemplate> findByAppliesTo(AdministrativeStructure.StructureType appliesTo);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<OrganizationalTemplate> findByActiveTrue();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<OrganizationalTemplate> findByCodeAndActiveTrue(String code);
 
     List<OrganizationalTemplate> findByAppliesToAndActiveTrue(AdministrativeStructure.StructureType appliesTo);
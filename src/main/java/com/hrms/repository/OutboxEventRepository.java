@@ -0,0 +1,48 @@
+package com.hrms.repository;
+
+import com.hrms.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Changements non publiés enregistrés avant une date, par pages d'identifiants croissants
+     * (index idx_outbox_unpublished)
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.id > :afterId " +
+           "AND e.occurredAt < :before ORDER BY e.id")
+    List<OutboxEvent> findUnpublishedAfter(@Param("afterId") long afterId,
+                                           @Param("before") LocalDateTime before,
+                                           Pageable pageable);
+
+    /**
+     * Changements non publiés des agrégats donnés jusqu'à un identifiant, par identifiants croissants
+     * (index idx_outbox_aggregate) : [type, identifiant de l'agrégat, identifiant d'outbox]
+     */
+    @Query("SELECT e.aggregateType, e.aggregateId, e.id FROM OutboxEvent e WHERE e.publishedAt IS NULL " +
+           "AND e.aggregateType IN :types AND e.aggregateId IN :aggregateIds AND e.id <= :maxId ORDER BY e.id")
+    List<Object[]> findUnpublishedIdsOf(@Param("types") Collection<String> types,
+                                        @Param("aggregateIds") Collection<Long> aggregateIds,
+                                        @Param("maxId") long maxId);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    long countUnpublished();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -72,4 +73,28 @@ public interface PersonnelDocumentRepository extends JpaRepository<PersonnelDocu
            "AND d.isVerified = :isVerified AND d.deleted = false")
     List<PersonnelDocument> findByPersonnelIdAndVerified(@Param("personnelId") Long personnelId,
                                                          @Param("isVerified") Boolean isVerified);
+
+    // Expiry calendar rows: [document id, personnel id, type, expiry date], served by idx on expiry_date
+    @Query("SELECT d.id, d.personnel.id, d.documentType, d.expiryDate FROM PersonnelDocument d " +
+           "WHERE d.expiryDate IS NOT NULL AND d.deleted = false ORDER BY d.expiryDate")
+    List<Object[]> findExpiryRows();
+
+    // Same projection for changed documents; a document missing from the result leaves the calendar
+    @Query("SELECT d.id, d.personnel.id, d.documentType, d.expiryDate FROM PersonnelDocument d " +
+           "WHERE d.id IN :ids AND d.expiryDate IS NOT NULL AND d.deleted = false")
+    List<Object[]> findExpiryRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // Compliance matrix rows: [personnel id, type, expiry date, verified]
+    @Query("SELECT d.personnel.id, d.documentType, d.expiryDate, d.isVerified FROM PersonnelDocument d " +
+           "WHERE d.deleted = false")
+    List<Object[]> findComplianceRows();
+
+    // Same projection for the documents of some agents
+    @Query("SELECT d.personnel.id, d.documentType, d.expiryDate, d.isVerified FROM PersonnelDocument d " +
+           "WHERE d.personnel.id IN :personnelIds AND d.deleted = false")
+    List<Object[]> findComplianceRowsByPersonnelIds(@Param("personnelIds") Collection<Long> personnelIds);
+
+    // Agents owning the given documents, deleted documents included (change bus)
+    @Query("SELECT DISTINCT d.personnel.id FROM PersonnelDocument d WHERE d.id IN :ids")
+    List<Long> findPersonnelIdsByIds(@Param("ids") Collection<Long> ids);
 }
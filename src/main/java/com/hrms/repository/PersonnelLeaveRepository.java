@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -46,5 +47,23 @@ public interface PersonnelLeaveRepository extends JpaRepository<PersonnelLeave,
     @Query("SELECT l FROM PersonnelLeave l WHERE l.effectiveDate <= :date AND l.expiryDate >= :date " +
            "AND l.deleted = false ORDER BY l.effectiveDate DESC")
     List<PersonnelLeave> findActiveLeavesOnDate(@Param("date") LocalDate date);
-}
 
+    /**
+     * Congés à reporter au calendrier de disponibilité :
+     * [id congé, id agent, chemin de la structure, début, fin, motif]
+     */
+    @Query("SELECT l.id, p.id, s.path, l.effectiveDate, l.expiryDate, l.leaveReason " +
+           "FROM PersonnelLeave l JOIN l.personnel p JOIN p.structure s " +
+           "WHERE l.deleted = false AND l.status IN :statuses")
+    List<Object[]> findCalendarRows(@Param("statuses") Collection<LeaveStatus> statuses);
+
+    /**
+     * Même projection restreinte à des congés modifiés ; un congé absent du résultat
+     * (supprimé ou hors des statuts retenus) doit être retiré du calendrier
+     */
+    @Query("SELECT l.id, p.id, s.path, l.effectiveDate, l.expiryDate, l.leaveReason " +
+           "FROM PersonnelLeave l JOIN l.personnel p JOIN p.structure s " +
+           "WHERE l.id IN :ids AND l.deleted = false AND l.status IN :statuses")
+    List<Object[]> findCalendarRowsByIds(@Param("ids") Collection<Long> ids,
+                                         @Param("statuses") Collection<LeaveStatus> statuses);
+}
@@ -3,16 +3,21 @@ package com.hrms.repository;
 import com.hrms.entity.*;
 import com.hrms.entity.Personnel.PersonnelSituation;
 import com.hrms.entity.Personnel.PersonnelStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Personnel entity
@@ -133,6 +138,114 @@ public interface PersonnelRepository extends JpaRepository<Personnel, Long> {
     @Query("SELECT p FROM Personnel p WHERE p.structure = :structure AND p.deleted = false")
     List<Personnel> findByStructure(@Param("structure") AdministrativeStructure structure);
 
+    /**
+     * Compte les personnels d'une structure et de ses sous-structures (préfixe du chemin matérialisé)
+     */
+    @Query("SELECT COUNT(p) FROM Personnel p JOIN p.structure s " +
+           "WHERE s.path LIKE CONCAT(:path, '%') AND p.deleted = false")
+    long countInStructureSubtree(@Param("path") String path);
+
+    /**
+     * Personnels d'un sous-arbre de structures nés dans l'intervalle donné
+     */
+    @Query("SELECT p FROM Personnel p JOIN p.structure s " +
+           "WHERE s.path LIKE CONCAT(:path, '%') AND p.deleted = false " +
+           "AND p.dateOfBirth BETWEEN :birthStart AND :birthEnd")
+    List<Personnel> findInStructureSubtreeBornBetween(@Param("path") String path,
+                                                      @Param("birthStart") LocalDate birthStart,
+                                                      @Param("birthEnd") LocalDate birthEnd);
+
+    /**
+     * Personnels d'un sous-arbre de structures nés au plus tard à la date donnée
+     */
+    @Query("SELECT p FROM Personnel p JOIN p.structure s " +
+           "WHERE s.path LIKE CONCAT(:path, '%') AND p.deleted = false " +
+           "AND p.dateOfBirth <= :maxBirthDate")
+    List<Personnel> findInStructureSubtreeBornBefore(@Param("path") String path,
+                                                     @Param("maxBirthDate") LocalDate maxBirthDate);
+
+    // ==================== INSTANTANÉ ANALYTIQUE ====================
+
+    /**
+     * Colonnes de l'instantané des effectifs, par lots ordonnés sur l'id (pagination par clé)
+     * [id, dateOfBirth, hireDate, structure code, grade, corps, région d'origine, statut, genre, situation]
+     */
+    @Query("SELECT p.id, p.dateOfBirth, p.hireDate, s.code, g.name, cm.name, r.name, p.status, p.gender, p.situation " +
+           "FROM Personnel p LEFT JOIN p.structure s LEFT JOIN p.currentGrade g " +
+           "LEFT JOIN g.corpsMetier cm LEFT JOIN p.regionOrigine r " +
+           "WHERE p.deleted = false AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findWorkforceRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Colonnes de l'instantané pour les agents donnés (les agents supprimés sont absents)
+     */
+    @Query("SELECT p.id, p.dateOfBirth, p.hireDate, s.code, g.name, cm.name, r.name, p.status, p.gender, p.situation " +
+           "FROM Personnel p LEFT JOIN p.structure s LEFT JOIN p.currentGrade g " +
+           "LEFT JOIN g.corpsMetier cm LEFT JOIN p.regionOrigine r " +
+           "WHERE p.deleted = false AND p.id IN :ids")
+    List<Object[]> findWorkforceRowsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Agents avec leur poste actuel, chargés par lot d'identifiants pour les affectations en masse
+     */
+    @Query("SELECT p FROM Personnel p LEFT JOIN FETCH p.currentPosition cp LEFT JOIN FETCH cp.structure " +
+           "WHERE p.deleted = false AND p.id IN :ids")
+    List<Personnel> findAllForAssignmentByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Agents affectables pour l'index de rapprochement postes / agents :
+     * actifs, en situation compatible, sans poste ou avec autorisation de cumul
+     * [id, matricule, nom, prénom, grade code, grade libellé, catégorie, corps code, corps libellé,
+     *  structure id, structure path, date d'embauche, poste actuel id]
+     */
+    @Query("SELECT p.id, p.matricule, p.lastName, p.firstName, g.code, g.name, g.category, cm.code, cm.name, " +
+           "s.id, s.path, p.hireDate, cp.id " +
+           "FROM Personnel p LEFT JOIN p.currentGrade g LEFT JOIN g.corpsMetier cm " +
+           "LEFT JOIN p.structure s LEFT JOIN p.currentPosition cp " +
+           "WHERE p.deleted = false AND p.status = :status AND p.situation IN :situations " +
+           "AND (cp IS NULL OR p.officialCumul = true)")
+    List<Object[]> findAssignableCandidateRows(@Param("status") PersonnelStatus status,
+                                               @Param("situations") Collection<PersonnelSituation> situations);
+
+    /**
+     * Même projection restreinte aux agents donnés (mise à jour incrémentale de l'index)
+     */
+    @Query("SELECT p.id, p.matricule, p.lastName, p.firstName, g.code, g.name, g.category, cm.code, cm.name, " +
+           "s.id, s.path, p.hireDate, cp.id " +
+           "FROM Personnel p LEFT JOIN p.currentGrade g LEFT JOIN g.corpsMetier cm " +
+           "LEFT JOIN p.structure s LEFT JOIN p.currentPosition cp " +
+           "WHERE p.id IN :ids AND p.deleted = false AND p.status = :status AND p.situation IN :situations " +
+           "AND (cp IS NULL OR p.officialCumul = true)")
+    List<Object[]> findAssignableCandidateRowsByIds(@Param("status") PersonnelStatus status,
+                                                    @Param("situations") Collection<PersonnelSituation> situations,
+                                                    @Param("ids") Collection<Long> ids);
+
+    /**
+     * Agents actifs pour l'index des besoins de formation
+     * [id, matricule, nom, prénom, grade code, grade libellé, catégorie, corps code, corps libellé,
+     *  structure id, structure path, date d'embauche]
+     */
+    @Query("SELECT p.id, p.matricule, p.lastName, p.firstName, g.code, g.name, g.category, cm.code, cm.name, " +
+           "s.id, s.path, p.hireDate " +
+           "FROM Personnel p LEFT JOIN p.currentGrade g LEFT JOIN g.corpsMetier cm LEFT JOIN p.structure s " +
+           "WHERE p.deleted = false AND p.status = :status")
+    List<Object[]> findTrainingProfileRows(@Param("status") PersonnelStatus status);
+
+    /**
+     * Effectif par chemin de structure : [chemin, nombre d'agents]
+     */
+    @Query("SELECT s.path, COUNT(p) FROM Personnel p JOIN p.structure s " +
+           "WHERE p.deleted = false AND p.status = :status GROUP BY s.path")
+    List<Object[]> countByStructurePath(@Param("status") PersonnelStatus status);
+
+    /**
+     * État civil comparé par la recherche de doublons, par tranches d'identifiants croissants :
+     * [id, matricule, nom, prénom, date de naissance, lieu de naissance, CNI, id structure]
+     */
+    @Query("SELECT p.id, p.matricule, p.lastName, p.firstName, p.dateOfBirth, p.placeOfBirth, p.cniNumber, s.id " +
+           "FROM Personnel p LEFT JOIN p.structure s WHERE p.deleted = false AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIdentityRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     // ==================== RECHERCHE PAR ORIGINES GÉOGRAPHIQUES ====================
 
     /**
@@ -267,6 +380,32 @@ public interface PersonnelRepository extends JpaRepository<Personnel, Long> {
 
     // ==================== STATISTIQUES ====================
 
+    /**
+     * Compte les personnels non supprimés
+     */
+    long countByDeletedFalse();
+
+    /**
+     * Compte les personnels retraitables cette année (sans charger les entités)
+     */
+    @Query("SELECT COUNT(p) FROM Personnel p WHERE p.isRetirableThisYear = true " +
+           "AND p.status = 'ACTIVE' AND p.deleted = false")
+    long countRetirableThisYear();
+
+    /**
+     * Compte les personnels retraitables l'année prochaine (sans charger les entités)
+     */
+    @Query("SELECT COUNT(p) FROM Personnel p WHERE p.isRetirableNextYear = true " +
+           "AND p.status = 'ACTIVE' AND p.deleted = false")
+    long countRetirableNextYear();
+
+    /**
+     * Compte les personnels par situation en une seule requête groupée
+     */
+    @Query("SELECT p.situation, COUNT(p) FROM Personnel p " +
+           "WHERE p.deleted = false GROUP BY p.situation")
+    List<Object[]> countGroupBySituation();
+
     /**
      * Compte les personnels par structure
      */
@@ -424,4 +563,37 @@ public interface PersonnelRepository extends JpaRepository<Personnel, Long> {
            "YEAR(CURRENT_DATE) - YEAR(p.dateOfBirth) BETWEEN :minAge AND :maxAge " +
            "AND p.deleted = false")
     List<Personnel> findByAgeRange(@Param("minAge") int minAge, @Param("maxAge") int maxAge);
+
+    // ==================== FLUX (réponses NDJSON) ====================
+
+    /**
+     * Retraitables de l'année, lus par curseur
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM Personnel p WHERE p.isRetirableThisYear = true " +
+           "AND p.status = 'ACTIVE' AND p.deleted = false ORDER BY p.id")
+    Stream<Personnel> streamRetirableThisYear();
+
+    /**
+     * Personnels nés au plus tard à une date, lus par curseur dans l'ordre des dates de départ
+     * (naissance + âge de retraite, 60 ans par défaut comme DateValidationService)
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(value = "SELECT * FROM personnel p WHERE p.date_of_birth <= :maxBirthDate AND p.deleted = false " +
+                   "ORDER BY p.date_of_birth + make_interval(years => " +
+                   "CASE WHEN p.retirement_age > 0 THEN p.retirement_age ELSE 60 END), p.id",
+           nativeQuery = true)
+    Stream<Personnel> streamBornOnOrBeforeByRetirementDate(@Param("maxBirthDate") LocalDate maxBirthDate);
+
+    // Facet index rows: [personnel id, grade id, corps id, structure id, region of origin id, status, gender]
+    @Query("SELECT p.id, g.id, g.corpsMetier.id, p.structure.id, r.id, p.status, p.gender FROM Personnel p " +
+           "JOIN p.currentGrade g LEFT JOIN p.regionOrigine r WHERE p.deleted = false ORDER BY p.id")
+    List<Object[]> findFacetRows();
+
+    // Same projection for changed agents; an agent missing from the result leaves the index
+    @Query("SELECT p.id, g.id, g.corpsMetier.id, p.structure.id, r.id, p.status, p.gender FROM Personnel p " +
+           "JOIN p.currentGrade g LEFT JOIN p.regionOrigine r WHERE p.id IN :ids AND p.deleted = false")
+    List<Object[]> findFacetRowsByIds(@Param("ids") Collection<Long> ids);
 }
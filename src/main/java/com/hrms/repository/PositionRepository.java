@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,17 @@ public interface PositionRepository extends JpaRepository<Position, Long> {
     @Query("SELECT p FROM Position p WHERE p.structure.id = :structureId AND p.deleted = false")
     Page<Position> findByStructureId(@Param("structureId") Long structureId, Pageable pageable);
 
+    // Position codes of a set of structures, deleted ones included (codes stay unique)
+    // [structure id, code, deleted]
+    @Query("SELECT p.structure.id, p.code, p.deleted FROM Position p WHERE p.structure.id IN :structureIds")
+    List<Object[]> findCodeRowsByStructureIdIn(@Param("structureIds") Collection<Long> structureIds);
+
+    // Positions created from a position template, in structures instantiated from an organizational template,
+    // deleted ones included (codes stay unique: a position back in the template is restored, not recreated)
+    @Query("SELECT p FROM Position p JOIN FETCH p.structure s WHERE s.organizationalTemplateId = :templateId " +
+           "AND p.organizationalPositionTemplateId IS NOT NULL")
+    List<Position> findTemplatePositionsByOrganizationalTemplateId(@Param("templateId") Long templateId);
+
     // Find by status
     Page<Position> findByStatusAndDeletedFalse(PositionStatus status, Pageable pageable);
 
@@ -35,6 +47,19 @@ public interface PositionRepository extends JpaRepository<Position, Long> {
     @Query("SELECT p FROM Position p WHERE p.status = 'VACANT' AND p.active = true AND p.deleted = false")
     List<Position> findVacantPositions();
 
+    // Vacant positions projection for the matching index
+    // [id, code, title, rank, category, requiredGrade, requiredCorps, minExperienceYears, structure id, structure path]
+    @Query("SELECT p.id, p.code, p.title, p.rank, p.category, p.requiredGrade, p.requiredCorps, " +
+           "p.minExperienceYears, s.id, s.path FROM Position p JOIN p.structure s " +
+           "WHERE p.status = 'VACANT' AND p.active = true AND p.deleted = false")
+    List<Object[]> findVacancyRows();
+
+    // Same projection restricted to the given positions (incremental index updates)
+    @Query("SELECT p.id, p.code, p.title, p.rank, p.category, p.requiredGrade, p.requiredCorps, " +
+           "p.minExperienceYears, s.id, s.path FROM Position p JOIN p.structure s " +
+           "WHERE p.id IN :ids AND p.status = 'VACANT' AND p.active = true AND p.deleted = false")
+    List<Object[]> findVacancyRowsByIds(@Param("ids") Collection<Long> ids);
+
     // Find vacant positions by structure
     @Query("SELECT p FROM Position p WHERE p.structure.id = :structureId " +
            "AND p.status = 'VACANT' AND p.active = true AND p.deleted = false")
@@ -44,6 +69,11 @@ public interface PositionRepository extends JpaRepository<Position, Long> {
     @Query("SELECT p FROM Position p WHERE p.status = 'OCCUPE' AND p.deleted = false")
     List<Position> findOccupiedPositions();
 
+    // Positions with their structure and occupant, loaded by id batch for bulk assignment
+    @Query("SELECT p FROM Position p JOIN FETCH p.structure LEFT JOIN FETCH p.currentPersonnel " +
+           "WHERE p.id IN :ids AND p.deleted = false")
+    List<Position> findAllForAssignmentByIdIn(@Param("ids") Collection<Long> ids);
+
     // Find by rank
     Page<Position> findByRankAndDeletedFalse(String rank, Pageable pageable);
 
@@ -64,6 +94,26 @@ public interface PositionRepository extends JpaRepository<Position, Long> {
            "AND p.status = 'OCCUPE' AND p.deleted = false")
     long countOccupiedByStructureId(@Param("structureId") Long structureId);
 
+    // Actual position counts per structure, for counter reconciliation [structure id, total, occupied]
+    @Query("SELECT p.structure.id, COUNT(p), SUM(CASE WHEN p.status = 'OCCUPE' THEN 1 ELSE 0 END) " +
+           "FROM Position p WHERE p.deleted = false GROUP BY p.structure.id")
+    List<Object[]> countPositionsGroupedByStructure();
+
+    // Count positions (not deleted)
+    long countByDeletedFalse();
+
+    // Count vacant positions
+    @Query("SELECT COUNT(p) FROM Position p WHERE p.status = 'VACANT' AND p.active = true AND p.deleted = false")
+    long countVacantPositions();
+
+    // Count occupied positions
+    @Query("SELECT COUNT(p) FROM Position p WHERE p.status = 'OCCUPE' AND p.deleted = false")
+    long countOccupiedPositions();
+
+    // Statistics by rank
+    @Query("SELECT p.rank, COUNT(p) FROM Position p WHERE p.deleted = false AND p.rank IS NOT NULL GROUP BY p.rank")
+    List<Object[]> countByRank();
+
     // Statistics by status
     @Query("SELECT p.status, COUNT(p) FROM Position p WHERE p.deleted = false GROUP BY p.status")
     List<Object[]> countByStatus();
@@ -2,8 +2,11 @@ package com.hrms.repository;
 
 import com.hrms.entity.PositionTemplate;
 import com.hrms.entity.PositionTemplate.ApplicableStructureType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,10 +16,14 @@ import java.util.Optional;
 @Repository
 public interface PositionTemplateRepository extends JpaRepository<PositionTemplate, Long> {
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<PositionTemplate> findByCode(String code);
 
     boolean existsByCode(String code);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<PositionTemplate> findByActiveTrue();
 
     List<PositionTemplate> findByApplicableStructureType(ApplicableStructureType type);
@@ -24,6 +31,8 @@ public interface PositionTemplateRepository extends JpaRepository<PositionTempla
     @Query("SELECT pt FROM PositionTemplate pt WHERE pt.autoCreate = true AND pt.active = true")
     List<PositionTemplate> findAutoCreateTemplates();
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     @Query("SELECT pt FROM PositionTemplate pt WHERE " +
            "(pt.applicableStructureType = :type OR pt.applicableStructureType = 'ALL_STRUCTURES' " +
            "OR (pt.applicableStructureType = 'TERRITORIAL_ONLY' AND :type IN ('GOUVERNORAT', 'PREFECTURE', 'SOUS_PREFECTURE'))) " +
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -51,5 +52,23 @@ public interface ProfessionalTrainingRepository extends JpaRepository<Profession
         LocalDate startDate,
         LocalDate endDate
     );
-}
 
+    /**
+     * Dernière formation terminée par agent et par domaine, pour l'index des besoins de formation
+     * [personnel id, domaine, date de fin la plus récente]
+     */
+    @Query("SELECT t.personnel.id, t.trainingField, MAX(t.endDate) FROM ProfessionalTraining t " +
+           "WHERE t.deleted = false AND t.status = 'COMPLETED' " +
+           "GROUP BY t.personnel.id, t.trainingField")
+    List<Object[]> findLastTrainingRows();
+
+    /**
+     * Agents ayant déjà une formation sur ces dates, parmi ceux donnés :
+     * une seule requête pour la synchronisation de toute une session
+     */
+    @Query("SELECT t.personnel.id FROM ProfessionalTraining t WHERE t.personnel.id IN :personnelIds " +
+           "AND t.startDate = :startDate AND t.endDate = :endDate AND t.deleted = false")
+    List<Long> findPersonnelIdsWithTrainingOn(@Param("personnelIds") Collection<Long> personnelIds,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+}
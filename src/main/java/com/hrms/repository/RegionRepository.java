@@ -1,8 +1,11 @@
 package com.hrms.repository;
 
 import com.hrms.entity.Region;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +14,8 @@ import java.util.Optional;
 @Repository
 public interface RegionRepository extends JpaRepository<Region, Long> {
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     Optional<Region> findByCode(String code);
 
     Optional<Region> findByName(String name);
@@ -19,6 +24,8 @@ public interface RegionRepository extends JpaRepository<Region, Long> {
 
     boolean existsByName(String name);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<Region> findByActiveTrue();
 
     @Query("SELECT r FROM Region r WHERE r.active = true ORDER BY r.name")
@@ -89,8 +89,28 @@ public interface TrainingEnrollmentRepository extends JpaRepository<TrainingEnro
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
-}
-
 
+    /**
+     * Dernière session suivie par agent et par domaine, pour l'index des besoins de formation
+     * [personnel id, domaine, date de fin la plus récente]
+     */
+    @Query("SELECT e.personnel.id, t.trainingField, MAX(s.endDate) FROM TrainingEnrollment e " +
+           "JOIN e.session s JOIN s.training t " +
+           "WHERE e.deleted = false AND e.status = 'ATTENDED' " +
+           "GROUP BY e.personnel.id, t.trainingField")
+    List<Object[]> findLastAttendanceRows();
 
+    /**
+     * Agents ayant déjà une inscription à une session, quel que soit son statut
+     */
+    @Query("SELECT e.personnel.id FROM TrainingEnrollment e WHERE e.session.id = :sessionId " +
+           "AND e.deleted = false")
+    List<Long> findPersonnelIdsBySessionId(@Param("sessionId") Long sessionId);
 
+    /**
+     * Inscriptions d'une session avec leur agent, pour la clôture en lot
+     */
+    @Query("SELECT e FROM TrainingEnrollment e JOIN FETCH e.personnel WHERE e.session.id = :sessionId " +
+           "AND e.deleted = false ORDER BY e.id")
+    List<TrainingEnrollment> findBySessionIdWithPersonnel(@Param("sessionId") Long sessionId);
+}
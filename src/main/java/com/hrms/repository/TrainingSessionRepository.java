@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -83,8 +84,38 @@ public interface TrainingSessionRepository extends JpaRepository<TrainingSession
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
-}
-
 
+    /**
+     * Sessions still occupying their trainers and location that overlap [startDate, endDate]
+     * and use one of the given trainers (main or co-trainer) or the given location.
+     * Served by the (trainer_id, start_date), co-trainer and lower(trim(location)) indexes.
+     */
+    @Query("SELECT DISTINCT s FROM TrainingSession s LEFT JOIN s.coTrainers c WHERE " +
+           "s.deleted = false AND s.status NOT IN :releasedStatuses " +
+           "AND s.startDate <= :endDate AND s.endDate >= :startDate " +
+           "AND (:excludedId IS NULL OR s.id <> :excludedId) " +
+           "AND (s.trainer.id IN :trainerIds OR c.id IN :trainerIds OR LOWER(TRIM(s.location)) = :locationKey)")
+    List<TrainingSession> findScheduleOverlaps(@Param("trainerIds") Collection<Long> trainerIds,
+                                               @Param("locationKey") String locationKey,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate,
+                                               @Param("excludedId") Long excludedId,
+                                               @Param("releasedStatuses") Collection<SessionStatus> releasedStatuses);
 
+    /**
+     * All sessions still occupying their trainers and location in a period, co-trainers fetched
+     */
+    @Query("SELECT DISTINCT s FROM TrainingSession s LEFT JOIN FETCH s.coTrainers WHERE " +
+           "s.deleted = false AND s.status NOT IN :releasedStatuses " +
+           "AND s.startDate <= :endDate AND s.endDate >= :startDate")
+    List<TrainingSession> findScheduledBetween(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate,
+                                               @Param("releasedStatuses") Collection<SessionStatus> releasedStatuses);
 
+    /**
+     * Session with everything its completion reads: training, trainers and organizing structure
+     */
+    @Query("SELECT DISTINCT s FROM TrainingSession s JOIN FETCH s.training LEFT JOIN FETCH s.trainer " +
+           "LEFT JOIN FETCH s.coTrainers LEFT JOIN FETCH s.organizingStructure WHERE s.id = :id")
+    Optional<TrainingSession> findForCompletion(@Param("id") Long id);
+}
@@ -0,0 +1,111 @@
+package com.hrms.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Arbre d'intervalles statique (bornes incluses).
+ *
+ * Les intervalles sont triés par début et rangés dans un arbre binaire implicite : le nœud d'une
+ * tranche [lo, hi[ est son milieu, et maxEnd[milieu] garde la plus grande fin de la tranche.
+ * Une recherche élague les sous-arbres qui finissent avant la période demandée et tout ce qui
+ * commence après : O(log n + k) pour k résultats.
+ */
+public final class IntervalIndex<T> {
+
+    /**
+     * Intervalle [start, end] portant une valeur
+     */
+    public static final class Entry<T> {
+        private final long start;
+        private final long end;
+        private final T value;
+
+        public Entry(long start, long end, T value) {
+            if (end < start) {
+                throw new IllegalArgumentException("Intervalle invalide : " + start + " > " + end);
+            }
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final List<T> values;
+
+    public IntervalIndex(Collection<Entry<T>> entries) {
+        List<Entry<T>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::getStart));
+
+        int size = sorted.size();
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.maxEnds = new long[size];
+        this.values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Entry<T> entry = sorted.get(i);
+            starts[i] = entry.getStart();
+            ends[i] = entry.getEnd();
+            values.add(entry.getValue());
+        }
+        buildMaxEnds(0, size);
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Valeurs dont l'intervalle chevauche [from, to], dans l'ordre des débuts
+     */
+    public List<T> overlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        collect(0, values.size(), from, to, result);
+        return result;
+    }
+
+    private void collect(int lo, int hi, long from, long to, List<T> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) {
+            return;
+        }
+        collect(lo, mid, from, to, result);
+        if (starts[mid] > to) {
+            return;
+        }
+        if (ends[mid] >= from) {
+            result.add(values.get(mid));
+        }
+        collect(mid + 1, hi, from, to, result);
+    }
+}
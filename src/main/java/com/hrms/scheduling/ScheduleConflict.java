@@ -0,0 +1,33 @@
+package com.hrms.scheduling;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Chevauchement entre un créneau et une autre session mobilisant la même ressource
+ */
+@Value
+public class ScheduleConflict {
+
+    public enum Resource {
+        TRAINER,    // Formateur (principal ou co-formateur) déjà mobilisé
+        LOCATION    // Lieu déjà occupé
+    }
+
+    SessionSlot slot;
+    SessionSlot conflictingSlot;
+    Resource resource;
+    Long trainerId;
+    String location;
+    LocalDate overlapStart;
+    LocalDate overlapEnd;
+
+    public String describe() {
+        String what = resource == Resource.TRAINER
+                ? "Le formateur " + trainerId + " est déjà mobilisé"
+                : "Le lieu « " + location + " » est déjà occupé";
+        return what + " par la session " + conflictingSlot.getReference()
+                + " du " + overlapStart + " au " + overlapEnd;
+    }
+}
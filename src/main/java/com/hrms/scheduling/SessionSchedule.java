@@ -0,0 +1,120 @@
+package com.hrms.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planning des sessions indexé par ressource.
+ *
+ * Chaque formateur (principal ou co-formateur) et chaque lieu a son propre arbre d'intervalles :
+ * retrouver les sessions qui chevauchent un créneau coûte O(log n + k) par ressource au lieu d'un
+ * parcours de toutes les sessions.
+ */
+public final class SessionSchedule {
+
+    private final Map<Long, IntervalIndex<SessionSlot>> byTrainer;
+    private final Map<String, IntervalIndex<SessionSlot>> byLocation;
+
+    public SessionSchedule(Collection<SessionSlot> slots) {
+        Map<Long, List<IntervalIndex.Entry<SessionSlot>>> trainerEntries = new HashMap<>();
+        Map<String, List<IntervalIndex.Entry<SessionSlot>>> locationEntries = new HashMap<>();
+        for (SessionSlot slot : slots) {
+            if (slot.getStartDate() == null || slot.getEndDate() == null
+                    || slot.getEndDate().isBefore(slot.getStartDate())) {
+                continue;
+            }
+            IntervalIndex.Entry<SessionSlot> entry = new IntervalIndex.Entry<>(
+                    slot.getStartDate().toEpochDay(), slot.getEndDate().toEpochDay(), slot);
+            for (Long trainerId : slot.trainerIds()) {
+                trainerEntries.computeIfAbsent(trainerId, id -> new ArrayList<>()).add(entry);
+            }
+            String locationKey = slot.locationKey();
+            if (locationKey != null) {
+                locationEntries.computeIfAbsent(locationKey, key -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        this.byTrainer = new HashMap<>();
+        trainerEntries.forEach((trainerId, entries) -> byTrainer.put(trainerId, new IntervalIndex<>(entries)));
+        this.byLocation = new HashMap<>();
+        locationEntries.forEach((location, entries) -> byLocation.put(location, new IntervalIndex<>(entries)));
+    }
+
+    /**
+     * Conflits d'un créneau avec les sessions du planning (la session elle-même est ignorée)
+     */
+    public List<ScheduleConflict> conflicts(SessionSlot slot) {
+        if (slot.getStartDate() == null || slot.getEndDate() == null
+                || slot.getEndDate().isBefore(slot.getStartDate())) {
+            return Collections.emptyList();
+        }
+        long from = slot.getStartDate().toEpochDay();
+        long to = slot.getEndDate().toEpochDay();
+
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        for (Long trainerId : slot.trainerIds()) {
+            IntervalIndex<SessionSlot> index = byTrainer.get(trainerId);
+            if (index == null) {
+                continue;
+            }
+            for (SessionSlot other : index.overlapping(from, to)) {
+                if (!slot.isSameSession(other)) {
+                    conflicts.add(conflict(slot, other, ScheduleConflict.Resource.TRAINER, trainerId, null));
+                }
+            }
+        }
+
+        String locationKey = slot.locationKey();
+        IntervalIndex<SessionSlot> index = locationKey != null ? byLocation.get(locationKey) : null;
+        if (index != null) {
+            for (SessionSlot other : index.overlapping(from, to)) {
+                if (!slot.isSameSession(other)) {
+                    conflicts.add(conflict(slot, other, ScheduleConflict.Resource.LOCATION, null, slot.getLocation()));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Validation d'un plan de sessions contre les sessions déjà programmées et entre elles.
+     *
+     * Une session existante reprise dans le plan (même identifiant) est remplacée par son
+     * nouveau créneau. Rend les conflits de chaque créneau du plan, dans l'ordre du plan.
+     */
+    public static List<List<ScheduleConflict>> validate(Collection<SessionSlot> scheduled, List<SessionSlot> planned) {
+        Set<Long> replaced = new HashSet<>();
+        for (SessionSlot slot : planned) {
+            if (slot.getSessionId() != null) {
+                replaced.add(slot.getSessionId());
+            }
+        }
+        List<SessionSlot> slots = new ArrayList<>(scheduled.size() + planned.size());
+        for (SessionSlot slot : scheduled) {
+            if (slot.getSessionId() == null || !replaced.contains(slot.getSessionId())) {
+                slots.add(slot);
+            }
+        }
+        slots.addAll(planned);
+
+        SessionSchedule schedule = new SessionSchedule(slots);
+        List<List<ScheduleConflict>> conflicts = new ArrayList<>(planned.size());
+        for (SessionSlot slot : planned) {
+            conflicts.add(schedule.conflicts(slot));
+        }
+        return conflicts;
+    }
+
+    private static ScheduleConflict conflict(SessionSlot slot, SessionSlot other, ScheduleConflict.Resource resource,
+                                             Long trainerId, String location) {
+        return new ScheduleConflict(slot, other, resource, trainerId, location,
+                slot.getStartDate().isAfter(other.getStartDate()) ? slot.getStartDate() : other.getStartDate(),
+                slot.getEndDate().isBefore(other.getEndDate()) ? slot.getEndDate() : other.getEndDate());
+    }
+}
@@ -0,0 +1,62 @@
+package com.hrms.scheduling;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Créneau d'une session de formation : période, formateurs mobilisés et lieu.
+ * La référence identifie le créneau dans un plan (code de session ou clé fournie par le client).
+ */
+@Value
+@Builder
+public class SessionSlot {
+
+    String reference;
+    Long sessionId;
+    Long trainerId;
+    List<Long> coTrainerIds;
+    String location;
+    LocalDate startDate;
+    LocalDate endDate;
+
+    /**
+     * Formateur principal et co-formateurs, sans doublon
+     */
+    public Set<Long> trainerIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (trainerId != null) {
+            ids.add(trainerId);
+        }
+        if (coTrainerIds != null) {
+            coTrainerIds.stream().filter(id -> id != null).forEach(ids::add);
+        }
+        return ids;
+    }
+
+    /**
+     * Clé de comparaison du lieu (casse et espaces ignorés), null si le lieu est vide
+     */
+    public String locationKey() {
+        return normalizeLocation(location);
+    }
+
+    public static String normalizeLocation(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    boolean isSameSession(SessionSlot other) {
+        if (this == other) {
+            return true;
+        }
+        return sessionId != null && sessionId.equals(other.sessionId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hrms.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Résultat de recherche en cache : nombre total et identifiants ordonnés des agents.
+ * Au-delà de la limite de mise en cache, seul le total est conservé (identifiants null).
+ */
+@Value
+public class CachedSearchResult {
+
+    private static final char SEPARATOR = '|';
+    private static final String NO_IDS = "-";
+
+    long total;
+    List<Long> ids;
+
+    public static CachedSearchResult of(List<Long> ids) {
+        return new CachedSearchResult(ids.size(), List.copyOf(ids));
+    }
+
+    public static CachedSearchResult totalOnly(long total) {
+        return new CachedSearchResult(total, null);
+    }
+
+    public boolean hasIds() {
+        return ids != null;
+    }
+
+    /**
+     * Forme stockée : "total|id,id,..." ou "total|-"
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder().append(total).append(SEPARATOR);
+        if (ids == null) {
+            return encoded.append(NO_IDS).toString();
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                encoded.append(',');
+            }
+            encoded.append(ids.get(i));
+        }
+        return encoded.toString();
+    }
+
+    public static CachedSearchResult decode(String encoded) {
+        int separator = encoded.indexOf(SEPARATOR);
+        long total = Long.parseLong(encoded.substring(0, separator));
+        String body = encoded.substring(separator + 1);
+        if (NO_IDS.equals(body)) {
+            return totalOnly(total);
+        }
+        List<Long> ids = new ArrayList<>((int) Math.min(total, Integer.MAX_VALUE));
+        if (!body.isEmpty()) {
+            for (String id : body.split(",")) {
+                ids.add(Long.parseLong(id));
+            }
+        }
+        return new CachedSearchResult(total, List.copyOf(ids));
+    }
+}
@@ -0,0 +1,134 @@
+package com.hrms.search;
+
+import com.hrms.dto.PersonnelSearchCriteriaDTO;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Forme canonique des critères de recherche avancée, pour identifier un résultat en cache.
+ *
+ * Deux critères donnant le même résultat doivent donner la même clé : les champs sont parcourus par
+ * nom, les valeurs vides sont ignorées, les textes comparés sans casse (LIKE sur lower) sont mis en
+ * minuscules, les listes triées et dédoublonnées, les indicateurs qui ne filtrent qu'à true ignorés à
+ * false, le sens de tri ignoré sans champ de tri. Un champ ajouté au DTO entre dans la clé tel quel.
+ */
+public final class SearchCriteriaKey {
+
+    /**
+     * Textes recherchés par LIKE sur la valeur en minuscules
+     */
+    private static final Set<String> CASE_INSENSITIVE = Set.of(
+            "matricule", "lastName", "firstName", "cniNumber", "globalSearch",
+            "positionType", "currentFunction", "email", "phoneNumber");
+
+    /**
+     * Indicateurs sans effet à false
+     */
+    private static final Set<String> TRUE_ONLY = Set.of(
+            "includeSubStructures", "retirable", "onProbation", "onSecondment");
+
+    private static final List<Field> FIELDS = criteriaFields();
+
+    private SearchCriteriaKey() {
+    }
+
+    /**
+     * Forme canonique lisible : "champ=valeur;" pour chaque critère actif, par nom de champ
+     */
+    public static String canonical(PersonnelSearchCriteriaDTO criteria) {
+        StringBuilder canonical = new StringBuilder();
+        for (Field field : FIELDS) {
+            String value = normalize(field.getName(), read(field, criteria), criteria);
+            if (value != null) {
+                canonical.append(field.getName()).append('=').append(value).append(';');
+            }
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Empreinte SHA-256 de la forme canonique
+     */
+    public static String digest(PersonnelSearchCriteriaDTO criteria) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical(criteria).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static String normalize(String name, Object value, PersonnelSearchCriteriaDTO criteria) {
+        if (value == null) {
+            return null;
+        }
+        if (TRUE_ONLY.contains(name)) {
+            return Boolean.TRUE.equals(value) ? "true" : null;
+        }
+        if ("sortDirection".equals(name)) {
+            if (criteria.getSortBy() == null || criteria.getSortBy().isBlank()) {
+                return null;
+            }
+            return "DESC".equalsIgnoreCase(value.toString()) ? "DESC" : "ASC";
+        }
+        if (value instanceof String text) {
+            if (text.isBlank()) {
+                return null;
+            }
+            return CASE_INSENSITIVE.contains(name) ? escape(text.toLowerCase(Locale.ROOT)) : escape(text);
+        }
+        if (value instanceof Collection<?> values) {
+            if (values.isEmpty()) {
+                return null;
+            }
+            return values.stream()
+                    .filter(Objects::nonNull)
+                    .map(element -> escape(element instanceof Enum<?> constant ? constant.name() : element.toString()))
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.joining(",", "[", "]"));
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return escape(value.toString());
+    }
+
+    /**
+     * Les séparateurs de la forme canonique ne peuvent pas apparaître dans une valeur
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("=", "\\=");
+    }
+
+    private static List<Field> criteriaFields() {
+        List<Field> fields = Arrays.stream(PersonnelSearchCriteriaDTO.class.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .sorted(Comparator.comparing(Field::getName))
+                .toList();
+        fields.forEach(field -> field.setAccessible(true));
+        return fields;
+    }
+
+    private static Object read(Field field, PersonnelSearchCriteriaDTO criteria) {
+        try {
+            return field.get(criteria);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Critère illisible: " + field.getName(), e);
+        }
+    }
+}
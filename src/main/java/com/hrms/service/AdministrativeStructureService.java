@@ -8,6 +8,7 @@ import com.hrms.exception.DuplicateResourceException;
 import com.hrms.exception.ResourceNotFoundException;
 import com.hrms.mapper.AdministrativeStructureMapper;
 import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelRepository;
 import com.hrms.util.AuditUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,8 +31,11 @@ import java.util.stream.Collectors;
 public class AdministrativeStructureService {
 
     private final AdministrativeStructureRepository structureRepository;
+    private final PersonnelRepository personnelRepository;
     private final AdministrativeStructureMapper structureMapper;
     private final AuditUtil auditUtil;
+    private final PositionOccupancyService positionOccupancyService;
+    private final DataVersionService dataVersionService;
 
     /**
      * Create new structure
@@ -86,6 +90,10 @@ public class AdministrativeStructureService {
 
             AdministrativeStructure parent = structureRepository.findById(dto.getParentStructureId())
                     .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", dto.getParentStructureId()));
+            if (structure.getParentStructure() == null
+                    || !parent.getId().equals(structure.getParentStructure().getId())) {
+                moveSubtree(structure, parent);
+            }
             structure.setParentStructure(parent);
         }
 
@@ -99,6 +107,30 @@ public class AdministrativeStructureService {
         return structureMapper.toDTO(updated);
     }
 
+    /**
+     * Rattache une structure à un nouveau parent et réécrit le chemin de tout son sous-arbre
+     */
+    private void moveSubtree(AdministrativeStructure structure, AdministrativeStructure newParent) {
+        if (newParent.isInSubtreeOf(structure)) {
+            throw new IllegalArgumentException(
+                "Une structure ne peut pas être rattachée à l'une de ses sous-structures");
+        }
+
+        String oldPath = structure.getPath();
+        String newPath = structure.buildPath(newParent);
+        if (oldPath != null) {
+            int moved = structureRepository.moveSubtree(oldPath, newPath);
+            log.info("Structure {} moved under {}: {} path(s) rewritten", structure.getId(), newParent.getId(), moved);
+            // Bulk update, not seen by the outbox: tree ETags must change with the rewritten paths
+            dataVersionService.changedAfterCommit("AdministrativeStructure", "Position");
+        }
+        structure.setPath(newPath);
+
+        AdministrativeStructure oldParent = structure.getParentStructure();
+        positionOccupancyService.subtreeMoved(structure.getId(),
+                oldParent != null ? oldParent.getPath() : null, newParent.getPath());
+    }
+
     /**
      * Get structure by ID
      */
@@ -256,8 +288,36 @@ public class AdministrativeStructureService {
      */
     @Transactional(readOnly = true)
     public List<AdministrativeStructureDTO> getHierarchyTree(Long structureId) {
-        return structureRepository.findAllDescendants(structureId).stream()
+        return structureRepository.findSubtreeByPath(getSubtreePath(structureId)).stream()
                 .map(structureMapper::toDTO)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Chemin matérialisé d'une structure, préfixe commun à tout son sous-arbre
+     */
+    @Transactional(readOnly = true)
+    public String getSubtreePath(Long structureId) {
+        return structureRepository.findPathById(structureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", structureId));
+    }
+
+    /**
+     * Statistiques consolidées d'une structure et de toutes ses sous-structures
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSubtreeStatistics(Long structureId) {
+        String path = getSubtreePath(structureId);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("structureId", structureId);
+        stats.put("structures", structureRepository.countSubtreeByPath(path));
+        stats.put("personnel", personnelRepository.countInStructureSubtree(path));
+
+        Map<String, Long> positions = positionOccupancyService.getSubtreeCounters(structureId);
+        stats.put("positions", positions.get("total"));
+        stats.put("vacantPositions", positions.get("vacant"));
+        stats.put("occupiedPositions", positions.get("occupied"));
+        return stats;
+    }
 }
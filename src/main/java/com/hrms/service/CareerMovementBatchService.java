@@ -0,0 +1,374 @@
+package com.hrms.service;
+
+import com.hrms.dto.CareerMovementBatchRequestDTO;
+import com.hrms.dto.CareerMovementBatchResultDTO;
+import com.hrms.dto.CareerMovementBatchResultDTO.MovementOutcomeDTO;
+import com.hrms.entity.AuditLog;
+import com.hrms.entity.CareerMovement;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.Position;
+import com.hrms.exception.BusinessException;
+import com.hrms.movement.MovementPlanner;
+import com.hrms.movement.PlannedMovement;
+import com.hrms.repository.AuditLogRepository;
+import com.hrms.repository.CareerMovementRepository;
+import com.hrms.tenant.TenantContext;
+import com.hrms.util.AuditUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service d'exécution en lot des mouvements de carrière approuvés
+ *
+ * Les mouvements d'une date d'effet ou d'une décision sont planifiés en lecture seule
+ * ({@link MovementPlanner} : ordre des chaînes, permutations, conflits d'occupation), puis
+ * exécutés par tranches, une transaction par tranche avec écritures JDBC groupées. Une tranche
+ * en échec est rejouée unité par unité pour isoler les mouvements fautifs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CareerMovementBatchService {
+
+    private static final String EXECUTED = "EXECUTED";
+    private static final String PLANNED = "PLANNED";
+    private static final String CONFLICT = "CONFLICT";
+    private static final String FAILED = "FAILED";
+
+    private final CareerMovementRepository careerMovementRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final PositionOccupancyService positionOccupancyService;
+    private final AuditUtil auditUtil;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hrms.career-movements.batch-chunk-size:200}")
+    private int defaultChunkSize;
+
+    @Value("${hrms.career-movements.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Planifie puis exécute les mouvements approuvés d'une date d'effet et/ou d'une décision
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CareerMovementBatchResultDTO executeBatch(CareerMovementBatchRequestDTO request) {
+        if (request.getMovementDate() == null && (request.getDecisionNumber() == null || request.getDecisionNumber().isBlank())) {
+            throw new BusinessException("La date d'effet ou le numéro de décision est obligatoire");
+        }
+        long start = System.currentTimeMillis();
+        int chunkSize = request.getChunkSize() != null && request.getChunkSize() > 0 ? request.getChunkSize() : defaultChunkSize;
+        boolean validationOnly = Boolean.TRUE.equals(request.getValidationOnly());
+
+        // 1. Planification
+        Planning planning = readOnlyTransaction.execute(status -> plan(request.getMovementDate(), request.getDecisionNumber()));
+
+        Map<Long, MovementOutcomeDTO> outcomes = new LinkedHashMap<>();
+        for (Long movementId : planning.order) {
+            outcomes.put(movementId, MovementOutcomeDTO.builder()
+                    .movementId(movementId)
+                    .personnelId(planning.personnelIds.get(movementId))
+                    .build());
+        }
+        planning.plan.getConflicts().forEach((movementId, reason) -> mark(outcomes.get(movementId), CONFLICT, reason, null));
+
+        // 2. Exécution par tranches
+        List<List<MovementPlanner.Unit>> chunks = chunk(planning.plan.getUnits(), chunkSize);
+        Set<Long> failed = new HashSet<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            int chunkNumber = i + 1;
+            if (validationOnly) {
+                chunks.get(i).forEach(unit -> unit.getMovements().forEach(movement ->
+                        mark(outcomes.get(movement.getMovementId()), PLANNED, null, chunkNumber)));
+            } else {
+                executeChunk(chunks.get(i), chunkNumber, planning, outcomes, failed);
+            }
+        }
+
+        long executed = outcomes.values().stream().filter(outcome -> EXECUTED.equals(outcome.getStatus())).count();
+
+        long duration = System.currentTimeMillis() - start;
+        double throughput = duration > 0 ? executed * 1000.0 / duration : executed;
+        log.info("Exécution en lot des mouvements (date {}, décision {}): {} mouvements, {} exécutés, {} conflits, " +
+                        "{} échecs, {} tranches en {} ms ({} mouvements/s)",
+                request.getMovementDate(), request.getDecisionNumber(), outcomes.size(), executed,
+                planning.plan.getConflicts().size(), failed.size(), chunks.size(), duration, String.format("%.1f", throughput));
+
+        return CareerMovementBatchResultDTO.builder()
+                .totalCount(outcomes.size())
+                .executedCount((int) executed)
+                .conflictCount(planning.plan.getConflicts().size())
+                .failedCount(failed.size())
+                .chunkCount(chunks.size())
+                .validationOnly(validationOnly)
+                .durationMs(duration)
+                .throughputPerSecond(throughput)
+                .outcomes(new ArrayList<>(outcomes.values()))
+                .build();
+    }
+
+    // ==================== PLANIFICATION ====================
+
+    private Planning plan(LocalDate movementDate, String decisionNumber) {
+        List<CareerMovement> movements = careerMovementRepository.findApprovedForExecution(movementDate,
+                decisionNumber != null && !decisionNumber.isBlank() ? decisionNumber : null);
+
+        Planning planning = new Planning();
+        List<PlannedMovement> planned = new ArrayList<>();
+        for (CareerMovement movement : movements) {
+            Personnel personnel = movement.getPersonnel();
+            Position source = movement.getSourcePosition();
+            Position destination = movement.getDestinationPosition();
+
+            planning.order.add(movement.getId());
+            planning.personnelIds.put(movement.getId(), personnel.getId());
+            planning.versions.put(movement.getId(), new Long[]{movement.getVersion(), personnel.getVersion()});
+
+            planned.add(PlannedMovement.builder()
+                    .movementId(movement.getId())
+                    .personnelId(personnel.getId())
+                    .sourcePositionId(source != null ? source.getId() : null)
+                    .keepsSource(Boolean.TRUE.equals(movement.getIsOfficialCumul()))
+                    .sourceHolderId(holderOf(source))
+                    .destinationPositionId(destination != null ? destination.getId() : null)
+                    .destinationHolderId(holderOf(destination))
+                    .destinationAvailable(destination != null && Boolean.TRUE.equals(destination.getActive())
+                            && !destination.isDeleted()
+                            && (destination.getStatus() == Position.PositionStatus.VACANT
+                                || destination.getStatus() == Position.PositionStatus.OCCUPE))
+                    .build());
+        }
+        planning.plan = MovementPlanner.plan(planned);
+        return planning;
+    }
+
+    private static Long holderOf(Position position) {
+        return position != null && position.getCurrentPersonnel() != null ? position.getCurrentPersonnel().getId() : null;
+    }
+
+    private static List<List<MovementPlanner.Unit>> chunk(List<MovementPlanner.Unit> units, int chunkSize) {
+        List<List<MovementPlanner.Unit>> chunks = new ArrayList<>();
+        List<MovementPlanner.Unit> current = new ArrayList<>();
+        int size = 0;
+        for (MovementPlanner.Unit unit : units) {
+            // Une permutation n'est jamais coupée entre deux tranches
+            if (!current.isEmpty() && size + unit.getMovements().size() > chunkSize) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                size = 0;
+            }
+            current.add(unit);
+            size += unit.getMovements().size();
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    // ==================== EXÉCUTION ====================
+
+    private void executeChunk(List<MovementPlanner.Unit> units, int chunkNumber, Planning planning,
+                              Map<Long, MovementOutcomeDTO> outcomes, Set<Long> failed) {
+        List<MovementPlanner.Unit> runnable = withoutFailedDependencies(units, planning, outcomes, failed, chunkNumber);
+        if (runnable.isEmpty()) {
+            return;
+        }
+
+        try {
+            chunkTransaction.executeWithoutResult(status -> applyUnits(runnable, planning));
+            runnable.forEach(unit -> markUnit(unit, outcomes, EXECUTED, null, chunkNumber));
+            return;
+        } catch (RuntimeException e) {
+            if (runnable.size() == 1) {
+                markUnit(runnable.get(0), outcomes, FAILED, failureMessage(e), chunkNumber);
+                runnable.get(0).getMovements().forEach(movement -> failed.add(movement.getMovementId()));
+                return;
+            }
+            log.warn("Tranche {} de mouvements en échec ({}), reprise unité par unité", chunkNumber, failureMessage(e));
+        }
+
+        // Reprise unité par unité pour isoler les mouvements en échec
+        for (MovementPlanner.Unit unit : runnable) {
+            if (withoutFailedDependencies(List.of(unit), planning, outcomes, failed, chunkNumber).isEmpty()) {
+                continue;
+            }
+            try {
+                chunkTransaction.executeWithoutResult(status -> applyUnits(List.of(unit), planning));
+                markUnit(unit, outcomes, EXECUTED, null, chunkNumber);
+            } catch (RuntimeException e) {
+                markUnit(unit, outcomes, FAILED, failureMessage(e), chunkNumber);
+                unit.getMovements().forEach(movement -> failed.add(movement.getMovementId()));
+            }
+        }
+    }
+
+    /**
+     * Écarte les unités dont un mouvement dépend d'un mouvement en échec
+     */
+    private List<MovementPlanner.Unit> withoutFailedDependencies(List<MovementPlanner.Unit> units, Planning planning,
+                                                                 Map<Long, MovementOutcomeDTO> outcomes,
+                                                                 Set<Long> failed, int chunkNumber) {
+        List<MovementPlanner.Unit> runnable = new ArrayList<>();
+        for (MovementPlanner.Unit unit : units) {
+            Long failedDependency = unit.getMovements().stream()
+                    .map(movement -> planning.plan.getDependencies().get(movement.getMovementId()))
+                    .filter(Objects::nonNull)
+                    .filter(failed::contains)
+                    .findFirst()
+                    .orElse(null);
+            if (failedDependency == null) {
+                runnable.add(unit);
+            } else {
+                markUnit(unit, outcomes, FAILED,
+                        "Dépend du mouvement " + failedDependency + " en échec", chunkNumber);
+                unit.getMovements().forEach(movement -> failed.add(movement.getMovementId()));
+            }
+        }
+        return runnable;
+    }
+
+    private void applyUnits(List<MovementPlanner.Unit> units, Planning planning) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+        List<Long> ids = units.stream()
+                .flatMap(unit -> unit.getMovements().stream())
+                .map(PlannedMovement::getMovementId)
+                .toList();
+        Map<Long, CareerMovement> loaded = new HashMap<>();
+        careerMovementRepository.findAllForExecutionByIdIn(ids).forEach(movement -> loaded.put(movement.getId(), movement));
+
+        Map<Long, Position> touched = new LinkedHashMap<>();
+        Map<Long, Boolean> previousOccupancy = new HashMap<>();
+        List<CareerMovement> executed = new ArrayList<>();
+        List<AuditLog> auditLogs = new ArrayList<>();
+        String currentUser = auditUtil.getCurrentUser();
+
+        for (MovementPlanner.Unit unit : units) {
+            List<CareerMovement> movements = new ArrayList<>();
+            for (PlannedMovement planned : unit.getMovements()) {
+                CareerMovement movement = loaded.get(planned.getMovementId());
+                checkUnchanged(movement, planned.getMovementId(), planning.versions.get(planned.getMovementId()));
+                track(movement.getSourcePosition(), touched, previousOccupancy);
+                track(movement.getDestinationPosition(), touched, previousOccupancy);
+                movements.add(movement);
+            }
+
+            // Permutation : tous les postes quittés sont libérés avant la première affectation
+            if (unit.isCycle()) {
+                movements.forEach(this::releaseSource);
+            }
+
+            for (CareerMovement movement : movements) {
+                movement.execute();
+                executed.add(movement);
+
+                AuditLog auditLog = AuditLog.createLog("CareerMovement", movement.getId(), AuditLog.Action.UPDATE,
+                        currentUser, null, TenantContext.getTenantId());
+                auditLog.setNewValues("Movement Type: " + movement.getMovementType() + ", Status: " + movement.getStatus());
+                auditLogs.add(auditLog);
+            }
+        }
+
+        careerMovementRepository.saveAll(executed);
+        auditLogRepository.saveAll(auditLogs);
+        entityManager.flush();
+
+        positionOccupancyService.occupancyChanged(touched.values(), previousOccupancy);
+    }
+
+    private void checkUnchanged(CareerMovement movement, Long movementId, Long[] plannedVersions) {
+        if (movement == null) {
+            throw new BusinessException("Mouvement " + movementId + " introuvable");
+        }
+        if (!Objects.equals(movement.getVersion(), plannedVersions[0])
+                || !Objects.equals(movement.getPersonnel().getVersion(), plannedVersions[1])) {
+            throw new OptimisticLockingFailureException(
+                    "Mouvement " + movementId + " ou son personnel modifié depuis la planification");
+        }
+        if (movement.getStatus() != CareerMovement.MovementStatus.APPROVED) {
+            throw new BusinessException("Le mouvement " + movementId + " n'est plus approuvé");
+        }
+    }
+
+    private void releaseSource(CareerMovement movement) {
+        Position source = movement.getSourcePosition();
+        Personnel personnel = movement.getPersonnel();
+        if (source == null || Boolean.TRUE.equals(movement.getIsOfficialCumul())
+                || source.getCurrentPersonnel() == null
+                || !source.getCurrentPersonnel().getId().equals(personnel.getId())) {
+            return;
+        }
+        source.releasePersonnel();
+        if (personnel.getCurrentPosition() != null && personnel.getCurrentPosition().getId().equals(source.getId())) {
+            personnel.setCurrentPosition(null);
+        }
+    }
+
+    private static void track(Position position, Map<Long, Position> touched, Map<Long, Boolean> previousOccupancy) {
+        if (position != null) {
+            touched.putIfAbsent(position.getId(), position);
+            previousOccupancy.putIfAbsent(position.getId(), position.isOccupied());
+        }
+    }
+
+    private static String failureMessage(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException) {
+            return "Conflit de mise à jour concurrente : " + e.getMessage();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static void markUnit(MovementPlanner.Unit unit, Map<Long, MovementOutcomeDTO> outcomes,
+                                 String status, String message, Integer chunkNumber) {
+        unit.getMovements().forEach(movement -> mark(outcomes.get(movement.getMovementId()), status, message, chunkNumber));
+    }
+
+    private static void mark(MovementOutcomeDTO outcome, String status, String message, Integer chunkNumber) {
+        outcome.setStatus(status);
+        outcome.setMessage(message);
+        outcome.setChunk(chunkNumber);
+    }
+
+    /**
+     * Résultat de la planification : ordre d'origine, versions lues et plan d'exécution
+     */
+    private static class Planning {
+        private final List<Long> order = new ArrayList<>();
+        private final Map<Long, Long> personnelIds = new HashMap<>();
+        private final Map<Long, Long[]> versions = new HashMap<>();
+        private MovementPlanner.Plan plan;
+    }
+}
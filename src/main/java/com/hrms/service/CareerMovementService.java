@@ -1,5 +1,6 @@
 package com.hrms.service;
 
+import com.hrms.concurrency.RetryOnConflict;
 import com.hrms.dto.CareerMovementCreateDTO;
 import com.hrms.dto.CareerMovementDTO;
 import com.hrms.dto.CareerMovementUpdateDTO;
@@ -34,6 +35,7 @@ public class CareerMovementService {
     private final AuditLogRepository auditLogRepository;
     private final CareerMovementMapper careerMovementMapper;
     private final AuditUtil auditUtil;
+    private final PositionOccupancyService positionOccupancyService;
 
     /**
      * Create career movement
@@ -159,6 +161,7 @@ public class CareerMovementService {
     /**
      * Approve career movement
      */
+    @RetryOnConflict
     public CareerMovementDTO approveMovement(Long id) {
         log.info("Approving career movement with ID: {}", id);
 
@@ -177,12 +180,18 @@ public class CareerMovementService {
     /**
      * Execute career movement (applies changes to personnel and positions)
      */
+    @RetryOnConflict
     public CareerMovementDTO executeMovement(Long id) {
         log.info("Executing career movement with ID: {}", id);
 
         CareerMovement movement = careerMovementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("CareerMovement", "id", id));
 
+        Position source = movement.getSourcePosition();
+        Position destination = movement.getDestinationPosition();
+        boolean sourceWasOccupied = source != null && source.isOccupied();
+        boolean destinationWasOccupied = destination != null && destination.isOccupied();
+
         try {
             movement.execute();
             CareerMovement executed = careerMovementRepository.save(movement);
@@ -190,12 +199,14 @@ public class CareerMovementService {
             // Save changes to personnel and positions
             personnelRepository.save(movement.getPersonnel());
 
-            if (movement.getSourcePosition() != null) {
-                positionRepository.save(movement.getSourcePosition());
+            if (source != null) {
+                positionRepository.save(source);
+                positionOccupancyService.occupancyChanged(source, sourceWasOccupied);
             }
 
-            if (movement.getDestinationPosition() != null) {
-                positionRepository.save(movement.getDestinationPosition());
+            if (destination != null) {
+                positionRepository.save(destination);
+                positionOccupancyService.occupancyChanged(destination, destinationWasOccupied);
             }
 
             createAuditLog(executed, AuditLog.Action.EXECUTE);
@@ -212,6 +223,7 @@ public class CareerMovementService {
     /**
      * Cancel career movement
      */
+    @RetryOnConflict
     public CareerMovementDTO cancelMovement(Long id) {
         log.info("Cancelling career movement with ID: {}", id);
 
@@ -300,15 +300,14 @@ public class CartographyService {
         if (filters.getStructureId() != null) {
             AdministrativeStructure structure = structureRepository.findById(filters.getStructureId())
                     .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", filters.getStructureId()));
-            
+
+            // Inclure les descendants si demandé (sous-arbre par préfixe du chemin, structure incluse)
+            if (Boolean.TRUE.equals(filters.getIncludeChildren()) && structure.getPath() != null) {
+                return structureRepository.findSubtreeByPath(structure.getPath());
+            }
+
             List<AdministrativeStructure> result = new ArrayList<>();
             result.add(structure);
-            
-            // Inclure les enfants si demandé
-            if (Boolean.TRUE.equals(filters.getIncludeChildren())) {
-                result.addAll(structureRepository.findAllDescendants(filters.getStructureId()));
-            }
-            
             return result;
         }
 
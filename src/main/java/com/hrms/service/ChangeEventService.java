@@ -0,0 +1,260 @@
+package com.hrms.service;
+
+import com.hrms.entity.OutboxEvent;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeQueue;
+import com.hrms.events.EntityChange;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.repository.OutboxEventRepository;
+import com.hrms.tenant.TenantContext;
+import com.hrms.tenant.TenantProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bus des changements d'entités
+ *
+ * Les changements validés (capturés dans l'outbox par {@link com.hrms.events.OutboxChangeCapture})
+ * sont mis en file après commit puis remis par lots aux {@link EntityChangeSubscriber}, tenant par
+ * tenant et dans l'ordre de l'outbox. Un changement n'est remis qu'après tous les changements plus
+ * anciens de son agrégat : tant que l'un d'eux reste non publié, il est retenu. Un lot remis sans
+ * erreur est marqué publié ; les lignes restées non publiées (arrêt de l'instance, abonné en échec)
+ * sont reprises depuis l'outbox au démarrage puis périodiquement. Les lignes publiées sont purgées au-delà de hrms.events.retention-days.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeEventService {
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectProvider<EntityChangeSubscriber> subscribers;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<TenantProperties> tenantProperties;
+
+    @Value("${hrms.multi-tenant.default-tenant:default}")
+    private String defaultTenant;
+
+    @Value("${hrms.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${hrms.events.replay-grace-ms:30000}")
+    private long replayGraceMs;
+
+    @Value("${hrms.events.retention-days:7}")
+    private int retentionDays;
+
+    private final ChangeQueue queue = new ChangeQueue();
+
+    /**
+     * Met en file des changements validés ; appelé après commit
+     */
+    public void publish(List<EntityChange> changes) {
+        queue.offer(changes);
+    }
+
+    /**
+     * Nombre de changements en file, non encore remis
+     */
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Remise des changements en file, lot par lot
+     */
+    @Scheduled(fixedDelayString = "${hrms.events.dispatch-interval-ms:200}")
+    public void dispatch() {
+        ChangeBatch batch;
+        while ((batch = queue.poll(batchSize)) != null) {
+            ChangeBatch delivering = batch;
+            inTenant(batch.getTenant(), () -> deliver(delivering));
+        }
+    }
+
+    /**
+     * Reprise au démarrage : tout ce qui n'a pas été publié avant l'arrêt
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        replay(LocalDateTime.now());
+    }
+
+    /**
+     * Reprise périodique des changements non publiés (abonné en échec, publication perdue).
+     * Le délai de grâce laisse à la remise directe le temps d'aboutir.
+     */
+    @Scheduled(fixedDelayString = "${hrms.events.replay-interval-ms:60000}",
+               initialDelayString = "${hrms.events.replay-interval-ms:60000}")
+    public void replayStale() {
+        replay(LocalDateTime.now().minusNanos(replayGraceMs * 1_000_000));
+    }
+
+    /**
+     * Purge des lignes d'outbox publiées, pour tous les tenants
+     */
+    @Scheduled(cron = "${hrms.events.purge-cron:0 45 3 * * *}")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        for (String tenant : tenants()) {
+            inTenant(tenant, () -> {
+                Integer deleted = new TransactionTemplate(transactionManager)
+                        .execute(status -> outboxRepository.deletePublishedBefore(before));
+                log.info("Outbox du tenant {}: {} changements publiés purgés", tenant, deleted);
+            });
+        }
+    }
+
+    private void deliver(ChangeBatch batch) {
+        // Ordre par agrégat : rien n'est remis tant qu'un changement plus ancien du même agrégat
+        // reste non publié hors du lot (abonné en échec, publication directe devancée par la reprise)
+        ChangeBatch.Ordering ordering = batch.inAggregateOrder(unpublishedIdsOf(batch));
+        ChangeBatch deliverable = ordering.deliverable();
+        if (!ordering.held().isEmpty()) {
+            queue.hold(batch.getTenant(), ordering.held());
+            log.debug("{} changements du tenant {} retenus derrière un changement plus ancien non publié",
+                    ordering.held().size(), batch.getTenant());
+        }
+        if (deliverable.isEmpty()) {
+            return;
+        }
+
+        boolean delivered = true;
+        for (EntityChangeSubscriber subscriber : subscribers.orderedStream().toList()) {
+            ChangeBatch accepted = deliverable.only(subscriber.aggregateTypes());
+            if (accepted.isEmpty()) {
+                continue;
+            }
+            try {
+                subscriber.onChanges(accepted);
+            } catch (Exception e) {
+                // Lot laissé non publié : il sera repris depuis l'outbox, les suivants de ses agrégats attendront
+                delivered = false;
+                log.warn("Abonné {} en échec sur {} changements du tenant {}: {}",
+                        subscriber.getClass().getSimpleName(), accepted.size(), batch.getTenant(), e.getMessage());
+            }
+        }
+        if (delivered) {
+            Set<Long> ids = deliverable.getChanges().stream().map(EntityChange::getOutboxId).collect(Collectors.toSet());
+            LocalDateTime now = LocalDateTime.now();
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> outboxRepository.markPublished(ids, now));
+            queue.release(deliverable);
+        }
+        log.debug("Lot de {} changements remis pour le tenant {}", deliverable.size(), batch.getTenant());
+    }
+
+    /**
+     * Identifiants d'outbox non publiés des agrégats du lot, jusqu'à son dernier changement
+     */
+    private Map<String, List<Long>> unpublishedIdsOf(ChangeBatch batch) {
+        Set<String> types = new HashSet<>();
+        Set<Long> aggregateIds = new HashSet<>();
+        long maxId = 0;
+        for (EntityChange change : batch.getChanges()) {
+            types.add(change.getAggregateType());
+            aggregateIds.add(change.getAggregateId());
+            maxId = Math.max(maxId, change.getOutboxId());
+        }
+        long upTo = maxId;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<Object[]> rows = readOnly.execute(status ->
+                outboxRepository.findUnpublishedIdsOf(types, aggregateIds, upTo));
+
+        Map<String, List<Long>> unpublished = new HashMap<>();
+        if (rows != null) {
+            for (Object[] row : rows) {
+                unpublished.computeIfAbsent(EntityChange.aggregateKey((String) row[0], (Long) row[1]),
+                        key -> new ArrayList<>()).add((Long) row[2]);
+            }
+        }
+        return unpublished;
+    }
+
+    private void replay(LocalDateTime before) {
+        for (String tenant : tenants()) {
+            inTenant(tenant, () -> replayTenant(tenant, before));
+        }
+    }
+
+    private void replayTenant(String tenant, LocalDateTime before) {
+        // Les changements retenus assez anciens sont relus ci-dessous
+        queue.dropHeld(tenant, before);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long afterId = 0;
+        int replayed = 0;
+        while (true) {
+            long from = afterId;
+            List<OutboxEvent> rows = readOnly.execute(status ->
+                    outboxRepository.findUnpublishedAfter(from, before, PageRequest.of(0, batchSize)));
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            replayed += queue.offer(rows.stream().map(this::toEntityChange).toList());
+            afterId = rows.get(rows.size() - 1).getId();
+        }
+        if (replayed > 0) {
+            log.info("Outbox du tenant {}: {} changements non publiés repris", tenant, replayed);
+        }
+    }
+
+    private EntityChange toEntityChange(OutboxEvent event) {
+        return EntityChange.builder()
+                .outboxId(event.getId())
+                .tenant(event.getTenantId())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .changeType(event.getChangeType())
+                .changedProperties(event.getChangedProperties() == null ? Set.of()
+                        : Set.copyOf(Arrays.asList(event.getChangedProperties().split(","))))
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+
+    private Set<String> tenants() {
+        Set<String> tenants = new LinkedHashSet<>();
+        tenants.add(defaultTenant);
+        TenantProperties properties = tenantProperties.getIfAvailable();
+        if (properties != null) {
+            tenants.addAll(properties.getTenants().keySet());
+        }
+        return tenants;
+    }
+
+    private void inTenant(String tenant, Runnable action) {
+        String previous = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenant);
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Bus des changements du tenant {} en échec: {}", tenant, e.getMessage());
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantId(previous);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+}
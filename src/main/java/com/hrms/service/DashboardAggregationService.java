@@ -0,0 +1,191 @@
+package com.hrms.service;
+
+import com.hrms.dto.StatisticsDTO;
+import com.hrms.entity.Personnel;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.PositionRepository;
+import com.hrms.tenant.TenantAwareTaskDecorator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Service d'agrégation du tableau de bord
+ *
+ * Les agrégats indépendants (effectifs, retraitables, répartitions, postes) sont
+ * calculés en parallèle par des requêtes COUNT / GROUP BY, chacun dans sa propre
+ * transaction en lecture seule, sur un pool borné qui constitue le budget de
+ * connexions du tableau de bord. Un agrégat qui dépasse son délai est signalé
+ * dans {@link StatisticsDTO#getUnavailableAggregates()} au lieu de bloquer la réponse ; le même délai
+ * est posé sur la transaction, donc sur chaque requête (délai JDBC du statement), pour que la base
+ * annule la requête et que la connexion retourne au pool.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardAggregationService {
+
+    private final PersonnelRepository personnelRepository;
+    private final PositionRepository positionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hrms.dashboard.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${hrms.dashboard.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${hrms.dashboard.aggregate-timeout-ms:5000}")
+    private long aggregateTimeoutMs;
+
+    private ThreadPoolTaskExecutor executor;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initExecutor() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        executor.initialize();
+
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.setTimeout(queryTimeoutSeconds());
+    }
+
+    /**
+     * Délai des requêtes en secondes (granularité du délai de transaction), au moins une seconde
+     */
+    int queryTimeoutSeconds() {
+        return (int) Math.max(1, (aggregateTimeoutMs + 999) / 1000);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    /**
+     * Calcule les statistiques globales du tableau de bord
+     */
+    public StatisticsDTO getDashboardStatistics() {
+        log.info("Calcul des statistiques du tableau de bord ({} agrégats en parallèle max)", maxConcurrency);
+
+        StatisticsDTO stats = new StatisticsDTO();
+        List<String> unavailable = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        // Effectifs
+        futures.add(aggregate("totalPersonnel", personnelRepository::countByDeletedFalse,
+                StatisticsDTO::setTotalPersonnel, stats, unavailable));
+        futures.add(aggregate("retirableThisYear", personnelRepository::countRetirableThisYear,
+                StatisticsDTO::setRetirableThisYear, stats, unavailable));
+        futures.add(aggregate("retirableNextYear", personnelRepository::countRetirableNextYear,
+                StatisticsDTO::setRetirableNextYear, stats, unavailable));
+
+        // Répartitions du personnel
+        futures.add(aggregate("personnelBySituation", this::countBySituation,
+                StatisticsDTO::setPersonnelBySituation, stats, unavailable));
+        futures.add(aggregate("personnelByGrade", () -> toCountMap(personnelRepository.countByGrade()),
+                StatisticsDTO::setPersonnelByGrade, stats, unavailable));
+        futures.add(aggregate("personnelByCorps", () -> toCountMap(personnelRepository.countByCorpsMetier()),
+                StatisticsDTO::setPersonnelByCorps, stats, unavailable));
+        futures.add(aggregate("personnelByStructure", () -> toCountMap(personnelRepository.countByStructure()),
+                StatisticsDTO::setPersonnelByStructure, stats, unavailable));
+
+        // Postes
+        futures.add(aggregate("totalPositions", positionRepository::countByDeletedFalse,
+                StatisticsDTO::setTotalPositions, stats, unavailable));
+        futures.add(aggregate("occupiedPositions", positionRepository::countOccupiedPositions,
+                StatisticsDTO::setOccupiedPositions, stats, unavailable));
+        futures.add(aggregate("vacantPositions", positionRepository::countVacantPositions,
+                StatisticsDTO::setVacantPositions, stats, unavailable));
+        futures.add(aggregate("positionsByRank", () -> toCountMap(positionRepository.countByRank()),
+                StatisticsDTO::setPositionsByRank, stats, unavailable));
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        List<String> sorted = new ArrayList<>(unavailable);
+        Collections.sort(sorted);
+        stats.setUnavailableAggregates(sorted);
+
+        if (!sorted.isEmpty()) {
+            log.warn("Agrégats indisponibles pour le tableau de bord: {}", sorted);
+        }
+        return stats;
+    }
+
+    /**
+     * Lance un agrégat dans sa propre transaction en lecture seule avec un délai maximal.
+     * Le résultat est appliqué au DTO sous verrou; un échec ou un dépassement de délai
+     * marque l'agrégat comme indisponible. La tâche abandonnée est annulée : si elle n'a pas
+     * démarré elle ne prend pas de connexion, sinon le délai de requête l'interrompt.
+     */
+    private <T> CompletableFuture<Void> aggregate(String name, Supplier<T> query,
+                                                  BiConsumer<StatisticsDTO, T> setter,
+                                                  StatisticsDTO stats, List<String> unavailable) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Agrégat {} rejeté: file du tableau de bord saturée", name);
+            unavailable.add(name);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return future
+                .orTimeout(aggregateTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((value, error) -> {
+                    if (error != null) {
+                        future.cancel(false);
+                        log.warn("Agrégat {} indisponible: {}", name, error.toString());
+                        unavailable.add(name);
+                    } else {
+                        synchronized (stats) {
+                            setter.accept(stats, value);
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Effectifs par situation, toutes les situations présentes (0 si aucun personnel)
+     */
+    private Map<String, Long> countBySituation() {
+        Map<String, Long> bySituation = new LinkedHashMap<>();
+        for (Personnel.PersonnelSituation situation : Personnel.PersonnelSituation.values()) {
+            bySituation.put(situation.name(), 0L);
+        }
+        bySituation.putAll(toCountMap(personnelRepository.countGroupBySituation()));
+        return bySituation;
+    }
+
+    /**
+     * Convertit un résultat [clé, nombre] en map ordonnée
+     */
+    private Map<String, Long> toCountMap(List<Object[]> rows) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String key = row[0] != null ? row[0].toString() : "N/A";
+            result.merge(key, ((Number) row[1]).longValue(), Long::sum);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.EntityChange;
+import com.hrms.events.EntityChangeSubscriber;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Versions des données par tenant et par type d'agrégat, pour les ETags des requêtes conditionnelles
+ *
+ * Chaque changement validé (reçu du bus des changements, donc après commit) incrémente la version
+ * de son type d'agrégat. Les mises à jour JPQL en masse, que l'outbox ne voit pas (chemins d'un
+ * sous-arbre déplacé, compteurs de postes), signalent leurs types par {@link #changedAfterCommit}.
+ * Une ETag lue avant l'exécution d'une requête est donc toujours antérieure ou égale aux données
+ * renvoyées : au pire le client recharge une fois de trop, jamais trop peu.
+ *
+ * Les versions sont partagées entre instances dans un hash Redis par tenant (hrms.etag.shared-versions),
+ * sinon conservées en mémoire. Une version absente est initialisée à l'horodatage courant, pour ne
+ * jamais réutiliser une valeur déjà servie après une perte des versions (redémarrage, purge Redis).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataVersionService implements EntityChangeSubscriber {
+
+    private static final String KEY_PREFIX = "hrms:data-version:";
+
+    private final WorkforceChangeTracker changeTracker;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    @Value("${hrms.etag.shared-versions:true}")
+    private boolean sharedVersions;
+
+    private final Map<String, AtomicLong> localVersions = new ConcurrentHashMap<>();
+
+    @Override
+    public Set<String> aggregateTypes() {
+        // Tous les agrégats capturés par l'outbox
+        return Set.of();
+    }
+
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        Set<String> types = batch.getChanges().stream()
+                .map(EntityChange::getAggregateType)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        // Une erreur Redis laisse le lot non publié : il sera rejoué depuis l'outbox
+        for (String type : types) {
+            increment(batch.getTenant(), type);
+        }
+        log.debug("Versions des données du tenant {} incrémentées pour {}", batch.getTenant(), types);
+    }
+
+    /**
+     * Incrémente les versions du tenant courant pour des écritures non capturées par l'outbox.
+     * Dans une transaction, l'incrément attend le commit : une ETag servie entre-temps reste antérieure.
+     */
+    public void changedAfterCommit(String... aggregateTypes) {
+        String tenant = changeTracker.currentTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementAll(tenant, aggregateTypes);
+                }
+            });
+        } else {
+            incrementAll(tenant, aggregateTypes);
+        }
+    }
+
+    private void incrementAll(String tenant, String... aggregateTypes) {
+        try {
+            for (String type : aggregateTypes) {
+                increment(tenant, type);
+            }
+        } catch (Exception e) {
+            // Pas de reprise possible : les ETags de ces types restent anciennes jusqu'au prochain changement
+            log.warn("Versions des données du tenant {} non incrémentées pour {}: {}",
+                    tenant, Arrays.toString(aggregateTypes), e.getMessage());
+        }
+    }
+
+    /**
+     * ETag faible du tenant courant pour les types d'agrégats donnés,
+     * null si les versions ne peuvent pas être lues
+     */
+    public String etag(String... aggregateTypes) {
+        String tenant = changeTracker.currentTenant();
+        try {
+            List<Long> versions = versions(tenant, Arrays.asList(aggregateTypes));
+            return "W/\"" + tenant + "-" + versions.stream().map(Long::toHexString).collect(Collectors.joining(".")) + "\"";
+        } catch (Exception e) {
+            log.warn("Versions des données du tenant {} illisibles, ETag non calculée: {}", tenant, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Versions courantes des types d'agrégats donnés, dans l'ordre demandé
+     */
+    public List<Long> versions(String tenant, List<String> aggregateTypes) {
+        StringRedisTemplate template = sharedTemplate();
+        if (template == null) {
+            return aggregateTypes.stream()
+                    .map(type -> localVersion(tenant, type).get())
+                    .toList();
+        }
+        HashOperations<String, String, String> hash = template.opsForHash();
+        String key = KEY_PREFIX + tenant;
+        List<String> stored = hash.multiGet(key, aggregateTypes);
+        List<Long> versions = new ArrayList<>(aggregateTypes.size());
+        for (int i = 0; i < aggregateTypes.size(); i++) {
+            String value = stored.get(i);
+            if (value == null) {
+                hash.putIfAbsent(key, aggregateTypes.get(i), String.valueOf(System.currentTimeMillis()));
+                value = hash.get(key, aggregateTypes.get(i));
+            }
+            versions.add(Long.parseLong(value));
+        }
+        return versions;
+    }
+
+    private void increment(String tenant, String aggregateType) {
+        StringRedisTemplate template = sharedTemplate();
+        if (template == null) {
+            localVersion(tenant, aggregateType).incrementAndGet();
+            return;
+        }
+        HashOperations<String, String, String> hash = template.opsForHash();
+        String key = KEY_PREFIX + tenant;
+        hash.putIfAbsent(key, aggregateType, String.valueOf(System.currentTimeMillis()));
+        hash.increment(key, aggregateType, 1);
+    }
+
+    private AtomicLong localVersion(String tenant, String aggregateType) {
+        return localVersions.computeIfAbsent(tenant + ":" + aggregateType,
+                key -> new AtomicLong(System.currentTimeMillis()));
+    }
+
+    private StringRedisTemplate sharedTemplate() {
+        return sharedVersions ? redisTemplate.getIfAvailable() : null;
+    }
+}
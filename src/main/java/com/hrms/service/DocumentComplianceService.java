@@ -0,0 +1,343 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.compliance.AgentCompliance;
+import com.hrms.compliance.ComplianceAgent;
+import com.hrms.compliance.ComplianceMatrix;
+import com.hrms.compliance.ComplianceReport;
+import com.hrms.dto.DocumentComplianceDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.PersonnelDocument;
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.expiry.DocumentExpiry;
+import com.hrms.expiry.DocumentsExpiredEvent;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelDocumentRepository;
+import com.hrms.repository.PersonnelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service de conformité documentaire des agents
+ *
+ * S'appuie sur une {@link ComplianceMatrix} par tenant, construite en deux requêtes (agents actifs,
+ * documents non supprimés). Les dépôts, vérifications et suppressions de documents arrivent du bus
+ * des changements après commit ({@link ChangeEventService}), les expirations de
+ * {@link DocumentExpiryService} ; seuls les documents des agents concernés sont relus avant la
+ * requête suivante. Un agent recruté, muté, sorti ou renommé fait reconstruire la matrice, comme
+ * une matrice plus vieille que hrms.documents.compliance-ttl-ms (écritures hors JPA).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DocumentComplianceService implements EntityChangeSubscriber {
+
+    private static final String DOCUMENT_AGGREGATE = PersonnelDocument.class.getSimpleName();
+    private static final String PERSONNEL_AGGREGATE = Personnel.class.getSimpleName();
+
+    /**
+     * Propriétés d'un agent lues par la matrice (lignes, structure, statut actif)
+     */
+    private static final Set<String> MATRIX_PROPERTIES =
+            Set.of("matricule", "lastName", "firstName", "structure", "status", "deleted");
+
+    private final PersonnelRepository personnelRepository;
+    private final PersonnelDocumentRepository documentRepository;
+    private final AdministrativeStructureRepository structureRepository;
+    private final WorkforceChangeTracker changeTracker;
+
+    @Value("${hrms.documents.mandatory-types:CNI,ACTE_NAISSANCE,DIPLOME,DECISION_NOMINATION}")
+    private List<DocumentType> mandatoryTypes;
+
+    @Value("${hrms.documents.compliance-require-verified:false}")
+    private boolean requireVerified;
+
+    @Value("${hrms.documents.compliance-ttl-ms:600000}")
+    private long matrixTtlMs;
+
+    @Value("${hrms.documents.compliance-default-limit:100}")
+    private int defaultLimit;
+
+    private final Map<String, CachedMatrix> matrices = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> pendingByTenant = new ConcurrentHashMap<>();
+    // Incrémentée à chaque invalidation : une matrice construite pendant un changement n'est pas conservée
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Taux de conformité d'une structure et de ses sous-structures, par type obligatoire et par
+     * sous-structure directe
+     *
+     * @param structureId structure racine, tous les agents si null
+     */
+    public DocumentComplianceDTO report(Long structureId) {
+        String path = structurePath(structureId);
+
+        long start = System.currentTimeMillis();
+        ComplianceMatrix matrix = currentMatrix();
+        ComplianceReport report;
+        synchronized (matrix) {
+            report = matrix.report(path);
+        }
+        long duration = System.currentTimeMillis() - start;
+
+        Map<Long, String> names = structureNames(report.getGroups().stream()
+                .map(group -> lastId(group.getStructurePath()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<DocumentComplianceDTO.TypeComplianceDTO> types = report.getTypes().stream()
+                .map(type -> DocumentComplianceDTO.TypeComplianceDTO.builder()
+                        .documentType(type.getDocumentType().name())
+                        .ok(type.getOk())
+                        .unverified(type.getUnverified())
+                        .expired(type.getExpired())
+                        .missing(type.getMissing())
+                        .complianceRate(rate(requireVerified ? type.getOk() : type.getOk() + type.getUnverified(),
+                                report.getAgentCount()))
+                        .build())
+                .collect(Collectors.toList());
+        List<DocumentComplianceDTO.StructureComplianceDTO> structures = report.getGroups().stream()
+                .map(group -> {
+                    Long id = lastId(group.getStructurePath());
+                    return DocumentComplianceDTO.StructureComplianceDTO.builder()
+                            .structureId(id)
+                            .structureName(names.get(id))
+                            .agentCount(group.getAgentCount())
+                            .compliantCount(group.getCompliantCount())
+                            .complianceRate(rate(group.getCompliantCount(), group.getAgentCount()))
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        log.info("Conformité documentaire (structure {}): {} agents conformes sur {} en {} ms",
+                structureId, report.getCompliantCount(), report.getAgentCount(), duration);
+
+        return DocumentComplianceDTO.builder()
+                .structureId(structureId)
+                .mandatoryTypes(mandatoryTypes.stream().map(Enum::name).collect(Collectors.toList()))
+                .verificationRequired(requireVerified)
+                .agentCount(report.getAgentCount())
+                .compliantCount(report.getCompliantCount())
+                .complianceRate(rate(report.getCompliantCount(), report.getAgentCount()))
+                .durationMs(duration)
+                .types(types)
+                .structures(structures)
+                .build();
+    }
+
+    /**
+     * Agents non conformes d'une structure et de ses sous-structures, éventuellement pour un seul type
+     */
+    public List<DocumentComplianceDTO.AgentComplianceDTO> nonCompliantAgents(Long structureId, String documentType,
+                                                                            Integer limit) {
+        String path = structurePath(structureId);
+        DocumentType type = null;
+        if (documentType != null && !documentType.isBlank()) {
+            try {
+                type = DocumentType.valueOf(documentType.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Type de document inconnu : " + documentType);
+            }
+        }
+
+        ComplianceMatrix matrix = currentMatrix();
+        List<AgentCompliance> agents;
+        synchronized (matrix) {
+            agents = matrix.nonCompliant(path, type, limit != null ? limit : defaultLimit);
+        }
+        return agents.stream()
+                .map(agent -> DocumentComplianceDTO.AgentComplianceDTO.builder()
+                        .personnelId(agent.getAgent().getPersonnelId())
+                        .matricule(agent.getAgent().getMatricule())
+                        .fullName(agent.getAgent().getFullName())
+                        .structureId(agent.getAgent().getStructureId())
+                        .missing(names(agent.getMissing()))
+                        .expired(names(agent.getExpired()))
+                        .unverified(names(agent.getUnverified()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return Set.of(DOCUMENT_AGGREGATE, PERSONNEL_AGGREGATE);
+    }
+
+    /**
+     * Documents déposés, vérifiés ou supprimés (validés) : leurs agents sont relus avant la prochaine
+     * requête. Un agent ajouté, retiré ou déplacé change les lignes de la matrice : reconstruite.
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        String tenant = batch.getTenant();
+        if (batch.getChanges().stream().anyMatch(DocumentComplianceService::changesAgentRows)) {
+            generationFor(tenant).incrementAndGet();
+            matrices.remove(tenant);
+            pendingByTenant.remove(tenant);
+            return;
+        }
+        Set<Long> documentIds = batch.aggregateIds(DOCUMENT_AGGREGATE);
+        if (!documentIds.isEmpty()) {
+            // Suppression logique : la ligne du document reste lisible
+            addPending(tenant, new HashSet<>(documentRepository.findPersonnelIdsByIds(documentIds)));
+        }
+    }
+
+    private static boolean changesAgentRows(EntityChange change) {
+        if (!PERSONNEL_AGGREGATE.equals(change.getAggregateType())) {
+            return false;
+        }
+        return change.getChangeType() != ChangeType.UPDATED
+                || change.getChangedProperties().isEmpty()
+                || change.getChangedProperties().stream().anyMatch(MATRIX_PROPERTIES::contains);
+    }
+
+    /**
+     * Documents arrivés à expiration : leurs agents sont relus
+     */
+    @EventListener
+    public void onDocumentsExpired(DocumentsExpiredEvent event) {
+        addPending(event.getTenant(), event.getDocuments().stream()
+                .map(DocumentExpiry::getPersonnelId)
+                .collect(Collectors.toSet()));
+    }
+
+    private void addPending(String tenant, Set<Long> personnelIds) {
+        if (personnelIds.isEmpty()) {
+            return;
+        }
+        pendingByTenant.compute(tenant, (key, pending) -> {
+            Set<Long> ids = pending != null ? pending : new HashSet<>();
+            ids.addAll(personnelIds);
+            return ids;
+        });
+    }
+
+    private ComplianceMatrix currentMatrix() {
+        String tenant = changeTracker.currentTenant();
+        CachedMatrix cached = matrices.get(tenant);
+        if (cached == null || System.currentTimeMillis() - cached.builtAt > matrixTtlMs) {
+            // Les changements signalés avant la reconstruction y sont déjà
+            pendingByTenant.remove(tenant);
+            long generation = generationFor(tenant).get();
+            CachedMatrix built = new CachedMatrix(buildMatrix(), System.currentTimeMillis());
+            // Installée seulement si aucun agent n'a changé pendant la lecture ; sinon servie à
+            // cette seule requête
+            matrices.compute(tenant, (key, current) ->
+                    generationFor(key).get() == generation ? built : current);
+            cached = built;
+        }
+        synchronized (cached.matrix) {
+            applyPendingChanges(tenant, cached.matrix);
+        }
+        return cached.matrix;
+    }
+
+    private AtomicLong generationFor(String tenant) {
+        return generations.computeIfAbsent(tenant, key -> new AtomicLong());
+    }
+
+    private ComplianceMatrix buildMatrix() {
+        long start = System.currentTimeMillis();
+        List<ComplianceAgent> agents = personnelRepository.findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE).stream()
+                .map(row -> ComplianceAgent.builder()
+                        .personnelId((Long) row[0])
+                        .matricule((String) row[1])
+                        .fullName(row[2] + " " + (row[3] != null ? row[3] : ""))
+                        .structureId((Long) row[9])
+                        .structurePath((String) row[10])
+                        .build())
+                .toList();
+
+        ComplianceMatrix matrix = new ComplianceMatrix(agents, mandatoryTypes, requireVerified);
+        LocalDate today = LocalDate.now();
+        int documents = 0;
+        for (Object[] row : documentRepository.findComplianceRows()) {
+            record(matrix, row, today);
+            documents++;
+        }
+        log.info("Matrice de conformité documentaire construite: {} agents, {} documents en {} ms",
+                matrix.agentCount(), documents, System.currentTimeMillis() - start);
+        return matrix;
+    }
+
+    private void applyPendingChanges(String tenant, ComplianceMatrix matrix) {
+        Set<Long> pending = pendingByTenant.remove(tenant);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        pending.forEach(matrix::clear);
+        LocalDate today = LocalDate.now();
+        for (Object[] row : documentRepository.findComplianceRowsByPersonnelIds(pending)) {
+            record(matrix, row, today);
+        }
+    }
+
+    private void record(ComplianceMatrix matrix, Object[] row, LocalDate today) {
+        matrix.record((Long) row[0], (DocumentType) row[1], (LocalDate) row[2], Boolean.TRUE.equals(row[3]), today);
+    }
+
+    private String structurePath(Long structureId) {
+        if (structureId == null) {
+            return null;
+        }
+        return structureRepository.findPathById(structureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", structureId));
+    }
+
+    private Map<Long, String> structureNames(Set<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        structureRepository.findAllById(ids).forEach(structure -> names.put(structure.getId(), structure.getName()));
+        return names;
+    }
+
+    private static Long lastId(String path) {
+        List<Long> ids = AdministrativeStructure.pathIds(path);
+        return ids.isEmpty() ? null : ids.get(ids.size() - 1);
+    }
+
+    private static List<String> names(List<DocumentType> types) {
+        List<String> names = new ArrayList<>(types.size());
+        types.forEach(type -> names.add(type.name()));
+        return names;
+    }
+
+    private static Double rate(int count, int total) {
+        return total == 0 ? null : Math.round(count * 1000.0 / total) / 10.0;
+    }
+
+    private static class CachedMatrix {
+        private final ComplianceMatrix matrix;
+        private final long builtAt;
+
+        CachedMatrix(ComplianceMatrix matrix, long builtAt) {
+            this.matrix = matrix;
+            this.builtAt = builtAt;
+        }
+    }
+}
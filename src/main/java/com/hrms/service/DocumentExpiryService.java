@@ -0,0 +1,254 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.entity.JobCheckpoint;
+import com.hrms.entity.PersonnelDocument;
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.expiry.DocumentExpiry;
+import com.hrms.expiry.DocumentsExpiredEvent;
+import com.hrms.expiry.ExpiryCalendar;
+import com.hrms.repository.JobCheckpointRepository;
+import com.hrms.repository.PersonnelDocumentRepository;
+import com.hrms.tenant.TenantContext;
+import com.hrms.tenant.TenantProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service de suivi des échéances des documents d'agents
+ *
+ * Chaque tenant dispose d'un {@link ExpiryCalendar} chargé au démarrage par une requête sur
+ * l'index de expiry_date, tenu à jour à partir des documents créés, remplacés ou supprimés
+ * (reçus du bus des changements, {@link ChangeEventService}). Les listes « expirés » et
+ * « expirant bientôt » en sont extraites sans parcours de la table ; chaque nuit, les documents
+ * arrivés à expiration sont publiés par lots de {@link DocumentsExpiredEvent}.
+ *
+ * Le premier jour non encore notifié est enregistré dans job_checkpoints après chaque publication :
+ * au démarrage, les jours passés depuis (arrêt pendant la publication nocturne) sont publiés.
+ * Un arrêt entre la publication et l'enregistrement fait republier le dernier passage.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentExpiryService implements EntityChangeSubscriber {
+
+    private static final String DOCUMENT_AGGREGATE = PersonnelDocument.class.getSimpleName();
+    private static final String CHECKPOINT_JOB = "document-expiry";
+
+    private final PersonnelDocumentRepository documentRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final WorkforceChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<TenantProperties> tenantProperties;
+
+    @Value("${hrms.multi-tenant.default-tenant:default}")
+    private String defaultTenant;
+
+    @Value("${hrms.documents.expiry-batch-size:500}")
+    private int batchSize;
+
+    private final Map<String, ExpiryCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> pendingByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Documents expirés du tenant courant, les plus anciens d'abord
+     */
+    public List<DocumentExpiry> expired() {
+        ExpiryCalendar calendar = currentCalendar();
+        synchronized (calendar) {
+            return calendar.expiredOn(LocalDate.now());
+        }
+    }
+
+    /**
+     * Documents du tenant courant expirant dans les N prochains jours (aujourd'hui compris)
+     */
+    public List<DocumentExpiry> expiringWithin(int days) {
+        LocalDate today = LocalDate.now();
+        ExpiryCalendar calendar = currentCalendar();
+        synchronized (calendar) {
+            return calendar.expiringBetween(today, today.plusDays(Math.max(days, 0)));
+        }
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return Set.of(DOCUMENT_AGGREGATE);
+    }
+
+    /**
+     * Documents créés, remplacés ou supprimés (bus des changements) : relus avant la prochaine lecture
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        for (Long documentId : batch.aggregateIds(DOCUMENT_AGGREGATE)) {
+            addPending(batch.getTenant(), documentId);
+        }
+    }
+
+    /**
+     * Chargement des échéanciers de tous les tenants au démarrage, puis publication des documents
+     * expirés depuis le dernier point de reprise
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCalendars() {
+        for (String tenant : tenants()) {
+            inTenant(tenant, () -> publishExpiries(tenant));
+        }
+    }
+
+    /**
+     * Publication des documents arrivés à expiration depuis le dernier passage, pour tous les tenants
+     */
+    @Scheduled(cron = "${hrms.documents.expiry-cron:0 5 0 * * *}")
+    public void publishExpiries() {
+        for (String tenant : tenants()) {
+            inTenant(tenant, () -> publishExpiries(tenant));
+        }
+    }
+
+    private void publishExpiries(String tenant) {
+        LocalDate today = LocalDate.now();
+        ExpiryCalendar calendar = currentCalendar();
+        List<DocumentExpiry> due;
+        LocalDate notifiedBefore;
+        synchronized (calendar) {
+            due = calendar.advanceTo(today);
+            notifiedBefore = calendar.getNotifiedBefore();
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            eventPublisher.publishEvent(new DocumentsExpiredEvent(tenant, today,
+                    List.copyOf(due.subList(from, Math.min(from + batchSize, due.size())))));
+        }
+        saveCheckpoint(notifiedBefore);
+        if (!due.isEmpty()) {
+            log.info("Documents arrivés à expiration pour le tenant {}: {} ({} lots)",
+                    tenant, due.size(), (due.size() + batchSize - 1) / batchSize);
+        }
+    }
+
+    private ExpiryCalendar currentCalendar() {
+        String tenant = changeTracker.currentTenant();
+        ExpiryCalendar calendar = calendars.get(tenant);
+        if (calendar == null) {
+            // Les changements signalés avant le chargement y sont déjà
+            pendingByTenant.remove(tenant);
+            calendar = calendars.computeIfAbsent(tenant, key -> buildCalendar());
+        }
+        synchronized (calendar) {
+            applyPendingChanges(tenant, calendar);
+        }
+        return calendar;
+    }
+
+    private ExpiryCalendar buildCalendar() {
+        long start = System.currentTimeMillis();
+        // Échéances antérieures au point de reprise : déjà notifiées ; sans point de reprise
+        // (premier démarrage), toutes les échéances passées le sont
+        LocalDate notifiedBefore = readOnly().execute(status -> checkpointRepository.findById(CHECKPOINT_JOB)
+                .map(JobCheckpoint::getCheckpointDate)
+                .orElse(LocalDate.now()));
+        ExpiryCalendar calendar = new ExpiryCalendar(notifiedBefore);
+        List<Object[]> rows = readOnly().execute(status -> documentRepository.findExpiryRows());
+        for (Object[] row : rows) {
+            calendar.load(toExpiry(row));
+        }
+        log.info("Échéancier des documents chargé: {} documents datés en {} ms (notifiés avant le {})",
+                calendar.size(), System.currentTimeMillis() - start, notifiedBefore);
+        return calendar;
+    }
+
+    private void saveCheckpoint(LocalDate notifiedBefore) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                checkpointRepository.save(new JobCheckpoint(CHECKPOINT_JOB, notifiedBefore, LocalDateTime.now())));
+    }
+
+    private void applyPendingChanges(String tenant, ExpiryCalendar calendar) {
+        Set<Long> pending = pendingByTenant.remove(tenant);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = readOnly().execute(status -> documentRepository.findExpiryRowsByIds(pending));
+        Set<Long> dated = new HashSet<>();
+        for (Object[] row : rows) {
+            DocumentExpiry expiry = toExpiry(row);
+            calendar.upsert(expiry);
+            dated.add(expiry.getDocumentId());
+        }
+        for (Long documentId : pending) {
+            if (!dated.contains(documentId)) {
+                calendar.remove(documentId);
+            }
+        }
+    }
+
+    private void addPending(String tenant, Long documentId) {
+        pendingByTenant.compute(tenant, (key, pending) -> {
+            Set<Long> ids = pending != null ? pending : new HashSet<>();
+            ids.add(documentId);
+            return ids;
+        });
+    }
+
+    private DocumentExpiry toExpiry(Object[] row) {
+        return DocumentExpiry.builder()
+                .documentId((Long) row[0])
+                .personnelId((Long) row[1])
+                .documentType((DocumentType) row[2])
+                .expiryDate((LocalDate) row[3])
+                .build();
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private Set<String> tenants() {
+        Set<String> tenants = new LinkedHashSet<>();
+        tenants.add(defaultTenant);
+        TenantProperties properties = tenantProperties.getIfAvailable();
+        if (properties != null) {
+            tenants.addAll(properties.getTenants().keySet());
+        }
+        return tenants;
+    }
+
+    private void inTenant(String tenant, Runnable action) {
+        String previous = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenant);
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Échéancier des documents du tenant {} en échec: {}", tenant, e.getMessage());
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantId(previous);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dedup.AgentIdentity;
+import com.hrms.dedup.DuplicateDetector;
+import com.hrms.dedup.DuplicatePair;
+import com.hrms.dto.DuplicateReportDTO;
+import com.hrms.dto.DuplicateScanRequestDTO;
+import com.hrms.exception.BusinessException;
+import com.hrms.repository.PersonnelRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service de recherche des agents en double sur tout le personnel
+ *
+ * L'état civil des agents est lu par tranches d'identifiants, puis {@link DuplicateDetector}
+ * compare les agents par blocs (nom phonétique et année de naissance, lieu et date de naissance,
+ * CNI) en parallèle. Le dernier rapport de chaque tenant est conservé pour consultation ; une
+ * seule recherche à la fois par tenant.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DuplicateDetectionService {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final PersonnelRepository personnelRepository;
+    private final WorkforceChangeTracker changeTracker;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hrms.duplicates.threshold:0.85}")
+    private double defaultThreshold;
+
+    @Value("${hrms.duplicates.max-block-size:500}")
+    private int maxBlockSize;
+
+    @Value("${hrms.duplicates.default-limit:500}")
+    private int defaultLimit;
+
+    @Value("${hrms.duplicates.parallelism:0}")
+    private int parallelism;
+
+    private final Map<String, DuplicateReportDTO> lastReports = new ConcurrentHashMap<>();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private ForkJoinPool pool;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Recherche des doublons probables sur tout le personnel du tenant courant
+     */
+    public DuplicateReportDTO scan(DuplicateScanRequestDTO request) {
+        String tenant = changeTracker.currentTenant();
+        if (!running.add(tenant)) {
+            throw new BusinessException("Une recherche de doublons est déjà en cours");
+        }
+        try {
+            double threshold = request != null && request.getThreshold() != null ? request.getThreshold() : defaultThreshold;
+            int limit = request != null && request.getLimit() != null ? request.getLimit() : defaultLimit;
+
+            long start = System.currentTimeMillis();
+            List<AgentIdentity> agents = loadAgents();
+            long loaded = System.currentTimeMillis();
+            DuplicateDetector.Result result = new DuplicateDetector(threshold, maxBlockSize).detect(agents, limit, pool);
+            long duration = System.currentTimeMillis() - start;
+
+            log.info("Recherche de doublons du tenant {}: {} agents lus en {} ms, {} comparaisons dans {} blocs "
+                            + "({} blocs ignorés), {} paires au-dessus de {} en {} ms",
+                    tenant, result.getAgentCount(), loaded - start, result.getComparisonCount(), result.getBlockCount(),
+                    result.getSkippedBlockCount(), result.getPairCount(), threshold, duration);
+
+            DuplicateReportDTO report = toReport(result, threshold, duration);
+            lastReports.put(tenant, report);
+            return report;
+        } finally {
+            running.remove(tenant);
+        }
+    }
+
+    /**
+     * Dernier rapport du tenant courant
+     */
+    public DuplicateReportDTO lastReport() {
+        DuplicateReportDTO report = lastReports.get(changeTracker.currentTenant());
+        if (report == null) {
+            throw new BusinessException("Aucune recherche de doublons n'a encore été effectuée");
+        }
+        return report;
+    }
+
+    private List<AgentIdentity> loadAgents() {
+        List<AgentIdentity> agents = new ArrayList<>();
+        long afterId = 0L;
+        List<Object[]> batch;
+        do {
+            long lastId = afterId;
+            batch = readOnlyTransaction.execute(status ->
+                    personnelRepository.findIdentityRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE)));
+            for (Object[] row : batch) {
+                AgentIdentity agent = AgentIdentity.builder()
+                        .personnelId((Long) row[0])
+                        .matricule((String) row[1])
+                        .lastName((String) row[2])
+                        .firstName((String) row[3])
+                        .dateOfBirth((LocalDate) row[4])
+                        .placeOfBirth((String) row[5])
+                        .cniNumber((String) row[6])
+                        .structureId((Long) row[7])
+                        .build();
+                agents.add(agent);
+                afterId = agent.getPersonnelId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return agents;
+    }
+
+    private DuplicateReportDTO toReport(DuplicateDetector.Result result, double threshold, long duration) {
+        List<DuplicateReportDTO.DuplicatePairDTO> pairs = new ArrayList<>(result.getPairs().size());
+        for (DuplicatePair pair : result.getPairs()) {
+            pairs.add(DuplicateReportDTO.DuplicatePairDTO.builder()
+                    .rank(pairs.size() + 1)
+                    .score(pair.getScore())
+                    .nameScore(pair.getNameScore())
+                    .birthScore(pair.getBirthScore())
+                    .placeScore(pair.getPlaceScore())
+                    .reasons(pair.getReasons())
+                    .first(toDTO(pair.getFirst()))
+                    .second(toDTO(pair.getSecond()))
+                    .build());
+        }
+        return DuplicateReportDTO.builder()
+                .generatedAt(LocalDateTime.now())
+                .threshold(threshold)
+                .agentCount(result.getAgentCount())
+                .blockCount(result.getBlockCount())
+                .skippedBlockCount(result.getSkippedBlockCount())
+                .comparisonCount(result.getComparisonCount())
+                .pairCount(result.getPairCount())
+                .durationMs(duration)
+                .pairs(pairs)
+                .build();
+    }
+
+    private DuplicateReportDTO.AgentIdentityDTO toDTO(AgentIdentity agent) {
+        return DuplicateReportDTO.AgentIdentityDTO.builder()
+                .personnelId(agent.getPersonnelId())
+                .matricule(agent.getMatricule())
+                .lastName(agent.getLastName())
+                .firstName(agent.getFirstName())
+                .dateOfBirth(agent.getDateOfBirth())
+                .placeOfBirth(agent.getPlaceOfBirth())
+                .cniNumber(agent.getCniNumber())
+                .structureId(agent.getStructureId())
+                .build();
+    }
+}
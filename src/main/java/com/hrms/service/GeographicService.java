@@ -11,6 +11,8 @@ import com.hrms.repository.ArrondissementRepository;
 import com.hrms.repository.DepartmentRepository;
 import com.hrms.repository.PersonnelRepository;
 import com.hrms.repository.RegionRepository;
+import com.hrms.util.NdjsonStreamer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service de gestion des données géographiques
@@ -32,6 +35,7 @@ public class GeographicService {
     private final DepartmentRepository departmentRepository;
     private final ArrondissementRepository arrondissementRepository;
     private final PersonnelRepository personnelRepository;
+    private final EntityManager entityManager;
 
     // ==================== RÉGIONS ====================
 
@@ -187,6 +191,16 @@ public class GeographicService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Arrondissements actifs en flux (réponse NDJSON), département et région chargés dans la même
+     * requête, détachés après conversion
+     */
+    public Stream<ArrondissementDTO> streamAllArrondissements() {
+        log.info("Flux de tous les arrondissements actifs");
+        return arrondissementRepository.streamActiveWithDepartmentAndRegion()
+                .map(NdjsonStreamer.detaching(entityManager, this::toArrondissementDTO));
+    }
+
     /**
      * Obtenir un arrondissement par ID
      */
@@ -237,6 +251,24 @@ public class GeographicService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Arrondissements actifs d'une région en flux (réponse NDJSON), par nom
+     */
+    public Stream<ArrondissementDTO> streamArrondissementsByRegionId(Long regionId) {
+        log.info("Flux des arrondissements de la région ID: {}", regionId);
+        return arrondissementRepository.streamActiveByRegionId(regionId)
+                .map(NdjsonStreamer.detaching(entityManager, this::toArrondissementDTO));
+    }
+
+    /**
+     * Arrondissements actifs d'un département en flux (réponse NDJSON), par nom
+     */
+    public Stream<ArrondissementDTO> streamArrondissementsByDepartmentId(Long departmentId) {
+        log.info("Flux des arrondissements du département ID: {}", departmentId);
+        return arrondissementRepository.streamActiveByDepartmentId(departmentId)
+                .map(NdjsonStreamer.detaching(entityManager, this::toArrondissementDTO));
+    }
+
     // ==================== MÉTHODES DE CONVERSION ====================
 
     /**
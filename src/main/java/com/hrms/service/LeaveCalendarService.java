@@ -0,0 +1,241 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.LeaveAvailabilityDTO;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.PersonnelLeave;
+import com.hrms.entity.PersonnelLeave.LeaveReason;
+import com.hrms.entity.PersonnelLeave.LeaveStatus;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.leavecalendar.AvailabilitySeries;
+import com.hrms.leavecalendar.LeaveCalendarIndex;
+import com.hrms.leavecalendar.LeaveInterval;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelLeaveRepository;
+import com.hrms.repository.PersonnelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service du calendrier de disponibilité des agents
+ *
+ * S'appuie sur un {@link LeaveCalendarIndex} par tenant (congés approuvés, en cours ou terminés,
+ * et effectifs par structure). Les congés créés, modifiés ou supprimés arrivent du bus des changements
+ * ({@link ChangeEventService}) et sont relus un à un avant la requête suivante ; l'index complet est
+ * reconstruit au-delà de hrms.leave-calendar.index-ttl-ms pour suivre les mutations d'agents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LeaveCalendarService implements EntityChangeSubscriber {
+
+    private static final String LEAVE_AGGREGATE = PersonnelLeave.class.getSimpleName();
+
+    static final Set<LeaveStatus> ABSENCE_STATUSES =
+            EnumSet.of(LeaveStatus.APPROVED, LeaveStatus.IN_PROGRESS, LeaveStatus.COMPLETED);
+
+    private final PersonnelLeaveRepository leaveRepository;
+    private final PersonnelRepository personnelRepository;
+    private final AdministrativeStructureRepository structureRepository;
+    private final WorkforceChangeTracker changeTracker;
+
+    @Value("${hrms.leave-calendar.index-ttl-ms:600000}")
+    private long indexTtlMs;
+
+    @Value("${hrms.leave-calendar.max-days:366}")
+    private int maxDays;
+
+    private final Map<String, CachedIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> pendingByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Absents et disponibles par jour pour une structure et ses sous-structures
+     *
+     * @param structureId structure racine, toutes les structures si null
+     * @param reasons motifs de congé retenus, tous si vide
+     */
+    public LeaveAvailabilityDTO availability(Long structureId, LocalDate from, LocalDate to, List<String> reasons) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BusinessException("Période invalide : la date de fin doit suivre la date de début");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxDays) {
+            throw new BusinessException("Période trop longue : " + maxDays + " jours au maximum");
+        }
+        String path = null;
+        if (structureId != null) {
+            path = structureRepository.findPathById(structureId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", structureId));
+        }
+        Set<LeaveReason> leaveReasons = parseReasons(reasons);
+
+        long start = System.currentTimeMillis();
+        CachedIndex cached = currentIndex();
+        AvailabilitySeries series;
+        synchronized (cached) {
+            applyPendingChanges(cached.index);
+            series = cached.index.series(path, from, to, leaveReasons);
+        }
+        long duration = System.currentTimeMillis() - start;
+
+        List<LeaveAvailabilityDTO.DayAvailabilityDTO> days = new ArrayList<>(series.days());
+        for (int day = 0; day < series.days(); day++) {
+            days.add(LeaveAvailabilityDTO.DayAvailabilityDTO.builder()
+                    .date(series.date(day))
+                    .absent(series.absent(day))
+                    .available(series.available(day))
+                    .availabilityRate(series.getHeadcount() == 0 ? null
+                            : Math.round(series.available(day) * 1000.0 / series.getHeadcount()) / 10.0)
+                    .build());
+        }
+        int peak = series.peakDay();
+        log.info("Calendrier de disponibilité (structure {}) du {} au {}: {} agents absents sur {} en {} ms",
+                structureId, from, to, series.getAbsentAgentCount(), series.getHeadcount(), duration);
+
+        return LeaveAvailabilityDTO.builder()
+                .structureId(structureId)
+                .from(from)
+                .to(to)
+                .reasons(leaveReasons.stream().map(Enum::name).sorted().toList())
+                .headcount(series.getHeadcount())
+                .absentAgentCount(series.getAbsentAgentCount())
+                .peakDate(series.date(peak))
+                .peakAbsent(series.absent(peak))
+                .durationMs(duration)
+                .days(days)
+                .build();
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return Set.of(LEAVE_AGGREGATE);
+    }
+
+    /**
+     * Congés créés, modifiés ou supprimés (bus des changements) : relus avant la prochaine requête
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        for (Long leaveId : batch.aggregateIds(LEAVE_AGGREGATE)) {
+            addPending(batch.getTenant(), leaveId);
+        }
+    }
+
+    private void addPending(String tenant, Long leaveId) {
+        // compute : l'ajout ne peut pas viser un ensemble déjà retiré par applyPendingChanges
+        pendingByTenant.compute(tenant, (key, pending) -> {
+            Set<Long> ids = pending != null ? pending : new HashSet<>();
+            ids.add(leaveId);
+            return ids;
+        });
+    }
+
+    /**
+     * Force la reconstruction de l'index du tenant courant
+     */
+    public void invalidate() {
+        String tenant = changeTracker.currentTenant();
+        indexes.remove(tenant);
+        pendingByTenant.remove(tenant);
+    }
+
+    private Set<LeaveReason> parseReasons(List<String> reasons) {
+        Set<LeaveReason> parsed = EnumSet.noneOf(LeaveReason.class);
+        if (reasons == null) {
+            return parsed;
+        }
+        for (String reason : reasons) {
+            if (reason == null || reason.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.add(LeaveReason.valueOf(reason.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Motif de congé inconnu : " + reason);
+            }
+        }
+        return parsed;
+    }
+
+    private void applyPendingChanges(LeaveCalendarIndex index) {
+        Set<Long> pending = pendingByTenant.remove(changeTracker.currentTenant());
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        Set<Long> stillAbsences = new HashSet<>();
+        for (Object[] row : leaveRepository.findCalendarRowsByIds(pending, ABSENCE_STATUSES)) {
+            index.upsert(toInterval(row));
+            stillAbsences.add((Long) row[0]);
+        }
+        for (Long leaveId : pending) {
+            if (!stillAbsences.contains(leaveId)) {
+                index.remove(leaveId);
+            }
+        }
+        log.debug("Calendrier de disponibilité : {} congés relus", pending.size());
+    }
+
+    private CachedIndex currentIndex() {
+        String tenant = changeTracker.currentTenant();
+        CachedIndex cached = indexes.get(tenant);
+        if (cached == null || System.currentTimeMillis() - cached.builtAt > indexTtlMs) {
+            // Les changements signalés avant la reconstruction y sont déjà
+            pendingByTenant.remove(tenant);
+            cached = new CachedIndex(buildIndex(), System.currentTimeMillis());
+            indexes.put(tenant, cached);
+        }
+        return cached;
+    }
+
+    private LeaveCalendarIndex buildIndex() {
+        long start = System.currentTimeMillis();
+        LeaveCalendarIndex index = new LeaveCalendarIndex();
+        for (Object[] row : personnelRepository.countByStructurePath(Personnel.PersonnelStatus.ACTIVE)) {
+            index.setHeadcount((String) row[0], ((Long) row[1]).intValue());
+        }
+        for (Object[] row : leaveRepository.findCalendarRows(ABSENCE_STATUSES)) {
+            index.upsert(toInterval(row));
+        }
+        log.info("Index du calendrier de disponibilité construit: {} congés en {} ms",
+                index.leaveCount(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private LeaveInterval toInterval(Object[] row) {
+        return LeaveInterval.builder()
+                .leaveId((Long) row[0])
+                .personnelId((Long) row[1])
+                .structurePath((String) row[2])
+                .startDate((LocalDate) row[3])
+                .endDate((LocalDate) row[4])
+                .reason((LeaveReason) row[5])
+                .build();
+    }
+
+    private static class CachedIndex {
+        private final LeaveCalendarIndex index;
+        private final long builtAt;
+
+        CachedIndex(LeaveCalendarIndex index, long builtAt) {
+            this.index = index;
+            this.builtAt = builtAt;
+        }
+    }
+}
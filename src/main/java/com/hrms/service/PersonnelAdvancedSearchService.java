@@ -3,18 +3,29 @@ package com.hrms.service;
 import com.hrms.dto.PersonnelDTO;
 import com.hrms.dto.PersonnelSearchCriteriaDTO;
 import com.hrms.entity.*;
+import com.hrms.exception.ResourceNotFoundException;
 import com.hrms.mapper.PersonnelMapper;
+import com.hrms.repository.AdministrativeStructureRepository;
 import com.hrms.repository.PersonnelRepository;
+import com.hrms.search.CachedSearchResult;
+import com.hrms.util.NdjsonStreamer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,10 +33,19 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service de recherche avancée multicritère pour les personnels
  * Utilise Spring Data JPA Specifications pour des requêtes dynamiques
+ *
+ * Les identifiants ordonnés d'un résultat sont mis en cache ({@link SearchResultCacheService}) :
+ * les pages suivantes d'une même recherche sont découpées dans cette liste et chargées par identifiant,
+ * sans nouvelle requête de recherche ni comptage.
  */
 @Slf4j
 @Service
@@ -33,9 +53,14 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class PersonnelAdvancedSearchService {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final PersonnelRepository personnelRepository;
+    private final AdministrativeStructureRepository structureRepository;
     private final PersonnelMapper personnelMapper;
     private final DateValidationService dateValidationService;
+    private final EntityManager entityManager;
+    private final SearchResultCacheService resultCache;
 
     /**
      * Recherche avancée avec pagination
@@ -43,12 +68,18 @@ public class PersonnelAdvancedSearchService {
     public Page<PersonnelDTO> advancedSearch(PersonnelSearchCriteriaDTO criteria, Pageable pageable) {
         log.info("Recherche avancée avec critères: {}", criteria);
 
-        // Créer la specification dynamique
-        Specification<Personnel> spec = buildSpecification(criteria);
-
         // Appliquer le tri si spécifié
         Pageable pageableWithSort = applySort(criteria, pageable);
 
+        // Résultat en cache : page découpée dans la liste d'identifiants
+        CachedSearchResult cached = cachedResult(criteria);
+        if (cached != null && cached.hasIds()) {
+            return pageOfIds(cached.getIds(), pageableWithSort);
+        }
+
+        // Créer la specification dynamique
+        Specification<Personnel> spec = buildSpecification(criteria);
+
         // Exécuter la recherche
         Page<Personnel> personnelPage = personnelRepository.findAll(spec, pageableWithSort);
 
@@ -57,6 +88,70 @@ public class PersonnelAdvancedSearchService {
         return personnelPage.map(personnelMapper::toDTO);
     }
 
+    /**
+     * Résultat de la recherche, lu dans le cache ou calculé puis mis en cache ;
+     * null si le cache est inutilisable
+     */
+    private CachedSearchResult cachedResult(PersonnelSearchCriteriaDTO criteria) {
+        String key = resultCache.key(criteria);
+        if (key == null) {
+            return null;
+        }
+        CachedSearchResult cached = resultCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Specification<Personnel> spec = buildSpecification(criteria);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Personnel> root = query.from(Personnel.class);
+        query.select(root.get("id"));
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(QueryUtils.toOrders(buildSort(criteria), root, criteriaBuilder));
+
+        // Une ligne de plus que la limite : au-delà, seul le total est conservé
+        List<Long> ids = entityManager.createQuery(query)
+            .setMaxResults(resultCache.maxIds() + 1)
+            .getResultList();
+        cached = ids.size() > resultCache.maxIds()
+            ? CachedSearchResult.totalOnly(countMatching(spec))
+            : CachedSearchResult.of(ids);
+        resultCache.put(key, cached);
+        return cached;
+    }
+
+    private long countMatching(Specification<Personnel> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Personnel> root = query.from(Personnel.class);
+        query.select(criteriaBuilder.count(root));
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Page découpée dans une liste d'identifiants ordonnés, agents chargés en un lot
+     */
+    private Page<PersonnelDTO> pageOfIds(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Map<Long, Personnel> byId = personnelRepository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Personnel::getId, Function.identity()));
+        // Un agent supprimé depuis la mise en cache est absent de la page
+        List<PersonnelDTO> content = pageIds.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(personnelMapper::toDTO)
+            .toList();
+
+        log.info("Recherche avancée servie depuis le cache: page {} sur {} résultats",
+            pageable.getPageNumber(), ids.size());
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
     /**
      * Recherche avancée sans pagination (pour exports)
      */
@@ -75,10 +170,33 @@ public class PersonnelAdvancedSearchService {
             .toList();
     }
 
+    /**
+     * Recherche avancée en flux (réponse NDJSON) : lecture par curseur de STREAM_FETCH_SIZE lignes,
+     * agents détachés après conversion
+     */
+    public Stream<PersonnelDTO> streamAdvancedSearch(PersonnelSearchCriteriaDTO criteria) {
+        log.info("Recherche avancée en flux avec critères: {}", criteria);
+
+        Specification<Personnel> spec = buildSpecification(criteria);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Personnel> query = criteriaBuilder.createQuery(Personnel.class);
+        Root<Personnel> root = query.from(Personnel.class);
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(QueryUtils.toOrders(buildSort(criteria), root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .map(NdjsonStreamer.detaching(entityManager, personnelMapper::toDTO));
+    }
+
     /**
      * Construit la Specification dynamique basée sur les critères
      */
     private Specification<Personnel> buildSpecification(PersonnelSearchCriteriaDTO criteria) {
+        String subtreePath = resolveSubtreePath(criteria);
+
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -182,7 +300,12 @@ public class PersonnelAdvancedSearchService {
 
             if (criteria.getStructureId() != null) {
                 Join<Personnel, AdministrativeStructure> structureJoin = root.join("structure", JoinType.LEFT);
-                predicates.add(criteriaBuilder.equal(structureJoin.get("id"), criteria.getStructureId()));
+                if (subtreePath != null) {
+                    // Structure et toutes ses sous-structures : un seul prédicat sur le préfixe du chemin
+                    predicates.add(criteriaBuilder.like(structureJoin.get("path"), subtreePath + "%"));
+                } else {
+                    predicates.add(criteriaBuilder.equal(structureJoin.get("id"), criteria.getStructureId()));
+                }
             }
 
             if (criteria.getCurrentPositionId() != null) {
@@ -383,6 +506,17 @@ public class PersonnelAdvancedSearchService {
         };
     }
 
+    /**
+     * Chemin matérialisé de la structure recherchée lorsque les sous-structures sont incluses
+     */
+    private String resolveSubtreePath(PersonnelSearchCriteriaDTO criteria) {
+        if (criteria.getStructureId() == null || !Boolean.TRUE.equals(criteria.getIncludeSubStructures())) {
+            return null;
+        }
+        return structureRepository.findPathById(criteria.getStructureId())
+            .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", criteria.getStructureId()));
+    }
+
     /**
      * Applique le tri spécifié dans les critères
      */
@@ -418,8 +552,17 @@ public class PersonnelAdvancedSearchService {
     public long countAdvancedSearch(PersonnelSearchCriteriaDTO criteria) {
         log.info("Comptage des résultats pour les critères: {}", criteria);
 
+        String key = resultCache.key(criteria);
+        Long cached = key != null ? resultCache.getTotal(key) : null;
+        if (cached != null) {
+            return cached;
+        }
+
         Specification<Personnel> spec = buildSpecification(criteria);
         long count = personnelRepository.count(spec);
+        if (key != null) {
+            resultCache.putTotal(key, count);
+        }
 
         log.info("Nombre de résultats trouvés: {}", count);
         return count;
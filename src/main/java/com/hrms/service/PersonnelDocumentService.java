@@ -5,6 +5,7 @@ import com.hrms.dto.PersonnelDocumentDTO;
 import com.hrms.entity.Personnel;
 import com.hrms.entity.PersonnelDocument;
 import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.expiry.DocumentExpiry;
 import com.hrms.mapper.PersonnelDocumentMapper;
 import com.hrms.repository.PersonnelDocumentRepository;
 import com.hrms.repository.PersonnelRepository;
@@ -22,6 +23,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,6 +39,7 @@ public class PersonnelDocumentService {
     private final PersonnelDocumentMapper documentMapper;
     private final AuditUtil auditUtil;
     private final FileUtil fileUtil;
+    private final DocumentExpiryService expiryService;
 
     /**
      * Upload and create document
@@ -124,14 +129,12 @@ public class PersonnelDocumentService {
     }
 
     /**
-     * Get expired documents
+     * Get expired documents (served by the expiry calendar, no table scan)
      */
     @Transactional(readOnly = true)
     public List<PersonnelDocumentDTO> getExpiredDocuments() {
         log.info("Fetching expired documents");
-        return documentRepository.findExpiredDocuments(LocalDate.now()).stream()
-                .map(documentMapper::toDTO)
-                .collect(Collectors.toList());
+        return loadInOrder(expiryService.expired());
     }
 
     /**
@@ -139,10 +142,29 @@ public class PersonnelDocumentService {
      */
     @Transactional(readOnly = true)
     public List<PersonnelDocumentDTO> getDocumentsExpiringSoon() {
-        log.info("Fetching documents expiring soon");
-        LocalDate now = LocalDate.now();
-        LocalDate thirtyDaysFromNow = now.plusDays(30);
-        return documentRepository.findExpiringSoon(now, thirtyDaysFromNow).stream()
+        return getDocumentsExpiringWithin(30);
+    }
+
+    /**
+     * Get documents expiring within the given number of days
+     */
+    @Transactional(readOnly = true)
+    public List<PersonnelDocumentDTO> getDocumentsExpiringWithin(int days) {
+        log.info("Fetching documents expiring within {} days", days);
+        return loadInOrder(expiryService.expiringWithin(days));
+    }
+
+    /**
+     * Load documents by primary key, keeping the expiry order of the calendar
+     */
+    private List<PersonnelDocumentDTO> loadInOrder(List<DocumentExpiry> expiries) {
+        List<Long> ids = expiries.stream().map(DocumentExpiry::getDocumentId).collect(Collectors.toList());
+        Map<Long, PersonnelDocument> byId = documentRepository.findAllById(ids).stream()
+                .filter(document -> !document.isDeleted())
+                .collect(Collectors.toMap(PersonnelDocument::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(documentMapper::toDTO)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,268 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.PersonnelFacetSearchRequestDTO;
+import com.hrms.dto.PersonnelFacetSearchResultDTO;
+import com.hrms.entity.Grade;
+import com.hrms.entity.Personnel;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.facets.FacetAgent;
+import com.hrms.facets.FacetIndex;
+import com.hrms.facets.FacetResult;
+import com.hrms.facets.PersonnelFacet;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.tenant.TenantContext;
+import com.hrms.tenant.TenantProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service de recherche à facettes des personnels
+ *
+ * Chaque tenant dispose d'un {@link FacetIndex} (bitmaps compressés par valeur de grade, corps,
+ * structure, région d'origine, statut et sexe) chargé au démarrage par une projection sur les agents.
+ * Les agents modifiés (reçus du bus des changements, {@link ChangeEventService}) sont relus par une
+ * tâche planifiée, qui reconstruit aussi l'index après un changement de grade (corps de rattachement)
+ * et le substitue à l'ancien. Une recherche rend en un appel la page d'identifiants et les effectifs de
+ * toutes les facettes, sans requête ; seul un tenant dont l'index n'a pas pu être chargé au démarrage
+ * le charge à sa première recherche.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PersonnelFacetService implements EntityChangeSubscriber {
+
+    private static final String PERSONNEL_AGGREGATE = Personnel.class.getSimpleName();
+    private static final String GRADE_AGGREGATE = Grade.class.getSimpleName();
+
+    private final PersonnelRepository personnelRepository;
+    private final WorkforceChangeTracker changeTracker;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<TenantProperties> tenantProperties;
+
+    @Value("${hrms.multi-tenant.default-tenant:default}")
+    private String defaultTenant;
+
+    private final Map<String, FacetIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> pendingByTenant = new ConcurrentHashMap<>();
+    private final Set<String> staleTenants = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Recherche à facettes dans le tenant courant
+     */
+    public PersonnelFacetSearchResultDTO search(PersonnelFacetSearchRequestDTO request) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 50;
+        Map<PersonnelFacet, List<String>> selections = request.getSelections() != null
+                ? request.getSelections() : Map.of();
+
+        String tenant = changeTracker.currentTenant();
+        FacetIndex index = indexes.get(tenant);
+        if (index == null) {
+            index = loadIndex(tenant);
+        }
+        FacetResult result;
+        synchronized (index) {
+            result = index.search(selections, page * size, size);
+        }
+        log.debug("Recherche à facettes {}: {} agents", selections, result.getTotal());
+
+        return PersonnelFacetSearchResultDTO.builder()
+                .totalElements(result.getTotal())
+                .page(page)
+                .size(size)
+                .personnelIds(result.getPersonnelIds())
+                .facets(result.getCounts())
+                .build();
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return Set.of(PERSONNEL_AGGREGATE, GRADE_AGGREGATE);
+    }
+
+    /**
+     * Agents créés, modifiés ou supprimés (bus des changements) : relus au prochain rafraîchissement
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        if (!batch.aggregateIds(GRADE_AGGREGATE).isEmpty()) {
+            // Le corps d'un agent dépend de son grade : index reconstruit au prochain rafraîchissement
+            staleTenants.add(batch.getTenant());
+        }
+        addPending(batch.getTenant(), batch.aggregateIds(PERSONNEL_AGGREGATE));
+    }
+
+    /**
+     * Chargement des index de tous les tenants au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        for (String tenant : tenants()) {
+            inTenant(tenant, () -> loadIndex(tenant));
+        }
+    }
+
+    /**
+     * Reconstruction des index invalidés (grades modifiés) puis report des agents modifiés.
+     * Seule cette tâche modifie un index chargé ; les recherches le lisent sous son verrou.
+     */
+    @Scheduled(fixedDelayString = "${hrms.search.facets.refresh-interval-ms:1000}")
+    public void refreshIndexes() {
+        for (String tenant : List.copyOf(staleTenants)) {
+            if (staleTenants.remove(tenant)) {
+                inTenant(tenant, () -> rebuildIndex(tenant));
+            }
+        }
+        indexes.forEach((tenant, index) -> {
+            if (pendingByTenant.containsKey(tenant)) {
+                inTenant(tenant, () -> applyPendingChanges(tenant, index));
+            }
+        });
+    }
+
+    private FacetIndex loadIndex(String tenant) {
+        return indexes.computeIfAbsent(tenant, key -> {
+            // Les changements signalés avant la lecture y sont déjà
+            pendingByTenant.remove(key);
+            return buildIndex();
+        });
+    }
+
+    private void rebuildIndex(String tenant) {
+        // Les changements signalés pendant la reconstruction restent en attente
+        pendingByTenant.remove(tenant);
+        try {
+            indexes.put(tenant, buildIndex());
+        } catch (RuntimeException e) {
+            staleTenants.add(tenant);
+            throw e;
+        }
+        log.info("Index à facettes du tenant {} reconstruit (grades modifiés)", tenant);
+    }
+
+    private FacetIndex buildIndex() {
+        long start = System.currentTimeMillis();
+        FacetIndex index = new FacetIndex();
+        List<Object[]> rows = readOnly().execute(status -> personnelRepository.findFacetRows());
+        for (Object[] row : rows) {
+            index.upsert(toFacetAgent(row));
+        }
+        log.info("Index à facettes des personnels chargé: {} agents en {} ms",
+                index.size(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private void applyPendingChanges(String tenant, FacetIndex index) {
+        // Retrait atomique : les agents signalés ensuite vont dans un nouvel ensemble
+        Set<Long> removed = pendingByTenant.remove(tenant);
+        if (removed == null || removed.isEmpty()) {
+            return;
+        }
+        Set<Long> pending = Set.copyOf(removed);
+        List<Object[]> rows;
+        try {
+            rows = readOnly().execute(status -> personnelRepository.findFacetRowsByIds(pending));
+        } catch (RuntimeException e) {
+            // Relus au prochain rafraîchissement
+            addPending(tenant, pending);
+            throw e;
+        }
+        Set<Long> present = new HashSet<>();
+        synchronized (index) {
+            for (Object[] row : rows) {
+                FacetAgent agent = toFacetAgent(row);
+                index.upsert(agent);
+                present.add(agent.getPersonnelId());
+            }
+            for (Long personnelId : pending) {
+                if (!present.contains(personnelId)) {
+                    index.remove(personnelId);
+                }
+            }
+        }
+        log.debug("Index à facettes du tenant {}: {} agents relus", tenant, pending.size());
+    }
+
+    private void addPending(String tenant, Set<Long> personnelIds) {
+        if (personnelIds.isEmpty()) {
+            return;
+        }
+        // compute : l'ajout ne peut pas viser un ensemble déjà retiré par applyPendingChanges
+        pendingByTenant.compute(tenant, (key, pending) -> {
+            Set<Long> ids = pending != null ? pending : new HashSet<>();
+            ids.addAll(personnelIds);
+            return ids;
+        });
+    }
+
+    private FacetAgent toFacetAgent(Object[] row) {
+        Map<PersonnelFacet, String> values = new EnumMap<>(PersonnelFacet.class);
+        values.put(PersonnelFacet.GRADE, asString(row[1]));
+        values.put(PersonnelFacet.CORPS, asString(row[2]));
+        values.put(PersonnelFacet.STRUCTURE, asString(row[3]));
+        values.put(PersonnelFacet.REGION, asString(row[4]));
+        values.put(PersonnelFacet.STATUS, asString(row[5]));
+        values.put(PersonnelFacet.GENDER, asString(row[6]));
+        return FacetAgent.builder()
+                .personnelId((Long) row[0])
+                .values(values)
+                .build();
+    }
+
+    private String asString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private Set<String> tenants() {
+        Set<String> tenants = new LinkedHashSet<>();
+        tenants.add(defaultTenant);
+        TenantProperties properties = tenantProperties.getIfAvailable();
+        if (properties != null) {
+            tenants.addAll(properties.getTenants().keySet());
+        }
+        return tenants;
+    }
+
+    private void inTenant(String tenant, Runnable action) {
+        String previous = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenant);
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Index à facettes du tenant {} en échec: {}", tenant, e.getMessage());
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantId(previous);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@ import com.hrms.repository.RegionRepository;
 import com.hrms.repository.DepartmentRepository;
 import com.hrms.repository.ArrondissementRepository;
 import com.hrms.util.AuditUtil;
+import com.hrms.util.NdjsonStreamer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -31,6 +33,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -46,12 +49,14 @@ public class PersonnelService {
     private final ArrondissementRepository arrondissementRepository;
     private final PersonnelMapper personnelMapper;
     private final AuditUtil auditUtil;
+    private final PositionOccupancyService positionOccupancyService;
 
     // Nouveaux services de validation et calculs
     private final GeographicValidationService geographicValidationService;
     private final DateValidationService dateValidationService;
     private final SeniorityCalculationService seniorityCalculationService;
     private final AssignmentHistoryService assignmentHistoryService;
+    private final EntityManager entityManager;
 
     /**
      * Create new personnel with duplicate check
@@ -96,8 +101,10 @@ public class PersonnelService {
                 throw new BusinessException("Le personnel a déjà un poste. Le cumul officiel est requis.");
             }
 
+            boolean wasOccupied = position.isOccupied();
             position.assignPersonnel(personnel);
             positionRepository.save(position);
+            positionOccupancyService.occupancyChanged(position, wasOccupied);
             personnel.setCurrentPosition(position);
         }
 
@@ -186,12 +193,16 @@ public class PersonnelService {
                 // Release old position
                 if (personnel.getCurrentPosition() != null) {
                     Position oldPosition = personnel.getCurrentPosition();
+                    boolean oldWasOccupied = oldPosition.isOccupied();
                     oldPosition.releasePersonnel();
                     positionRepository.save(oldPosition);
+                    positionOccupancyService.occupancyChanged(oldPosition, oldWasOccupied);
                 }
 
+                boolean wasOccupied = newPosition.isOccupied();
                 newPosition.assignPersonnel(personnel);
                 positionRepository.save(newPosition);
+                positionOccupancyService.occupancyChanged(newPosition, wasOccupied);
                 personnel.setCurrentPosition(newPosition);
             }
         }
@@ -335,6 +346,17 @@ public class PersonnelService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Stream retirable personnel for current year (NDJSON response).
+     * Read through a cursor, each personnel detached once mapped.
+     */
+    @Transactional(readOnly = true)
+    public Stream<PersonnelDTO> streamRetirableThisYear() {
+        log.info("Streaming retirable personnel for current year");
+        return personnelRepository.streamRetirableThisYear()
+                .map(NdjsonStreamer.detaching(entityManager, personnelMapper::toDTO));
+    }
+
     /**
      * Get retirable personnel for next year
      */
@@ -358,8 +380,10 @@ public class PersonnelService {
         // Release position if assigned
         if (personnel.getCurrentPosition() != null) {
             Position position = personnel.getCurrentPosition();
+            boolean wasOccupied = position.isOccupied();
             position.releasePersonnel();
             positionRepository.save(position);
+            positionOccupancyService.occupancyChanged(position, wasOccupied);
             personnel.setCurrentPosition(null);
         }
 
@@ -404,14 +428,16 @@ public class PersonnelService {
         Map<String, Object> stats = new HashMap<>();
 
         // Total count
-        stats.put("total", personnelRepository.count());
+        stats.put("total", personnelRepository.countByDeletedFalse());
 
-        // By situation
+        // By situation (une seule requête groupée)
         Map<String, Long> bySituation = new HashMap<>();
         for (Personnel.PersonnelSituation situation : Personnel.PersonnelSituation.values()) {
-            long count = personnelRepository.countBySituationAndDeletedFalse(situation);
-            bySituation.put(situation.name(), count);
+            bySituation.put(situation.name(), 0L);
         }
+        personnelRepository.countGroupBySituation().forEach(obj -> {
+            bySituation.put(obj[0].toString(), (Long) obj[1]);
+        });
         stats.put("bySituation", bySituation);
 
         // By grade
@@ -429,8 +455,8 @@ public class PersonnelService {
         stats.put("byCorps", byCorps);
 
         // Retirable
-        stats.put("retirableThisYear", personnelRepository.findRetirableThisYear().size());
-        stats.put("retirableNextYear", personnelRepository.findRetirableNextYear().size());
+        stats.put("retirableThisYear", personnelRepository.countRetirableThisYear());
+        stats.put("retirableNextYear", personnelRepository.countRetirableNextYear());
 
         return stats;
     }
@@ -0,0 +1,418 @@
+package com.hrms.service;
+
+import com.hrms.dto.BulkAssignmentRequestDTO;
+import com.hrms.dto.BulkAssignmentRequestDTO.AssignmentItemDTO;
+import com.hrms.dto.BulkAssignmentResultDTO;
+import com.hrms.dto.BulkAssignmentResultDTO.OutcomeDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.AssignmentHistory;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.Position;
+import com.hrms.exception.BusinessException;
+import com.hrms.repository.AssignmentHistoryRepository;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.PositionRepository;
+import com.hrms.util.AuditUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Service d'affectation en masse (vagues de nominations, redéploiements)
+ *
+ * Tous les agents et postes de la vague sont chargés par lots d'identifiants, le plan
+ * complet est validé en mémoire (doublons, éligibilité, cumul, postes indisponibles ou
+ * libérés par un autre mouvement de la même vague) puis appliqué dans une seule transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PositionBulkAssignmentService {
+
+    private static final String ASSIGN = "ASSIGN";
+    private static final String RELEASE = "RELEASE";
+    private static final String APPLIED = "APPLIED";
+    private static final String VALID = "VALID";
+    private static final String REJECTED = "REJECTED";
+
+    private final PositionRepository positionRepository;
+    private final PersonnelRepository personnelRepository;
+    private final AssignmentHistoryRepository assignmentHistoryRepository;
+    private final PositionOccupancyService positionOccupancyService;
+    private final AuditUtil auditUtil;
+
+    @Value("${hrms.positions.bulk-max-items:2000}")
+    private int maxItems;
+
+    @Value("${hrms.positions.bulk-load-batch-size:500}")
+    private int loadBatchSize;
+
+    /**
+     * Valide puis applique une vague d'affectations / libérations
+     */
+    public BulkAssignmentResultDTO applyBulkAssignment(BulkAssignmentRequestDTO request) {
+        List<AssignmentItemDTO> items = request.getAssignments() != null ? request.getAssignments() : List.of();
+        List<Long> releaseIds = request.getReleasePositionIds() != null ? request.getReleasePositionIds() : List.of();
+        if (items.isEmpty() && releaseIds.isEmpty()) {
+            throw new BusinessException("La vague d'affectations est vide");
+        }
+        if (items.size() + releaseIds.size() > maxItems) {
+            throw new BusinessException(String.format(
+                    "Une vague ne peut pas dépasser %d mouvements (%d demandés)", maxItems, items.size() + releaseIds.size()));
+        }
+
+        long start = System.currentTimeMillis();
+        boolean allowCumul = Boolean.TRUE.equals(request.getAllowCumul());
+        LocalDate effectiveDate = request.getEffectiveDate() != null ? request.getEffectiveDate() : LocalDate.now();
+
+        // Chargement par lots
+        Set<Long> positionIds = new LinkedHashSet<>(releaseIds);
+        items.forEach(item -> positionIds.add(item.getPositionId()));
+        Map<Long, Position> positions = loadInBatches(positionIds,
+                positionRepository::findAllForAssignmentByIdIn, Position::getId);
+
+        Set<Long> personnelIds = new LinkedHashSet<>();
+        items.forEach(item -> personnelIds.add(item.getPersonnelId()));
+        Map<Long, Personnel> personnel = loadInBatches(personnelIds,
+                personnelRepository::findAllForAssignmentByIdIn, Personnel::getId);
+
+        // Validation du plan complet en mémoire
+        String[] releaseErrors = validateReleases(releaseIds, positions);
+        String[] assignErrors = validateAssignments(items, positions, personnel, releaseIds, releaseErrors, allowCumul);
+
+        int rejected = countErrors(releaseErrors) + countErrors(assignErrors);
+        boolean validationOnly = Boolean.TRUE.equals(request.getValidationOnly());
+        boolean blocked = rejected > 0 && Boolean.TRUE.equals(request.getAllOrNothing());
+        boolean apply = !validationOnly && !blocked;
+
+        // Titulaires des postes à libérer, lus avant application
+        Long[] releasedOccupants = new Long[releaseIds.size()];
+        for (int i = 0; i < releaseIds.size(); i++) {
+            Position position = positions.get(releaseIds.get(i));
+            releasedOccupants[i] = position != null && position.getCurrentPersonnel() != null
+                    ? position.getCurrentPersonnel().getId() : null;
+        }
+
+        if (apply) {
+            applyPlan(request, items, releaseIds, positions, personnel, assignErrors, releaseErrors,
+                    allowCumul, effectiveDate);
+        }
+
+        String notApplied = blocked ? "Non appliqué : la vague contient des mouvements rejetés" : null;
+        List<OutcomeDTO> outcomes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            outcomes.add(outcome(items.get(i).getPersonnelId(), items.get(i).getPositionId(), ASSIGN,
+                    assignErrors[i], apply, notApplied));
+        }
+        for (int i = 0; i < releaseIds.size(); i++) {
+            outcomes.add(outcome(releasedOccupants[i], releaseIds.get(i), RELEASE, releaseErrors[i], apply, notApplied));
+        }
+
+        int requested = items.size() + releaseIds.size();
+        log.info("Vague d'affectations: {} mouvements, {} rejetés, appliquée: {} ({} ms)",
+                requested, rejected, apply, System.currentTimeMillis() - start);
+
+        return BulkAssignmentResultDTO.builder()
+                .requestedCount(requested)
+                .appliedCount(apply ? requested - rejected : 0)
+                .rejectedCount(rejected)
+                .validationOnly(validationOnly)
+                .outcomes(outcomes)
+                .build();
+    }
+
+    // ==================== VALIDATION ====================
+
+    private String[] validateReleases(List<Long> releaseIds, Map<Long, Position> positions) {
+        String[] errors = new String[releaseIds.size()];
+        Map<Long, Integer> occurrences = countOccurrences(releaseIds);
+        for (int i = 0; i < releaseIds.size(); i++) {
+            Position position = positions.get(releaseIds.get(i));
+            if (position == null) {
+                errors[i] = "Poste introuvable";
+            } else if (occurrences.get(releaseIds.get(i)) > 1) {
+                errors[i] = "Poste présent plusieurs fois dans les libérations";
+            } else if (position.getCurrentPersonnel() == null) {
+                errors[i] = "Aucun personnel n'est affecté à ce poste";
+            }
+        }
+        return errors;
+    }
+
+    private String[] validateAssignments(List<AssignmentItemDTO> items, Map<Long, Position> positions,
+                                         Map<Long, Personnel> personnel, List<Long> releaseIds,
+                                         String[] releaseErrors, boolean allowCumul) {
+        String[] errors = new String[items.size()];
+        Map<Long, Integer> personnelOccurrences = countOccurrences(items.stream().map(AssignmentItemDTO::getPersonnelId).toList());
+        Map<Long, Integer> positionOccurrences = countOccurrences(items.stream().map(AssignmentItemDTO::getPositionId).toList());
+
+        for (int i = 0; i < items.size(); i++) {
+            AssignmentItemDTO item = items.get(i);
+            Personnel agent = personnel.get(item.getPersonnelId());
+            Position position = positions.get(item.getPositionId());
+
+            if (agent == null) {
+                errors[i] = "Personnel introuvable";
+            } else if (position == null) {
+                errors[i] = "Poste introuvable";
+            } else if (personnelOccurrences.get(item.getPersonnelId()) > 1) {
+                errors[i] = "Personnel affecté plusieurs fois dans la même vague";
+            } else if (positionOccurrences.get(item.getPositionId()) > 1) {
+                errors[i] = "Poste attribué à plusieurs personnels dans la même vague";
+            } else if (agent.getCurrentPosition() != null && agent.getCurrentPosition().getId().equals(position.getId())) {
+                errors[i] = "Le personnel occupe déjà ce poste";
+            } else if (!Boolean.TRUE.equals(position.getActive())
+                    || (position.getStatus() != Position.PositionStatus.VACANT
+                        && position.getStatus() != Position.PositionStatus.OCCUPE)) {
+                errors[i] = "Le poste n'est pas disponible pour affectation";
+            } else if (!agent.canBeAssignedToPosition(true)) {
+                errors[i] = agent.getIneligibilityReason(true);
+            }
+        }
+
+        // Un poste occupé n'est disponible que s'il est libéré par la vague elle-même :
+        // libération demandée, ou départ de son titulaire vers un autre poste (sans cumul).
+        // Le rejet d'un mouvement peut invalider ceux qui en dépendaient : itération jusqu'à stabilité.
+        Map<Long, Integer> validReleaseIndex = new HashMap<>();
+        for (int i = 0; i < releaseIds.size(); i++) {
+            if (releaseErrors[i] == null) {
+                validReleaseIndex.put(releaseIds.get(i), i);
+            }
+        }
+        Map<Long, Integer> itemIndexByPersonnel = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            itemIndexByPersonnel.putIfAbsent(items.get(i).getPersonnelId(), i);
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < items.size(); i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                Position position = positions.get(items.get(i).getPositionId());
+                if (position.getStatus() != Position.PositionStatus.OCCUPE
+                        || validReleaseIndex.containsKey(position.getId())) {
+                    continue;
+                }
+                Personnel occupant = position.getCurrentPersonnel();
+                Integer occupantItem = occupant != null ? itemIndexByPersonnel.get(occupant.getId()) : null;
+                boolean freed = occupantItem != null && errors[occupantItem] == null
+                        && occupant.getCurrentPosition() != null
+                        && occupant.getCurrentPosition().getId().equals(position.getId())
+                        && !keepsCurrentPosition(occupant, allowCumul);
+                if (!freed) {
+                    errors[i] = "Le poste est occupé et n'est pas libéré par cette vague";
+                    changed = true;
+                }
+            }
+        }
+        return errors;
+    }
+
+    private boolean keepsCurrentPosition(Personnel agent, boolean allowCumul) {
+        return agent.getCurrentPosition() != null && (Boolean.TRUE.equals(agent.getOfficialCumul()) || allowCumul);
+    }
+
+    // ==================== APPLICATION ====================
+
+    private void applyPlan(BulkAssignmentRequestDTO request, List<AssignmentItemDTO> items, List<Long> releaseIds,
+                           Map<Long, Position> positions, Map<Long, Personnel> personnel,
+                           String[] assignErrors, String[] releaseErrors, boolean allowCumul, LocalDate effectiveDate) {
+        Map<Long, Position> touched = new LinkedHashMap<>();
+        Map<Long, Boolean> previousOccupancy = new HashMap<>();
+        Map<Long, Personnel> touchedPersonnel = new LinkedHashMap<>();
+        Map<Long, Position> previousPositions = new HashMap<>();
+        Set<Long> releasedPersonnelIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            if (assignErrors[i] == null) {
+                Personnel agent = personnel.get(items.get(i).getPersonnelId());
+                previousPositions.put(agent.getId(), agent.getCurrentPosition());
+            }
+        }
+
+        // 1. Libérations demandées
+        for (int i = 0; i < releaseIds.size(); i++) {
+            if (releaseErrors[i] != null) {
+                continue;
+            }
+            Position position = positions.get(releaseIds.get(i));
+            Personnel occupant = position.getCurrentPersonnel();
+            track(position, touched, previousOccupancy);
+            position.releasePersonnel();
+            if (occupant.getCurrentPosition() != null && occupant.getCurrentPosition().getId().equals(position.getId())) {
+                occupant.setCurrentPosition(null);
+            }
+            touchedPersonnel.put(occupant.getId(), occupant);
+            releasedPersonnelIds.add(occupant.getId());
+        }
+
+        // 2. Départ des agents mutés (hors cumul)
+        for (int i = 0; i < items.size(); i++) {
+            if (assignErrors[i] != null) {
+                continue;
+            }
+            Personnel agent = personnel.get(items.get(i).getPersonnelId());
+            Position oldPosition = agent.getCurrentPosition();
+            if (oldPosition != null && !keepsCurrentPosition(agent, allowCumul)) {
+                track(oldPosition, touched, previousOccupancy);
+                oldPosition.releasePersonnel();
+                agent.setCurrentPosition(null);
+            }
+        }
+
+        // 3. Affectations
+        for (int i = 0; i < items.size(); i++) {
+            if (assignErrors[i] != null) {
+                continue;
+            }
+            Personnel agent = personnel.get(items.get(i).getPersonnelId());
+            Position position = positions.get(items.get(i).getPositionId());
+            track(position, touched, previousOccupancy);
+            position.assignPersonnel(agent, allowCumul);
+            agent.setCurrentPosition(position);
+            agent.setServiceStartDate(effectiveDate);
+            touchedPersonnel.put(agent.getId(), agent);
+            releasedPersonnelIds.remove(agent.getId());
+        }
+
+        positionRepository.saveAll(touched.values());
+        personnelRepository.saveAll(touchedPersonnel.values());
+
+        recordHistory(request, items, personnel, assignErrors, previousPositions, releasedPersonnelIds, effectiveDate);
+
+        positionOccupancyService.occupancyChanged(touched.values(), previousOccupancy);
+    }
+
+    private void track(Position position, Map<Long, Position> touched, Map<Long, Boolean> previousOccupancy) {
+        touched.putIfAbsent(position.getId(), position);
+        previousOccupancy.putIfAbsent(position.getId(), position.isOccupied());
+    }
+
+    /**
+     * Clôture les affectations actives et insère les nouvelles lignes d'historique
+     */
+    private void recordHistory(BulkAssignmentRequestDTO request, List<AssignmentItemDTO> items,
+                               Map<Long, Personnel> personnel, String[] assignErrors,
+                               Map<Long, Position> previousPositions, Set<Long> releasedPersonnelIds,
+                               LocalDate effectiveDate) {
+        Set<Long> assignedIds = new LinkedHashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (assignErrors[i] == null) {
+                assignedIds.add(items.get(i).getPersonnelId());
+            }
+        }
+
+        String currentUser = auditUtil.getCurrentUser();
+        Set<Long> concerned = new LinkedHashSet<>(assignedIds);
+        concerned.addAll(releasedPersonnelIds);
+        List<AssignmentHistory> toSave = new ArrayList<>();
+        for (List<Long> chunk : chunks(concerned)) {
+            for (AssignmentHistory active : assignmentHistoryRepository.findActiveAssignmentsByPersonnelIds(chunk)) {
+                Long personnelId = active.getPersonnel().getId();
+                active.endAssignment(assignedIds.contains(personnelId) ? effectiveDate.minusDays(1) : effectiveDate);
+                active.setUpdatedBy(currentUser);
+                toSave.add(active);
+            }
+        }
+
+        for (Long personnelId : assignedIds) {
+            Personnel agent = personnel.get(personnelId);
+            Position oldPosition = previousPositions.get(personnelId);
+            Position newPosition = agent.getCurrentPosition();
+            AdministrativeStructure oldStructure = oldPosition != null ? oldPosition.getStructure() : null;
+            AdministrativeStructure newStructure = newPosition.getStructure();
+
+            AssignmentHistory.MovementType movementType = oldPosition == null
+                    ? AssignmentHistory.MovementType.AFFECTATION
+                    : !Objects.equals(oldStructure.getId(), newStructure.getId())
+                        ? AssignmentHistory.MovementType.MUTATION
+                        : AssignmentHistory.MovementType.REAFFECTATION;
+
+            AssignmentHistory history = AssignmentHistory.builder()
+                    .personnel(agent)
+                    .positionOld(oldPosition)
+                    .positionNew(newPosition)
+                    .structureOld(oldStructure)
+                    .structureNew(newStructure)
+                    .startDate(effectiveDate)
+                    .movementType(movementType)
+                    .decisionNumber(request.getDecisionNumber())
+                    .decisionDate(request.getDecisionDate())
+                    .reason(request.getReason())
+                    .status(AssignmentHistory.AssignmentStatus.ACTIVE)
+                    .build();
+            history.setCreatedBy(currentUser);
+            toSave.add(history);
+        }
+
+        assignmentHistoryRepository.saveAll(toSave);
+    }
+
+    // ==================== OUTILS ====================
+
+    private <T> Map<Long, T> loadInBatches(Collection<Long> ids, Function<List<Long>, List<T>> loader,
+                                           Function<T, Long> idOf) {
+        Map<Long, T> result = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            for (T entity : loader.apply(chunk)) {
+                result.put(idOf.apply(entity), entity);
+            }
+        }
+        return result;
+    }
+
+    private List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += loadBatchSize) {
+            chunks.add(list.subList(from, Math.min(from + loadBatchSize, list.size())));
+        }
+        return chunks;
+    }
+
+    private static Map<Long, Integer> countOccurrences(List<Long> ids) {
+        Map<Long, Integer> occurrences = new HashMap<>();
+        ids.forEach(id -> occurrences.merge(id, 1, Integer::sum));
+        return occurrences;
+    }
+
+    private static int countErrors(String[] errors) {
+        int count = 0;
+        for (String error : errors) {
+            if (error != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static OutcomeDTO outcome(Long personnelId, Long positionId, String action, String error,
+                                      boolean applied, String notApplied) {
+        String status = error != null ? REJECTED : applied ? APPLIED : VALID;
+        return OutcomeDTO.builder()
+                .personnelId(personnelId)
+                .positionId(positionId)
+                .action(action)
+                .status(status)
+                .message(error != null ? error : notApplied)
+                .build();
+    }
+}
@@ -0,0 +1,333 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.PositionMatchDTO;
+import com.hrms.dto.VacancyFillPlanDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.CorpsMetier;
+import com.hrms.entity.Grade;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.Position;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.matching.CandidateEntry;
+import com.hrms.matching.MatchingIndex;
+import com.hrms.matching.VacancyEntry;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.PositionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service de rapprochement postes vacants / agents affectables
+ *
+ * S'appuie sur un {@link MatchingIndex} par tenant, chargé à la première recherche. Les postes et
+ * agents modifiés (reçus du bus des changements après commit, {@link ChangeEventService}) sont relus
+ * et remplacés dans un nouvel index. Une modification de l'arborescence des structures, d'un grade
+ * ou d'un corps, ou un index plus vieux que hrms.matching.index-ttl-ms (écritures hors JPA),
+ * entraîne la reconstruction complète. Les recherches (candidats d'un poste, postes d'un agent,
+ * plan de pourvoi d'un gouvernorat) sont évaluées en mémoire.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PositionMatchingService implements EntityChangeSubscriber {
+
+    private static final String POSITION_AGGREGATE = Position.class.getSimpleName();
+    private static final String PERSONNEL_AGGREGATE = Personnel.class.getSimpleName();
+    private static final String STRUCTURE_AGGREGATE = AdministrativeStructure.class.getSimpleName();
+
+    /**
+     * Agrégats dont un changement impose la reconstruction (chemins, libellés de grade et de corps)
+     */
+    private static final Set<String> REBUILD_AGGREGATES = Set.of(
+            STRUCTURE_AGGREGATE, Grade.class.getSimpleName(), CorpsMetier.class.getSimpleName());
+
+    private final PositionRepository positionRepository;
+    private final PersonnelRepository personnelRepository;
+    private final AdministrativeStructureRepository structureRepository;
+    private final WorkforceChangeTracker changeTracker;
+
+    @Value("${hrms.matching.index-ttl-ms:900000}")
+    private long indexTtlMs;
+
+    @Value("${hrms.matching.default-limit:20}")
+    private int defaultLimit;
+
+    private final Map<String, CachedIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, PendingChanges> pendingByTenant = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Agents classés pour un poste vacant
+     */
+    public List<PositionMatchDTO> getCandidatesForPosition(Long positionId, Integer limit) {
+        MatchingIndex index = currentIndex();
+        VacancyEntry vacancy = index.getVacancy(positionId);
+        if (vacancy == null) {
+            if (!positionRepository.existsById(positionId)) {
+                throw new ResourceNotFoundException("Position", "id", positionId);
+            }
+            throw new BusinessException("Le poste n'est pas vacant");
+        }
+        return index.candidatesFor(vacancy, limitOrDefault(limit)).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    /**
+     * Postes vacants classés pour un agent
+     */
+    public List<PositionMatchDTO> getPositionsForPersonnel(Long personnelId, String rank, Integer limit) {
+        MatchingIndex index = currentIndex();
+        CandidateEntry candidate = index.getCandidate(personnelId);
+        if (candidate == null) {
+            Personnel personnel = personnelRepository.findById(personnelId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Personnel", "id", personnelId));
+            String reason = personnel.getIneligibilityReason(false);
+            throw new BusinessException(reason != null ? reason : "Le personnel n'est pas affectable");
+        }
+        return index.vacanciesFor(candidate, rank, limitOrDefault(limit)).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    /**
+     * Propositions de pourvoi de tous les postes vacants d'une structure et de ses sous-structures
+     */
+    public VacancyFillPlanDTO getFillPlan(Long structureId, Integer candidatesPerVacancy) {
+        String path = structureRepository.findPathById(structureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", structureId));
+
+        long start = System.currentTimeMillis();
+        MatchingIndex.FillPlan plan = currentIndex().fillPlan(path, limitOrDefault(candidatesPerVacancy));
+        log.info("Plan de pourvoi de la structure {}: {}/{} postes pourvus en {} ms", structureId,
+                plan.getProposals().size(), plan.getVacancyCount(), System.currentTimeMillis() - start);
+
+        return VacancyFillPlanDTO.builder()
+                .structureId(structureId)
+                .vacancyCount(plan.getVacancyCount())
+                .proposals(plan.getProposals().stream().map(this::toDTO).toList())
+                .unfilledPositionIds(plan.getUnfilled().stream().map(VacancyEntry::getPositionId).toList())
+                .build();
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        Set<String> types = new HashSet<>(REBUILD_AGGREGATES);
+        types.add(POSITION_AGGREGATE);
+        types.add(PERSONNEL_AGGREGATE);
+        return types;
+    }
+
+    /**
+     * Postes et agents modifiés (validés) : relus et remplacés dans l'index du tenant
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        String tenant = batch.getTenant();
+        if (batch.getChanges().stream().anyMatch(this::requiresRebuild)) {
+            synchronized (lockFor(tenant)) {
+                indexes.remove(tenant);
+                pendingByTenant.remove(tenant);
+            }
+            log.info("Index de rapprochement du tenant {} à reconstruire (structures, grades ou corps modifiés)", tenant);
+            return;
+        }
+
+        synchronized (lockFor(tenant)) {
+            PendingChanges pending = pendingByTenant.computeIfAbsent(tenant, key -> new PendingChanges());
+            pending.positionIds.addAll(batch.aggregateIds(POSITION_AGGREGATE));
+            pending.personnelIds.addAll(batch.aggregateIds(PERSONNEL_AGGREGATE));
+            applyPendingChanges(tenant);
+        }
+    }
+
+    /**
+     * Une structure créée n'a encore ni poste ni agent ; seuls un déplacement (nouveau parent,
+     * donc nouveau chemin) ou une suppression changent les chemins indexés. Une mise à jour
+     * sans propriétés connues est traitée comme un déplacement.
+     */
+    private boolean requiresRebuild(EntityChange change) {
+        if (!REBUILD_AGGREGATES.contains(change.getAggregateType())) {
+            return false;
+        }
+        if (!STRUCTURE_AGGREGATE.equals(change.getAggregateType())) {
+            return true;
+        }
+        Set<String> properties = change.getChangedProperties();
+        return change.getChangeType() == ChangeType.DELETED
+                || (change.getChangeType() == ChangeType.UPDATED && properties.isEmpty())
+                || properties.contains("path")
+                || properties.contains("parentStructure");
+    }
+
+    // ==================== INDEX ====================
+
+    private MatchingIndex currentIndex() {
+        String tenant = changeTracker.currentTenant();
+        CachedIndex cached = indexes.get(tenant);
+        if (cached != null && !cached.isExpired()) {
+            return cached.index;
+        }
+        synchronized (lockFor(tenant)) {
+            cached = indexes.get(tenant);
+            if (cached == null || cached.isExpired()) {
+                // Les changements validés avant la relecture y sont ; ceux reçus pendant attendent le verrou
+                pendingByTenant.remove(tenant);
+                cached = new CachedIndex(buildIndex(), System.currentTimeMillis());
+                indexes.put(tenant, cached);
+            }
+            return cached.index;
+        }
+    }
+
+    /**
+     * Remplace dans l'index chargé du tenant les postes et agents en attente ; sans index chargé,
+     * ils seront lus par le prochain chargement
+     */
+    private void applyPendingChanges(String tenant) {
+        synchronized (lockFor(tenant)) {
+            CachedIndex cached = indexes.get(tenant);
+            if (cached == null) {
+                return;
+            }
+            PendingChanges pending = pendingByTenant.remove(tenant);
+            if (pending == null || pending.isEmpty()) {
+                return;
+            }
+            Set<Long> positionIds = Set.copyOf(pending.positionIds);
+            Set<Long> personnelIds = Set.copyOf(pending.personnelIds);
+            List<VacancyEntry> vacancies = positionIds.isEmpty() ? List.of()
+                    : positionRepository.findVacancyRowsByIds(positionIds).stream().map(this::toVacancy).toList();
+            List<CandidateEntry> candidates = personnelIds.isEmpty() ? List.of()
+                    : personnelRepository.findAssignableCandidateRowsByIds(Personnel.PersonnelStatus.ACTIVE,
+                            Personnel.ASSIGNABLE_SITUATIONS, personnelIds).stream().map(this::toCandidate).toList();
+
+            MatchingIndex index = cached.index.withChanges(positionIds, vacancies, personnelIds, candidates);
+            indexes.put(tenant, new CachedIndex(index, cached.builtAt));
+            log.debug("Index de rapprochement du tenant {}: {} postes et {} agents mis à jour",
+                    tenant, positionIds.size(), personnelIds.size());
+        }
+    }
+
+    private Object lockFor(String tenant) {
+        return locks.computeIfAbsent(tenant, key -> new Object());
+    }
+
+    private MatchingIndex buildIndex() {
+        long start = System.currentTimeMillis();
+
+        List<VacancyEntry> vacancies = positionRepository.findVacancyRows().stream()
+                .map(this::toVacancy)
+                .toList();
+
+        List<CandidateEntry> candidates = personnelRepository
+                .findAssignableCandidateRows(Personnel.PersonnelStatus.ACTIVE, Personnel.ASSIGNABLE_SITUATIONS).stream()
+                .map(this::toCandidate)
+                .toList();
+
+        MatchingIndex index = new MatchingIndex(vacancies, candidates);
+        log.info("Index de rapprochement construit: {} postes vacants, {} agents affectables en {} ms",
+                index.vacancyCount(), index.candidateCount(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private VacancyEntry toVacancy(Object[] row) {
+        return VacancyEntry.builder()
+                .positionId((Long) row[0])
+                .code((String) row[1])
+                .title((String) row[2])
+                .rank((String) row[3])
+                .category((String) row[4])
+                .requiredGrade(MatchingIndex.normalize((String) row[5]))
+                .requiredCorps(MatchingIndex.normalize((String) row[6]))
+                .minExperienceYears((Integer) row[7])
+                .structureId((Long) row[8])
+                .structurePath((String) row[9])
+                .build();
+    }
+
+    private CandidateEntry toCandidate(Object[] row) {
+        return CandidateEntry.builder()
+                .personnelId((Long) row[0])
+                .matricule((String) row[1])
+                .fullName(row[2] + " " + (row[3] != null ? row[3] : ""))
+                .gradeCode(MatchingIndex.normalize((String) row[4]))
+                .gradeName(MatchingIndex.normalize((String) row[5]))
+                .gradeCategory((String) row[6])
+                .corpsCode(MatchingIndex.normalize((String) row[7]))
+                .corpsName(MatchingIndex.normalize((String) row[8]))
+                .structureId((Long) row[9])
+                .structurePath((String) row[10])
+                .seniorityYears(row[11] != null ? Period.between((LocalDate) row[11], LocalDate.now()).getYears() : 0)
+                .holdingPosition(row[12] != null)
+                .build();
+    }
+
+    private int limitOrDefault(Integer limit) {
+        return limit != null && limit > 0 ? limit : defaultLimit;
+    }
+
+    private PositionMatchDTO toDTO(MatchingIndex.Match match) {
+        VacancyEntry vacancy = match.getVacancy();
+        CandidateEntry candidate = match.getCandidate();
+        return PositionMatchDTO.builder()
+                .positionId(vacancy.getPositionId())
+                .positionCode(vacancy.getCode())
+                .positionTitle(vacancy.getTitle())
+                .positionRank(vacancy.getRank())
+                .positionStructureId(vacancy.getStructureId())
+                .personnelId(candidate.getPersonnelId())
+                .matricule(candidate.getMatricule())
+                .fullName(candidate.getFullName().trim())
+                .personnelStructureId(candidate.getStructureId())
+                .seniorityYears(candidate.getSeniorityYears())
+                .cumul(candidate.isHoldingPosition())
+                .score(match.getScore())
+                .build();
+    }
+
+    private class CachedIndex {
+        private final MatchingIndex index;
+        private final long builtAt;
+
+        CachedIndex(MatchingIndex index, long builtAt) {
+            this.index = index;
+            this.builtAt = builtAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - builtAt > indexTtlMs;
+        }
+    }
+
+    /**
+     * Identifiants en attente, modifiés sous le verrou du tenant
+     */
+    private static class PendingChanges {
+        private final Set<Long> positionIds = new HashSet<>();
+        private final Set<Long> personnelIds = new HashSet<>();
+
+        boolean isEmpty() {
+            return positionIds.isEmpty() && personnelIds.isEmpty();
+        }
+    }
+}
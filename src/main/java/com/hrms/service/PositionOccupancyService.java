@@ -0,0 +1,409 @@
+package com.hrms.service;
+
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.Position;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PositionRepository;
+import com.hrms.tenant.TenantContext;
+import com.hrms.tenant.TenantProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service des compteurs d'occupation des postes
+ *
+ * Chaque structure porte ses compteurs (postes, occupés, vacants) et ceux de son sous-arbre.
+ * Une affectation ou une libération applique un incrément en base sur la structure du poste
+ * et sur ses ancêtres (lus dans le chemin matérialisé), sans recompter les postes.
+ * La racine n'est pas incrémentée : toutes les affectations verrouilleraient sa ligne. Le sous-arbre
+ * d'une racine est lu comme ses propres compteurs plus les sous-arbres de ses enfants.
+ * Une réconciliation périodique compare les compteurs aux postes réels et corrige les écarts.
+ * Ces mises à jour en masse échappent à l'outbox : chacune incrémente explicitement les versions
+ * des données des structures et des postes (ETags des arborescences).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PositionOccupancyService {
+
+    private static final String[] COUNTER_AGGREGATES = {"AdministrativeStructure", "Position"};
+
+    private final AdministrativeStructureRepository structureRepository;
+    private final PositionRepository positionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<TenantProperties> tenantProperties;
+    private final DataVersionService dataVersionService;
+
+    @Value("${hrms.multi-tenant.default-tenant:default}")
+    private String defaultTenant;
+
+    // ==================== INCRÉMENTS ====================
+
+    /**
+     * Nouveau poste dans une structure
+     */
+    public void positionAdded(Position position) {
+        applyDelta(position.getStructure(), 1, position.isOccupied() ? 1 : 0);
+    }
+
+    /**
+     * Poste supprimé d'une structure
+     */
+    public void positionRemoved(Position position) {
+        applyDelta(position.getStructure(), -1, position.isOccupied() ? -1 : 0);
+    }
+
+    /**
+     * Poste rattaché à une autre structure et/ou dont l'occupation a changé
+     */
+    public void positionChanged(AdministrativeStructure previousStructure, boolean wasOccupied, Position position) {
+        AdministrativeStructure structure = position.getStructure();
+        if (previousStructure != null && structure != null && !Objects.equals(previousStructure.getId(), structure.getId())) {
+            applyDelta(previousStructure, -1, wasOccupied ? -1 : 0);
+            applyDelta(structure, 1, position.isOccupied() ? 1 : 0);
+        } else {
+            occupancyChanged(position, wasOccupied);
+        }
+    }
+
+    /**
+     * Affectation ou libération d'un poste (occupation avant / occupation actuelle)
+     */
+    public void occupancyChanged(Position position, boolean wasOccupied) {
+        if (position != null && position.isOccupied() != wasOccupied) {
+            applyDelta(position.getStructure(), 0, wasOccupied ? -1 : 1);
+        }
+    }
+
+    /**
+     * Affectations / libérations d'un lot de postes (occupation avant indexée par identifiant de poste).
+     * Les incréments sont cumulés par structure puis appliqués en une mise à jour par valeur d'incrément.
+     */
+    public void occupancyChanged(Collection<Position> positions, Map<Long, Boolean> previousOccupancy) {
+        Map<Long, Integer> direct = new HashMap<>();
+        Map<Long, Integer> subtree = new HashMap<>();
+        for (Position position : positions) {
+            Boolean wasOccupied = previousOccupancy.get(position.getId());
+            AdministrativeStructure structure = position.getStructure();
+            if (wasOccupied == null || wasOccupied == position.isOccupied() || structure == null) {
+                continue;
+            }
+            int delta = wasOccupied ? -1 : 1;
+            direct.merge(structure.getId(), delta, Integer::sum);
+            for (Long ancestorId : maintainedAncestors(structure.getPath())) {
+                subtree.merge(ancestorId, delta, Integer::sum);
+            }
+        }
+
+        Map<Integer, List<Long>> directByDelta = groupByDelta(direct);
+        if (directByDelta.isEmpty()) {
+            return;
+        }
+        directByDelta.forEach((delta, ids) -> structureRepository.incrementPositionCounters(ids, 0, delta));
+        groupByDelta(subtree).forEach((delta, ids) -> structureRepository.incrementSubtreePositionCounters(ids, 0, delta));
+        countersChanged();
+    }
+
+    private static Map<Integer, List<Long>> groupByDelta(Map<Long, Integer> deltas) {
+        Map<Integer, List<Long>> byDelta = new HashMap<>();
+        deltas.forEach((structureId, delta) -> {
+            if (delta != 0) {
+                byDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(structureId);
+            }
+        });
+        return byDelta;
+    }
+
+    /**
+     * Postes créés en nombre (instanciation de templates) : incréments cumulés par structure
+     */
+    public void positionsAdded(Collection<Position> positions) {
+        applyDeltas(positions, 1);
+    }
+
+    /**
+     * Postes supprimés en nombre (resynchronisation de templates)
+     */
+    public void positionsRemoved(Collection<Position> positions) {
+        applyDeltas(positions, -1);
+    }
+
+    private void applyDeltas(Collection<Position> positions, int sign) {
+        Map<Long, int[]> direct = new HashMap<>();
+        Map<Long, int[]> subtree = new HashMap<>();
+        for (Position position : positions) {
+            AdministrativeStructure structure = position.getStructure();
+            if (structure == null || structure.getId() == null) {
+                continue;
+            }
+            int occupied = position.isOccupied() ? sign : 0;
+            addDelta(direct, structure.getId(), sign, occupied);
+            for (Long ancestorId : maintainedAncestors(structure.getPath())) {
+                addDelta(subtree, ancestorId, sign, occupied);
+            }
+        }
+
+        Map<Map.Entry<Integer, Integer>, List<Long>> directByDelta = groupByDeltaPair(direct);
+        if (directByDelta.isEmpty()) {
+            return;
+        }
+        directByDelta.forEach((delta, ids) ->
+                structureRepository.incrementPositionCounters(ids, delta.getKey(), delta.getValue()));
+        groupByDeltaPair(subtree).forEach((delta, ids) ->
+                structureRepository.incrementSubtreePositionCounters(ids, delta.getKey(), delta.getValue()));
+        countersChanged();
+    }
+
+    private static void addDelta(Map<Long, int[]> deltas, Long structureId, int total, int occupied) {
+        int[] delta = deltas.computeIfAbsent(structureId, id -> new int[2]);
+        delta[0] += total;
+        delta[1] += occupied;
+    }
+
+    private static Map<Map.Entry<Integer, Integer>, List<Long>> groupByDeltaPair(Map<Long, int[]> deltas) {
+        Map<Map.Entry<Integer, Integer>, List<Long>> byDelta = new HashMap<>();
+        deltas.forEach((structureId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                byDelta.computeIfAbsent(Map.entry(delta[0], delta[1]), d -> new ArrayList<>()).add(structureId);
+            }
+        });
+        return byDelta;
+    }
+
+    /**
+     * Report des postes d'un sous-arbre déplacé : retirés des anciens ancêtres, ajoutés aux nouveaux.
+     * Une racine rattachée à un parent reçoit ses compteurs de sous-arbre, jusque-là calculés à la lecture.
+     */
+    public void subtreeMoved(Long structureId, String oldParentPath, String newParentPath) {
+        List<Object[]> rows = structureRepository.findSubtreePositionCounters(structureId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        int total = toInt(rows.get(0)[0]);
+        int occupied = toInt(rows.get(0)[1]);
+        if (total == 0 && occupied == 0) {
+            return;
+        }
+
+        if (oldParentPath == null) {
+            structureRepository.incrementSubtreePositionCounters(List.of(structureId), total, occupied);
+        }
+        List<Long> oldAncestors = maintainedAncestors(oldParentPath);
+        if (!oldAncestors.isEmpty()) {
+            structureRepository.incrementSubtreePositionCounters(oldAncestors, -total, -occupied);
+        }
+        List<Long> newAncestors = maintainedAncestors(newParentPath);
+        if (!newAncestors.isEmpty()) {
+            structureRepository.incrementSubtreePositionCounters(newAncestors, total, occupied);
+        }
+        countersChanged();
+    }
+
+    private void applyDelta(AdministrativeStructure structure, int total, int occupied) {
+        if (structure == null || structure.getId() == null || (total == 0 && occupied == 0)) {
+            return;
+        }
+        structureRepository.incrementPositionCounters(List.of(structure.getId()), total, occupied);
+
+        List<Long> ancestors = maintainedAncestors(structure.getPath());
+        if (!ancestors.isEmpty()) {
+            structureRepository.incrementSubtreePositionCounters(ancestors, total, occupied);
+        }
+        countersChanged();
+    }
+
+    private void countersChanged() {
+        dataVersionService.changedAfterCommit(COUNTER_AGGREGATES);
+    }
+
+    /**
+     * Structures d'un chemin dont les compteurs de sous-arbre sont incrémentés : toutes sauf la racine
+     */
+    static List<Long> maintainedAncestors(String path) {
+        List<Long> ids = AdministrativeStructure.pathIds(path);
+        return ids.size() > 1 ? ids.subList(1, ids.size()) : List.of();
+    }
+
+    // ==================== LECTURES ====================
+
+    /**
+     * Compteurs globaux : somme des sous-arbres des structures racines
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getGlobalCounters() {
+        Object[] row = structureRepository.sumRootPositionCounters().get(0);
+        return counters(toLong(row[0]), toLong(row[1]));
+    }
+
+    /**
+     * Compteurs d'une structure et de son sous-arbre
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStructureCounters(Long structureId) {
+        AdministrativeStructure structure = structureRepository.findById(structureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", structureId));
+
+        Object[] subtree = structureRepository.findSubtreePositionCounters(structureId).get(0);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("structureId", structureId);
+        stats.put("structure", counters(toLong(structure.getTotalPositions()), toLong(structure.getOccupiedPositions())));
+        stats.put("subtree", counters(toLong(subtree[0]), toLong(subtree[1])));
+        return stats;
+    }
+
+    /**
+     * Compteurs du sous-arbre d'une structure (la structure et toutes ses descendantes)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getSubtreeCounters(Long structureId) {
+        List<Object[]> rows = structureRepository.findSubtreePositionCounters(structureId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Structure", "id", structureId);
+        }
+        return counters(toLong(rows.get(0)[0]), toLong(rows.get(0)[1]));
+    }
+
+    private Map<String, Long> counters(long total, long occupied) {
+        Map<String, Long> counters = new HashMap<>();
+        counters.put("total", total);
+        counters.put("occupied", occupied);
+        counters.put("vacant", total - occupied);
+        return counters;
+    }
+
+    // ==================== RÉCONCILIATION ====================
+
+    /**
+     * Réconciliation des compteurs de tous les tenants
+     */
+    @Scheduled(cron = "${hrms.positions.reconcile-cron:0 15 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileAllTenants() {
+        Set<String> tenants = new LinkedHashSet<>();
+        tenants.add(defaultTenant);
+        TenantProperties properties = tenantProperties.getIfAvailable();
+        if (properties != null) {
+            tenants.addAll(properties.getTenants().keySet());
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (String tenant : tenants) {
+            String previous = TenantContext.getTenantId();
+            TenantContext.setTenantId(tenant);
+            try {
+                transaction.executeWithoutResult(status -> reconcileCurrentTenant());
+            } catch (Exception e) {
+                log.warn("Réconciliation des compteurs de postes du tenant {} en échec: {}", tenant, e.getMessage());
+            } finally {
+                if (previous != null) {
+                    TenantContext.setTenantId(previous);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Réconciliation des compteurs du tenant courant, renvoie le nombre de structures corrigées
+     */
+    public int reconcile() {
+        return reconcileCurrentTenant();
+    }
+
+    private int reconcileCurrentTenant() {
+        long start = System.currentTimeMillis();
+
+        // Compteurs lus avant les postes : un incrément validé entre les deux lectures
+        // fait échouer la correction conditionnelle au lieu d'être écrasé
+        List<Object[]> stored = structureRepository.findPositionCounterRows();
+
+        Map<Long, int[]> direct = new HashMap<>();
+        for (Object[] row : positionRepository.countPositionsGroupedByStructure()) {
+            direct.put((Long) row[0], new int[]{toInt(row[1]), toInt(row[2])});
+        }
+
+        Map<Long, String> paths = new HashMap<>();
+        for (Object[] row : stored) {
+            paths.put((Long) row[0], (String) row[1]);
+        }
+
+        // Racines exclues : leurs compteurs de sous-arbre restent à 0
+        Map<Long, int[]> subtree = new HashMap<>();
+        direct.forEach((structureId, counts) -> {
+            for (Long ancestorId : maintainedAncestors(paths.get(structureId))) {
+                int[] sums = subtree.computeIfAbsent(ancestorId, id -> new int[2]);
+                sums[0] += counts[0];
+                sums[1] += counts[1];
+            }
+        });
+
+        int repaired = 0;
+        int skipped = 0;
+        for (Object[] row : stored) {
+            Long structureId = (Long) row[0];
+            int[] expected = direct.getOrDefault(structureId, new int[2]);
+            int[] expectedSubtree = subtree.getOrDefault(structureId, new int[2]);
+
+            int total = toInt(row[2]);
+            int occupied = toInt(row[3]);
+            int vacant = toInt(row[4]);
+            int subtreeTotal = toInt(row[5]);
+            int subtreeOccupied = toInt(row[6]);
+
+            boolean drifted = total != expected[0] || occupied != expected[1] || vacant != expected[0] - expected[1]
+                    || subtreeTotal != expectedSubtree[0] || subtreeOccupied != expectedSubtree[1];
+            if (!drifted) {
+                continue;
+            }
+
+            int updated = structureRepository.repairPositionCounters(structureId,
+                    expected[0], expected[1], expectedSubtree[0], expectedSubtree[1],
+                    total, occupied, subtreeTotal, subtreeOccupied);
+            if (updated > 0) {
+                repaired++;
+            } else {
+                skipped++;
+            }
+        }
+
+        if (repaired > 0) {
+            countersChanged();
+        }
+        if (repaired > 0 || skipped > 0) {
+            log.warn("Compteurs de postes: {} structure(s) corrigée(s), {} modifiée(s) pendant la vérification",
+                    repaired, skipped);
+        }
+        log.info("Réconciliation des compteurs de postes: {} structures vérifiées en {} ms",
+                stored.size(), System.currentTimeMillis() - start);
+        return repaired;
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hrms.service;
 
+import com.hrms.concurrency.RetryOnConflict;
 import com.hrms.dto.*;
 import com.hrms.entity.AdministrativeStructure;
 import com.hrms.entity.Personnel;
@@ -37,6 +38,7 @@ public class PositionService {
     private final PersonnelRepository personnelRepository;
     private final PositionMapper positionMapper;
     private final AuditUtil auditUtil;
+    private final PositionOccupancyService positionOccupancyService;
 
     /**
      * Create new position
@@ -60,9 +62,7 @@ public class PositionService {
         position.setCreatedDate(LocalDate.now());
 
         Position saved = positionRepository.save(position);
-
-        // Update structure position statistics
-        updateStructureStatistics(structure.getId());
+        positionOccupancyService.positionAdded(saved);
 
         log.info("Position created successfully with ID: {}", saved.getId());
         return positionMapper.toDTO(saved);
@@ -84,17 +84,15 @@ public class PositionService {
             }
         }
 
+        AdministrativeStructure previousStructure = position.getStructure();
+        boolean wasOccupied = position.isOccupied();
+
         // Update structure if changed
         if (dto.getStructureId() != null && !dto.getStructureId().equals(position.getStructure().getId())) {
             AdministrativeStructure newStructure = structureRepository.findById(dto.getStructureId())
                     .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", dto.getStructureId()));
 
-            Long oldStructureId = position.getStructure().getId();
             position.setStructure(newStructure);
-
-            // Update both old and new structure statistics
-            updateStructureStatistics(oldStructureId);
-            updateStructureStatistics(newStructure.getId());
         }
 
         positionMapper.updateEntity(dto, position);
@@ -102,6 +100,7 @@ public class PositionService {
         position.setUpdatedDate(LocalDate.now());
 
         Position updated = positionRepository.save(position);
+        positionOccupancyService.positionChanged(previousStructure, wasOccupied, updated);
         log.info("Position updated successfully: {}", id);
 
         return positionMapper.toDTO(updated);
@@ -227,6 +226,7 @@ public class PositionService {
     /**
      * Assign personnel to position
      */
+    @RetryOnConflict
     public PositionDTO assignPersonnelToPosition(Long positionId, Long personnelId) {
         log.info("Assigning personnel {} to position {}", personnelId, positionId);
 
@@ -247,11 +247,14 @@ public class PositionService {
         // Release old position if exists
         if (personnel.getCurrentPosition() != null && !personnel.getOfficialCumul()) {
             Position oldPosition = personnel.getCurrentPosition();
+            boolean oldWasOccupied = oldPosition.isOccupied();
             oldPosition.releasePersonnel();
             positionRepository.save(oldPosition);
+            positionOccupancyService.occupancyChanged(oldPosition, oldWasOccupied);
         }
 
         // Assign to new position
+        boolean wasOccupied = position.isOccupied();
         position.assignPersonnel(personnel);
         personnel.setCurrentPosition(position);
         personnel.setServiceStartDate(LocalDate.now());
@@ -259,8 +262,7 @@ public class PositionService {
         positionRepository.save(position);
         personnelRepository.save(personnel);
 
-        // Update structure statistics
-        updateStructureStatistics(position.getStructure().getId());
+        positionOccupancyService.occupancyChanged(position, wasOccupied);
 
         log.info("Personnel assigned successfully to position");
         return positionMapper.toDTO(position);
@@ -269,6 +271,7 @@ public class PositionService {
     /**
      * Release personnel from position
      */
+    @RetryOnConflict
     public PositionDTO releasePersonnelFromPosition(Long positionId) {
         log.info("Releasing personnel from position {}", positionId);
 
@@ -280,14 +283,14 @@ public class PositionService {
         }
 
         Personnel personnel = position.getCurrentPersonnel();
+        boolean wasOccupied = position.isOccupied();
         position.releasePersonnel();
         personnel.setCurrentPosition(null);
 
         positionRepository.save(position);
         personnelRepository.save(personnel);
 
-        // Update structure statistics
-        updateStructureStatistics(position.getStructure().getId());
+        positionOccupancyService.occupancyChanged(position, wasOccupied);
 
         log.info("Personnel released successfully from position");
         return positionMapper.toDTO(position);
@@ -313,9 +316,7 @@ public class PositionService {
         position.setActive(false);
 
         positionRepository.save(position);
-
-        // Update structure statistics
-        updateStructureStatistics(position.getStructure().getId());
+        positionOccupancyService.positionRemoved(position);
 
         log.info("Position soft deleted successfully: {}", id);
     }
@@ -325,11 +326,7 @@ public class PositionService {
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getPositionStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-
-        stats.put("total", positionRepository.count());
-        stats.put("vacant", positionRepository.findVacantPositions().size());
-        stats.put("occupied", positionRepository.findOccupiedPositions().size());
+        Map<String, Object> stats = new HashMap<>(positionOccupancyService.getGlobalCounters());
 
         // By status
         Map<String, Long> byStatus = new HashMap<>();
@@ -340,18 +337,4 @@ public class PositionService {
 
         return stats;
     }
-
-    /**
-     * Update structure position statistics
-     */
-    private void updateStructureStatistics(Long structureId) {
-        long total = positionRepository.countByStructureId(structureId);
-        long occupied = positionRepository.countOccupiedByStructureId(structureId);
-
-        AdministrativeStructure structure = structureRepository.findById(structureId).orElse(null);
-        if (structure != null) {
-            structure.updatePositionStatistics((int) total, (int) occupied);
-            structureRepository.save(structure);
-        }
-    }
 }
@@ -11,9 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service pour gérer les modèles de postes et créer des postes à partir de ces modèles
@@ -27,6 +30,7 @@ public class PositionTemplateService {
     private final PositionTemplateRepository templateRepository;
     private final PositionRepository positionRepository;
     private final AuditUtil auditUtil;
+    private final PositionOccupancyService positionOccupancyService;
 
     /**
      * Create positions from templates for a structure
@@ -43,10 +47,7 @@ public class PositionTemplateService {
         log.info("Found {} applicable templates for structure type: {}",
                 templates.size(), structure.getType());
 
-        return templates.stream()
-                .filter(template -> shouldCreatePosition(template, structure))
-                .map(template -> createPositionFromTemplate(template, structure))
-                .collect(Collectors.toList());
+        return createPositions(List.of(structure), templates);
     }
 
     /**
@@ -55,13 +56,7 @@ public class PositionTemplateService {
     public List<Position> createAutoPositions(AdministrativeStructure structure) {
         log.info("Creating auto positions for structure: {}", structure.getName());
 
-        List<PositionTemplate> autoTemplates = templateRepository.findAutoCreateTemplates();
-
-        return autoTemplates.stream()
-                .filter(template -> template.isApplicableTo(structure.getType()))
-                .filter(template -> shouldCreatePosition(template, structure))
-                .map(template -> createPositionFromTemplate(template, structure))
-                .collect(Collectors.toList());
+        return createPositions(List.of(structure), templateRepository.findAutoCreateTemplates());
     }
 
     /**
@@ -93,29 +88,77 @@ public class PositionTemplateService {
     }
 
     /**
-     * Check if a position should be created from a template
+     * Bulk create positions for multiple structures
+     */
+    @Transactional
+    public void createPositionsForAllStructures(List<AdministrativeStructure> structures) {
+        log.info("Creating positions for {} structures", structures.size());
+        long start = System.currentTimeMillis();
+
+        List<Position> created = createPositions(structures, templateRepository.findAutoCreateTemplates());
+
+        log.info("Finished creating positions for all structures: {} positions in {} ms",
+                created.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Create the missing template positions of a set of structures.
+     * Existing codes are loaded once for all structures, codes are generated in memory
+     * and positions are saved together.
      */
-    private boolean shouldCreatePosition(PositionTemplate template, AdministrativeStructure structure) {
-        // Check if template is applicable to this structure type
-        if (!template.isApplicableTo(structure.getType())) {
-            return false;
+    private List<Position> createPositions(List<AdministrativeStructure> structures, List<PositionTemplate> templates) {
+        if (structures.isEmpty() || templates.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        // If it's unique per structure, check if it already exists
-        if (template.getIsUniquePerStructure()) {
-            String positionCode = generatePositionCode(template, structure);
-            return !positionRepository.existsByCode(positionCode);
+        // Existing codes (deleted included, codes stay unique) and active position count per structure
+        Map<Long, Set<String>> existingCodes = new HashMap<>();
+        Map<Long, Integer> positionCounts = new HashMap<>();
+        List<Long> structureIds = structures.stream().map(AdministrativeStructure::getId).toList();
+        for (Object[] row : positionRepository.findCodeRowsByStructureIdIn(structureIds)) {
+            Long structureId = (Long) row[0];
+            existingCodes.computeIfAbsent(structureId, id -> new HashSet<>()).add((String) row[1]);
+            if (!Boolean.TRUE.equals(row[2])) {
+                positionCounts.merge(structureId, 1, Integer::sum);
+            }
+        }
+
+        Map<AdministrativeStructure.StructureType, List<PositionTemplate>> templatesByType = new HashMap<>();
+        String currentUser = auditUtil.getCurrentUser();
+        List<Position> positions = new ArrayList<>();
+        for (AdministrativeStructure structure : structures) {
+            List<PositionTemplate> applicable = templatesByType.computeIfAbsent(structure.getType(),
+                    type -> templates.stream().filter(template -> template.isApplicableTo(type)).toList());
+            Set<String> codes = existingCodes.computeIfAbsent(structure.getId(), id -> new HashSet<>());
+
+            for (PositionTemplate template : applicable) {
+                // Format: STRUCTURE_CODE-TEMPLATE_CODE[-SEQ]
+                String positionCode = structure.getCode() + "-" + template.getCode();
+                if (Boolean.TRUE.equals(template.getIsUniquePerStructure())) {
+                    if (codes.contains(positionCode)) {
+                        continue;
+                    }
+                } else {
+                    int sequence = positionCounts.merge(structure.getId(), 1, Integer::sum);
+                    positionCode += "-" + String.format("%03d", sequence);
+                }
+                codes.add(positionCode);
+                positions.add(buildPosition(template, structure, positionCode, currentUser));
+            }
         }
 
-        return true;
+        List<Position> saved = positionRepository.saveAll(positions);
+        positionOccupancyService.positionsAdded(saved);
+        log.info("Created {} positions from {} templates for {} structures",
+                saved.size(), templates.size(), structures.size());
+        return saved;
     }
 
     /**
-     * Create a position from a template
+     * Build a vacant position from a template
      */
-    private Position createPositionFromTemplate(PositionTemplate template, AdministrativeStructure structure) {
-        String positionCode = generatePositionCode(template, structure);
-
+    private Position buildPosition(PositionTemplate template, AdministrativeStructure structure,
+                                   String positionCode, String currentUser) {
         Position position = Position.builder()
                 .code(positionCode)
                 .title(template.getTitle())
@@ -133,53 +176,8 @@ public class PositionTemplateService {
                 .active(true)
                 .build();
 
-        position.setCreatedBy(auditUtil.getCurrentUser());
-        position.setCreatedDate(LocalDate.now());
-
-        Position saved = positionRepository.save(position);
-        log.info("Created position: {} in structure: {}", saved.getTitle(), structure.getName());
-
-        return saved;
-    }
-
-    /**
-     * Generate a unique position code
-     */
-    private String generatePositionCode(PositionTemplate template, AdministrativeStructure structure) {
-        // Format: STRUCTURE_CODE-TEMPLATE_CODE-SEQ
-        String baseCode = structure.getCode() + "-" + template.getCode();
-
-        // If unique, no sequence needed
-        if (template.getIsUniquePerStructure()) {
-            return baseCode;
-        }
-
-        // Find next sequence number
-        long count = positionRepository.findByStructureId(
-                structure.getId(),
-                org.springframework.data.domain.Pageable.unpaged()
-        ).getTotalElements();
-
-        return baseCode + "-" + String.format("%03d", count + 1);
-    }
-
-    /**
-     * Bulk create positions for multiple structures
-     */
-    @Transactional
-    public void createPositionsForAllStructures(List<AdministrativeStructure> structures) {
-        log.info("Creating positions for {} structures", structures.size());
-
-        structures.forEach(structure -> {
-            try {
-                List<Position> created = createAutoPositions(structure);
-                log.info("Created {} positions for structure: {}", created.size(), structure.getName());
-            } catch (Exception e) {
-                log.error("Error creating positions for structure: {}", structure.getName(), e);
-            }
-        });
-
-        log.info("Finished creating positions for all structures");
+        position.setCreatedBy(currentUser);
+        return position;
     }
 
     /**
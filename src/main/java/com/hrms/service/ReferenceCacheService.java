@@ -0,0 +1,174 @@
+package com.hrms.service;
+
+import com.hrms.dto.ReferenceCacheRegionDTO;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.EntityChange;
+import com.hrms.events.EntityChangeSubscriber;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cache de second niveau des entités de référence (géographie, corps, grades, modèles)
+ *
+ * Les entités sont mises en cache par Hibernate (régions JCache déclarées dans ehcache.xml) ;
+ * leurs requêtes de recherche fréquentes sont dans la région de requêtes {@link #QUERY_REGION}.
+ * Le cache est local à chaque instance : un changement validé (reçu du bus des changements)
+ * vide les régions du type modifié sur cette instance, puis est diffusé aux autres instances
+ * sur le canal Redis {@link #CHANNEL}. Les clés du cache portent le tenant : l'éviction se fait
+ * donc par région entière, ce qui reste négligeable pour des données modifiées quelques fois par an.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceCacheService implements EntityChangeSubscriber {
+
+    public static final String CHANNEL = "hrms:reference-cache";
+
+    public static final String QUERY_REGION = "reference-queries";
+
+    private static final Set<String> REFERENCE_TYPES = Set.of(
+            "Region", "Department", "Arrondissement", "CorpsMetier",
+            "Grade", "PositionTemplate", "OrganizationalTemplate", "Organization");
+
+    private static final String SEPARATOR = "|";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    @Value("${hrms.reference-cache.cluster-invalidation:true}")
+    private boolean clusterInvalidation;
+
+    /** Identifiant de l'instance, pour ignorer ses propres diffusions */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return REFERENCE_TYPES;
+    }
+
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        Set<String> types = batch.getChanges().stream()
+                .map(EntityChange::getAggregateType)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        evictLocally(types);
+        broadcast(types);
+    }
+
+    /**
+     * Vide les régions des types indiqués (tous les types de référence si vide) sur toutes les
+     * instances ; utilisé après une modification hors application (script SQL, migration)
+     */
+    public Set<String> evict(Collection<String> types) {
+        Set<String> evicted = types == null || types.isEmpty()
+                ? REFERENCE_TYPES
+                : types.stream().filter(REFERENCE_TYPES::contains).collect(Collectors.toCollection(LinkedHashSet::new));
+        evictLocally(evicted);
+        broadcast(evicted);
+        return evicted;
+    }
+
+    /**
+     * Éviction demandée par une autre instance (message "instance|Type1,Type2")
+     */
+    public void onRemoteInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || instanceId.equals(message.substring(0, separator))) {
+            return;
+        }
+        Set<String> types = Arrays.stream(message.substring(separator + 1).split(","))
+                .filter(REFERENCE_TYPES::contains)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        evictLocally(types);
+    }
+
+    /**
+     * Statistiques des régions du cache de second niveau
+     */
+    public List<ReferenceCacheRegionDTO> regionStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<ReferenceCacheRegionDTO> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            regions.add(ReferenceCacheRegionDTO.builder()
+                    .region(region)
+                    .hitCount(hits)
+                    .missCount(misses)
+                    .putCount(regionStatistics.getPutCount())
+                    .elementCountInMemory(regionStatistics.getElementCountInMemory())
+                    .hitRatio(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                    .build());
+        }
+        return regions;
+    }
+
+    private void evictLocally(Set<String> types) {
+        if (types.isEmpty()) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        Cache cache = sessionFactory.getCache();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (types.contains(persister.getMappedClass().getSimpleName()) && persister.canReadFromCache()) {
+                cache.evictEntityData(persister.getEntityName());
+            }
+        });
+        // Collections en cache des entités de référence (ex. CorpsMetier.grades) : leur contenu
+        // dépend aussi des éléments, elles sont vidées à chaque changement
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(persister -> {
+            if (persister.hasCache() && isReference(persister)) {
+                cache.evictCollectionData(persister.getRole());
+            }
+        });
+        cache.evictQueryRegion(QUERY_REGION);
+        log.info("Cache de référence vidé pour {}", types);
+    }
+
+    private void broadcast(Set<String> types) {
+        if (!clusterInvalidation || types.isEmpty()) {
+            return;
+        }
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        try {
+            template.convertAndSend(CHANNEL, instanceId + SEPARATOR + String.join(",", types));
+        } catch (Exception e) {
+            // Les autres instances garderont leurs entrées jusqu'à expiration (TTL des régions)
+            log.warn("Diffusion de l'éviction du cache de référence impossible: {}", e.getMessage());
+        }
+    }
+
+    private boolean isReference(CollectionPersister persister) {
+        return REFERENCE_TYPES.contains(persister.getOwnerEntityPersister().getMappedClass().getSimpleName());
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
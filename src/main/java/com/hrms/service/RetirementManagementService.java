@@ -3,7 +3,11 @@ package com.hrms.service;
 import com.hrms.dto.RetirablePersonnelDTO;
 import com.hrms.dto.SeniorityDetailsDTO;
 import com.hrms.entity.Personnel;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.AdministrativeStructureRepository;
 import com.hrms.repository.PersonnelRepository;
+import com.hrms.util.NdjsonStreamer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,6 +23,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service de gestion des personnels retraitables
@@ -31,8 +36,10 @@ import java.util.stream.Collectors;
 public class RetirementManagementService {
 
     private final PersonnelRepository personnelRepository;
+    private final AdministrativeStructureRepository structureRepository;
     private final DateValidationService dateValidationService;
     private final SeniorityCalculationService seniorityCalculationService;
+    private final EntityManager entityManager;
 
     private static final int DEFAULT_RETIREMENT_AGE = 60;
 
@@ -55,6 +62,17 @@ public class RetirementManagementService {
         return result;
     }
 
+    /**
+     * Personnels retraitables en flux (réponse NDJSON), dans l'ordre des dates de départ :
+     * lus par curseur et détachés après conversion
+     */
+    public Stream<RetirablePersonnelDTO> streamRetirablePersonnel() {
+        log.info("Flux des personnels retraitables (âge >= 60 ans)");
+        LocalDate maxBirthDate = LocalDate.now().minusYears(DEFAULT_RETIREMENT_AGE);
+        return personnelRepository.streamBornOnOrBeforeByRetirementDate(maxBirthDate)
+            .map(NdjsonStreamer.detaching(entityManager, this::mapToRetirableDTO));
+    }
+
     /**
      * Obtient les personnels retraitables dans une année spécifique
      */
@@ -99,6 +117,36 @@ public class RetirementManagementService {
         return filtered;
     }
 
+    /**
+     * Obtient les personnels retraitables d'une structure et de toutes ses sous-structures
+     * (filtre sur le préfixe du chemin matérialisé de la structure)
+     */
+    public List<RetirablePersonnelDTO> getRetirablePersonnelBySubtreeAndYear(Long structureId, Integer year) {
+        log.info("Recherche des personnels retraitables - Sous-arbre de la structure: {}, Année: {}", structureId, year);
+
+        String path = structureRepository.findPathById(structureId)
+            .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", structureId));
+
+        List<Personnel> candidates;
+        if (year != null) {
+            LocalDate birthStart = LocalDate.of(year, 1, 1).minusYears(DEFAULT_RETIREMENT_AGE);
+            LocalDate birthEnd = LocalDate.of(year, 12, 31).minusYears(DEFAULT_RETIREMENT_AGE);
+            candidates = personnelRepository.findInStructureSubtreeBornBetween(path, birthStart, birthEnd);
+        } else {
+            LocalDate maxBirthDate = LocalDate.now().minusYears(DEFAULT_RETIREMENT_AGE);
+            candidates = personnelRepository.findInStructureSubtreeBornBefore(path, maxBirthDate);
+        }
+
+        List<RetirablePersonnelDTO> result = candidates.stream()
+            .map(this::mapToRetirableDTO)
+            .filter(dto -> year == null || dto.getRetirementDate().getYear() == year)
+            .sorted(Comparator.comparing(RetirablePersonnelDTO::getRetirementDate))
+            .toList();
+
+        log.info("Trouvé {} personnels retraitables sous la structure {}", result.size(), structureId);
+        return result;
+    }
+
     /**
      * Obtient les personnels qui seront retraitables dans les X prochaines années
      */
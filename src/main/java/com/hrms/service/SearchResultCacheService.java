@@ -0,0 +1,166 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.PersonnelSearchCriteriaDTO;
+import com.hrms.search.CachedSearchResult;
+import com.hrms.search.SearchCriteriaKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cache des résultats de la recherche avancée de personnels
+ *
+ * Un résultat (identifiants ordonnés ou simple total) est rangé sous une clé formée du tenant, du jour
+ * (critères relatifs à la date courante : âge, retraite, stage), des versions des données consultées
+ * ({@link DataVersionService}) et de l'empreinte des critères normalisés ({@link SearchCriteriaKey}).
+ * Un changement validé d'agent, de structure, de poste, de grade ou de corps change la clé : les
+ * anciennes entrées ne sont plus lues et expirent. Les entrées sont partagées entre instances dans
+ * Redis (hrms.search.result-cache.shared) et gardées dans un petit cache local LRU.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchResultCacheService {
+
+    private static final String KEY_PREFIX = "hrms:search:";
+    private static final String COUNT_SUFFIX = ":count";
+
+    /** Agrégats dont dépend le résultat d'une recherche avancée */
+    private static final List<String> SEARCH_AGGREGATES =
+            List.of("Personnel", "AdministrativeStructure", "Position", "Grade", "CorpsMetier");
+
+    private final DataVersionService dataVersionService;
+    private final WorkforceChangeTracker changeTracker;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    @Value("${hrms.search.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hrms.search.result-cache.shared:true}")
+    private boolean shared;
+
+    @Value("${hrms.search.result-cache.max-ids:20000}")
+    private int maxIds;
+
+    @Value("${hrms.search.result-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${hrms.search.result-cache.local-entries:200}")
+    private int localEntries;
+
+    private final Map<String, CachedSearchResult> local = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSearchResult> eldest) {
+            return size() > localEntries;
+        }
+    };
+
+    /**
+     * Nombre maximal d'identifiants conservés pour un résultat
+     */
+    public int maxIds() {
+        return maxIds;
+    }
+
+    /**
+     * Clé du résultat des critères dans le tenant courant, null si le cache est inutilisable
+     */
+    public String key(PersonnelSearchCriteriaDTO criteria) {
+        if (!enabled) {
+            return null;
+        }
+        String tenant = changeTracker.currentTenant();
+        try {
+            String versions = dataVersionService.versions(tenant, SEARCH_AGGREGATES).stream()
+                    .map(Long::toHexString)
+                    .collect(Collectors.joining("."));
+            return KEY_PREFIX + tenant + ":" + LocalDate.now() + ":" + versions + ":" + SearchCriteriaKey.digest(criteria);
+        } catch (Exception e) {
+            log.warn("Versions des données illisibles, recherche sans cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Résultat en cache (identifiants ou total), null si absent
+     */
+    public CachedSearchResult get(String key) {
+        return read(key);
+    }
+
+    /**
+     * Total en cache, depuis le résultat complet ou un comptage, null si absent
+     */
+    public Long getTotal(String key) {
+        CachedSearchResult result = read(key);
+        if (result == null) {
+            result = read(key + COUNT_SUFFIX);
+        }
+        return result != null ? result.getTotal() : null;
+    }
+
+    public void put(String key, CachedSearchResult result) {
+        write(key, result);
+    }
+
+    public void putTotal(String key, long total) {
+        write(key + COUNT_SUFFIX, CachedSearchResult.totalOnly(total));
+    }
+
+    private CachedSearchResult read(String key) {
+        synchronized (local) {
+            CachedSearchResult cached = local.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        StringRedisTemplate template = sharedTemplate();
+        if (template == null) {
+            return null;
+        }
+        try {
+            String encoded = template.opsForValue().get(key);
+            if (encoded == null) {
+                return null;
+            }
+            CachedSearchResult cached = CachedSearchResult.decode(encoded);
+            synchronized (local) {
+                local.put(key, cached);
+            }
+            return cached;
+        } catch (Exception e) {
+            log.warn("Lecture du cache de recherche impossible: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, CachedSearchResult result) {
+        synchronized (local) {
+            local.put(key, result);
+        }
+        StringRedisTemplate template = sharedTemplate();
+        if (template == null) {
+            return;
+        }
+        try {
+            template.opsForValue().set(key, result.encode(), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Écriture du cache de recherche impossible: {}", e.getMessage());
+        }
+    }
+
+    private StringRedisTemplate sharedTemplate() {
+        return shared ? redisTemplate.getIfAvailable() : null;
+    }
+}
@@ -0,0 +1,356 @@
+package com.hrms.service;
+
+import com.hrms.dto.TemplateInstantiationRequestDTO;
+import com.hrms.dto.TemplateInstantiationResultDTO;
+import com.hrms.dto.TemplateInstantiationResultDTO.StructureOutcomeDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.OrganizationalTemplate;
+import com.hrms.entity.Position;
+import com.hrms.exception.BusinessException;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.OrganizationalPositionTemplateRepository;
+import com.hrms.repository.OrganizationalTemplateRepository;
+import com.hrms.repository.PositionRepository;
+import com.hrms.template.TemplatePlan;
+import com.hrms.util.AuditUtil;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service d'instanciation en masse des templates organisationnels
+ *
+ * Le template est compilé une fois en {@link TemplatePlan}, puis appliqué à toutes les structures
+ * racines demandées (les ~360 sous-préfectures en un appel) : sous-structures et postes sont
+ * construits en mémoire puis enregistrés par lots, et les compteurs de postes sont mis à jour
+ * en une série d'incréments groupés. La resynchronisation compare en mémoire les structures
+ * existantes au template courant et n'écrit que les écarts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TemplateInstantiationService {
+
+    private final OrganizationalTemplateRepository templateRepository;
+    private final OrganizationalPositionTemplateRepository positionTemplateRepository;
+    private final AdministrativeStructureRepository structureRepository;
+    private final PositionRepository positionRepository;
+    private final PositionOccupancyService positionOccupancyService;
+    private final AuditUtil auditUtil;
+    private final EntityManager entityManager;
+
+    /**
+     * Instancie un template sur les structures demandées, ou sur toutes les structures
+     * du type concerné qui n'ont pas encore de template
+     */
+    public TemplateInstantiationResultDTO instantiate(String templateCode, TemplateInstantiationRequestDTO request) {
+        OrganizationalTemplate template = getTemplate(templateCode);
+        List<Long> structureIds = request != null ? request.getStructureIds() : null;
+
+        List<AdministrativeStructure> roots;
+        if (structureIds == null || structureIds.isEmpty()) {
+            roots = structureRepository.findNotInstantiatedByType(template.getAppliesTo());
+        } else {
+            roots = structureRepository.findAllById(structureIds);
+            if (roots.size() != new HashSet<>(structureIds).size()) {
+                Set<Long> found = new HashSet<>();
+                roots.forEach(root -> found.add(root.getId()));
+                Long missing = structureIds.stream().filter(id -> !found.contains(id)).findFirst().orElse(null);
+                throw new ResourceNotFoundException("Structure", "id", missing);
+            }
+        }
+        return instantiate(template, roots, request != null && Boolean.TRUE.equals(request.getDryRun()));
+    }
+
+    /**
+     * Instancie un template sur un ensemble de structures racines
+     */
+    public TemplateInstantiationResultDTO instantiate(OrganizationalTemplate template,
+                                                     List<AdministrativeStructure> roots, boolean dryRun) {
+        long start = System.currentTimeMillis();
+        TemplatePlan plan = compile(template);
+
+        List<Work> work = new ArrayList<>();
+        List<StructureOutcomeDTO> skipped = new ArrayList<>();
+        for (AdministrativeStructure root : roots) {
+            if (root.getType() != template.getAppliesTo()) {
+                skipped.add(skippedOutcome(root, "Le template " + template.getCode()
+                        + " ne s'applique pas aux structures de type " + root.getType()));
+            } else if (root.getOrganizationalTemplateId() != null) {
+                skipped.add(skippedOutcome(root, root.getOrganizationalTemplateId().equals(template.getId())
+                        ? "Template déjà instancié, utiliser la resynchronisation"
+                        : "Structure instanciée depuis un autre template"));
+            } else {
+                work.add(new Work(root, plan.diff(root, List.of(), List.of()), new HashMap<>()));
+            }
+        }
+
+        if (!dryRun && !work.isEmpty()) {
+            work.forEach(item -> item.root.setOrganizationalTemplateId(template.getId()));
+            structureRepository.saveAll(work.stream().map(item -> item.root).toList());
+            apply(plan, work);
+        }
+
+        TemplateInstantiationResultDTO result = summarize(plan, work, skipped, dryRun, "INSTANTIATED", start);
+        log.info("Template {} instancié sur {} structures ({} ignorées): {} sous-structures, {} postes en {} ms{}",
+                template.getCode(), work.size(), skipped.size(), result.getCreatedStructures(),
+                result.getCreatedPositions(), result.getDurationMs(), dryRun ? " (simulation)" : "");
+        return result;
+    }
+
+    /**
+     * Aligne les structures déjà instanciées sur la version courante du template :
+     * création des sous-structures et postes manquants, restauration des postes retirés puis revenus
+     * dans le template, mise à jour des attributs modifiés, retrait des postes vacants disparus du
+     * template (les postes occupés sont conservés et signalés)
+     */
+    public TemplateInstantiationResultDTO resync(String templateCode, TemplateInstantiationRequestDTO request) {
+        long start = System.currentTimeMillis();
+        OrganizationalTemplate template = getTemplate(templateCode);
+        TemplatePlan plan = compile(template);
+        boolean dryRun = request != null && Boolean.TRUE.equals(request.getDryRun());
+        List<Long> structureIds = request != null ? request.getStructureIds() : null;
+
+        // Structures et postes issus du template, chargés en deux requêtes puis regroupés par racine
+        List<AdministrativeStructure> linked = structureRepository.findByOrganizationalTemplateId(template.getId());
+        Map<Long, AdministrativeStructure> rootsById = new LinkedHashMap<>();
+        for (AdministrativeStructure structure : linked) {
+            if (structure.getSubStructureTemplateCode() == null
+                    && (structureIds == null || structureIds.isEmpty() || structureIds.contains(structure.getId()))) {
+                rootsById.put(structure.getId(), structure);
+            }
+        }
+
+        List<StructureOutcomeDTO> skipped = new ArrayList<>();
+        if (structureIds != null) {
+            structureIds.stream()
+                    .filter(id -> !rootsById.containsKey(id))
+                    .distinct()
+                    .forEach(id -> skipped.add(StructureOutcomeDTO.builder()
+                            .structureId(id)
+                            .status("SKIPPED")
+                            .message("Structure non instanciée depuis le template " + template.getCode())
+                            .build()));
+        }
+
+        Map<Long, Map<String, AdministrativeStructure>> subStructures = new HashMap<>();
+        for (AdministrativeStructure structure : linked) {
+            Long rootId = rootOf(structure.getPath(), rootsById);
+            if (structure.getSubStructureTemplateCode() != null && rootId != null) {
+                subStructures.computeIfAbsent(rootId, id -> new HashMap<>())
+                        .put(structure.getSubStructureTemplateCode(), structure);
+            }
+        }
+
+        Map<Long, List<Position>> positions = new HashMap<>();
+        for (Position position : positionRepository.findTemplatePositionsByOrganizationalTemplateId(template.getId())) {
+            Long rootId = rootOf(position.getStructure().getPath(), rootsById);
+            if (rootId != null) {
+                positions.computeIfAbsent(rootId, id -> new ArrayList<>()).add(position);
+            }
+        }
+
+        List<Work> work = new ArrayList<>();
+        for (AdministrativeStructure root : rootsById.values()) {
+            Map<String, AdministrativeStructure> existing = subStructures.getOrDefault(root.getId(), new HashMap<>());
+            TemplatePlan.Diff diff = plan.diff(root, existing.values(),
+                    positions.getOrDefault(root.getId(), List.of()));
+            work.add(new Work(root, diff, existing));
+        }
+
+        if (!dryRun) {
+            apply(plan, work);
+        }
+
+        TemplateInstantiationResultDTO result = summarize(plan, work, skipped, dryRun, "SYNCHRONIZED", start);
+        log.info("Template {} resynchronisé sur {} structures: {} sous-structures et {} postes créés, " +
+                        "{} restaurés, {} mis à jour, {} retirés, {} occupés conservés en {} ms{}",
+                template.getCode(), work.size(), result.getCreatedStructures(), result.getCreatedPositions(),
+                result.getRestoredPositions(), result.getUpdatedPositions(), result.getRetiredPositions(), result.getKeptOccupiedPositions(),
+                result.getDurationMs(), dryRun ? " (simulation)" : "");
+        return result;
+    }
+
+    /**
+     * Plan compilé d'un template (postes de template actifs)
+     */
+    @Transactional(readOnly = true)
+    public TemplatePlan compile(OrganizationalTemplate template) {
+        if (template.getAppliesTo() == null) {
+            throw new BusinessException("Le template " + template.getCode() + " n'indique pas le type de structure visé");
+        }
+        return TemplatePlan.compile(template, positionTemplateRepository.findByOrganizationalTemplateAndActiveTrue(template));
+    }
+
+    // ==================== APPLICATION ====================
+
+    private void apply(TemplatePlan plan, List<Work> work) {
+        // 1. Sous-structures manquantes, parents d'abord (le chemin est initialisé à l'insertion)
+        List<AdministrativeStructure> newStructures = new ArrayList<>();
+        for (Work item : work) {
+            for (TemplatePlan.StructureSpec spec : item.diff.getMissingStructures()) {
+                AdministrativeStructure parent = spec.getParentTemplateCode() != null
+                        ? item.structures.get(spec.getParentTemplateCode())
+                        : item.root;
+                AdministrativeStructure structure = plan.newStructure(spec, parent);
+                item.structures.put(spec.getTemplateCode(), structure);
+                newStructures.add(structure);
+            }
+        }
+        structureRepository.saveAll(newStructures);
+
+        // 2. Postes manquants
+        List<Position> created = new ArrayList<>();
+        for (Work item : work) {
+            for (TemplatePlan.PositionSpec spec : item.diff.getMissingPositions()) {
+                AdministrativeStructure structure = spec.getStructureTemplateCode() != null
+                        ? item.structures.get(spec.getStructureTemplateCode())
+                        : item.root;
+                created.add(plan.newPosition(spec, structure));
+            }
+        }
+        positionRepository.saveAll(created);
+
+        // 3. Postes retirés lors d'une resynchronisation précédente, revenus dans le template
+        List<Position> restored = new ArrayList<>();
+        for (Work item : work) {
+            for (TemplatePlan.PositionChange change : item.diff.getRestoredPositions()) {
+                Position position = change.getPosition();
+                change.getSpec().applyTo(position);
+                position.restore();
+                position.setActive(true);
+                restored.add(position);
+            }
+        }
+
+        // 4. Attributs modifiés dans le template
+        work.forEach(item -> item.diff.getChangedPositions()
+                .forEach(change -> change.getSpec().applyTo(change.getPosition())));
+
+        // 5. Postes vacants retirés du template
+        List<Position> retired = new ArrayList<>();
+        String currentUser = auditUtil.getCurrentUser();
+        for (Work item : work) {
+            for (Position position : item.diff.getObsoletePositions()) {
+                position.setDeleted(true);
+                position.setDeletedAt(LocalDateTime.now());
+                position.setDeletedBy(currentUser);
+                position.setActive(false);
+                retired.add(position);
+            }
+        }
+
+        entityManager.flush();
+
+        positionOccupancyService.positionsAdded(created);
+        positionOccupancyService.positionsAdded(restored);
+        positionOccupancyService.positionsRemoved(retired);
+    }
+
+    // ==================== UTILITAIRES ====================
+
+    private OrganizationalTemplate getTemplate(String templateCode) {
+        return templateRepository.findByCode(templateCode)
+                .orElseThrow(() -> new ResourceNotFoundException("OrganizationalTemplate", "code", templateCode));
+    }
+
+    /**
+     * Racine demandée dont relève une structure (premier ancêtre du chemin figurant parmi les racines)
+     */
+    private static Long rootOf(String path, Map<Long, AdministrativeStructure> rootsById) {
+        for (Long id : AdministrativeStructure.pathIds(path)) {
+            if (rootsById.containsKey(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private static StructureOutcomeDTO skippedOutcome(AdministrativeStructure root, String message) {
+        return StructureOutcomeDTO.builder()
+                .structureId(root.getId())
+                .structureCode(root.getCode())
+                .status("SKIPPED")
+                .message(message)
+                .build();
+    }
+
+    private static TemplateInstantiationResultDTO summarize(TemplatePlan plan, List<Work> work,
+                                                           List<StructureOutcomeDTO> skipped, boolean dryRun,
+                                                           String appliedStatus, long start) {
+        List<StructureOutcomeDTO> outcomes = new ArrayList<>();
+        int createdStructures = 0;
+        int createdPositions = 0;
+        int restoredPositions = 0;
+        int updatedPositions = 0;
+        int retiredPositions = 0;
+        int keptOccupied = 0;
+        for (Work item : work) {
+            TemplatePlan.Diff diff = item.diff;
+            createdStructures += diff.getMissingStructures().size();
+            createdPositions += diff.getMissingPositions().size();
+            restoredPositions += diff.getRestoredPositions().size();
+            updatedPositions += diff.getChangedPositions().size();
+            retiredPositions += diff.getObsoletePositions().size();
+            keptOccupied += diff.getObsoleteOccupiedPositions().size();
+
+            String status = diff.isEmpty() ? "UNCHANGED" : dryRun ? "PLANNED" : appliedStatus;
+            outcomes.add(StructureOutcomeDTO.builder()
+                    .structureId(item.root.getId())
+                    .structureCode(item.root.getCode())
+                    .status(status)
+                    .createdStructures(diff.getMissingStructures().size())
+                    .createdPositions(diff.getMissingPositions().size())
+                    .restoredPositions(diff.getRestoredPositions().size())
+                    .updatedPositions(diff.getChangedPositions().size())
+                    .retiredPositions(diff.getObsoletePositions().size())
+                    .keptOccupiedPositionCodes(diff.getObsoleteOccupiedPositions().stream().map(Position::getCode).toList())
+                    .build());
+        }
+        outcomes.addAll(skipped);
+
+        return TemplateInstantiationResultDTO.builder()
+                .templateCode(plan.getTemplateCode())
+                .dryRun(dryRun)
+                .plannedStructureCount(plan.getStructures().size())
+                .plannedPositionCount(plan.getPositions().size())
+                .structureCount(work.size())
+                .createdStructures(createdStructures)
+                .createdPositions(createdPositions)
+                .restoredPositions(restoredPositions)
+                .updatedPositions(updatedPositions)
+                .retiredPositions(retiredPositions)
+                .keptOccupiedPositions(keptOccupied)
+                .durationMs(System.currentTimeMillis() - start)
+                .structures(outcomes)
+                .build();
+    }
+
+    /**
+     * Structure racine à traiter : écarts avec le plan et sous-structures par code template
+     */
+    private static class Work {
+        private final AdministrativeStructure root;
+        private final TemplatePlan.Diff diff;
+        private final Map<String, AdministrativeStructure> structures;
+
+        Work(AdministrativeStructure root, TemplatePlan.Diff diff, Map<String, AdministrativeStructure> structures) {
+            this.root = root;
+            this.diff = diff;
+            this.structures = structures;
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class TrainerService {
     private final PersonnelRepository personnelRepository;
     private final TrainerMapper trainerMapper;
     private final AuditUtil auditUtil;
+    private final TrainingScheduleService scheduleService;
 
     public TrainerDTO createTrainer(TrainerCreateDTO dto) {
         log.info("Creating trainer with code: {}", dto.getCode());
@@ -131,9 +132,10 @@ public class TrainerService {
 
     @Transactional(readOnly = true)
     public boolean isTrainerAvailable(Long trainerId, LocalDate startDate, LocalDate endDate) {
-        Trainer trainer = trainerRepository.findById(trainerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Trainer", "id", trainerId));
-        return trainer.isAvailable(startDate, endDate);
+        if (!trainerRepository.existsById(trainerId)) {
+            throw new ResourceNotFoundException("Trainer", "id", trainerId);
+        }
+        return scheduleService.isTrainerAvailable(trainerId, startDate, endDate);
     }
 
     public void deleteTrainer(Long id) {
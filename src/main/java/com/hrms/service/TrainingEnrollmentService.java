@@ -1,6 +1,8 @@
 package com.hrms.service;
 
+import com.hrms.concurrency.RetryOnConflict;
 import com.hrms.dto.TrainingEnrollmentCreateDTO;
+import com.hrms.dto.TrainingGapAnalysisDTO;
 import com.hrms.dto.TrainingEnrollmentDTO;
 import com.hrms.dto.TrainingEnrollmentUpdateDTO;
 import com.hrms.entity.Personnel;
@@ -22,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -38,6 +41,7 @@ public class TrainingEnrollmentService {
     private final TrainingEnrollmentMapper enrollmentMapper;
     private final AuditUtil auditUtil;
     private final TrainingHistoryService trainingHistoryService;
+    private final TrainingNeedsService trainingNeedsService;
 
     public TrainingEnrollmentDTO createEnrollment(TrainingEnrollmentCreateDTO dto) {
         log.info("Creating enrollment for session {} and personnel {}", dto.getSessionId(), dto.getPersonnelId());
@@ -80,6 +84,7 @@ public class TrainingEnrollmentService {
         return enrollmentMapper.toDTO(saved);
     }
 
+    @RetryOnConflict
     public TrainingEnrollmentDTO approveEnrollment(Long id, String approver) {
         log.info("Approving enrollment ID: {}", id);
         TrainingEnrollment enrollment = enrollmentRepository.findById(id)
@@ -96,6 +101,7 @@ public class TrainingEnrollmentService {
         return enrollmentMapper.toDTO(enrollmentRepository.save(enrollment));
     }
 
+    @RetryOnConflict
     public TrainingEnrollmentDTO rejectEnrollment(Long id, String reason) {
         log.info("Rejecting enrollment ID: {}", id);
         TrainingEnrollment enrollment = enrollmentRepository.findById(id)
@@ -108,6 +114,7 @@ public class TrainingEnrollmentService {
         return enrollmentMapper.toDTO(enrollmentRepository.save(enrollment));
     }
 
+    @RetryOnConflict
     public TrainingEnrollmentDTO markAsAttended(Long id) {
         log.info("Marking enrollment ID: {} as attended", id);
         TrainingEnrollment enrollment = enrollmentRepository.findById(id)
@@ -132,6 +139,7 @@ public class TrainingEnrollmentService {
         return enrollmentMapper.toDTO(saved);
     }
 
+    @RetryOnConflict
     public TrainingEnrollmentDTO markAsAbsent(Long id) {
         log.info("Marking enrollment ID: {} as absent", id);
         TrainingEnrollment enrollment = enrollmentRepository.findById(id)
@@ -172,6 +180,48 @@ public class TrainingEnrollmentService {
         return enrollmentMapper.toDTO(enrollmentRepository.save(enrollment));
     }
 
+    /**
+     * Inscrit à une session les agents prioritaires de l'analyse des besoins de formation
+     * (sans formation récente dans le domaine), dans la limite des places disponibles
+     */
+    public List<TrainingEnrollmentDTO> enrollPriorityCandidates(Long sessionId, Integer count) {
+        TrainingSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("TrainingSession", "id", sessionId));
+
+        if (!session.isEnrollmentOpen() && session.getStatus() != TrainingSession.SessionStatus.OPEN) {
+            throw new BusinessException("Les inscriptions ne sont pas ouvertes pour cette session");
+        }
+        int available = session.getAvailableSlots();
+        if (available <= 0) {
+            throw new BusinessException("La session est complète");
+        }
+        int limit = count != null ? Math.min(count, available) : available;
+
+        TrainingGapAnalysisDTO analysis = trainingNeedsService.candidatesForSession(sessionId, limit);
+        List<Long> personnelIds = analysis.getCandidates().stream()
+                .map(TrainingGapAnalysisDTO.TrainingGapDTO::getPersonnelId)
+                .collect(Collectors.toList());
+        log.info("Inscription de {} agents prioritaires à la session {}", personnelIds.size(), sessionId);
+
+        String currentUser = auditUtil.getCurrentUser();
+        List<TrainingEnrollment> enrollments = new ArrayList<>(personnelIds.size());
+        for (Personnel personnel : personnelRepository.findAllById(personnelIds)) {
+            TrainingEnrollment enrollment = new TrainingEnrollment();
+            enrollment.setSession(session);
+            enrollment.setPersonnel(personnel);
+            enrollment.setStatus(TrainingEnrollment.EnrollmentStatus.PENDING);
+            enrollment.setEnrollmentDate(LocalDate.now());
+            enrollment.setNotes("Inscription proposée par l'analyse des besoins de formation");
+            enrollment.setCreatedBy(currentUser);
+            enrollment.setCreatedAt(java.time.LocalDateTime.now());
+            enrollments.add(enrollment);
+        }
+
+        return enrollmentRepository.saveAll(enrollments).stream()
+                .map(enrollmentMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public TrainingEnrollmentDTO getEnrollmentById(Long id) {
         TrainingEnrollment enrollment = enrollmentRepository.findById(id)
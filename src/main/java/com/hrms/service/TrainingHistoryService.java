@@ -7,6 +7,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Service de synchronisation entre TrainingEnrollment et ProfessionalTraining
  * Maintient la cohérence entre le système d'inscription aux formations
@@ -42,11 +48,58 @@ public class TrainingHistoryService {
         // Créer le ProfessionalTraining
         TrainingSession session = enrollment.getSession();
         Training training = session.getTraining();
+        ProfessionalTraining professionalTraining =
+            toProfessionalTraining(enrollment, session, getTrainerDescription(session));
+
+        professionalTrainingRepository.save(professionalTraining);
+
+        log.info("ProfessionalTraining créé pour le personnel {} - Formation: {}",
+            enrollment.getPersonnel().getMatricule() != null
+                ? enrollment.getPersonnel().getMatricule()
+                : "E.C.I",
+            training.getTitle());
+    }
 
-        ProfessionalTraining professionalTraining = ProfessionalTraining.builder()
+    /**
+     * Synchronise en une fois l'historique de tous les participants d'une session
+     * Une seule requête d'existence pour la session, insertions groupées (lots JDBC)
+     *
+     * @param session session chargée avec sa formation et ses formateurs
+     * @param attendees inscriptions ATTENDED, agents chargés
+     * @return nombre de ProfessionalTraining créés
+     */
+    public int synchronizeSession(TrainingSession session, List<TrainingEnrollment> attendees) {
+        if (attendees.isEmpty()) {
+            return 0;
+        }
+        Set<Long> personnelIds = attendees.stream()
+            .map(enrollment -> enrollment.getPersonnel().getId())
+            .collect(Collectors.toSet());
+        Set<Long> alreadySynchronized = new HashSet<>(
+            professionalTrainingRepository.findPersonnelIdsWithTrainingOn(
+                personnelIds, session.getStartDate(), session.getEndDate()));
+
+        String trainerDescription = getTrainerDescription(session);
+        List<ProfessionalTraining> trainings = new ArrayList<>();
+        for (TrainingEnrollment enrollment : attendees) {
+            if (alreadySynchronized.add(enrollment.getPersonnel().getId())) {
+                trainings.add(toProfessionalTraining(enrollment, session, trainerDescription));
+            }
+        }
+        professionalTrainingRepository.saveAll(trainings);
+
+        log.info("Historique synchronisé pour la session {}: {} formations créées, {} déjà présentes",
+            session.getCode(), trainings.size(), attendees.size() - trainings.size());
+        return trainings.size();
+    }
+
+    private ProfessionalTraining toProfessionalTraining(TrainingEnrollment enrollment, TrainingSession session,
+                                                        String trainerDescription) {
+        Training training = session.getTraining();
+        return ProfessionalTraining.builder()
             .personnel(enrollment.getPersonnel())
             .trainingField(training.getTrainingField())
-            .trainer(getTrainerDescription(session))
+            .trainer(trainerDescription)
             .startDate(session.getStartDate())
             .endDate(session.getEndDate())
             .trainingLocation(session.getLocation())
@@ -62,14 +115,6 @@ public class TrainingHistoryService {
                 enrollment.getScore() != null ? enrollment.getScore() : 0,
                 enrollment.getAttendanceRate() != null ? enrollment.getAttendanceRate() : 0.0))
             .build();
-
-        professionalTrainingRepository.save(professionalTraining);
-
-        log.info("ProfessionalTraining créé pour le personnel {} - Formation: {}",
-            enrollment.getPersonnel().getMatricule() != null
-                ? enrollment.getPersonnel().getMatricule()
-                : "E.C.I",
-            training.getTitle());
     }
 
     /**
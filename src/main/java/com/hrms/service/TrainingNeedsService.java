@@ -0,0 +1,265 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.TrainingGapAnalysisDTO;
+import com.hrms.dto.TrainingGapQueryDTO;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.ProfessionalTraining;
+import com.hrms.entity.TrainingEnrollment;
+import com.hrms.entity.TrainingSession;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.exception.ResourceNotFoundException;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.ProfessionalTrainingRepository;
+import com.hrms.repository.TrainingEnrollmentRepository;
+import com.hrms.repository.TrainingSessionRepository;
+import com.hrms.trainingneeds.AgentProfile;
+import com.hrms.trainingneeds.GapQuery;
+import com.hrms.trainingneeds.TrainingGap;
+import com.hrms.trainingneeds.TrainingHistoryIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service d'analyse des besoins de formation
+ *
+ * S'appuie sur un {@link TrainingHistoryIndex} par tenant (dernière formation par agent et par
+ * domaine, historique professionnel et sessions suivies confondus), reconstruit lorsqu'il dépasse
+ * hrms.training-needs.index-ttl-ms ou lorsqu'une présence ou une formation validée l'invalide
+ * (bus des changements, après commit).
+ * Les analyses de cohorte sont évaluées en mémoire en un seul parcours des agents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TrainingNeedsService implements EntityChangeSubscriber {
+
+    private static final String ENROLLMENT_AGGREGATE = TrainingEnrollment.class.getSimpleName();
+    private static final String TRAINING_AGGREGATE = ProfessionalTraining.class.getSimpleName();
+
+    private final PersonnelRepository personnelRepository;
+    private final ProfessionalTrainingRepository professionalTrainingRepository;
+    private final TrainingEnrollmentRepository enrollmentRepository;
+    private final TrainingSessionRepository sessionRepository;
+    private final AdministrativeStructureRepository structureRepository;
+    private final WorkforceChangeTracker changeTracker;
+
+    @Value("${hrms.training-needs.index-ttl-ms:300000}")
+    private long indexTtlMs;
+
+    @Value("${hrms.training-needs.recency-years:3}")
+    private int defaultRecencyYears;
+
+    @Value("${hrms.training-needs.default-limit:50}")
+    private int defaultLimit;
+
+    private final Map<String, CachedIndex> indexes = new ConcurrentHashMap<>();
+    // Incrémentée à chaque invalidation : un index construit pendant un changement n'est pas conservé
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Agents d'une cohorte sans formation récente dans un domaine, les plus prioritaires d'abord
+     */
+    public TrainingGapAnalysisDTO analyze(TrainingGapQueryDTO request) {
+        String path = null;
+        if (request.getStructureId() != null) {
+            path = structureRepository.findPathById(request.getStructureId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Structure", "id", request.getStructureId()));
+        }
+        int recencyYears = request.getRecencyYears() != null ? request.getRecencyYears() : defaultRecencyYears;
+        GapQuery query = GapQuery.builder()
+                .structurePath(path)
+                .grades(keys(request.getGrades()))
+                .corps(keys(request.getCorps()))
+                .categories(keys(request.getCategories()))
+                .field(request.getTrainingField())
+                .trainedSince(LocalDate.now().minusYears(recencyYears))
+                .asOf(LocalDate.now())
+                .limit(request.getLimit() != null ? request.getLimit() : defaultLimit)
+                .build();
+        return run(query, recencyYears);
+    }
+
+    /**
+     * Agents prioritaires pour une session : sans formation récente dans le domaine de la
+     * formation, non encore inscrits ; par défaut autant que de places disponibles
+     */
+    public TrainingGapAnalysisDTO candidatesForSession(Long sessionId, Integer limit) {
+        TrainingSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("TrainingSession", "id", sessionId));
+
+        int available = Math.max(session.getAvailableSlots(), 0);
+        GapQuery query = GapQuery.builder()
+                .field(session.getTraining().getTrainingField())
+                .trainedSince(LocalDate.now().minusYears(defaultRecencyYears))
+                .asOf(LocalDate.now())
+                .excludedPersonnelIds(new HashSet<>(enrollmentRepository.findPersonnelIdsBySessionId(sessionId)))
+                .limit(limit != null ? limit : available)
+                .build();
+        return run(query, defaultRecencyYears);
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return Set.of(ENROLLMENT_AGGREGATE, TRAINING_AGGREGATE);
+    }
+
+    /**
+     * Présences pointées et formations enregistrées (validées) : index du tenant reconstruit à la prochaine analyse
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        if (batch.getChanges().stream().anyMatch(TrainingNeedsService::affectsHistory)) {
+            String tenant = batch.getTenant();
+            generationFor(tenant).incrementAndGet();
+            indexes.remove(tenant);
+        }
+    }
+
+    /**
+     * Une inscription ne compte dans l'historique que par son statut (présence)
+     */
+    private static boolean affectsHistory(EntityChange change) {
+        if (!ENROLLMENT_AGGREGATE.equals(change.getAggregateType()) || change.getChangeType() != ChangeType.UPDATED) {
+            return true;
+        }
+        Set<String> changed = change.getChangedProperties();
+        return changed.isEmpty() || changed.contains("status") || changed.contains("deleted");
+    }
+
+    private TrainingGapAnalysisDTO run(GapQuery query, int recencyYears) {
+        long start = System.currentTimeMillis();
+        TrainingHistoryIndex.GapResult result = currentIndex().gaps(query);
+        long duration = System.currentTimeMillis() - start;
+        log.info("Analyse des besoins de formation (domaine {}): {} agents en écart sur {} en {} ms",
+                query.getField(), result.getGapCount(), result.getCohortSize(), duration);
+
+        List<TrainingGapAnalysisDTO.TrainingGapDTO> candidates = new ArrayList<>(result.getGaps().size());
+        for (TrainingGap gap : result.getGaps()) {
+            candidates.add(toDTO(gap, candidates.size() + 1));
+        }
+        return TrainingGapAnalysisDTO.builder()
+                .trainingField(query.getField())
+                .recencyYears(recencyYears)
+                .trainedSince(query.getTrainedSince())
+                .cohortSize(result.getCohortSize())
+                .gapCount(result.getGapCount())
+                .neverTrainedCount(result.getNeverTrainedCount())
+                .gapRate(result.getCohortSize() == 0 ? 0.0
+                        : Math.round(result.getGapCount() * 1000.0 / result.getCohortSize()) / 10.0)
+                .durationMs(duration)
+                .candidates(candidates)
+                .build();
+    }
+
+    private TrainingGapAnalysisDTO.TrainingGapDTO toDTO(TrainingGap gap, int priority) {
+        AgentProfile agent = gap.getAgent();
+        return TrainingGapAnalysisDTO.TrainingGapDTO.builder()
+                .personnelId(agent.getPersonnelId())
+                .matricule(agent.getMatricule())
+                .fullName(agent.getFullName().trim())
+                .structureId(agent.getStructureId())
+                .grade(agent.getGradeName())
+                .corps(agent.getCorpsName())
+                .lastTrainingDate(gap.getLastTrainingDate())
+                .daysWithoutTraining(gap.getDaysWithoutTraining())
+                .neverTrained(gap.isNeverTrained())
+                .priority(priority)
+                .build();
+    }
+
+    private static Set<String> keys(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream()
+                .map(TrainingHistoryIndex::normalize)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    // ==================== INDEX ====================
+
+    private TrainingHistoryIndex currentIndex() {
+        String tenant = changeTracker.currentTenant();
+        CachedIndex cached = indexes.get(tenant);
+        if (cached == null || System.currentTimeMillis() - cached.builtAt > indexTtlMs) {
+            long generation = generationFor(tenant).get();
+            CachedIndex built = new CachedIndex(buildIndex(), System.currentTimeMillis());
+            // Installé seulement si aucun changement n'est arrivé pendant la lecture ; sinon servi à
+            // cette seule analyse, la suivante relit l'historique
+            indexes.compute(tenant, (key, current) ->
+                    generationFor(key).get() == generation ? built : current);
+            cached = built;
+        }
+        return cached.index;
+    }
+
+    private AtomicLong generationFor(String tenant) {
+        return generations.computeIfAbsent(tenant, key -> new AtomicLong());
+    }
+
+    private TrainingHistoryIndex buildIndex() {
+        long start = System.currentTimeMillis();
+
+        List<AgentProfile> agents = personnelRepository.findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE).stream()
+                .map(row -> AgentProfile.builder()
+                        .personnelId((Long) row[0])
+                        .matricule((String) row[1])
+                        .fullName(row[2] + " " + (row[3] != null ? row[3] : ""))
+                        .gradeCode(TrainingHistoryIndex.normalize((String) row[4]))
+                        .gradeName(TrainingHistoryIndex.normalize((String) row[5]))
+                        .gradeCategory(TrainingHistoryIndex.normalize((String) row[6]))
+                        .corpsCode(TrainingHistoryIndex.normalize((String) row[7]))
+                        .corpsName(TrainingHistoryIndex.normalize((String) row[8]))
+                        .structureId((Long) row[9])
+                        .structurePath((String) row[10])
+                        .hireDate((LocalDate) row[11])
+                        .build())
+                .toList();
+
+        TrainingHistoryIndex index = new TrainingHistoryIndex(agents);
+        int records = 0;
+        for (Object[] row : professionalTrainingRepository.findLastTrainingRows()) {
+            index.record((Long) row[0], (String) row[1], (LocalDate) row[2]);
+            records++;
+        }
+        for (Object[] row : enrollmentRepository.findLastAttendanceRows()) {
+            index.record((Long) row[0], (String) row[1], (LocalDate) row[2]);
+            records++;
+        }
+
+        log.info("Index des besoins de formation construit: {} agents, {} domaines, {} formations en {} ms",
+                index.agentCount(), index.fieldCount(), records, System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private static class CachedIndex {
+        private final TrainingHistoryIndex index;
+        private final long builtAt;
+
+        CachedIndex(TrainingHistoryIndex index, long builtAt) {
+            this.index = index;
+            this.builtAt = builtAt;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.hrms.service;
+
+import com.hrms.dto.TrainingPlanValidationRequestDTO;
+import com.hrms.dto.TrainingPlanValidationResultDTO;
+import com.hrms.entity.Trainer;
+import com.hrms.entity.TrainingSession;
+import com.hrms.exception.BusinessException;
+import com.hrms.repository.TrainerRepository;
+import com.hrms.repository.TrainingSessionRepository;
+import com.hrms.scheduling.ScheduleConflict;
+import com.hrms.scheduling.SessionSchedule;
+import com.hrms.scheduling.SessionSlot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service de détection des conflits de planification des sessions de formation.
+ *
+ * Un formateur (principal ou co-formateur) et un lieu ne peuvent être mobilisés par deux sessions
+ * qui se chevauchent. Pour une session isolée, la recherche des chevauchements est une requête par
+ * plage indexée ; pour un plan entier, les sessions de la période sont chargées une fois et
+ * indexées en mémoire par ressource (arbres d'intervalles).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TrainingScheduleService {
+
+    /**
+     * Statuts qui libèrent formateurs et lieu
+     */
+    private static final Set<TrainingSession.SessionStatus> RELEASED_STATUSES =
+            EnumSet.of(TrainingSession.SessionStatus.CANCELLED, TrainingSession.SessionStatus.POSTPONED);
+
+    private final TrainingSessionRepository sessionRepository;
+    private final TrainerRepository trainerRepository;
+
+    /**
+     * Vérifie qu'une session ne chevauche aucune autre session de ses formateurs ou de son lieu
+     *
+     * @throws BusinessException listant les conflits détectés
+     */
+    public void checkSession(TrainingSession session) {
+        if (session.getStatus() != null && RELEASED_STATUSES.contains(session.getStatus())) {
+            return;
+        }
+        List<ScheduleConflict> conflicts = findConflicts(toSlot(session));
+        if (!conflicts.isEmpty()) {
+            log.info("Conflits de planification pour la session {} : {}", session.getCode(), conflicts.size());
+            throw new BusinessException("Conflit de planification : " + conflicts.stream()
+                    .map(ScheduleConflict::describe)
+                    .collect(Collectors.joining(" ; ")));
+        }
+    }
+
+    /**
+     * Conflits d'un créneau avec les sessions programmées
+     */
+    public List<ScheduleConflict> findConflicts(SessionSlot slot) {
+        Set<Long> trainerIds = slot.trainerIds();
+        if (trainerIds.isEmpty() && slot.locationKey() == null) {
+            return Collections.emptyList();
+        }
+        List<TrainingSession> overlapping = sessionRepository.findScheduleOverlaps(
+                trainerIds.isEmpty() ? Set.of(-1L) : trainerIds,
+                slot.locationKey(),
+                slot.getStartDate(),
+                slot.getEndDate(),
+                slot.getSessionId(),
+                RELEASED_STATUSES);
+        if (overlapping.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new SessionSchedule(toSlots(overlapping)).conflicts(slot);
+    }
+
+    /**
+     * Disponibilité d'un formateur sur une période (sessions comme formateur principal ou co-formateur)
+     */
+    public boolean isTrainerAvailable(Long trainerId, LocalDate startDate, LocalDate endDate) {
+        return findConflicts(SessionSlot.builder()
+                .reference("disponibilite")
+                .trainerId(trainerId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build()).isEmpty();
+    }
+
+    /**
+     * Valide un plan annuel de sessions : chevauchements avec les sessions déjà programmées et
+     * entre sessions du plan
+     */
+    public TrainingPlanValidationResultDTO validatePlan(TrainingPlanValidationRequestDTO request) {
+        long start = System.currentTimeMillis();
+        List<TrainingPlanValidationRequestDTO.PlannedSessionDTO> planned = request.getSessions();
+        log.info("Validation d'un plan de {} sessions de formation", planned.size());
+
+        List<SessionSlot> candidates = new ArrayList<>(planned.size());
+        for (int i = 0; i < planned.size(); i++) {
+            candidates.add(toSlot(planned.get(i), i));
+        }
+        Set<Long> knownTrainers = trainerRepository.findAllById(candidates.stream()
+                        .flatMap(slot -> slot.trainerIds().stream())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .map(Trainer::getId)
+                .collect(Collectors.toSet());
+
+        List<TrainingPlanValidationResultDTO.InvalidSessionDTO> invalidSessions = new ArrayList<>();
+        List<SessionSlot> slots = new ArrayList<>();
+        Set<Long> movedSessions = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (SessionSlot slot : candidates) {
+            String error = validateSlot(slot, knownTrainers, movedSessions);
+            if (error != null) {
+                invalidSessions.add(TrainingPlanValidationResultDTO.InvalidSessionDTO.builder()
+                        .reference(slot.getReference())
+                        .message(error)
+                        .build());
+                continue;
+            }
+            slots.add(slot);
+            from = from == null || slot.getStartDate().isBefore(from) ? slot.getStartDate() : from;
+            to = to == null || slot.getEndDate().isAfter(to) ? slot.getEndDate() : to;
+        }
+
+        List<SessionSlot> scheduled = from == null
+                ? Collections.emptyList()
+                : toSlots(sessionRepository.findScheduledBetween(from, to, RELEASED_STATUSES));
+        List<List<ScheduleConflict>> conflictsBySlot = SessionSchedule.validate(scheduled, slots);
+
+        Map<SessionSlot, Boolean> plannedSlots = new IdentityHashMap<>();
+        slots.forEach(slot -> plannedSlots.put(slot, Boolean.TRUE));
+        List<TrainingPlanValidationResultDTO.SessionConflictDTO> conflicts = new ArrayList<>();
+        int conflictingSessions = 0;
+        for (List<ScheduleConflict> slotConflicts : conflictsBySlot) {
+            if (!slotConflicts.isEmpty()) {
+                conflictingSessions++;
+            }
+            for (ScheduleConflict conflict : slotConflicts) {
+                conflicts.add(toConflictDTO(conflict, plannedSlots.containsKey(conflict.getConflictingSlot())));
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Plan de formation validé en {} ms : {} sessions en conflit, {} invalides",
+                duration, conflictingSessions, invalidSessions.size());
+
+        return TrainingPlanValidationResultDTO.builder()
+                .sessionCount(planned.size())
+                .conflictingSessionCount(conflictingSessions)
+                .invalidSessionCount(invalidSessions.size())
+                .conflictCount(conflicts.size())
+                .valid(conflicts.isEmpty() && invalidSessions.isEmpty())
+                .scheduledSessionCount(scheduled.size())
+                .durationMs(duration)
+                .conflicts(conflicts)
+                .invalidSessions(invalidSessions)
+                .build();
+    }
+
+    private String validateSlot(SessionSlot slot, Set<Long> knownTrainers, Set<Long> movedSessions) {
+        if (slot.getStartDate() == null || slot.getEndDate() == null) {
+            return "Les dates de début et de fin sont obligatoires";
+        }
+        if (slot.getEndDate().isBefore(slot.getStartDate())) {
+            return "La date de fin doit être après la date de début";
+        }
+        if (slot.getTrainerId() == null) {
+            return "Le formateur est obligatoire";
+        }
+        for (Long trainerId : slot.trainerIds()) {
+            if (!knownTrainers.contains(trainerId)) {
+                return "Formateur introuvable : " + trainerId;
+            }
+        }
+        if (slot.getSessionId() != null && !movedSessions.add(slot.getSessionId())) {
+            return "Session " + slot.getSessionId() + " présente plusieurs fois dans le plan";
+        }
+        return null;
+    }
+
+    private TrainingPlanValidationResultDTO.SessionConflictDTO toConflictDTO(ScheduleConflict conflict, boolean planned) {
+        return TrainingPlanValidationResultDTO.SessionConflictDTO.builder()
+                .reference(conflict.getSlot().getReference())
+                .resource(conflict.getResource().name())
+                .trainerId(conflict.getTrainerId())
+                .location(conflict.getLocation())
+                .conflictingReference(conflict.getConflictingSlot().getReference())
+                .conflictingSessionId(conflict.getConflictingSlot().getSessionId())
+                .conflictingPlanned(planned)
+                .overlapStart(conflict.getOverlapStart())
+                .overlapEnd(conflict.getOverlapEnd())
+                .message(conflict.describe())
+                .build();
+    }
+
+    private SessionSlot toSlot(TrainingPlanValidationRequestDTO.PlannedSessionDTO session, int position) {
+        String reference = session.getReference() != null ? session.getReference()
+                : session.getSessionId() != null ? "session-" + session.getSessionId()
+                : "plan-" + (position + 1);
+        return SessionSlot.builder()
+                .reference(reference)
+                .sessionId(session.getSessionId())
+                .trainerId(session.getTrainerId())
+                .coTrainerIds(session.getCoTrainerIds())
+                .location(session.getLocation())
+                .startDate(session.getStartDate())
+                .endDate(session.getEndDate())
+                .build();
+    }
+
+    private SessionSlot toSlot(TrainingSession session) {
+        return SessionSlot.builder()
+                .reference(session.getCode())
+                .sessionId(session.getId())
+                .trainerId(session.getTrainer() != null ? session.getTrainer().getId() : null)
+                .coTrainerIds(session.getCoTrainers() == null ? Collections.emptyList()
+                        : session.getCoTrainers().stream().map(Trainer::getId).collect(Collectors.toList()))
+                .location(session.getLocation())
+                .startDate(session.getStartDate())
+                .endDate(session.getEndDate())
+                .build();
+    }
+
+    private List<SessionSlot> toSlots(List<TrainingSession> sessions) {
+        Map<Long, SessionSlot> slots = new HashMap<>();
+        for (TrainingSession session : sessions) {
+            slots.putIfAbsent(session.getId(), toSlot(session));
+        }
+        return new ArrayList<>(slots.values());
+    }
+}
@@ -1,5 +1,8 @@
 package com.hrms.service;
 
+import com.hrms.concurrency.RetryOnConflict;
+import com.hrms.dto.SessionCompletionRequestDTO;
+import com.hrms.dto.SessionCompletionResultDTO;
 import com.hrms.dto.TrainingSessionCreateDTO;
 import com.hrms.dto.TrainingSessionDTO;
 import com.hrms.dto.TrainingSessionUpdateDTO;
@@ -18,9 +21,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,14 +38,21 @@ import java.util.stream.Collectors;
 @Transactional
 public class TrainingSessionService {
 
+    private static final Set<TrainingEnrollment.EnrollmentStatus> CLOSABLE_STATUSES = EnumSet.of(
+            TrainingEnrollment.EnrollmentStatus.APPROVED,
+            TrainingEnrollment.EnrollmentStatus.ATTENDED,
+            TrainingEnrollment.EnrollmentStatus.ABSENT);
+
     private final TrainingSessionRepository sessionRepository;
+    private final TrainingEnrollmentRepository enrollmentRepository;
     private final TrainingRepository trainingRepository;
     private final TrainerRepository trainerRepository;
     private final AdministrativeStructureRepository structureRepository;
     private final TrainingCostRepository costRepository;
     private final TrainingSessionMapper sessionMapper;
-    private final ProfessionalTrainingRepository professionalTrainingRepository;
     private final AuditUtil auditUtil;
+    private final TrainingScheduleService scheduleService;
+    private final TrainingHistoryService trainingHistoryService;
 
     public TrainingSessionDTO createSession(TrainingSessionCreateDTO dto) {
         log.info("Creating training session with code: {}", dto.getCode());
@@ -58,11 +74,6 @@ public class TrainingSessionService {
         Trainer trainer = trainerRepository.findById(dto.getTrainerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Trainer", "id", dto.getTrainerId()));
 
-        // Check trainer availability
-        if (!trainer.isAvailable(dto.getStartDate(), dto.getEndDate())) {
-            throw new BusinessException("Le formateur n'est pas disponible pour cette période");
-        }
-
         AdministrativeStructure organizingStructure = null;
         if (dto.getOrganizingStructureId() != null) {
             organizingStructure = structureRepository.findById(dto.getOrganizingStructureId())
@@ -87,6 +98,9 @@ public class TrainingSessionService {
         session.setCreatedBy(auditUtil.getCurrentUser());
         session.setCreatedAt(java.time.LocalDateTime.now());
 
+        // Formateurs, co-formateurs et lieu ne doivent pas être déjà mobilisés sur la période
+        scheduleService.checkSession(session);
+
         TrainingSession saved = sessionRepository.save(session);
         log.info("Training session created with ID: {}", saved.getId());
 
@@ -134,6 +148,11 @@ public class TrainingSessionService {
         }
 
         sessionMapper.updateEntity(dto, session);
+        if (session.getEndDate().isBefore(session.getStartDate())) {
+            throw new BusinessException("La date de fin doit être après la date de début");
+        }
+        scheduleService.checkSession(session);
+
         session.setUpdatedBy(auditUtil.getCurrentUser());
         session.setUpdatedAt(java.time.LocalDateTime.now());
 
@@ -187,6 +206,7 @@ public class TrainingSessionService {
                 .collect(Collectors.toList());
     }
 
+    @RetryOnConflict
     public TrainingSessionDTO openEnrollments(Long id) {
         log.info("Opening enrollments for session ID: {}", id);
         TrainingSession session = sessionRepository.findById(id)
@@ -199,6 +219,7 @@ public class TrainingSessionService {
         return sessionMapper.toDTO(sessionRepository.save(session));
     }
 
+    @RetryOnConflict
     public TrainingSessionDTO startSession(Long id) {
         log.info("Starting session ID: {}", id);
         TrainingSession session = sessionRepository.findById(id)
@@ -215,9 +236,10 @@ public class TrainingSessionService {
         return sessionMapper.toDTO(sessionRepository.save(session));
     }
 
+    @RetryOnConflict
     public TrainingSessionDTO completeSession(Long id) {
         log.info("Completing session ID: {}", id);
-        TrainingSession session = sessionRepository.findById(id)
+        TrainingSession session = sessionRepository.findForCompletion(id)
                 .orElseThrow(() -> new ResourceNotFoundException("TrainingSession", "id", id));
 
         session.setStatus(TrainingSession.SessionStatus.COMPLETED);
@@ -227,11 +249,129 @@ public class TrainingSessionService {
         TrainingSession saved = sessionRepository.save(session);
 
         // Synchronize with ProfessionalTraining
-        synchronizeWithProfessionalTraining(saved);
+        List<TrainingEnrollment> attendees = enrollmentRepository.findBySessionIdWithPersonnel(id).stream()
+                .filter(e -> e.getStatus() == TrainingEnrollment.EnrollmentStatus.ATTENDED)
+                .collect(Collectors.toList());
+        trainingHistoryService.synchronizeSession(saved, attendees);
 
         return sessionMapper.toDTO(saved);
     }
 
+    /**
+     * Close a session in one transaction: attendance, certificates and history for all enrollments.
+     * Enrollments are loaded once with their personnel, history existence is checked with a
+     * single query and the new ProfessionalTraining rows are inserted in JDBC batches.
+     */
+    @RetryOnConflict
+    public SessionCompletionResultDTO closeSession(Long id, SessionCompletionRequestDTO request) {
+        long start = System.currentTimeMillis();
+        SessionCompletionRequestDTO options = request != null ? request : new SessionCompletionRequestDTO();
+        log.info("Closing session ID: {}", id);
+
+        TrainingSession session = sessionRepository.findForCompletion(id)
+                .orElseThrow(() -> new ResourceNotFoundException("TrainingSession", "id", id));
+        if (session.getStatus() == TrainingSession.SessionStatus.CANCELLED) {
+            throw new BusinessException("Impossible de clôturer une session annulée");
+        }
+
+        List<TrainingEnrollment> enrollments = enrollmentRepository.findBySessionIdWithPersonnel(id);
+        Map<Long, TrainingEnrollment> byId = new HashMap<>();
+        enrollments.forEach(enrollment -> byId.put(enrollment.getId(), enrollment));
+
+        String currentUser = auditUtil.getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Explicit attendance first, then approved enrollments left unmarked
+        Set<Long> marked = new HashSet<>();
+        for (SessionCompletionRequestDTO.AttendanceDTO attendance : options.getAttendances()) {
+            TrainingEnrollment enrollment = byId.get(attendance.getEnrollmentId());
+            if (enrollment == null) {
+                throw new BusinessException("L'inscription " + attendance.getEnrollmentId()
+                        + " n'appartient pas à la session " + session.getCode());
+            }
+            if (!CLOSABLE_STATUSES.contains(enrollment.getStatus())) {
+                throw new BusinessException("L'inscription " + enrollment.getId()
+                        + " a le statut " + enrollment.getStatus() + " et ne peut pas être pointée");
+            }
+            if (Boolean.FALSE.equals(attendance.getAttended())) {
+                enrollment.markAsAbsent();
+            } else {
+                enrollment.markAsAttended();
+            }
+            if (attendance.getAttendanceRate() != null) {
+                enrollment.setAttendanceRate(attendance.getAttendanceRate());
+            }
+            if (attendance.getScore() != null) {
+                enrollment.setScore(attendance.getScore());
+            }
+            if (attendance.getEvaluation() != null) {
+                enrollment.setEvaluation(attendance.getEvaluation());
+            }
+            enrollment.setUpdatedBy(currentUser);
+            enrollment.setUpdatedAt(now);
+            marked.add(enrollment.getId());
+        }
+
+        List<TrainingEnrollment> attendees = new ArrayList<>();
+        int absentCount = 0;
+        int certificatesIssued = 0;
+        for (TrainingEnrollment enrollment : enrollments) {
+            if (!marked.contains(enrollment.getId())
+                    && enrollment.getStatus() == TrainingEnrollment.EnrollmentStatus.APPROVED
+                    && !Boolean.FALSE.equals(options.getApprovedAsAttended())) {
+                enrollment.markAsAttended();
+                enrollment.setUpdatedBy(currentUser);
+                enrollment.setUpdatedAt(now);
+            }
+            if (enrollment.getStatus() == TrainingEnrollment.EnrollmentStatus.ABSENT) {
+                absentCount++;
+            }
+            if (enrollment.getStatus() != TrainingEnrollment.EnrollmentStatus.ATTENDED) {
+                continue;
+            }
+            attendees.add(enrollment);
+
+            // Certificates before history so the numbers are copied into ProfessionalTraining
+            if (!Boolean.FALSE.equals(options.getIssueCertificates())
+                    && !Boolean.TRUE.equals(enrollment.getCertificateIssued())
+                    && meetsAttendanceRate(enrollment, options.getMinAttendanceRate())) {
+                enrollment.issueCertificate("CERT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+                enrollment.setUpdatedBy(currentUser);
+                enrollment.setUpdatedAt(now);
+                certificatesIssued++;
+            }
+        }
+
+        int historyCreated = trainingHistoryService.synchronizeSession(session, attendees);
+
+        session.setStatus(TrainingSession.SessionStatus.COMPLETED);
+        session.setUpdatedBy(currentUser);
+        session.setUpdatedAt(now);
+        sessionRepository.save(session);
+
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Session {} closed: {} attendees, {} absents, {} certificates, {} history rows in {} ms",
+                session.getCode(), attendees.size(), absentCount, certificatesIssued, historyCreated, durationMs);
+
+        return SessionCompletionResultDTO.builder()
+                .sessionId(session.getId())
+                .sessionCode(session.getCode())
+                .enrollmentCount(enrollments.size())
+                .attendedCount(attendees.size())
+                .absentCount(absentCount)
+                .certificatesIssued(certificatesIssued)
+                .historyCreated(historyCreated)
+                .historyAlreadyPresent(attendees.size() - historyCreated)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private boolean meetsAttendanceRate(TrainingEnrollment enrollment, Double minAttendanceRate) {
+        return minAttendanceRate == null
+                || (enrollment.getAttendanceRate() != null && enrollment.getAttendanceRate() >= minAttendanceRate);
+    }
+
+    @RetryOnConflict
     public TrainingSessionDTO cancelSession(Long id, String reason) {
         log.info("Cancelling session ID: {}", id);
         TrainingSession session = sessionRepository.findById(id)
@@ -269,32 +409,6 @@ public class TrainingSessionService {
         }
     }
 
-    /**
-     * Synchronize completed session with ProfessionalTraining
-     */
-    private void synchronizeWithProfessionalTraining(TrainingSession session) {
-        session.getEnrollments().stream()
-                .filter(e -> e.getStatus() == TrainingEnrollment.EnrollmentStatus.ATTENDED)
-                .forEach(enrollment -> {
-                    ProfessionalTraining training = ProfessionalTraining.builder()
-                            .personnel(enrollment.getPersonnel())
-                            .trainingField(session.getTraining().getTrainingField())
-                            .trainer(session.getTrainer().getFullName())
-                            .startDate(session.getStartDate())
-                            .endDate(session.getEndDate())
-                            .trainingLocation(session.getLocation())
-                            .description(session.getDescription())
-                            .certificateObtained(enrollment.getCertificateNumber())
-                            .status(ProfessionalTraining.TrainingStatus.COMPLETED)
-                            .build();
-                    training.setCreatedBy(auditUtil.getCurrentUser());
-                    training.setCreatedDate(LocalDate.now());
-                    professionalTrainingRepository.save(training);
-                    log.info("Created ProfessionalTraining for personnel {} from session {}", 
-                            enrollment.getPersonnel().getId(), session.getId());
-                });
-    }
-
     public void deleteSession(Long id) {
         log.info("Soft deleting training session with ID: {}", id);
         TrainingSession session = sessionRepository.findById(id)
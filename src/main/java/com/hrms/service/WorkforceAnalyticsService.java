@@ -0,0 +1,200 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.analytics.WorkforceDimension;
+import com.hrms.analytics.WorkforceRecord;
+import com.hrms.analytics.WorkforceSnapshot;
+import com.hrms.dto.WorkforceCrossTabDTO;
+import com.hrms.dto.WorkforceQueryDTO;
+import com.hrms.entity.Personnel;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.EntityChangeSubscriber;
+import com.hrms.exception.BusinessException;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service d'analyse des effectifs sur instantané en mémoire
+ *
+ * Chaque tenant dispose d'un {@link WorkforceSnapshot} chargé à la première requête,
+ * tenu à jour à partir des agents modifiés reçus du bus des changements après commit
+ * ({@link ChangeEventService}, en attente dans {@link WorkforceChangeTracker}) et reconstruit
+ * intégralement chaque nuit.
+ * Les tableaux croisés sont évalués sans accès à la base.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkforceAnalyticsService implements EntityChangeSubscriber {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private static final String PERSONNEL_AGGREGATE = Personnel.class.getSimpleName();
+
+    private final PersonnelRepository personnelRepository;
+    private final WorkforceChangeTracker changeTracker;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${hrms.analytics.parallelism:0}")
+    private int parallelism;
+
+    private final Map<String, WorkforceSnapshot> snapshots = new ConcurrentHashMap<>();
+    private ForkJoinPool pool;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tableau croisé filtre + regroupement + comptage sur l'instantané du tenant courant
+     */
+    public WorkforceCrossTabDTO crossTab(WorkforceQueryDTO query) {
+        if (query.getFilters() != null && query.getFilters().keySet().stream().anyMatch(WorkforceDimension::isDerived)) {
+            throw new BusinessException("Le filtre sur la tranche d'âge se fait par âge minimum / maximum");
+        }
+
+        String tenant = changeTracker.currentTenant();
+        WorkforceSnapshot snapshot = snapshots.computeIfAbsent(tenant, this::buildSnapshot);
+        applyPendingChanges(tenant, snapshot);
+
+        return snapshot.count(query, LocalDate.now(), pool);
+    }
+
+    @Override
+    public Set<String> aggregateTypes() {
+        return Set.of(PERSONNEL_AGGREGATE);
+    }
+
+    /**
+     * Agents créés, modifiés ou supprimés (validés) : relus à la prochaine mise à jour de l'instantané
+     */
+    @Override
+    public void onChanges(ChangeBatch batch) {
+        changeTracker.markChanged(batch.getTenant(), batch.aggregateIds(PERSONNEL_AGGREGATE));
+    }
+
+    /**
+     * Report des modifications d'agents sur les instantanés chargés
+     */
+    @Scheduled(fixedDelayString = "${hrms.analytics.refresh-interval-ms:30000}")
+    public void refreshSnapshots() {
+        snapshots.forEach((tenant, snapshot) -> inTenant(tenant, () -> applyPendingChanges(tenant, snapshot)));
+    }
+
+    /**
+     * Reconstruction complète (rattrape les écritures faites hors JPA : SQL direct, imports en masse)
+     */
+    @Scheduled(cron = "${hrms.analytics.rebuild-cron:0 30 2 * * *}")
+    public void rebuildSnapshots() {
+        for (String tenant : new ArrayList<>(snapshots.keySet())) {
+            inTenant(tenant, () -> {
+                // Les modifications signalées pendant la reconstruction restent en attente
+                changeTracker.drain(tenant);
+                snapshots.put(tenant, buildSnapshot(tenant));
+            });
+        }
+    }
+
+    private WorkforceSnapshot buildSnapshot(String tenant) {
+        long start = System.currentTimeMillis();
+        WorkforceSnapshot snapshot = new WorkforceSnapshot();
+
+        long afterId = 0L;
+        List<Object[]> batch;
+        do {
+            long lastId = afterId;
+            batch = readOnlyTransaction.execute(status ->
+                    personnelRepository.findWorkforceRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE)));
+            for (Object[] row : batch) {
+                WorkforceRecord record = toRecord(row);
+                snapshot.upsert(record);
+                afterId = record.getPersonnelId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        log.info("Instantané des effectifs du tenant {} chargé: {} agents en {} ms",
+                tenant, snapshot.liveCount(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    private void applyPendingChanges(String tenant, WorkforceSnapshot snapshot) {
+        Set<Long> pending = changeTracker.drain(tenant);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(pending);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            List<Object[]> rows = readOnlyTransaction.execute(status -> personnelRepository.findWorkforceRowsByIds(chunk));
+
+            Set<Long> removed = new HashSet<>(chunk);
+            for (Object[] row : rows) {
+                WorkforceRecord record = toRecord(row);
+                snapshot.upsert(record);
+                removed.remove(record.getPersonnelId());
+            }
+            removed.forEach(snapshot::remove);
+        }
+        log.debug("Instantané des effectifs du tenant {}: {} agents mis à jour", tenant, pending.size());
+    }
+
+    private WorkforceRecord toRecord(Object[] row) {
+        return WorkforceRecord.builder()
+                .personnelId((Long) row[0])
+                .dateOfBirth((LocalDate) row[1])
+                .hireDate((LocalDate) row[2])
+                .structure((String) row[3])
+                .grade((String) row[4])
+                .corps((String) row[5])
+                .region((String) row[6])
+                .status(row[7] != null ? row[7].toString() : null)
+                .gender(row[8] != null ? row[8].toString() : null)
+                .situation(row[9] != null ? row[9].toString() : null)
+                .build();
+    }
+
+    private void inTenant(String tenant, Runnable action) {
+        String previous = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenant);
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Mise à jour de l'instantané des effectifs du tenant {} en échec: {}", tenant, e.getMessage());
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantId(previous);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.hrms.template;
+
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.OrganizationalPositionTemplate;
+import com.hrms.entity.OrganizationalTemplate;
+import com.hrms.entity.Position;
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Template organisationnel compilé en un plan plat : sous-structures (parents d'abord) et postes
+ * (une entrée par poste, compteurs déjà développés).
+ *
+ * Le plan est calculé une fois puis appliqué à autant de structures racines que nécessaire ;
+ * il sert aussi à comparer en mémoire une structure existante avec la version courante du template.
+ */
+@Getter
+public class TemplatePlan {
+
+    private static final Map<String, String> STRUCTURE_NAMES = new HashMap<>();
+
+    static {
+        // Gouvernorat
+        STRUCTURE_NAMES.put("GOUV-SP", "Secrétariat Particulier");
+        STRUCTURE_NAMES.put("GOUV-CABINET", "Cabinet du Gouverneur");
+        STRUCTURE_NAMES.put("GOUV-CABINET-SCOM", "Service de la Communication");
+        STRUCTURE_NAMES.put("GOUV-CABINET-SPROT", "Service du Protocole");
+        STRUCTURE_NAMES.put("GOUV-CABINET-SSEC", "Service de la Sécurité");
+        STRUCTURE_NAMES.put("GOUV-IRSR", "Inspection Régionale des Services Régionaux");
+        STRUCTURE_NAMES.put("GOUV-SGSG", "Secrétariat Général des Services du Gouverneur");
+        STRUCTURE_NAMES.put("GOUV-SGSG-SACL", "Service de l'Accueil, du Courrier et de Liaison");
+        STRUCTURE_NAMES.put("GOUV-SGSG-SDAT", "Service de la Documentation, des Archives et de la Traduction");
+        STRUCTURE_NAMES.put("GOUV-SGSG-SAFL", "Service des Affaires Financières et de la Logistique");
+        STRUCTURE_NAMES.put("GOUV-SGSG-DAAJ", "Division des Affaires Administratives et Juridiques");
+        STRUCTURE_NAMES.put("GOUV-SGSG-DAESC", "Division des Affaires Économiques, Sociales et Culturelles");
+        STRUCTURE_NAMES.put("GOUV-SGSG-DPOA", "Division de la Police et de l'Organisation Administrative");
+        STRUCTURE_NAMES.put("GOUV-SGSG-DDR", "Division du Développement Régional");
+
+        // Préfecture
+        STRUCTURE_NAMES.put("PREF-SP", "Secrétariat Particulier");
+        STRUCTURE_NAMES.put("PREF-SAG", "Service des Affaires Générales");
+        STRUCTURE_NAMES.put("PREF-SAAJP", "Service des Affaires Administratives, Juridiques et Politiques");
+        STRUCTURE_NAMES.put("PREF-SAEF", "Service des Affaires Économiques et Financières");
+        STRUCTURE_NAMES.put("PREF-SASC", "Service des Affaires Sociales et Culturelles");
+        STRUCTURE_NAMES.put("PREF-SDL", "Service du Développement Local");
+
+        // Sous-Préfecture
+        STRUCTURE_NAMES.put("SPREF-SP", "Secrétariat Particulier");
+        STRUCTURE_NAMES.put("SPREF-BAG", "Bureau des Affaires Générales");
+        STRUCTURE_NAMES.put("SPREF-BAAJP", "Bureau des Affaires Administratives, Juridiques et Politiques");
+        STRUCTURE_NAMES.put("SPREF-BAEFDL", "Bureau des Affaires Économiques, Financières et du Développement Local");
+    }
+
+    private final Long templateId;
+    private final String templateCode;
+
+    /**
+     * Sous-structures, chaque parent avant ses enfants
+     */
+    private final List<StructureSpec> structures;
+
+    private final List<PositionSpec> positions;
+
+    private TemplatePlan(Long templateId, String templateCode, List<StructureSpec> structures,
+                         List<PositionSpec> positions) {
+        this.templateId = templateId;
+        this.templateCode = templateCode;
+        this.structures = structures;
+        this.positions = positions;
+    }
+
+    /**
+     * Compile un template et ses postes actifs.
+     *
+     * Les postes de niveau 0 sont créés dans la structure racine ; les autres sont regroupés par
+     * code de sous-structure. Une sous-structure de niveau 3 (GOUV-CABINET-SCOM) n'est créée que si
+     * sa structure principale (GOUV-CABINET) porte elle-même des postes.
+     */
+    public static TemplatePlan compile(OrganizationalTemplate template, List<OrganizationalPositionTemplate> positionTemplates) {
+        List<OrganizationalPositionTemplate> sorted = new ArrayList<>(positionTemplates);
+        sorted.sort(Comparator.comparing(OrganizationalPositionTemplate::getCode));
+
+        List<PositionSpec> positions = new ArrayList<>();
+        for (OrganizationalPositionTemplate positionTemplate : sorted) {
+            if (positionTemplate.getLevel() != null && positionTemplate.getLevel() == 0) {
+                expand(positionTemplate, null, positions);
+            }
+        }
+
+        Map<String, List<OrganizationalPositionTemplate>> bySubStructure = new TreeMap<>();
+        for (OrganizationalPositionTemplate positionTemplate : sorted) {
+            String subStructureCode = positionTemplate.getSubStructureCode();
+            if (subStructureCode != null && !subStructureCode.isEmpty()) {
+                bySubStructure.computeIfAbsent(subStructureCode, code -> new ArrayList<>()).add(positionTemplate);
+            }
+        }
+
+        List<StructureSpec> structures = new ArrayList<>();
+        for (String code : bySubStructure.keySet()) {
+            if (isMainSubStructure(code)) {
+                structures.add(new StructureSpec(code, null, structureName(code), structureType(code)));
+            }
+        }
+        for (String code : bySubStructure.keySet()) {
+            String parentCode = parentSubStructureCode(code);
+            if (!isMainSubStructure(code) && bySubStructure.containsKey(parentCode)) {
+                structures.add(new StructureSpec(code, parentCode, structureName(code), structureType(code)));
+            }
+        }
+        for (StructureSpec structure : structures) {
+            bySubStructure.get(structure.getTemplateCode())
+                    .forEach(positionTemplate -> expand(positionTemplate, structure.getTemplateCode(), positions));
+        }
+
+        return new TemplatePlan(template.getId(), template.getCode(), List.copyOf(structures), List.copyOf(positions));
+    }
+
+    private static void expand(OrganizationalPositionTemplate positionTemplate, String structureTemplateCode,
+                               List<PositionSpec> positions) {
+        int count = positionTemplate.getCount() != null ? positionTemplate.getCount() : 1;
+        String baseSuffix = positionTemplate.getCode().substring(positionTemplate.getCode().lastIndexOf('-') + 1);
+        for (int index = 1; index <= count; index++) {
+            positions.add(new PositionSpec(
+                    positionTemplate.getId(),
+                    structureTemplateCode,
+                    index > 1 ? baseSuffix + "-" + index : baseSuffix,
+                    count > 1 ? positionTemplate.getTitle() + " N°" + index : positionTemplate.getTitle(),
+                    positionTemplate.getRequiredGrade(),
+                    positionTemplate.getRequiredCorps(),
+                    positionTemplate.getMinimumExperienceYears(),
+                    Boolean.TRUE.equals(positionTemplate.getIsNominative()),
+                    Boolean.TRUE.equals(positionTemplate.getIsManagerial())));
+        }
+    }
+
+    // ==================== CODES ET ENTITÉS ====================
+
+    /**
+     * GOUV-SP = structure principale, GOUV-CABINET-SCOM = sous-service
+     */
+    static boolean isMainSubStructure(String code) {
+        return code.split("-").length == 2;
+    }
+
+    /**
+     * GOUV-CABINET-SCOM -> GOUV-CABINET
+     */
+    static String parentSubStructureCode(String code) {
+        String[] parts = code.split("-");
+        return parts.length > 2 ? parts[0] + "-" + parts[1] : null;
+    }
+
+    static String structureName(String templateCode) {
+        return STRUCTURE_NAMES.getOrDefault(templateCode, templateCode);
+    }
+
+    static AdministrativeStructure.StructureType structureType(String templateCode) {
+        if (templateCode.contains("-SCOM") || templateCode.contains("-SPROT")
+                || templateCode.contains("-SSEC") || templateCode.contains("-SAA")) {
+            return AdministrativeStructure.StructureType.SERVICE;
+        } else if (templateCode.endsWith("-SP") || templateCode.endsWith("-CABINET")
+                || templateCode.endsWith("-IRSR")) {
+            return AdministrativeStructure.StructureType.SERVICE;
+        }
+        return AdministrativeStructure.StructureType.DIRECTION;
+    }
+
+    /**
+     * Code d'une sous-structure : code du parent + suffixe du code template (GOUV-CE + GOUV-SP -> GOUV-CE-SP)
+     */
+    public static String structureCode(String parentCode, String templateCode) {
+        return parentCode + "-" + templateCode.substring(templateCode.indexOf('-') + 1);
+    }
+
+    /**
+     * Code d'un poste : POS-{code de la structure}-{suffixe}
+     */
+    public static String positionCode(String structureCode, PositionSpec spec) {
+        return "POS-" + structureCode + "-" + spec.getCodeSuffix();
+    }
+
+    public AdministrativeStructure newStructure(StructureSpec spec, AdministrativeStructure parent) {
+        AdministrativeStructure structure = AdministrativeStructure.builder()
+                .code(structureCode(parent.getCode(), spec.getTemplateCode()))
+                .name(spec.getName())
+                .type(spec.getType())
+                .parentStructure(parent)
+                .organizationalTemplateId(templateId)
+                .subStructureTemplateCode(spec.getTemplateCode())
+                .city(parent.getCity())
+                .active(true)
+                .build();
+        structure.setCreatedBy("system");
+        return structure;
+    }
+
+    public Position newPosition(PositionSpec spec, AdministrativeStructure structure) {
+        Position position = Position.builder()
+                .code(positionCode(structure.getCode(), spec))
+                .title(spec.getTitle())
+                .structure(structure)
+                .organizationalPositionTemplateId(spec.getTemplateId())
+                .requiredGrade(spec.getRequiredGrade())
+                .requiredCorps(spec.getRequiredCorps())
+                .minExperienceYears(spec.getMinExperienceYears())
+                .status(Position.PositionStatus.VACANT)
+                .isNominative(spec.isNominative())
+                .isManagerial(spec.isManagerial())
+                .active(true)
+                .build();
+        position.setCreatedBy("system");
+        return position;
+    }
+
+    // ==================== COMPARAISON ====================
+
+    /**
+     * Écarts entre une structure déjà instanciée et le plan.
+     *
+     * @param root              structure racine (gouvernorat, préfecture, sous-préfecture)
+     * @param subStructures     sous-structures existantes créées depuis ce template
+     * @param existingPositions postes existants créés depuis un poste de template, dans tout le sous-arbre,
+     *                          supprimés compris (les codes restent uniques)
+     */
+    public Diff diff(AdministrativeStructure root, Collection<AdministrativeStructure> subStructures,
+                     Collection<Position> existingPositions) {
+        Map<String, String> structureCodes = new HashMap<>();
+        for (AdministrativeStructure structure : subStructures) {
+            if (structure.getSubStructureTemplateCode() != null) {
+                structureCodes.put(structure.getSubStructureTemplateCode(), structure.getCode());
+            }
+        }
+
+        List<StructureSpec> missingStructures = new ArrayList<>();
+        for (StructureSpec spec : structures) {
+            if (!structureCodes.containsKey(spec.getTemplateCode())) {
+                String parentCode = spec.getParentTemplateCode() != null
+                        ? structureCodes.get(spec.getParentTemplateCode())
+                        : root.getCode();
+                structureCodes.put(spec.getTemplateCode(), structureCode(parentCode, spec.getTemplateCode()));
+                missingStructures.add(spec);
+            }
+        }
+
+        Map<String, Position> existingByCode = new HashMap<>();
+        for (Position position : existingPositions) {
+            existingByCode.put(position.getCode(), position);
+        }
+
+        List<PositionSpec> missingPositions = new ArrayList<>();
+        List<PositionChange> restoredPositions = new ArrayList<>();
+        List<PositionChange> changedPositions = new ArrayList<>();
+        Set<String> planned = new HashSet<>();
+        for (PositionSpec spec : positions) {
+            String structureCode = spec.getStructureTemplateCode() != null
+                    ? structureCodes.get(spec.getStructureTemplateCode())
+                    : root.getCode();
+            String code = positionCode(structureCode, spec);
+            planned.add(code);
+            Position existing = existingByCode.get(code);
+            if (existing == null) {
+                missingPositions.add(spec);
+            } else if (existing.isDeleted()) {
+                restoredPositions.add(new PositionChange(existing, spec));
+            } else if (!spec.matches(existing)) {
+                changedPositions.add(new PositionChange(existing, spec));
+            }
+        }
+
+        List<Position> obsolete = new ArrayList<>();
+        List<Position> obsoleteOccupied = new ArrayList<>();
+        for (Position position : existingPositions) {
+            if (!position.isDeleted() && !planned.contains(position.getCode())) {
+                if (position.isOccupied()) {
+                    obsoleteOccupied.add(position);
+                } else {
+                    obsolete.add(position);
+                }
+            }
+        }
+        return new Diff(missingStructures, missingPositions, restoredPositions, changedPositions,
+                obsolete, obsoleteOccupied);
+    }
+
+    // ==================== ÉLÉMENTS DU PLAN ====================
+
+    @Value
+    public static class StructureSpec {
+        String templateCode;
+
+        /**
+         * Code template de la structure parente, null pour une structure principale (rattachée à la racine)
+         */
+        String parentTemplateCode;
+
+        String name;
+        AdministrativeStructure.StructureType type;
+    }
+
+    @Value
+    public static class PositionSpec {
+        Long templateId;
+
+        /**
+         * Code template de la sous-structure, null pour un poste de la structure racine
+         */
+        String structureTemplateCode;
+
+        String codeSuffix;
+        String title;
+        String requiredGrade;
+        String requiredCorps;
+        Integer minExperienceYears;
+        boolean nominative;
+        boolean managerial;
+
+        /**
+         * Indique si le poste porte déjà les attributs du template
+         */
+        public boolean matches(Position position) {
+            return Objects.equals(title, position.getTitle())
+                    && Objects.equals(templateId, position.getOrganizationalPositionTemplateId())
+                    && Objects.equals(requiredGrade, position.getRequiredGrade())
+                    && Objects.equals(requiredCorps, position.getRequiredCorps())
+                    && Objects.equals(minExperienceYears, position.getMinExperienceYears())
+                    && nominative == Boolean.TRUE.equals(position.getIsNominative())
+                    && managerial == Boolean.TRUE.equals(position.getIsManagerial());
+        }
+
+        public void applyTo(Position position) {
+            position.setTitle(title);
+            position.setOrganizationalPositionTemplateId(templateId);
+            position.setRequiredGrade(requiredGrade);
+            position.setRequiredCorps(requiredCorps);
+            position.setMinExperienceYears(minExperienceYears);
+            position.setIsNominative(nominative);
+            position.setIsManagerial(managerial);
+        }
+    }
+
+    @Value
+    public static class PositionChange {
+        Position position;
+        PositionSpec spec;
+    }
+
+    @Value
+    public static class Diff {
+        List<StructureSpec> missingStructures;
+        List<PositionSpec> missingPositions;
+
+        /**
+         * Postes supprimés lors d'une resynchronisation précédente et revenus dans le template
+         */
+        List<PositionChange> restoredPositions;
+
+        List<PositionChange> changedPositions;
+
+        /**
+         * Postes vacants qui ne figurent plus dans le template (à retirer)
+         */
+        List<Position> obsoletePositions;
+
+        /**
+         * Postes occupés qui ne figurent plus dans le template (conservés, signalés)
+         */
+        List<Position> obsoleteOccupiedPositions;
+
+        public boolean isEmpty() {
+            return missingStructures.isEmpty() && missingPositions.isEmpty() && restoredPositions.isEmpty()
+                    && changedPositions.isEmpty() && obsoletePositions.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.hrms.tenant;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+
+import java.lang.reflect.Method;
+
+/**
+ * Cache key generator prefixing every key with the current tenant,
+ * so that cached data never leaks from one tenant to another.
+ */
+public class TenantAwareKeyGenerator implements KeyGenerator {
+
+    private final String defaultTenant;
+
+    public TenantAwareKeyGenerator(String defaultTenant) {
+        this.defaultTenant = defaultTenant;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        String tenantId = TenantContext.getTenantId();
+        return (tenantId != null ? tenantId : defaultTenant) + ":" + SimpleKeyGenerator.generateKey(params);
+    }
+}
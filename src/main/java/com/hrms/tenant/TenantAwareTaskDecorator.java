@@ -0,0 +1,28 @@
+package com.hrms.tenant;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagates the tenant of the submitting thread to executor threads,
+ * so that asynchronous work is routed to the same tenant pool.
+ */
+public class TenantAwareTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String tenantId = TenantContext.getTenantId();
+        return () -> {
+            String previous = TenantContext.getTenantId();
+            TenantContext.setTenantId(tenantId);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    TenantContext.setTenantId(previous);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.hrms.tenant;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hibernate multi-tenant connection provider delegating to the tenant routing DataSource.
+ * Routing itself stays in {@link TenantRoutingDataSource} (driven by {@link TenantContext});
+ * registering this provider makes Hibernate tenant-aware, so second-level cache keys
+ * carry the tenant identifier of the session that loaded the entry.
+ */
+public class TenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    // Service Hibernate (Serializable par contrat), jamais sérialisé : la DataSource reste hors de l'état
+    private static final long serialVersionUID = 1L;
+
+    private final transient DataSource dataSource;
+
+    public TenantConnectionProvider(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantIdentifier) throws SQLException {
+        // La session est ouverte pour le tenant courant : le routage suit TenantContext
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return (T) this;
+        }
+        if (unwrapType.isInstance(dataSource)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType.getName());
+    }
+}
@@ -0,0 +1,27 @@
+package com.hrms.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Resolves the tenant of new Hibernate sessions from {@link TenantContext},
+ * falling back to the default tenant (startup, scheduled jobs).
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    private final String defaultTenant;
+
+    public TenantIdentifierResolver(String defaultTenant) {
+        this.defaultTenant = defaultTenant;
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenantId = TenantContext.getTenantId();
+        return tenantId != null ? tenantId : defaultTenant;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -3,11 +3,14 @@ package com.hrms.tenant;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.io.IOException;
+
 /**
  * Interceptor to extract tenant identifier from HTTP headers.
  * Sets the tenant context for the current request.
@@ -21,8 +24,17 @@ public class TenantInterceptor implements HandlerInterceptor {
     @Value("${hrms.multi-tenant.default-tenant}")
     private String defaultTenant;
 
+    @Value("${hrms.multi-tenant.enabled:false}")
+    private boolean multiTenantEnabled;
+
+    private final ObjectProvider<TenantProperties> tenantProperties;
+
+    public TenantInterceptor(ObjectProvider<TenantProperties> tenantProperties) {
+        this.tenantProperties = tenantProperties;
+    }
+
     @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
         String tenantId = request.getHeader(TENANT_HEADER);
 
         if (tenantId == null || tenantId.isEmpty()) {
@@ -30,6 +42,14 @@ public class TenantInterceptor implements HandlerInterceptor {
             log.debug("No tenant ID in header, using default: {}", defaultTenant);
         }
 
+        // Only declared tenants have a connection pool
+        TenantProperties properties = tenantProperties.getIfAvailable();
+        if (multiTenantEnabled && properties != null && !properties.isKnownTenant(tenantId)) {
+            log.warn("Rejecting request for unknown tenant: {}", tenantId);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown tenant: " + tenantId);
+            return false;
+        }
+
         log.debug("Setting tenant context to: {}", tenantId);
         TenantContext.setTenantId(tenantId);
 
@@ -0,0 +1,62 @@
+package com.hrms.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Multi-tenant configuration (hrms.multi-tenant.*).
+ * Each declared tenant gets its own connection pool, sized by its quota,
+ * so that one tenant cannot exhaust the connections of the others.
+ */
+@Data
+@ConfigurationProperties(prefix = "hrms.multi-tenant")
+public class TenantProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * SCHEMA: same database, schema switched on connection checkout.
+     * DATABASE: per-tenant JDBC URL.
+     */
+    private String strategy = "SCHEMA";
+
+    private String defaultTenant = "default";
+
+    /**
+     * Pool quota applied to tenants that do not declare max-pool-size
+     */
+    private int defaultMaxPoolSize = 5;
+
+    private int minIdle = 1;
+
+    private long connectionTimeout = 30000;
+
+    private Map<String, TenantConfig> tenants = new LinkedHashMap<>();
+
+    @Data
+    public static class TenantConfig {
+        private String schema;
+        private Integer maxPoolSize;
+        // Strategy DATABASE uniquement
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    public boolean isKnownTenant(String tenantId) {
+        return tenantId != null && (tenants.containsKey(tenantId) || tenantId.equals(defaultTenant));
+    }
+
+    public String schemaFor(String tenantId) {
+        TenantConfig config = tenants.get(tenantId);
+        return config != null && config.getSchema() != null ? config.getSchema() : tenantId;
+    }
+
+    public int maxPoolSizeFor(String tenantId) {
+        TenantConfig config = tenants.get(tenantId);
+        return config != null && config.getMaxPoolSize() != null ? config.getMaxPoolSize() : defaultMaxPoolSize;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hrms.tenant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource routing each connection request to the pool of the current tenant
+ * (read from {@link TenantContext}). Requests without tenant context (startup,
+ * scheduled jobs) use the default tenant pool.
+ * Connection acquisition time is recorded per tenant.
+ */
+@Slf4j
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final String defaultTenant;
+    private final MeterRegistry meterRegistry;
+
+    public TenantRoutingDataSource(String defaultTenant, MeterRegistry meterRegistry) {
+        this.defaultTenant = defaultTenant;
+        this.meterRegistry = meterRegistry;
+        // Un tenant inconnu ne doit jamais retomber silencieusement sur le pool par défaut
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenantId = TenantContext.getTenantId();
+        return tenantId != null ? tenantId : defaultTenant;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String tenantId = (String) determineCurrentLookupKey();
+        String outcome = "success";
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            outcome = "failure";
+            log.warn("Connection acquisition failed for tenant {}: {}", tenantId, e.getMessage());
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("hrms.tenant.connection.acquire")
+                    .description("Time to acquire a JDBC connection from the tenant pool")
+                    .tag("tenant", tenantId)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Close every tenant pool (invoked by Spring on shutdown)
+     */
+    @Override
+    public void close() {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Error closing tenant pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
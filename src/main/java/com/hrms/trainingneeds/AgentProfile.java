@@ -0,0 +1,32 @@
+package com.hrms.trainingneeds;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Agent tel qu'indexé par l'analyse des besoins de formation
+ */
+@Value
+@Builder
+public class AgentProfile {
+
+    long personnelId;
+    String matricule;
+    String fullName;
+
+    Long structureId;
+    String structurePath;
+
+    /**
+     * Code et libellé du grade / du corps, normalisés ({@link TrainingHistoryIndex#normalize})
+     */
+    String gradeCode;
+    String gradeName;
+    String gradeCategory;
+    String corpsCode;
+    String corpsName;
+
+    LocalDate hireDate;
+}
@@ -0,0 +1,47 @@
+package com.hrms.trainingneeds;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Critères d'une analyse d'écart : cohorte (structure, grade, corps, catégorie) et exigence de
+ * formation (domaine, formation reçue depuis une date). Les clés sont normalisées.
+ */
+@Value
+@Builder
+public class GapQuery {
+
+    /**
+     * Chemin matérialisé de la structure : la structure et ses sous-structures
+     */
+    String structurePath;
+
+    Set<String> grades;
+    Set<String> corps;
+    Set<String> categories;
+
+    /**
+     * Domaine de formation ; null pour toute formation
+     */
+    String field;
+
+    /**
+     * Un agent formé à cette date ou après n'est pas en écart
+     */
+    LocalDate trainedSince;
+
+    /**
+     * Date de référence du calcul de l'ancienneté sans formation
+     */
+    LocalDate asOf;
+
+    /**
+     * Agents à écarter (déjà inscrits, par exemple)
+     */
+    Set<Long> excludedPersonnelIds;
+
+    int limit;
+}
@@ -0,0 +1,28 @@
+package com.hrms.trainingneeds;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Agent en écart de formation, avec sa dernière formation dans le domaine analysé
+ */
+@Value
+public class TrainingGap {
+
+    AgentProfile agent;
+
+    /**
+     * Dernière formation (null si jamais formé dans le domaine)
+     */
+    LocalDate lastTrainingDate;
+
+    /**
+     * Jours écoulés depuis la dernière formation, ou depuis l'embauche pour un agent jamais formé
+     */
+    long daysWithoutTraining;
+
+    public boolean isNeverTrained() {
+        return lastTrainingDate == null;
+    }
+}
@@ -0,0 +1,193 @@
+package com.hrms.trainingneeds;
+
+import lombok.Value;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Index des dernières formations par agent et par domaine.
+ *
+ * Chaque domaine de formation (normalisé) a une colonne dense indexée par ligne d'agent qui
+ * garde le jour epoch de la dernière formation suivie ; une colonne supplémentaire garde la
+ * dernière formation tous domaines confondus. Une analyse d'écart parcourt les agents une seule
+ * fois : filtre de cohorte, lecture de la colonne du domaine, sélection des k agents prioritaires
+ * dans un tas borné.
+ */
+public class TrainingHistoryIndex {
+
+    private static final int NEVER = Integer.MIN_VALUE;
+
+    private static final Comparator<TrainingGap> PRIORITY = Comparator
+            .comparing(TrainingGap::isNeverTrained).reversed()
+            .thenComparing(Comparator.comparingLong(TrainingGap::getDaysWithoutTraining).reversed())
+            .thenComparingLong(gap -> gap.getAgent().getPersonnelId());
+
+    private final List<AgentProfile> agents;
+    private final Map<Long, Integer> rowById;
+    private final Map<String, int[]> lastByField = new HashMap<>();
+    private final int[] lastAny;
+
+    public TrainingHistoryIndex(List<AgentProfile> agents) {
+        this.agents = List.copyOf(agents);
+        this.rowById = new HashMap<>(agents.size() * 2);
+        for (int row = 0; row < this.agents.size(); row++) {
+            rowById.put(this.agents.get(row).getPersonnelId(), row);
+        }
+        this.lastAny = newColumn();
+    }
+
+    /**
+     * Enregistre une formation suivie ; seule la plus récente par domaine est conservée
+     */
+    public void record(long personnelId, String field, LocalDate date) {
+        Integer row = rowById.get(personnelId);
+        if (row == null || date == null) {
+            return;
+        }
+        int day = (int) date.toEpochDay();
+        lastAny[row] = Math.max(lastAny[row], day);
+        String key = normalize(field);
+        if (key != null) {
+            int[] column = lastByField.computeIfAbsent(key, k -> newColumn());
+            column[row] = Math.max(column[row], day);
+        }
+    }
+
+    public int agentCount() {
+        return agents.size();
+    }
+
+    public int fieldCount() {
+        return lastByField.size();
+    }
+
+    /**
+     * Dernière formation d'un agent dans un domaine (tous domaines si field est null)
+     */
+    public LocalDate lastTraining(long personnelId, String field) {
+        Integer row = rowById.get(personnelId);
+        int[] column = column(field);
+        if (row == null || column == null || column[row] == NEVER) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(column[row]);
+    }
+
+    /**
+     * Agents de la cohorte sans formation dans le domaine depuis query.trainedSince, les plus
+     * prioritaires d'abord : jamais formés, puis par ancienneté de la dernière formation
+     */
+    public GapResult gaps(GapQuery query) {
+        int[] column = column(query.getField());
+        int since = query.getTrainedSince() != null ? (int) query.getTrainedSince().toEpochDay() : NEVER;
+        LocalDate asOf = query.getAsOf() != null ? query.getAsOf() : LocalDate.now();
+        int limit = Math.max(query.getLimit(), 0);
+
+        int cohort = 0;
+        int gapCount = 0;
+        int neverTrained = 0;
+        PriorityQueue<TrainingGap> top = new PriorityQueue<>(Math.max(limit, 1), PRIORITY.reversed());
+        for (int row = 0; row < agents.size(); row++) {
+            AgentProfile agent = agents.get(row);
+            if (!inCohort(agent, query)) {
+                continue;
+            }
+            cohort++;
+            int last = column != null ? column[row] : NEVER;
+            if (last != NEVER && last >= since) {
+                continue;
+            }
+            gapCount++;
+            LocalDate lastDate = last == NEVER ? null : LocalDate.ofEpochDay(last);
+            if (lastDate == null) {
+                neverTrained++;
+            }
+            if (limit == 0) {
+                continue;
+            }
+            LocalDate reference = lastDate != null ? lastDate : agent.getHireDate();
+            long days = reference != null ? Math.max(ChronoUnit.DAYS.between(reference, asOf), 0) : 0;
+            top.offer(new TrainingGap(agent, lastDate, days));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<TrainingGap> gaps = new ArrayList<>(top);
+        gaps.sort(PRIORITY);
+        return new GapResult(cohort, gapCount, neverTrained, gaps);
+    }
+
+    private boolean inCohort(AgentProfile agent, GapQuery query) {
+        if (query.getExcludedPersonnelIds() != null && query.getExcludedPersonnelIds().contains(agent.getPersonnelId())) {
+            return false;
+        }
+        if (query.getStructurePath() != null
+                && (agent.getStructurePath() == null || !agent.getStructurePath().startsWith(query.getStructurePath()))) {
+            return false;
+        }
+        if (!matches(query.getGrades(), agent.getGradeCode(), agent.getGradeName())) {
+            return false;
+        }
+        if (!matches(query.getCorps(), agent.getCorpsCode(), agent.getCorpsName())) {
+            return false;
+        }
+        return matches(query.getCategories(), agent.getGradeCategory(), null);
+    }
+
+    private static boolean matches(Set<String> keys, String code, String name) {
+        if (keys == null || keys.isEmpty()) {
+            return true;
+        }
+        return (code != null && keys.contains(code)) || (name != null && keys.contains(name));
+    }
+
+    private int[] column(String field) {
+        if (field == null) {
+            return lastAny;
+        }
+        String key = normalize(field);
+        return key != null ? lastByField.get(key) : lastAny;
+    }
+
+    private int[] newColumn() {
+        int[] column = new int[agents.size()];
+        Arrays.fill(column, NEVER);
+        return column;
+    }
+
+    /**
+     * Clé de comparaison : sans accents, espaces réduits, en majuscules
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String withoutAccents = Normalizer.normalize(value.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    // ==================== RÉSULTATS ====================
+
+    /**
+     * Résultat d'une analyse : effectifs de la cohorte et agents prioritaires
+     */
+    @Value
+    public static class GapResult {
+        int cohortSize;
+        int gapCount;
+        int neverTrainedCount;
+        List<TrainingGap> gaps;
+    }
+}
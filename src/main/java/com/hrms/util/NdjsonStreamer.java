@@ -0,0 +1,97 @@
+package com.hrms.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Réponses NDJSON (application/x-ndjson) : un objet JSON par ligne, écrit dès qu'il est lu.
+ *
+ * Le flux est ouvert dans une transaction en lecture seule, sur le thread de réponse asynchrone
+ * (tenant propagé, voir WebMvcConfig). Les entités sont lues par curseur (taille de fetch des
+ * requêtes de flux), détachées une à une par {@link #detaching}, et le contexte de persistance est
+ * vidé tous les hrms.streaming.clear-interval objets : la mémoire ne dépend pas du nombre de lignes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamer {
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${hrms.streaming.clear-interval:500}")
+    private int clearInterval;
+
+    /**
+     * Réponse NDJSON écrivant chaque élément du flux fourni
+     *
+     * @param label libellé pour les journaux
+     * @param rows flux ouvert dans la transaction de la réponse, fermé à la fin de l'écriture
+     */
+    public ResponseEntity<StreamingResponseBody> stream(String label, Supplier<? extends Stream<?>> rows) {
+        StreamingResponseBody body = output -> write(label, rows, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Conversion en DTO suivie du détachement de l'entité convertie
+     */
+    public static <E, D> Function<E, D> detaching(EntityManager entityManager, Function<E, D> mapper) {
+        return entity -> {
+            D dto = mapper.apply(entity);
+            entityManager.detach(entity);
+            return dto;
+        };
+    }
+
+    private void write(String label, Supplier<? extends Stream<?>> rows, OutputStream output) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Integer written = transaction.execute(status -> {
+            int count = 0;
+            try (Stream<?> stream = rows.get()) {
+                Iterator<?> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    output.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    output.write(NEW_LINE);
+                    count++;
+                    if (count == 1) {
+                        // Premier objet envoyé sans attendre
+                        output.flush();
+                    } else if (count % clearInterval == 0) {
+                        output.flush();
+                        entityManager.clear();
+                    }
+                }
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        log.info("Flux NDJSON {}: {} objets écrits en {} ms", label, written, System.currentTimeMillis() - start);
+    }
+}
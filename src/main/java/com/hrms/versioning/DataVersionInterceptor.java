@@ -0,0 +1,59 @@
+package com.hrms.versioning;
+
+import com.hrms.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Interceptor answering conditional GETs on {@link DataVersioned} endpoints.
+ * The ETag is derived from the current tenant's data versions of the declared aggregates,
+ * never from the rendered body: a matching If-None-Match gets a 304 without running the handler.
+ * Must be registered after the tenant interceptor.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataVersionInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !isGetOrHead(request)) {
+            return true;
+        }
+        DataVersioned versioned = handlerMethod.getMethodAnnotation(DataVersioned.class);
+        if (versioned == null) {
+            versioned = handlerMethod.getBeanType().getAnnotation(DataVersioned.class);
+        }
+        if (versioned == null) {
+            return true;
+        }
+
+        String etag = dataVersionService.etag(versioned.value());
+        if (etag == null) {
+            // Versions indisponibles : réponse complète, sans ETag
+            return true;
+        }
+        // Le client doit revalider à chaque fois, la réponse 304 restant peu coûteuse
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Même ETag pour les variantes JSON et NDJSON d'un point d'accès
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            log.debug("304 pour {} (ETag {})", request.getRequestURI(), etag);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isGetOrHead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+}
@@ -0,0 +1,24 @@
+package com.hrms.versioning;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint (or every GET endpoint of a controller) whose response only depends on
+ * the listed aggregates. Its ETag is built from their data versions, so a request carrying a
+ * matching If-None-Match is answered 304 before the handler runs.
+ * A method-level annotation replaces the controller-level one.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface DataVersioned {
+
+    /**
+     * Aggregate types (simple entity names) the response is built from
+     */
+    String[] value();
+}
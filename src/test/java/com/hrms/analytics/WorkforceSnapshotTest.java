@@ -0,0 +1,142 @@
+package com.hrms.analytics;
+
+import com.hrms.dto.WorkforceCrossTabDTO;
+import com.hrms.dto.WorkforceQueryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'instantané en colonnes des effectifs
+ */
+@DisplayName("Tests de l'instantané des effectifs")
+class WorkforceSnapshotTest {
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 6, 30);
+
+    private WorkforceSnapshot snapshot;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new WorkforceSnapshot();
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private WorkforceRecord agent(long id, String structure, String gender, LocalDate birthDate) {
+        return WorkforceRecord.builder()
+                .personnelId(id)
+                .structure(structure)
+                .gender(gender)
+                .status("ACTIVE")
+                .dateOfBirth(birthDate)
+                .hireDate(birthDate != null ? birthDate.plusYears(25) : null)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Tableau croisé structure × genre")
+    void shouldCountCrossTab() {
+        snapshot.upsert(agent(1, "GOUV-CE", "MALE", LocalDate.of(1970, 1, 1)));
+        snapshot.upsert(agent(2, "GOUV-CE", "FEMALE", LocalDate.of(1980, 1, 1)));
+        snapshot.upsert(agent(3, "GOUV-LT", "FEMALE", LocalDate.of(1990, 1, 1)));
+
+        WorkforceCrossTabDTO result = snapshot.count(WorkforceQueryDTO.builder()
+                .rowDimension(WorkforceDimension.STRUCTURE)
+                .columnDimension(WorkforceDimension.GENDER)
+                .build(), REFERENCE_DATE, pool);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getCounts().get("GOUV-CE")).containsEntry("MALE", 1L).containsEntry("FEMALE", 1L);
+        assertThat(result.getCounts().get("GOUV-LT")).containsOnly(Map.entry("FEMALE", 1L));
+        assertThat(result.getRowTotals()).containsEntry("GOUV-CE", 2L);
+    }
+
+    @Test
+    @DisplayName("Filtres catégoriels et bornes d'âge")
+    void shouldApplyFilters() {
+        snapshot.upsert(agent(1, "GOUV-CE", "MALE", LocalDate.of(1970, 1, 1)));   // 55 ans
+        snapshot.upsert(agent(2, "GOUV-CE", "FEMALE", LocalDate.of(1980, 7, 1))); // 44 ans
+        snapshot.upsert(agent(3, "GOUV-CE", "FEMALE", LocalDate.of(1980, 6, 30))); // 45 ans
+        snapshot.upsert(agent(4, "GOUV-LT", "FEMALE", null));
+
+        WorkforceCrossTabDTO result = snapshot.count(WorkforceQueryDTO.builder()
+                .rowDimension(WorkforceDimension.STRUCTURE)
+                .filters(Map.of(WorkforceDimension.GENDER, List.of("FEMALE")))
+                .minAge(45)
+                .build(), REFERENCE_DATE, pool);
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getRowTotals()).containsOnly(Map.entry("GOUV-CE", 1L));
+    }
+
+    @Test
+    @DisplayName("Regroupement par tranche d'âge")
+    void shouldGroupByAgeBand() {
+        snapshot.upsert(agent(1, "GOUV-CE", "MALE", LocalDate.of(1970, 1, 1)));
+        snapshot.upsert(agent(2, "GOUV-CE", "MALE", LocalDate.of(1972, 1, 1)));
+        snapshot.upsert(agent(3, "GOUV-CE", "MALE", null));
+
+        WorkforceCrossTabDTO result = snapshot.count(WorkforceQueryDTO.builder()
+                .rowDimension(WorkforceDimension.AGE_BAND)
+                .build(), REFERENCE_DATE, pool);
+
+        assertThat(result.getRowTotals())
+                .containsEntry("55-59", 1L)
+                .containsEntry("50-54", 1L)
+                .containsEntry(ValueDictionary.NULL_LABEL, 1L);
+    }
+
+    @Test
+    @DisplayName("Mise à jour et suppression incrémentales")
+    void shouldApplyIncrementalChanges() {
+        for (long id = 1; id <= 100; id++) {
+            snapshot.upsert(agent(id, "GOUV-CE", "MALE", LocalDate.of(1980, 1, 1)));
+        }
+        snapshot.upsert(agent(1, "GOUV-LT", "MALE", LocalDate.of(1980, 1, 1)));
+        for (long id = 50; id <= 100; id++) {
+            snapshot.remove(id);
+        }
+
+        WorkforceCrossTabDTO result = snapshot.count(WorkforceQueryDTO.builder()
+                .rowDimension(WorkforceDimension.STRUCTURE)
+                .build(), REFERENCE_DATE, pool);
+
+        assertThat(snapshot.liveCount()).isEqualTo(49);
+        assertThat(result.getRowTotals()).containsOnly(Map.entry("GOUV-CE", 48L), Map.entry("GOUV-LT", 1L));
+    }
+
+    @Test
+    @DisplayName("Comptage parallèle sur un instantané volumineux")
+    void shouldCountLargeSnapshotInParallel() {
+        String[] structures = {"GOUV-CE", "GOUV-LT", "GOUV-OU"};
+        for (long id = 1; id <= 200_000; id++) {
+            snapshot.upsert(agent(id, structures[(int) (id % 3)], id % 2 == 0 ? "FEMALE" : "MALE",
+                    LocalDate.of(1965 + (int) (id % 30), 1, 1)));
+        }
+
+        WorkforceCrossTabDTO result = snapshot.count(WorkforceQueryDTO.builder()
+                .rowDimension(WorkforceDimension.STRUCTURE)
+                .columnDimension(WorkforceDimension.GENDER)
+                .build(), REFERENCE_DATE, pool);
+
+        assertThat(result.getTotal()).isEqualTo(200_000);
+        assertThat(result.getRowTotals().values()).allMatch(count -> count >= 66_666);
+        assertThat(result.getCounts().get("GOUV-CE").get("FEMALE")
+                + result.getCounts().get("GOUV-LT").get("FEMALE")
+                + result.getCounts().get("GOUV-OU").get("FEMALE")).isEqualTo(100_000);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hrms.compliance;
+
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests unitaires de la matrice de conformité documentaire
+ */
+@DisplayName("Tests de la conformité documentaire")
+class ComplianceMatrixTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    private static final List<DocumentType> MANDATORY = List.of(DocumentType.CNI, DocumentType.DIPLOME);
+
+    private ComplianceAgent agent(long id, String path) {
+        return ComplianceAgent.builder()
+                .personnelId(id)
+                .matricule("M" + id)
+                .fullName("Agent " + id)
+                .structurePath(path)
+                .build();
+    }
+
+    private ComplianceMatrix matrix(boolean requireVerified) {
+        ComplianceMatrix matrix = new ComplianceMatrix(List.of(
+                agent(1, "/1/5/"),
+                agent(2, "/1/5/23/"),
+                agent(3, "/1/5/24/"),
+                agent(4, "/1/50/"),
+                agent(5, "/1/5/23/")), MANDATORY, requireVerified);
+        // Agent 1 : conforme et vérifié
+        matrix.record(1L, DocumentType.CNI, TODAY.plusYears(2), true, TODAY);
+        matrix.record(1L, DocumentType.DIPLOME, null, true, TODAY);
+        // Agent 2 : CNI expirée remplacée par une CNI valide non vérifiée
+        matrix.record(2L, DocumentType.CNI, TODAY.minusDays(1), true, TODAY);
+        matrix.record(2L, DocumentType.CNI, TODAY, false, TODAY);
+        matrix.record(2L, DocumentType.DIPLOME, null, true, TODAY);
+        // Agent 3 : CNI expirée, diplôme manquant
+        matrix.record(3L, DocumentType.CNI, TODAY.minusYears(1), true, TODAY);
+        matrix.record(3L, DocumentType.PHOTO, null, true, TODAY);
+        // Agent 4 : hors sous-arbre, conforme
+        matrix.record(4L, DocumentType.CNI, null, true, TODAY);
+        matrix.record(4L, DocumentType.DIPLOME, null, true, TODAY);
+        matrix.record(99L, DocumentType.CNI, null, true, TODAY);
+        return matrix;
+    }
+
+    @Test
+    @DisplayName("Agrégation du sous-arbre par type obligatoire et par sous-structure")
+    void shouldAggregateSubtree() {
+        ComplianceReport report = matrix(false).report("/1/5/");
+
+        assertThat(report.getAgentCount()).isEqualTo(4);
+        assertThat(report.getCompliantCount()).isEqualTo(2);
+        assertThat(report.getTypes()).extracting(ComplianceReport.TypeCompliance::getDocumentType,
+                        ComplianceReport.TypeCompliance::getOk, ComplianceReport.TypeCompliance::getUnverified,
+                        ComplianceReport.TypeCompliance::getExpired, ComplianceReport.TypeCompliance::getMissing)
+                .containsExactly(
+                        tuple(DocumentType.CNI, 1, 1, 1, 1),
+                        tuple(DocumentType.DIPLOME, 2, 0, 0, 2));
+        assertThat(report.getGroups()).extracting(ComplianceReport.GroupCompliance::getStructurePath,
+                        ComplianceReport.GroupCompliance::getAgentCount, ComplianceReport.GroupCompliance::getCompliantCount)
+                .containsExactly(
+                        tuple("/1/5/", 1, 1),
+                        tuple("/1/5/23/", 2, 1),
+                        tuple("/1/5/24/", 1, 0));
+    }
+
+    @Test
+    @DisplayName("Vérification exigée et détail des agents non conformes")
+    void shouldDrillDownWhenVerificationRequired() {
+        ComplianceMatrix matrix = matrix(true);
+
+        assertThat(matrix.report(null).getCompliantCount()).isEqualTo(2);
+        List<AgentCompliance> agents = matrix.nonCompliant("/1/5/", null, 10);
+        assertThat(agents).extracting(a -> a.getAgent().getPersonnelId()).containsExactly(2L, 5L, 3L);
+        assertThat(agents.get(0).getUnverified()).containsExactly(DocumentType.CNI);
+        assertThat(agents.get(2).getExpired()).containsExactly(DocumentType.CNI);
+        assertThat(agents.get(2).getMissing()).containsExactly(DocumentType.DIPLOME);
+        assertThat(matrix.nonCompliant("/1/5/", DocumentType.DIPLOME, 1))
+                .extracting(a -> a.getAgent().getPersonnelId()).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Mise à jour d'un agent après dépôt ou suppression de documents")
+    void shouldRecomputeAgent() {
+        ComplianceMatrix matrix = matrix(false);
+
+        matrix.clear(3L);
+        matrix.record(3L, DocumentType.CNI, TODAY.plusYears(5), false, TODAY);
+        matrix.record(3L, DocumentType.DIPLOME, null, false, TODAY);
+        matrix.clear(1L);
+
+        assertThat(matrix.isCompliant(3L)).isTrue();
+        assertThat(matrix.status(3L, DocumentType.CNI)).isEqualTo(DocumentStatus.UNVERIFIED);
+        assertThat(matrix.isCompliant(1L)).isFalse();
+        assertThat(matrix.status(1L, DocumentType.DIPLOME)).isEqualTo(DocumentStatus.MISSING);
+    }
+}
@@ -0,0 +1,166 @@
+package com.hrms.concurrency;
+
+import com.hrms.exception.ErrorResponse;
+import com.hrms.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires pour OptimisticLockRetryAspect
+ */
+@DisplayName("Tests de la reprise sur conflit de verrou optimiste")
+class OptimisticLockRetryAspectTest {
+
+    private AnnotationConfigApplicationContext context;
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictingOperation operation;
+
+    @BeforeEach
+    void setUp() {
+        // Proxy créé par l'auto-proxy Spring, comme en production
+        context = new AnnotationConfigApplicationContext(AspectConfig.class);
+        meterRegistry = context.getBean(SimpleMeterRegistry.class);
+        operation = context.getBean(ConflictingOperation.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Un conflit transitoire est rejoué puis l'opération réussit")
+    void shouldRetryThenSucceed() {
+        operation.failFirst(2);
+
+        assertThat(operation.update()).isEqualTo("ok");
+        assertThat(operation.calls()).isEqualTo(3);
+        assertThat(conflicts("retried")).isEqualTo(2);
+        assertThat(meterRegistry.find("hrms.optimistic-lock.recovered").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Après le dernier essai, le conflit est relancé")
+    void shouldRethrowWhenAttemptsExhausted() {
+        operation.failFirst(10);
+
+        assertThatThrownBy(() -> operation.update()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(operation.calls()).isEqualTo(3);
+        assertThat(conflicts("retried")).isEqualTo(2);
+        assertThat(conflicts("exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("maxAttempts de l'annotation prime sur la configuration")
+    void shouldHonourAnnotationMaxAttempts() {
+        operation.failFirst(10);
+
+        assertThatThrownBy(() -> operation.updateOnce()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(operation.calls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Dans une transaction appelante, le conflit est propagé sans reprise")
+    void shouldPropagateInsideExistingTransaction() {
+        operation.failFirst(1);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThatThrownBy(() -> operation.update()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(operation.calls()).isEqualTo(1);
+        assertThat(conflicts("propagated")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un conflit non résolu est renvoyé en 409")
+    void shouldMapExhaustedConflictTo409() {
+        operation.failFirst(10);
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/personnel/12");
+
+        ObjectOptimisticLockingFailureException failure = null;
+        try {
+            operation.update();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            failure = e;
+        }
+
+        ResponseEntity<ErrorResponse> response =
+                new GlobalExceptionHandler().handleOptimisticLockingFailureException(failure, request);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getPath()).isEqualTo("/api/personnel/12");
+    }
+
+    private double conflicts(String outcome) {
+        Counter counter = meterRegistry.find("hrms.optimistic-lock.conflicts")
+                .tags("entity", "Personnel", "outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    static class AspectConfig {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        OptimisticLockRetryAspect optimisticLockRetryAspect(SimpleMeterRegistry meterRegistry) {
+            return new OptimisticLockRetryAspect(meterRegistry, 3, 1, 2, 2.0);
+        }
+
+        @Bean
+        ConflictingOperation conflictingOperation() {
+            return new ConflictingOperation();
+        }
+    }
+
+    static class ConflictingOperation {
+
+        private int failures;
+        private int calls;
+
+        public void failFirst(int failures) {
+            this.failures = failures;
+        }
+
+        public int calls() {
+            return calls;
+        }
+
+        @RetryOnConflict
+        public String update() {
+            return attempt();
+        }
+
+        @RetryOnConflict(maxAttempts = 1)
+        public String updateOnce() {
+            return attempt();
+        }
+
+        private String attempt() {
+            calls++;
+            if (calls <= failures) {
+                throw new ObjectOptimisticLockingFailureException("com.hrms.entity.Personnel", 12L);
+            }
+            return "ok";
+        }
+    }
+}
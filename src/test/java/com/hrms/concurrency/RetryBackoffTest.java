@@ -0,0 +1,42 @@
+package com.hrms.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'attente entre deux reprises
+ */
+@DisplayName("Tests de l'attente exponentielle avec gigue")
+class RetryBackoffTest {
+
+    private final RetryBackoff backoff = new RetryBackoff(20, 500, 2.0);
+
+    @Test
+    @DisplayName("Le plafond double à chaque reprise jusqu'au maximum")
+    void shouldGrowExponentiallyUpToMax() {
+        assertThat(backoff.ceiling(1)).isEqualTo(20);
+        assertThat(backoff.ceiling(2)).isEqualTo(40);
+        assertThat(backoff.ceiling(4)).isEqualTo(160);
+        assertThat(backoff.ceiling(6)).isEqualTo(500);
+        assertThat(backoff.ceiling(60)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("L'attente reste entre la moitié du plafond et le plafond")
+    void shouldKeepJitterWithinBounds() {
+        assertThat(backoff.delay(3, 0.0)).isEqualTo(40);
+        assertThat(backoff.delay(3, 0.5)).isEqualTo(60);
+        assertThat(backoff.delay(3, 0.999)).isBetween(40L, 80L);
+    }
+
+    @Test
+    @DisplayName("Paramètres incohérents ramenés à des valeurs sûres")
+    void shouldSanitizeParameters() {
+        RetryBackoff degenerate = new RetryBackoff(0, -5, 0.5);
+
+        assertThat(degenerate.ceiling(1)).isEqualTo(1);
+        assertThat(degenerate.ceiling(10)).isEqualTo(1);
+    }
+}
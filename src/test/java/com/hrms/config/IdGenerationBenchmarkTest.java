@@ -0,0 +1,160 @@
+package com.hrms.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Banc d'essai des insertions : IDENTITY contre séquence pooled (H2 en mémoire).
+ *
+ * Le nombre de requêtes préparées est déterministe et sert d'assertion ; le débit mesuré est
+ * seulement journalisé, il dépend de la machine et l'écart est bien plus marqué sur PostgreSQL
+ * où chaque requête est un aller-retour réseau. Le banc (20 000 insertions) est exclu de la
+ * suite par défaut : mvn test -Pbenchmark.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Banc d'essai de la génération des identifiants")
+class IdGenerationBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int BATCH_SIZE = 50;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+
+    @Entity
+    @Table(name = "identity_rows")
+    public static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String label;
+
+        IdentityRow() {
+        }
+
+        IdentityRow(String label) {
+            this.label = label;
+        }
+    }
+
+    @Entity
+    @Table(name = "sequence_rows")
+    public static class SequenceRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE)
+        Long id;
+        String label;
+
+        SequenceRow() {
+        }
+
+        SequenceRow(String label) {
+            this.label = label;
+        }
+    }
+
+    @BeforeAll
+    void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.connection.url", "jdbc:h2:mem:id-benchmark;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.connection.username", "sa")
+                .applySetting("hibernate.hbm2ddl.auto", "create-drop")
+                .applySetting("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE))
+                .applySetting("hibernate.order_inserts", "true")
+                .applySetting("hibernate.generate_statistics", "true")
+                .applySetting("hibernate.id.db_structure_naming_strategy", TableSequenceNamingStrategy.class.getName())
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(SequenceRow.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    private long insert(String name, IntFunction<Object> factory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(factory.apply(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+        long elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        log.info("{}: {} rows in {} ms ({} rows/s), {} prepared statements",
+                name, ROWS, elapsedMs, ROWS * 1000L / elapsedMs,
+                statistics.getPrepareStatementCount());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("La séquence pooled divise les allers-retours par la taille de lot")
+    void shouldBatchInsertsWithPooledSequence() {
+        IntFunction<Object> identityRows = i -> new IdentityRow("row-" + i);
+        IntFunction<Object> sequenceRows = i -> new SequenceRow("row-" + i);
+
+        // Premier passage pour chauffer la JVM, seul le second est mesuré
+        insert("IDENTITY (warm-up)", identityRows);
+        insert("SEQUENCE (warm-up)", sequenceRows);
+        long identityStatements = insert("IDENTITY", identityRows);
+        long sequenceStatements = insert("SEQUENCE pooled", sequenceRows);
+
+        assertThat(identityStatements).isGreaterThanOrEqualTo(ROWS);
+        // Un lot d'insertions et un appel de séquence par tranche de 50 lignes
+        assertThat(sequenceStatements).isLessThanOrEqualTo(2L * ROWS / BATCH_SIZE + 2);
+    }
+
+    @Test
+    @DisplayName("La séquence porte le nom de la table et des identifiants contigus")
+    void shouldNameSequenceAfterTable() {
+        try (Session session = sessionFactory.openSession()) {
+            List<String> sequences = session.createNativeQuery(
+                    "SELECT LOWER(SEQUENCE_NAME) FROM INFORMATION_SCHEMA.SEQUENCES WHERE INCREMENT = 50", String.class)
+                    .getResultList();
+            assertThat(sequences).contains("sequence_rows_seq");
+
+            session.beginTransaction();
+            SequenceRow first = new SequenceRow("first");
+            SequenceRow second = new SequenceRow("second");
+            session.persist(first);
+            session.persist(second);
+            session.getTransaction().commit();
+            assertThat(second.id).isEqualTo(first.id + 1);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.hrms.controller;
+
+import com.hrms.dto.ArrondissementDTO;
+import com.hrms.service.DataVersionService;
+import com.hrms.service.GeographicService;
+import com.hrms.service.GeographicStatisticsService;
+import com.hrms.util.NdjsonStreamer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration pour ArrondissementController
+ */
+@WebMvcTest(ArrondissementController.class)
+@Import(NdjsonStreamer.class)
+@DisplayName("Tests du contrôleur des arrondissements")
+class ArrondissementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GeographicService geographicService;
+
+    @MockBean
+    private GeographicStatisticsService statisticsService;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Devrait retourner les arrondissements d'une région en JSON")
+    void shouldGetArrondissementsByRegionAsJson() throws Exception {
+        when(geographicService.getArrondissementsByRegionId(1L)).thenReturn(List.of(arrondissement(10L, "Mfou")));
+
+        mockMvc.perform(get("/api/geography/arrondissements").param("regionId", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Mfou"));
+    }
+
+    @Test
+    @DisplayName("Le flux NDJSON d'une région est lu par curseur, un arrondissement par ligne")
+    void shouldStreamArrondissementsByRegion() throws Exception {
+        when(geographicService.streamArrondissementsByRegionId(1L))
+                .thenReturn(Stream.of(arrondissement(10L, "Mfou"), arrondissement(11L, "Soa")));
+
+        MvcResult result = mockMvc.perform(get("/api/geography/arrondissements").param("regionId", "1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern(
+                        "(?s)\\{[^\\n]*\"name\":\"Mfou\"[^\\n]*}\\n\\{[^\\n]*\"name\":\"Soa\"[^\\n]*}\\n")));
+        verify(geographicService, never()).getArrondissementsByRegionId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Le flux NDJSON d'un département n'est pas rassemblé en liste")
+    void shouldStreamArrondissementsByDepartment() throws Exception {
+        when(geographicService.streamArrondissementsByDepartmentId(5L))
+                .thenReturn(Stream.of(arrondissement(10L, "Mfou")));
+
+        MvcResult result = mockMvc.perform(get("/api/geography/arrondissements").param("departmentId", "5")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"name\":\"Mfou\"")));
+        verify(geographicService, never()).getArrondissementsByDepartmentId(anyLong());
+    }
+
+    private ArrondissementDTO arrondissement(Long id, String name) {
+        return ArrondissementDTO.builder()
+                .id(id)
+                .code("CE-MFOU-" + id)
+                .name(name)
+                .active(true)
+                .build();
+    }
+}
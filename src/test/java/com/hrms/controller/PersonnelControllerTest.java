@@ -2,9 +2,12 @@ package com.hrms.controller;
 
 import com.hrms.dto.PersonnelCreateDTO;
 import com.hrms.dto.PersonnelDTO;
+import com.hrms.service.DataVersionService;
+import com.hrms.service.DuplicateDetectionService;
 import com.hrms.service.PersonnelImportService;
 import com.hrms.service.PersonnelService;
 import com.hrms.service.PersonnelTrainingProfileService;
+import com.hrms.util.NdjsonStreamer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -48,6 +51,15 @@ class PersonnelControllerTest {
     @MockBean
     private PersonnelImportService personnelImportService;
 
+    @MockBean
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @MockBean
+    private NdjsonStreamer ndjsonStreamer;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
     @Test
     @DisplayName("Devrait créer un nouveau personnel")
     void shouldCreatePersonnel() throws Exception {
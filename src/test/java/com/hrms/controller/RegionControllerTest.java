@@ -3,6 +3,7 @@ package com.hrms.controller;
 import com.hrms.dto.DepartmentDTO;
 import com.hrms.dto.GeographicStatisticsDTO;
 import com.hrms.dto.RegionDTO;
+import com.hrms.service.DataVersionService;
 import com.hrms.service.GeographicService;
 import com.hrms.service.GeographicStatisticsService;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +39,9 @@ class RegionControllerTest {
     @MockBean
     private GeographicStatisticsService statisticsService;
 
+    @MockBean
+    private DataVersionService dataVersionService;
+
     @Test
     @DisplayName("Devrait retourner toutes les régions")
     void shouldGetAllRegions() throws Exception {
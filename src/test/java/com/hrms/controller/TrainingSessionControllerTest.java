@@ -0,0 +1,67 @@
+package com.hrms.controller;
+
+import com.hrms.service.DataVersionService;
+import com.hrms.service.TrainingScheduleService;
+import com.hrms.service.TrainingSessionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration pour TrainingSessionController
+ */
+@WebMvcTest(TrainingSessionController.class)
+@WithMockUser
+// @EnableJpaAuditing de l'application exige un contexte de mapping JPA
+@MockBean(JpaMetamodelMappingContext.class)
+@DisplayName("Tests du contrôleur des sessions de formation")
+class TrainingSessionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TrainingSessionService sessionService;
+
+    @MockBean
+    private TrainingScheduleService scheduleService;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @Test
+    @DisplayName("Une liste de présences nulle est refusée avant la clôture")
+    void shouldRejectNullAttendances() throws Exception {
+        mockMvc.perform(post("/api/training-sessions/1/close").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"attendances\": null}"))
+                .andExpect(status().isBadRequest());
+
+        verify(sessionService, never()).closeSession(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Une présence nulle dans la liste est refusée avant la clôture")
+    void shouldRejectNullAttendanceEntry() throws Exception {
+        mockMvc.perform(post("/api/training-sessions/1/close").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"attendances\": [null]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(sessionService, never()).closeSession(anyLong(), any());
+    }
+}
@@ -0,0 +1,172 @@
+package com.hrms.datasource;
+
+import com.hrms.tenant.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour ReplicaRoutingDataSource
+ */
+@DisplayName("Tests du routage des lectures vers les réplicas")
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final HikariDataSource replicaPool = mock(HikariDataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ResultSet lagResult = mock(ResultSet.class);
+    // Lu aussi par le contrôle initial du thread de surveillance : pas de re-stubbing en cours de test
+    private final AtomicLong replicaLagMs = new AtomicLong(100);
+
+    private ReplicaProperties properties;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lagResult);
+        when(lagResult.next()).thenReturn(true);
+        when(lagResult.getLong(1)).thenAnswer(invocation -> replicaLagMs.get());
+
+        properties = new ReplicaProperties();
+        properties.setMaxLagMs(1000);
+        properties.setPinWindowMs(60000);
+        // Les contrôles sont déclenchés par le test
+        properties.setHealthCheckIntervalMs(3_600_000);
+
+        dataSource = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.ReplicaPool("replica-1", replicaPool)), properties, null, "default");
+        dataSource.checkReplicas();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "gestionnaire", "n/a", AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Une transaction en lecture seule lit sur le réplica")
+    void testReadOnlyTransactionUsesReplica() throws SQLException {
+        beginTransaction(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("Une transaction en écriture utilise le primaire")
+    void testReadWriteTransactionUsesPrimary() throws SQLException {
+        beginTransaction(false);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Un réplica trop en retard est contourné")
+    void testLaggingReplicaBypassed() throws SQLException {
+        replicaLagMs.set(5000);
+        dataSource.checkReplicas();
+        beginTransaction(true);
+
+        assertThat(dataSource.getReplicas().get(0).getLagMs()).isEqualTo(5000L);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Après une écriture validée, les lectures de l'utilisateur restent sur le primaire")
+    void testReadYourWritesAfterCommit() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        endTransaction();
+
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        endTransaction();
+
+        // Un autre utilisateur lit toujours sur le réplica
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "autre", "n/a", AuthorityUtils.createAuthorityList("ROLE_USER")));
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("Une écriture annulée n'épingle pas la session au primaire")
+    void testRolledBackWriteDoesNotPin() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+        endTransaction();
+
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("Une connexion réplica réutilisée sans tenant reçoit le schéma du tenant par défaut")
+    void testPooledReplicaConnectionResetToDefaultSchema() throws SQLException {
+        ReplicaRoutingDataSource tenantAware = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.ReplicaPool("replica-1", replicaPool)), properties,
+                tenant -> "hrms_" + tenant, "default");
+        try {
+            tenantAware.checkReplicas();
+            beginTransaction(true);
+
+            TenantContext.setTenantId("minfi");
+            assertThat(tenantAware.getConnection()).isSameAs(replicaConnection);
+            TenantContext.clear();
+            assertThat(tenantAware.getConnection()).isSameAs(replicaConnection);
+
+            InOrder order = inOrder(replicaConnection);
+            order.verify(replicaConnection).setSchema("hrms_minfi");
+            order.verify(replicaConnection).setSchema("hrms_default");
+        } finally {
+            tenantAware.close();
+        }
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+}
@@ -0,0 +1,99 @@
+package com.hrms.dedup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de la détection des agents en double
+ */
+@DisplayName("Tests de la détection approchée des doublons")
+class DuplicateDetectorTest {
+
+    private final DuplicateDetector detector = new DuplicateDetector(0.85, 100);
+
+    private AgentIdentity agent(long id, String lastName, String firstName, LocalDate birth, String place, String cni) {
+        return AgentIdentity.builder()
+                .personnelId(id)
+                .matricule("M" + id)
+                .lastName(lastName)
+                .firstName(firstName)
+                .dateOfBirth(birth)
+                .placeOfBirth(place)
+                .cniNumber(cni)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Normalisation et clé phonétique des variantes d'orthographe")
+    void shouldNormalizeSpellingVariants() {
+        assertThat(NameKeys.normalize("  Éloundou-Essômba ")).isEqualTo("ELOUNDOU ESSOMBA");
+        assertThat(NameKeys.phonetic("Ngono")).isEqualTo(NameKeys.phonetic("NGONNO"));
+        assertThat(NameKeys.phonetic("Philippe")).isEqualTo(NameKeys.phonetic("Filipe"));
+        assertThat(NameKeys.phonetic("Mbargha")).isEqualTo(NameKeys.phonetic("MBARGA"));
+        assertThat(NameKeys.phonetic("Mbarga")).isNotEqualTo(NameKeys.phonetic("Ngono"));
+        assertThat(NameKeys.jaroWinkler("MARTHA", "MARHTA")).isBetween(0.96, 0.97);
+    }
+
+    @Test
+    @DisplayName("Doublons détectés malgré accents, fautes et noms inversés ; homonymes écartés")
+    void shouldDetectNearDuplicates() {
+        LocalDate birth = LocalDate.of(1980, 3, 14);
+        List<AgentIdentity> agents = List.of(
+                agent(1, "Essomba", "Jean-Pierre", birth, "Yaoundé", null),
+                agent(2, "ESSÔMBA", "Jean Pierre", birth, "YAOUNDE", null),
+                agent(3, "Jean Pierre", "Esomba", birth, "Yaounde", null),
+                agent(4, "Essomba", "Jean-Pierre", LocalDate.of(1980, 3, 14), "Yaoundé", "CNI-111"),
+                agent(5, "Essomba", "Jean-Pierre", LocalDate.of(1980, 3, 14), "Yaoundé", "CNI-222"),
+                agent(6, "Ngono", "Marie", LocalDate.of(1990, 7, 1), "Douala", null),
+                agent(7, "Mbarga", "Paul", LocalDate.of(1975, 1, 2), "Ebolowa", null));
+
+        DuplicateDetector.Result result = detector.detect(agents, 100, ForkJoinPool.commonPool());
+
+        assertThat(result.getPairs()).extracting(pair -> pair.getFirst().getPersonnelId() + "-" + pair.getSecond().getPersonnelId())
+                .contains("1-2", "1-3", "2-3")
+                .doesNotContain("4-5")
+                .noneMatch(pair -> pair.contains("6") || pair.contains("7"));
+        assertThat(result.getPairs().get(0).getScore()).isGreaterThanOrEqualTo(result.getPairs().get(1).getScore());
+        assertThat(result.getComparisonCount()).isLessThan(21);
+    }
+
+    @Test
+    @DisplayName("Indices relevés : noms inversés, date inversée, CNI identique")
+    void shouldExplainScore() {
+        DuplicatePair swapped = detector.score(
+                agent(1, "Ateba", "Christine", LocalDate.of(1985, 4, 7), "Bafia", null),
+                agent(2, "Christine", "Ateba", LocalDate.of(1985, 7, 4), "Bafia", null));
+        DuplicatePair sameCni = detector.score(
+                agent(3, "Owona", "Luc", LocalDate.of(1970, 1, 1), null, "1234 5678"),
+                agent(4, "Owana", "Lucien", null, null, "12345678"));
+
+        assertThat(swapped.getReasons()).contains("Nom et prénom inversés", "Jour et mois de naissance inversés",
+                "Même lieu de naissance");
+        assertThat(swapped.getScore()).isGreaterThan(0.9);
+        assertThat(sameCni.getReasons()).contains("CNI identique");
+        assertThat(sameCni.getScore()).isEqualTo(0.95);
+    }
+
+    @Test
+    @DisplayName("Une paire partageant un bloc ignoré reste comparée dans son bloc suivant")
+    void shouldCompareInNextBlockWhenFirstSharedBlockIsSkipped() {
+        DuplicateDetector smallBlocks = new DuplicateDetector(0.85, 2);
+        List<AgentIdentity> agents = List.of(
+                agent(1, "Essomba", "Jean", LocalDate.of(1980, 3, 14), null, "CNI-111"),
+                agent(2, "Essomba", "Jean", LocalDate.of(1980, 6, 1), null, "CNI-111"),
+                agent(3, "Essomba", "Jean", LocalDate.of(1980, 9, 9), null, null));
+
+        DuplicateDetector.Result result = smallBlocks.detect(agents, 100, ForkJoinPool.commonPool());
+
+        assertThat(result.getSkippedBlockCount()).isEqualTo(2);
+        assertThat(result.getComparisonCount()).isEqualTo(1);
+        assertThat(result.getPairs()).extracting(pair -> pair.getFirst().getPersonnelId() + "-" + pair.getSecond().getPersonnelId())
+                .containsExactly("1-2");
+    }
+}
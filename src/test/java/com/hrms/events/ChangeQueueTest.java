@@ -0,0 +1,125 @@
+package com.hrms.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de la file des changements d'entités
+ */
+@DisplayName("Tests de la file des changements")
+class ChangeQueueTest {
+
+    private EntityChange change(long outboxId, String tenant, String type, long aggregateId) {
+        return EntityChange.builder()
+                .outboxId(outboxId)
+                .tenant(tenant)
+                .aggregateType(type)
+                .aggregateId(aggregateId)
+                .changeType(ChangeType.UPDATED)
+                .changedProperties(Set.of())
+                .occurredAt(LocalDateTime.of(2026, 3, 1, 10, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Lots dans l'ordre de l'outbox, sans doublon lors d'une reprise")
+    void shouldOrderByOutboxIdAndIgnoreReplayedChanges() {
+        ChangeQueue queue = new ChangeQueue();
+        queue.offer(List.of(change(7, "default", "Personnel", 1), change(3, "default", "Personnel", 1)));
+
+        int added = queue.offer(List.of(change(3, "default", "Personnel", 1), change(5, "default", "Position", 9)));
+
+        assertThat(added).isEqualTo(1);
+        ChangeBatch batch = queue.poll(10);
+        assertThat(batch.getChanges()).extracting(EntityChange::getOutboxId).containsExactly(3L, 5L, 7L);
+        assertThat(queue.poll(10)).isNull();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Les tenants sont servis à tour de rôle")
+    void shouldServeTenantsInTurn() {
+        ChangeQueue queue = new ChangeQueue();
+        queue.offer(List.of(change(1, "a", "Personnel", 1), change(2, "a", "Personnel", 2),
+                change(3, "a", "Personnel", 3), change(4, "b", "Personnel", 4)));
+
+        assertThat(queue.poll(2).getTenant()).isEqualTo("a");
+        assertThat(queue.poll(2).getTenant()).isEqualTo("b");
+        ChangeBatch last = queue.poll(2);
+        assertThat(last.getTenant()).isEqualTo("a");
+        assertThat(last.getChanges()).extracting(EntityChange::getOutboxId).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Filtrage par type d'agrégat et identifiants distincts")
+    void shouldFilterBatchByAggregateType() {
+        ChangeBatch batch = new ChangeBatch("default", List.of(change(1, "default", "PersonnelLeave", 8),
+                change(2, "default", "Position", 9), change(3, "default", "PersonnelLeave", 8)));
+
+        ChangeBatch leaves = batch.only(Set.of("PersonnelLeave"));
+
+        assertThat(leaves.size()).isEqualTo(2);
+        assertThat(leaves.aggregateIds("PersonnelLeave")).containsExactly(8L);
+        assertThat(batch.only(Set.of())).isSameAs(batch);
+    }
+
+    @Test
+    @DisplayName("Remise dans l'ordre de l'agrégat : changements publiés écartés, suivants d'un manquant retenus")
+    void shouldGateChangesOnOldestUnpublishedOfAggregate() {
+        // Personnel#1 : 3 déjà publié, 4 en échec hors du lot ; Personnel#2 : 6 puis 8 ; Position#9 : 7
+        ChangeBatch batch = new ChangeBatch("default", List.of(change(3, "default", "Personnel", 1),
+                change(5, "default", "Personnel", 1), change(6, "default", "Personnel", 2),
+                change(7, "default", "Position", 9), change(8, "default", "Personnel", 2)));
+        Map<String, List<Long>> unpublished = Map.of(
+                EntityChange.aggregateKey("Personnel", 1), List.of(4L, 5L),
+                EntityChange.aggregateKey("Personnel", 2), List.of(6L, 8L),
+                EntityChange.aggregateKey("Position", 9), List.of(7L));
+
+        ChangeBatch.Ordering ordering = batch.inAggregateOrder(unpublished);
+
+        assertThat(ordering.deliverable().getChanges()).extracting(EntityChange::getOutboxId).containsExactly(6L, 7L, 8L);
+        assertThat(ordering.held()).extracting(EntityChange::getOutboxId).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Un changement devancé par la publication du suivant est retenu puis remis dans l'ordre")
+    void shouldReleaseHeldChangesOnceTheirAggregateIsDelivered() {
+        ChangeQueue queue = new ChangeQueue();
+        // La publication de 6 arrive avant celle de 5 (même agrégat)
+        queue.offer(List.of(change(6, "default", "Personnel", 1)));
+        ChangeBatch.Ordering first = queue.poll(10).inAggregateOrder(
+                Map.of(EntityChange.aggregateKey("Personnel", 1), List.of(5L, 6L)));
+        assertThat(first.deliverable().isEmpty()).isTrue();
+        queue.hold("default", first.held());
+        assertThat(queue.size()).isZero();
+
+        queue.offer(List.of(change(5, "default", "Personnel", 1)));
+        ChangeBatch.Ordering second = queue.poll(10).inAggregateOrder(
+                Map.of(EntityChange.aggregateKey("Personnel", 1), List.of(5L, 6L)));
+        assertThat(second.deliverable().getChanges()).extracting(EntityChange::getOutboxId).containsExactly(5L);
+
+        assertThat(queue.release(second.deliverable())).isEqualTo(1);
+        ChangeBatch.Ordering third = queue.poll(10).inAggregateOrder(
+                Map.of(EntityChange.aggregateKey("Personnel", 1), List.of(6L)));
+        assertThat(third.deliverable().getChanges()).extracting(EntityChange::getOutboxId).containsExactly(6L);
+        assertThat(third.held()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Les changements retenus anciens sont laissés à la reprise")
+    void shouldDropHeldChangesOlderThanReplayWindow() {
+        ChangeQueue queue = new ChangeQueue();
+        queue.hold("default", List.of(change(6, "default", "Personnel", 1)));
+
+        queue.dropHeld("default", LocalDateTime.of(2026, 3, 1, 11, 0));
+
+        assertThat(queue.release(new ChangeBatch("default", List.of(change(5, "default", "Personnel", 1))))).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package com.hrms.expiry;
+
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'échéancier des documents
+ */
+@DisplayName("Tests de l'échéancier d'expiration des documents")
+class ExpiryCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+
+    private DocumentExpiry expiry(long documentId, LocalDate expiryDate) {
+        return DocumentExpiry.builder()
+                .documentId(documentId)
+                .personnelId(100 + documentId)
+                .documentType(DocumentType.CNI)
+                .expiryDate(expiryDate)
+                .build();
+    }
+
+    private ExpiryCalendar calendar() {
+        ExpiryCalendar calendar = new ExpiryCalendar(TODAY);
+        calendar.load(expiry(1, TODAY.minusDays(40)));
+        calendar.load(expiry(2, TODAY));
+        calendar.load(expiry(3, TODAY.plusDays(5)));
+        calendar.load(expiry(4, TODAY.plusDays(45)));
+        calendar.load(expiry(5, null));
+        return calendar;
+    }
+
+    @Test
+    @DisplayName("Expirés et expirant bientôt servis par plage de dates")
+    void shouldServeRangeLookups() {
+        ExpiryCalendar calendar = calendar();
+
+        assertThat(calendar.size()).isEqualTo(4);
+        assertThat(calendar.expiredOn(TODAY)).extracting(DocumentExpiry::getDocumentId).containsExactly(1L);
+        assertThat(calendar.expiringBetween(TODAY, TODAY.plusDays(30)))
+                .extracting(DocumentExpiry::getDocumentId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Chaque expiration n'est notifiée qu'une fois, au premier passage après l'échéance")
+    void shouldNotifyEachExpiryOnce() {
+        ExpiryCalendar calendar = calendar();
+
+        assertThat(calendar.advanceTo(TODAY)).isEmpty();
+        assertThat(calendar.advanceTo(TODAY.plusDays(1))).extracting(DocumentExpiry::getDocumentId).containsExactly(2L);
+        assertThat(calendar.advanceTo(TODAY.plusDays(1))).isEmpty();
+        assertThat(calendar.advanceTo(TODAY.plusDays(10))).extracting(DocumentExpiry::getDocumentId).containsExactly(3L);
+        assertThat(calendar.getNotifiedBefore()).isEqualTo(TODAY.plusDays(10));
+    }
+
+    @Test
+    @DisplayName("Échéance déjà dépassée à l'ajout ou après modification : notifiée au passage suivant")
+    void shouldNotifyLateExpiries() {
+        ExpiryCalendar calendar = calendar();
+
+        calendar.upsert(expiry(6, TODAY.minusDays(3)));
+        calendar.upsert(expiry(4, TODAY.minusDays(1)));
+        calendar.upsert(expiry(1, TODAY.minusDays(41)));
+        calendar.upsert(expiry(6, TODAY.minusDays(2)));
+        calendar.remove(3L);
+
+        assertThat(calendar.advanceTo(TODAY.plusDays(6))).extracting(DocumentExpiry::getDocumentId)
+                .containsExactly(4L, 6L, 2L);
+        assertThat(calendar.expiredOn(TODAY.plusDays(6))).extracting(DocumentExpiry::getDocumentId)
+                .containsExactly(1L, 6L, 4L, 2L);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hrms.facets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires du bitmap compressé
+ */
+@DisplayName("Tests du bitmap compressé")
+class CompressedBitmapTest {
+
+    private CompressedBitmap bitmap(BitSet values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        values.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private BitSet random(Random random, int count, int bound) {
+        BitSet values = new BitSet();
+        for (int i = 0; i < count; i++) {
+            values.set(random.nextInt(bound));
+        }
+        return values;
+    }
+
+    private BitSet toBitSet(CompressedBitmap bitmap) {
+        BitSet values = new BitSet();
+        bitmap.forEach(value -> {
+            values.set(value);
+            return true;
+        });
+        return values;
+    }
+
+    @Test
+    @DisplayName("Ajout, retrait et appartenance, blocs creux et denses")
+    void shouldAddAndRemoveAcrossContainerKinds() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = 0; value < 10_000; value++) {
+            bitmap.add(value);
+        }
+        bitmap.add(200_000);
+        bitmap.add(200_000);
+
+        assertThat(bitmap.cardinality()).isEqualTo(10_001);
+        assertThat(bitmap.contains(9_999)).isTrue();
+        assertThat(bitmap.contains(10_000)).isFalse();
+        assertThat(bitmap.contains(200_000)).isTrue();
+
+        for (int value = 0; value < 9_000; value++) {
+            bitmap.remove(value);
+        }
+        bitmap.remove(200_000);
+
+        assertThat(bitmap.cardinality()).isEqualTo(1_000);
+        assertThat(bitmap.contains(8_999)).isFalse();
+        assertThat(bitmap.contains(9_000)).isTrue();
+        assertThat(bitmap.slice(0, 3)).containsExactly(9_000, 9_001, 9_002);
+    }
+
+    @Test
+    @DisplayName("Intersection et union conformes à un BitSet de référence")
+    void shouldMatchReferenceSetOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // Densités variées : blocs creux, denses et mixtes
+            BitSet left = random(random, 1 + random.nextInt(30_000), 300_000);
+            BitSet right = random(random, 1 + random.nextInt(30_000), 300_000);
+            CompressedBitmap a = bitmap(left);
+            CompressedBitmap b = bitmap(right);
+
+            BitSet and = (BitSet) left.clone();
+            and.and(right);
+            BitSet or = (BitSet) left.clone();
+            or.or(right);
+
+            assertThat(toBitSet(a.and(b))).isEqualTo(and);
+            assertThat(a.andCardinality(b)).isEqualTo(and.cardinality());
+            assertThat(toBitSet(a.or(b))).isEqualTo(or);
+            assertThat(a.or(b).cardinality()).isEqualTo(or.cardinality());
+            // Les opérations ne modifient pas leurs opérandes
+            assertThat(toBitSet(a)).isEqualTo(left);
+            assertThat(toBitSet(b)).isEqualTo(right);
+        }
+    }
+
+    @Test
+    @DisplayName("Page de valeurs dans l'ordre croissant")
+    void shouldSliceInAscendingOrder() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(70_000);
+        bitmap.add(5);
+        bitmap.add(3);
+        bitmap.add(65_536);
+
+        assertThat(bitmap.slice(0, 10)).containsExactly(3, 5, 65_536, 70_000);
+        assertThat(bitmap.slice(1, 2)).containsExactly(5, 65_536);
+        assertThat(bitmap.slice(4, 2)).isEmpty();
+    }
+}
@@ -0,0 +1,96 @@
+package com.hrms.facets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'index à facettes des agents
+ */
+@DisplayName("Tests de l'index à facettes des personnels")
+class FacetIndexTest {
+
+    private FacetAgent agent(long id, String grade, String structure, String gender) {
+        return FacetAgent.builder()
+                .personnelId(id)
+                .values(Map.of(
+                        PersonnelFacet.GRADE, grade,
+                        PersonnelFacet.STRUCTURE, structure,
+                        PersonnelFacet.GENDER, gender))
+                .build();
+    }
+
+    private FacetIndex index() {
+        FacetIndex index = new FacetIndex();
+        index.upsert(agent(10, "G1", "S1", "MALE"));
+        index.upsert(agent(11, "G1", "S2", "FEMALE"));
+        index.upsert(agent(12, "G2", "S1", "FEMALE"));
+        index.upsert(agent(13, "G3", "S2", "MALE"));
+        return index;
+    }
+
+    @Test
+    @DisplayName("OU au sein d'une facette, ET entre facettes")
+    void shouldCombineSelections() {
+        FacetResult result = index().search(Map.of(
+                PersonnelFacet.GRADE, List.of("G1", "G2"),
+                PersonnelFacet.GENDER, List.of("FEMALE")), 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getPersonnelIds()).containsExactly(11L, 12L);
+    }
+
+    @Test
+    @DisplayName("Effectifs d'une facette calculés avec les choix des autres facettes seulement")
+    void shouldCountFacetsAgainstOtherSelections() {
+        FacetResult result = index().search(Map.of(
+                PersonnelFacet.GRADE, List.of("G1"),
+                PersonnelFacet.STRUCTURE, List.of("S1")), 0, 10);
+
+        assertThat(result.getPersonnelIds()).containsExactly(10L);
+        // Grades possibles dans S1
+        assertThat(result.getCounts().get(PersonnelFacet.GRADE)).containsExactlyEntriesOf(Map.of("G1", 1, "G2", 1));
+        // Structures possibles pour G1
+        assertThat(result.getCounts().get(PersonnelFacet.STRUCTURE)).containsEntry("S1", 1).containsEntry("S2", 1);
+        // Facette sans choix : effectifs du résultat
+        assertThat(result.getCounts().get(PersonnelFacet.GENDER)).containsExactlyEntriesOf(Map.of("MALE", 1));
+    }
+
+    @Test
+    @DisplayName("Mise à jour et retrait d'un agent reflétés dans les effectifs")
+    void shouldApplyIncrementalChanges() {
+        FacetIndex index = index();
+        index.upsert(agent(10, "G3", "S1", "MALE"));
+        index.remove(13L);
+
+        FacetResult result = index.search(Map.of(), 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getCounts().get(PersonnelFacet.GRADE))
+                .containsEntry("G1", 1).containsEntry("G2", 1).containsEntry("G3", 1);
+        assertThat(index.contains(13L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Valeur choisie inconnue : résultat vide, valeur rendue avec un effectif nul")
+    void shouldKeepUnknownSelectedValue() {
+        FacetResult result = index().search(Map.of(PersonnelFacet.GRADE, List.of("G9")), 0, 10);
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(result.getPersonnelIds()).isEmpty();
+        assertThat(result.getCounts().get(PersonnelFacet.GRADE)).containsEntry("G9", 0).containsEntry("G1", 2);
+    }
+
+    @Test
+    @DisplayName("Pagination dans l'ordre des rangs")
+    void shouldPaginate() {
+        FacetResult result = index().search(Map.of(), 1, 2);
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getPersonnelIds()).containsExactly(11L, 12L);
+    }
+}
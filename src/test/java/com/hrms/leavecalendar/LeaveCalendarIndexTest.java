@@ -0,0 +1,77 @@
+package com.hrms.leavecalendar;
+
+import com.hrms.entity.PersonnelLeave.LeaveReason;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'index des congés par structure
+ */
+@DisplayName("Tests du calendrier de disponibilité")
+class LeaveCalendarIndexTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2025, 6, 1);
+
+    private LeaveInterval leave(long id, long personnelId, String path, int fromDay, int toDay, LeaveReason reason) {
+        return LeaveInterval.builder()
+                .leaveId(id)
+                .personnelId(personnelId)
+                .structurePath(path)
+                .startDate(JUNE_1.plusDays(fromDay))
+                .endDate(JUNE_1.plusDays(toDay))
+                .reason(reason)
+                .build();
+    }
+
+    private LeaveCalendarIndex index() {
+        LeaveCalendarIndex index = new LeaveCalendarIndex();
+        index.setHeadcount("/1/5/", 10);
+        index.setHeadcount("/1/5/23/", 4);
+        index.setHeadcount("/1/50/", 7);
+        index.upsert(leave(1, 1, "/1/5/", -10, 2, LeaveReason.ANNUEL));
+        index.upsert(leave(2, 1, "/1/5/", 2, 4, LeaveReason.MALADIE));
+        index.upsert(leave(3, 2, "/1/5/23/", 3, 40, LeaveReason.MATERNITE));
+        index.upsert(leave(4, 3, "/1/50/", 0, 5, LeaveReason.ANNUEL));
+        return index;
+    }
+
+    @Test
+    @DisplayName("Série journalière du sous-arbre, un agent compté une fois par jour")
+    void shouldCountDistinctAbsentAgentsPerDay() {
+        AvailabilitySeries series = index().series("/1/5/", JUNE_1, JUNE_1.plusDays(6), null);
+
+        assertThat(series.getHeadcount()).isEqualTo(14);
+        assertThat(series.getAbsentAgentCount()).isEqualTo(2);
+        assertThat(series.getAbsentByDay()).containsExactly(1, 1, 1, 2, 2, 1, 1);
+        assertThat(series.available(3)).isEqualTo(12);
+        assertThat(series.date(series.peakDay())).isEqualTo(JUNE_1.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("Filtre par motif de congé")
+    void shouldFilterByReason() {
+        AvailabilitySeries series = index().series(null, JUNE_1, JUNE_1.plusDays(2), Set.of(LeaveReason.ANNUEL));
+
+        assertThat(series.getHeadcount()).isEqualTo(21);
+        assertThat(series.getAbsentByDay()).containsExactly(2, 2, 2);
+    }
+
+    @Test
+    @DisplayName("Mise à jour incrémentale : déplacement et suppression de congés")
+    void shouldApplyIncrementalUpdates() {
+        LeaveCalendarIndex index = index();
+
+        index.upsert(leave(3, 2, "/1/5/23/", 10, 12, LeaveReason.MATERNITE));
+        index.remove(1L);
+        index.remove(42L);
+
+        AvailabilitySeries series = index.series("/1/5/", JUNE_1, JUNE_1.plusDays(6), null);
+        assertThat(index.leaveCount()).isEqualTo(3);
+        assertThat(series.getAbsentByDay()).containsExactly(0, 0, 1, 1, 1, 0, 0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hrms.matching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'index de rapprochement postes / agents
+ */
+@DisplayName("Tests de l'index de rapprochement")
+class MatchingIndexTest {
+
+    private VacancyEntry vacancy(long id, String path, String grade, Integer minExperience) {
+        return VacancyEntry.builder()
+                .positionId(id)
+                .code("P" + id)
+                .structurePath(path)
+                .requiredGrade(MatchingIndex.normalize(grade))
+                .minExperienceYears(minExperience)
+                .build();
+    }
+
+    private CandidateEntry candidate(long id, String path, String grade, int seniority) {
+        return CandidateEntry.builder()
+                .personnelId(id)
+                .fullName("Agent " + id)
+                .gradeCode(MatchingIndex.normalize(grade))
+                .gradeName(MatchingIndex.normalize(grade))
+                .structurePath(path)
+                .seniorityYears(seniority)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Normalisation des libellés de grade")
+    void shouldNormalizeLabels() {
+        assertThat(MatchingIndex.normalize("  Administrateur  civil principal ")).isEqualTo("ADMINISTRATEUR CIVIL PRINCIPAL");
+        assertThat(MatchingIndex.normalize("Attaché d'administration")).isEqualTo("ATTACHE D'ADMINISTRATION");
+        assertThat(MatchingIndex.normalize(" ")).isNull();
+    }
+
+    @Test
+    @DisplayName("Seuls les agents du grade requis et assez anciens sont proposés, les plus proches d'abord")
+    void shouldRankCandidatesForVacancy() {
+        MatchingIndex index = new MatchingIndex(
+                List.of(vacancy(1, "/1/2/", "Administrateur civil", 5)),
+                List.of(candidate(10, "/1/2/", "Administrateur civil", 10),
+                        candidate(11, "/1/3/", "Administrateur civil", 10),
+                        candidate(12, "/1/2/", "Administrateur civil", 2),
+                        candidate(13, "/1/2/", "Attaché", 20)));
+
+        List<MatchingIndex.Match> matches = index.candidatesFor(index.getVacancy(1), 10);
+
+        assertThat(matches).extracting(match -> match.getCandidate().getPersonnelId()).containsExactly(10L, 11L);
+    }
+
+    @Test
+    @DisplayName("Postes d'un agent : postes de son grade et postes sans exigence")
+    void shouldFindVacanciesForCandidate() {
+        MatchingIndex index = new MatchingIndex(
+                List.of(vacancy(1, "/1/2/", "Administrateur civil", null),
+                        vacancy(2, "/1/2/", null, null),
+                        vacancy(3, "/1/2/", "Attaché", null)),
+                List.of(candidate(10, "/1/2/", "administrateur CIVIL", 4)));
+
+        List<MatchingIndex.Match> matches = index.vacanciesFor(index.getCandidate(10), null, 10);
+
+        assertThat(matches).extracting(match -> match.getVacancy().getPositionId()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Le plan de pourvoi couvre le sous-arbre et n'affecte jamais deux fois le même agent")
+    void shouldBuildFillPlanForSubtree() {
+        MatchingIndex index = new MatchingIndex(
+                List.of(vacancy(1, "/1/2/", "Administrateur civil", null),
+                        vacancy(2, "/1/2/7/", null, null),
+                        vacancy(3, "/1/20/", null, null)),
+                List.of(candidate(10, "/1/2/", "Administrateur civil", 10),
+                        candidate(11, "/1/2/", "Attaché", 10)));
+
+        MatchingIndex.FillPlan plan = index.fillPlan("/1/2/", 5);
+
+        assertThat(plan.getVacancyCount()).isEqualTo(2);
+        assertThat(plan.getProposals()).hasSize(2);
+        assertThat(plan.getProposals())
+                .extracting(match -> match.getVacancy().getPositionId() + "->" + match.getCandidate().getPersonnelId())
+                .containsExactlyInAnyOrder("1->10", "2->11");
+        assertThat(plan.getUnfilled()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Une mise à jour remplace les postes et agents modifiés sans toucher l'index courant")
+    void shouldApplyChangesToNewIndex() {
+        MatchingIndex index = new MatchingIndex(
+                List.of(vacancy(1, "/1/2/", null, null), vacancy(2, "/1/2/", null, null)),
+                List.of(candidate(10, "/1/2/", "Attaché", 5), candidate(11, "/1/2/", "Attaché", 5)));
+
+        // Poste 1 pourvu par l'agent 10 (plus affectable), poste 3 créé, agent 12 devenu affectable
+        MatchingIndex updated = index.withChanges(
+                Set.of(1L, 3L), List.of(vacancy(3, "/1/5/", null, null)),
+                Set.of(10L, 12L), List.of(candidate(12, "/1/5/", "Attaché", 2)));
+
+        assertThat(updated.getVacancy(1)).isNull();
+        assertThat(updated.getVacancy(2)).isNotNull();
+        assertThat(updated.getVacancy(3)).isNotNull();
+        assertThat(updated.getCandidate(10)).isNull();
+        assertThat(updated.getCandidate(12)).isNotNull();
+        assertThat(updated.candidatesFor(updated.getVacancy(3), 5))
+                .extracting(match -> match.getCandidate().getPersonnelId())
+                .containsExactly(12L, 11L);
+
+        assertThat(index.vacancyCount()).isEqualTo(2);
+        assertThat(index.getCandidate(10)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Profondeur commune des chemins de structure")
+    void shouldComputeCommonDepth() {
+        assertThat(MatchingIndex.commonDepth("/1/5/23/", "/1/5/24/")).isEqualTo(2);
+        assertThat(MatchingIndex.commonDepth("/1/5/2/", "/1/5/23/")).isEqualTo(2);
+        assertThat(MatchingIndex.commonDepth("/12/", "/1/")).isZero();
+        assertThat(MatchingIndex.commonDepth(null, "/1/")).isZero();
+    }
+}
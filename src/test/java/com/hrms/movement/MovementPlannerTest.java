@@ -0,0 +1,108 @@
+package com.hrms.movement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'ordonnancement des mouvements en lot
+ */
+@DisplayName("Tests du planificateur de mouvements")
+class MovementPlannerTest {
+
+    private PlannedMovement move(long id, long personnelId, Long source, Long destination, Long destinationHolder) {
+        return PlannedMovement.builder()
+                .movementId(id)
+                .personnelId(personnelId)
+                .sourcePositionId(source)
+                .sourceHolderId(source != null ? personnelId : null)
+                .destinationPositionId(destination)
+                .destinationHolderId(destinationHolder)
+                .destinationAvailable(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Une chaîne est exécutée dans l'ordre des libérations")
+    void shouldOrderChain() {
+        // 1 : agent 10 quitte P100 pour P200 (vacant) ; 2 : agent 20 prend P100 ; 3 : agent 30 prend P300 (occupé par 20)
+        List<PlannedMovement> movements = List.of(
+                move(3, 30, null, 300L, 20L),
+                move(2, 20, 300L, 100L, 10L),
+                move(1, 10, 100L, 200L, null));
+
+        MovementPlanner.Plan plan = MovementPlanner.plan(movements);
+
+        assertThat(plan.getConflicts()).isEmpty();
+        assertThat(plan.getUnits()).extracting(unit -> unit.getMovements().get(0).getMovementId())
+                .containsExactly(1L, 2L, 3L);
+        assertThat(plan.getDependencies()).containsEntry(2L, 1L).containsEntry(3L, 2L);
+    }
+
+    @Test
+    @DisplayName("Une permutation de postes forme une unité indivisible")
+    void shouldGroupSwapIntoCycle() {
+        List<PlannedMovement> movements = List.of(
+                move(1, 10, 100L, 200L, 20L),
+                move(2, 20, 200L, 100L, 10L),
+                move(3, 30, 300L, 400L, null));
+
+        MovementPlanner.Plan plan = MovementPlanner.plan(movements);
+
+        assertThat(plan.getConflicts()).isEmpty();
+        assertThat(plan.getUnits()).hasSize(2);
+        MovementPlanner.Unit cycle = plan.getUnits().stream().filter(MovementPlanner.Unit::isCycle).findFirst().orElseThrow();
+        assertThat(cycle.getMovements()).extracting(PlannedMovement::getMovementId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Un poste occupé et non libéré est un conflit propagé aux dépendants")
+    void shouldPropagateConflicts() {
+        List<PlannedMovement> movements = List.of(
+                move(1, 10, 100L, 200L, 99L),
+                move(2, 20, null, 100L, 10L));
+
+        MovementPlanner.Plan plan = MovementPlanner.plan(movements);
+
+        assertThat(plan.getUnits()).isEmpty();
+        assertThat(plan.getConflicts()).containsKeys(1L, 2L);
+        assertThat(plan.getConflicts().get(2L)).contains("1");
+    }
+
+    @Test
+    @DisplayName("Doublons de personnel et de poste visé")
+    void shouldRejectDuplicates() {
+        List<PlannedMovement> movements = List.of(
+                move(1, 10, null, 200L, null),
+                move(2, 10, null, 300L, null),
+                move(3, 30, null, 400L, null),
+                move(4, 40, null, 400L, null),
+                move(5, 50, null, 500L, null));
+
+        MovementPlanner.Plan plan = MovementPlanner.plan(movements);
+
+        assertThat(plan.getConflicts()).containsOnlyKeys(1L, 2L, 3L, 4L);
+        assertThat(plan.getUnits()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Un cumul officiel ne libère pas le poste quitté")
+    void shouldNotFreeSourceOnCumul() {
+        PlannedMovement cumul = PlannedMovement.builder()
+                .movementId(1)
+                .personnelId(10)
+                .sourcePositionId(100L)
+                .sourceHolderId(10L)
+                .keepsSource(true)
+                .destinationPositionId(200L)
+                .destinationAvailable(true)
+                .build();
+
+        MovementPlanner.Plan plan = MovementPlanner.plan(List.of(cumul, move(2, 20, null, 100L, 10L)));
+
+        assertThat(plan.getConflicts()).containsOnlyKeys(2L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.hrms.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de la détection des conflits de planification
+ */
+@DisplayName("Tests du planning des sessions de formation")
+class SessionScheduleTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2025, 3, 1);
+
+    private SessionSlot slot(String reference, Long sessionId, Long trainerId, List<Long> coTrainers,
+                             String location, int startDay, int endDay) {
+        return SessionSlot.builder()
+                .reference(reference)
+                .sessionId(sessionId)
+                .trainerId(trainerId)
+                .coTrainerIds(coTrainers)
+                .location(location)
+                .startDate(MARCH.plusDays(startDay))
+                .endDate(MARCH.plusDays(endDay))
+                .build();
+    }
+
+    @Test
+    @DisplayName("L'arbre d'intervalles rend les mêmes chevauchements qu'un parcours complet")
+    void shouldMatchBruteForce() {
+        Random random = new Random(42);
+        List<IntervalIndex.Entry<Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(1000);
+            entries.add(new IntervalIndex.Entry<>(start, start + random.nextInt(30), i));
+        }
+        IntervalIndex<Integer> index = new IntervalIndex<>(entries);
+
+        for (int query = 0; query < 200; query++) {
+            long from = random.nextInt(1040) - 20;
+            long to = from + random.nextInt(15);
+            List<Integer> expected = entries.stream()
+                    .filter(entry -> entry.getStart() <= to && entry.getEnd() >= from)
+                    .map(IntervalIndex.Entry::getValue)
+                    .toList();
+            assertThat(index.overlapping(from, to)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+        assertThat(new IntervalIndex<Integer>(List.of()).overlapping(0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Formateur principal, co-formateur et lieu sont vérifiés, bornes incluses")
+    void shouldDetectTrainerAndLocationConflicts() {
+        SessionSchedule schedule = new SessionSchedule(List.of(
+                slot("S1", 1L, 10L, List.of(11L), "Salle A", 0, 4),
+                slot("S2", 2L, 20L, List.of(), "Salle B", 10, 12)));
+
+        List<ScheduleConflict> coTrainer = schedule.conflicts(slot("N1", null, 30L, List.of(11L), "Salle C", 4, 6));
+        assertThat(coTrainer).singleElement().satisfies(conflict -> {
+            assertThat(conflict.getResource()).isEqualTo(ScheduleConflict.Resource.TRAINER);
+            assertThat(conflict.getTrainerId()).isEqualTo(11L);
+            assertThat(conflict.getOverlapStart()).isEqualTo(MARCH.plusDays(4));
+            assertThat(conflict.getOverlapEnd()).isEqualTo(MARCH.plusDays(4));
+        });
+
+        List<ScheduleConflict> location = schedule.conflicts(slot("N2", null, 30L, null, "  salle b ", 12, 15));
+        assertThat(location).extracting(ScheduleConflict::getResource)
+                .containsExactly(ScheduleConflict.Resource.LOCATION);
+
+        assertThat(schedule.conflicts(slot("N3", null, 10L, null, "Salle A", 5, 9))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Une session ne rentre pas en conflit avec elle-même")
+    void shouldIgnoreSameSession() {
+        SessionSchedule schedule = new SessionSchedule(List.of(slot("S1", 1L, 10L, List.of(10L), "Salle A", 0, 4)));
+
+        assertThat(schedule.conflicts(slot("S1", 1L, 10L, List.of(10L), "Salle A", 1, 5))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Plan : sessions déplacées remplacées, conflits internes au plan détectés")
+    void shouldValidatePlan() {
+        List<SessionSlot> scheduled = List.of(
+                slot("S1", 1L, 10L, null, "Salle A", 0, 4),
+                slot("S2", 2L, 20L, null, "Salle B", 0, 4));
+        List<SessionSlot> planned = List.of(
+                slot("S1", 1L, 10L, null, "Salle A", 20, 22),
+                slot("P1", null, 10L, null, "Salle C", 2, 3),
+                slot("P2", null, 30L, null, "Salle C", 3, 5),
+                slot("P3", null, 20L, null, "Salle D", 5, 6));
+
+        List<List<ScheduleConflict>> conflicts = SessionSchedule.validate(scheduled, planned);
+
+        assertThat(conflicts).hasSize(4);
+        assertThat(conflicts.get(0)).isEmpty();
+        assertThat(conflicts.get(1)).extracting(conflict -> conflict.getConflictingSlot().getReference())
+                .containsExactly("P2");
+        assertThat(conflicts.get(2)).extracting(conflict -> conflict.getConflictingSlot().getReference())
+                .containsExactly("P1");
+        assertThat(conflicts.get(3)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hrms.search;
+
+import com.hrms.dto.PersonnelSearchCriteriaDTO;
+import com.hrms.entity.Personnel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de la clé canonique des critères de recherche
+ */
+@DisplayName("Tests de la clé canonique des critères de recherche avancée")
+class SearchCriteriaKeyTest {
+
+    @Test
+    @DisplayName("Critères équivalents : même clé")
+    void shouldNormalizeEquivalentCriteria() {
+        PersonnelSearchCriteriaDTO first = PersonnelSearchCriteriaDTO.builder()
+                .lastName("Mbarga")
+                .firstName("  ")
+                .gender(Personnel.Gender.values()[0])
+                .retirable(false)
+                .sortDirection("desc")
+                .build();
+        PersonnelSearchCriteriaDTO second = PersonnelSearchCriteriaDTO.builder()
+                .lastName("MBARGA")
+                .gender(Personnel.Gender.values()[0])
+                .sortDirection("ASC")
+                .includeSubStructures(null)
+                .build();
+
+        assertThat(SearchCriteriaKey.canonical(first)).isEqualTo(SearchCriteriaKey.canonical(second));
+        assertThat(SearchCriteriaKey.digest(first)).isEqualTo(SearchCriteriaKey.digest(second)).hasSize(64);
+    }
+
+    @Test
+    @DisplayName("Critères différents : clés différentes")
+    void shouldDistinguishDifferentCriteria() {
+        PersonnelSearchCriteriaDTO base = PersonnelSearchCriteriaDTO.builder().gradeId(3L).build();
+
+        assertThat(SearchCriteriaKey.digest(base))
+                .isNotEqualTo(SearchCriteriaKey.digest(PersonnelSearchCriteriaDTO.builder().gradeId(4L).build()))
+                .isNotEqualTo(SearchCriteriaKey.digest(PersonnelSearchCriteriaDTO.builder().gradeId(3L)
+                        .sortBy("matricule").build()))
+                // À false, l'indicateur filtre les agents non E.C.I.
+                .isNotEqualTo(SearchCriteriaKey.digest(PersonnelSearchCriteriaDTO.builder().gradeId(3L)
+                        .eci(false).build()));
+        // Catégorie comparée par égalité : la casse compte
+        assertThat(SearchCriteriaKey.canonical(PersonnelSearchCriteriaDTO.builder().category("A").build()))
+                .isNotEqualTo(SearchCriteriaKey.canonical(PersonnelSearchCriteriaDTO.builder().category("a").build()));
+    }
+
+    @Test
+    @DisplayName("Les séparateurs présents dans une valeur ne créent pas de collision")
+    void shouldEscapeSeparators() {
+        PersonnelSearchCriteriaDTO injected = PersonnelSearchCriteriaDTO.builder()
+                .email("x;matricule=y")
+                .build();
+        PersonnelSearchCriteriaDTO split = PersonnelSearchCriteriaDTO.builder()
+                .email("x")
+                .matricule("y")
+                .build();
+
+        assertThat(SearchCriteriaKey.canonical(injected)).isNotEqualTo(SearchCriteriaKey.canonical(split));
+    }
+
+    @Test
+    @DisplayName("Résultat en cache relu à l'identique depuis sa forme stockée")
+    void shouldRoundTripCachedResult() {
+        CachedSearchResult ids = CachedSearchResult.of(List.of(5L, 2L, 9L));
+        CachedSearchResult empty = CachedSearchResult.of(List.of());
+        CachedSearchResult totalOnly = CachedSearchResult.totalOnly(120_000);
+
+        assertThat(CachedSearchResult.decode(ids.encode())).isEqualTo(ids);
+        assertThat(CachedSearchResult.decode(empty.encode())).isEqualTo(empty);
+        assertThat(CachedSearchResult.decode(totalOnly.encode()).hasIds()).isFalse();
+        assertThat(CachedSearchResult.decode(totalOnly.encode()).getTotal()).isEqualTo(120_000);
+    }
+}
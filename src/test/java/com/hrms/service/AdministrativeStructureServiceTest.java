@@ -0,0 +1,85 @@
+package com.hrms.service;
+
+import com.hrms.dto.AdministrativeStructureCreateDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.mapper.AdministrativeStructureMapper;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.util.AuditUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests d'intégration pour AdministrativeStructureService (schéma réel, H2)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AdministrativeStructureService.class, PositionOccupancyService.class})
+@DisplayName("Tests du service des structures administratives")
+class AdministrativeStructureServiceTest {
+
+    @Autowired
+    private AdministrativeStructureService structureService;
+
+    @Autowired
+    private AdministrativeStructureRepository structureRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private AdministrativeStructureMapper structureMapper;
+
+    @MockBean
+    private AuditUtil auditUtil;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @Test
+    @DisplayName("Le chemin matérialisé d'une structure créée par le service est écrit en base")
+    void shouldPersistPathOfCreatedStructures() {
+        when(auditUtil.getCurrentUser()).thenReturn("admin");
+        when(structureMapper.toEntity(any(AdministrativeStructureCreateDTO.class)))
+                .thenAnswer(invocation -> newStructure(invocation.getArgument(0)));
+
+        structureService.createStructure(createDTO("MINAT", null));
+        Long ministryId = structureRepository.findByCode("MINAT").orElseThrow().getId();
+        structureService.createStructure(createDTO("GOUV-CE", ministryId));
+        Long governorateId = structureRepository.findByCode("GOUV-CE").orElseThrow().getId();
+
+        // Flush du commit, puis relecture depuis la base
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(structureRepository.findPathById(ministryId)).contains("/" + ministryId + "/");
+        assertThat(structureRepository.findPathById(governorateId))
+                .contains("/" + ministryId + "/" + governorateId + "/");
+    }
+
+    private AdministrativeStructureCreateDTO createDTO(String code, Long parentId) {
+        AdministrativeStructureCreateDTO dto = new AdministrativeStructureCreateDTO();
+        dto.setCode(code);
+        dto.setName("Structure " + code);
+        dto.setType(parentId == null ? "MINISTERE" : "GOUVERNORAT");
+        dto.setParentStructureId(parentId);
+        return dto;
+    }
+
+    private AdministrativeStructure newStructure(AdministrativeStructureCreateDTO dto) {
+        AdministrativeStructure structure = new AdministrativeStructure();
+        structure.setCode(dto.getCode());
+        structure.setName(dto.getName());
+        structure.setType(AdministrativeStructure.StructureType.valueOf(dto.getType()));
+        return structure;
+    }
+}
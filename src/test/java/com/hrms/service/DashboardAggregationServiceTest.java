@@ -0,0 +1,102 @@
+package com.hrms.service;
+
+import com.hrms.dto.StatisticsDTO;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.PositionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour DashboardAggregationService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de l'agrégation du tableau de bord")
+class DashboardAggregationServiceTest {
+
+    @Mock
+    private PersonnelRepository personnelRepository;
+
+    @Mock
+    private PositionRepository positionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DashboardAggregationService dashboardAggregationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dashboardAggregationService, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(dashboardAggregationService, "queueCapacity", 50);
+        ReflectionTestUtils.setField(dashboardAggregationService, "aggregateTimeoutMs", 200L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        dashboardAggregationService.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardAggregationService.shutdownExecutor();
+    }
+
+    @Test
+    @DisplayName("Un agrégat trop lent est signalé indisponible sans bloquer les autres")
+    void testSlowAggregateReportedUnavailable() {
+        when(personnelRepository.countByDeletedFalse()).thenReturn(120L);
+        when(personnelRepository.countRetirableThisYear()).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return 7L;
+        });
+        when(positionRepository.countByDeletedFalse()).thenReturn(80L);
+
+        long start = System.currentTimeMillis();
+        StatisticsDTO stats = dashboardAggregationService.getDashboardStatistics();
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(1500);
+        assertThat(stats.getUnavailableAggregates()).containsExactly("retirableThisYear");
+        assertThat(stats.getRetirableThisYear()).isNull();
+        assertThat(stats.getTotalPersonnel()).isEqualTo(120L);
+        assertThat(stats.getTotalPositions()).isEqualTo(80L);
+    }
+
+    @Test
+    @DisplayName("Le délai de l'agrégat est posé sur la transaction des requêtes")
+    void testAggregateTransactionCarriesQueryTimeout() {
+        dashboardAggregationService.getDashboardStatistics();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(definition.capture());
+        assertThat(definition.getAllValues()).allSatisfy(captured -> {
+            assertThat(captured.isReadOnly()).isTrue();
+            assertThat(captured.getTimeout()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Le délai en secondes arrondit au supérieur")
+    void testQueryTimeoutRoundsUp() {
+        ReflectionTestUtils.setField(dashboardAggregationService, "aggregateTimeoutMs", 5001L);
+
+        assertThat(dashboardAggregationService.queryTimeoutSeconds()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,132 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelDocumentRepository;
+import com.hrms.repository.PersonnelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour DocumentComplianceService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de la matrice de conformité documentaire")
+class DocumentComplianceServiceTest {
+
+    @Mock
+    private PersonnelRepository personnelRepository;
+
+    @Mock
+    private PersonnelDocumentRepository documentRepository;
+
+    @Mock
+    private AdministrativeStructureRepository structureRepository;
+
+    @Mock
+    private WorkforceChangeTracker changeTracker;
+
+    @InjectMocks
+    private DocumentComplianceService complianceService;
+
+    private final List<Object[]> documentRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(complianceService, "mandatoryTypes", List.of(DocumentType.CNI));
+        ReflectionTestUtils.setField(complianceService, "matrixTtlMs", 3_600_000L);
+        ReflectionTestUtils.setField(complianceService, "defaultLimit", 100);
+        when(changeTracker.currentTenant()).thenReturn("default");
+        when(personnelRepository.findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE)).thenReturn(List.of(
+                agent(1L, "/1/5/"),
+                agent(2L, "/1/6/")));
+        when(documentRepository.findComplianceRows()).thenAnswer(invocation -> List.copyOf(documentRows));
+        when(documentRepository.findComplianceRowsByPersonnelIds(anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Long> personnelIds = invocation.getArgument(0);
+                    return documentRows.stream().filter(row -> personnelIds.contains((Long) row[0])).toList();
+                });
+        documentRows.add(document(1L));
+    }
+
+    @Test
+    @DisplayName("Un document validé fait relire les documents de son agent, sans reconstruction")
+    void shouldRereadAgentDocumentsAfterDocumentChange() {
+        assertThat(complianceService.report(null).getCompliantCount()).isEqualTo(1);
+
+        documentRows.add(document(2L));
+        when(documentRepository.findPersonnelIdsByIds(Set.of(20L))).thenReturn(List.of(2L));
+        complianceService.onChanges(batch(change("PersonnelDocument", 20L, ChangeType.CREATED, Set.of())));
+
+        assertThat(complianceService.report(null).getCompliantCount()).isEqualTo(2);
+        verify(documentRepository).findComplianceRowsByPersonnelIds(Set.of(2L));
+        verify(personnelRepository, times(1)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Une mutation d'agent reconstruit la matrice, pas un changement de téléphone")
+    void shouldRebuildMatrixWhenAgentMoves() {
+        complianceService.report(null);
+
+        complianceService.onChanges(batch(change("Personnel", 1L, ChangeType.UPDATED, Set.of("phoneNumber"))));
+        complianceService.report(null);
+        verify(personnelRepository, times(1)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+
+        complianceService.onChanges(batch(change("Personnel", 1L, ChangeType.UPDATED, Set.of("structure"))));
+        complianceService.report(null);
+        verify(personnelRepository, times(2)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+        verify(documentRepository, never()).findPersonnelIdsByIds(anyCollection());
+    }
+
+    private static Object[] agent(Long personnelId, String structurePath) {
+        return new Object[]{personnelId, "MAT" + personnelId, "Nom", "Prénom", null, null, null, null, null,
+                5L, structurePath, LocalDate.of(2010, 1, 1)};
+    }
+
+    private static Object[] document(Long personnelId) {
+        return new Object[]{personnelId, DocumentType.CNI, LocalDate.now().plusYears(5), true};
+    }
+
+    private static ChangeBatch batch(EntityChange change) {
+        return new ChangeBatch("default", List.of(change));
+    }
+
+    private static EntityChange change(String aggregateType, Long aggregateId, ChangeType changeType,
+                                       Set<String> properties) {
+        return EntityChange.builder()
+                .outboxId(1L)
+                .tenant("default")
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .changeType(changeType)
+                .changedProperties(properties)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.entity.JobCheckpoint;
+import com.hrms.entity.PersonnelDocument.DocumentType;
+import com.hrms.expiry.DocumentExpiry;
+import com.hrms.expiry.DocumentsExpiredEvent;
+import com.hrms.repository.JobCheckpointRepository;
+import com.hrms.repository.PersonnelDocumentRepository;
+import com.hrms.tenant.TenantProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour DocumentExpiryService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de la publication des documents expirés")
+class DocumentExpiryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private PersonnelDocumentRepository documentRepository;
+
+    @Mock
+    private JobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private WorkforceChangeTracker changeTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<TenantProperties> tenantProperties;
+
+    @InjectMocks
+    private DocumentExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(expiryService, "defaultTenant", "default");
+        ReflectionTestUtils.setField(expiryService, "batchSize", 500);
+        when(changeTracker.currentTenant()).thenReturn("default");
+        when(documentRepository.findExpiryRows()).thenReturn(List.of(
+                row(1L, TODAY.minusDays(10)),
+                row(2L, TODAY.minusDays(3)),
+                row(3L, TODAY.minusDays(1)),
+                row(4L, TODAY.plusDays(5))));
+    }
+
+    @Test
+    @DisplayName("Au démarrage, les jours manqués depuis le point de reprise sont publiés")
+    void shouldCatchUpMissedDaysFromCheckpoint() {
+        when(checkpointRepository.findById("document-expiry"))
+                .thenReturn(Optional.of(new JobCheckpoint("document-expiry", TODAY.minusDays(3), LocalDateTime.now())));
+
+        expiryService.loadCalendars();
+
+        ArgumentCaptor<DocumentsExpiredEvent> event = ArgumentCaptor.forClass(DocumentsExpiredEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getDocuments()).extracting(DocumentExpiry::getDocumentId).containsExactly(2L, 3L);
+        assertThat(savedCheckpoint().getCheckpointDate()).isEqualTo(TODAY);
+    }
+
+    @Test
+    @DisplayName("Sans point de reprise, les échéances passées sont considérées comme notifiées")
+    void shouldNotPublishPastExpiriesWithoutCheckpoint() {
+        when(checkpointRepository.findById("document-expiry")).thenReturn(Optional.empty());
+
+        expiryService.loadCalendars();
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(savedCheckpoint().getCheckpointDate()).isEqualTo(TODAY);
+    }
+
+    private JobCheckpoint savedCheckpoint() {
+        ArgumentCaptor<JobCheckpoint> checkpoint = ArgumentCaptor.forClass(JobCheckpoint.class);
+        verify(checkpointRepository).save(checkpoint.capture());
+        assertThat(checkpoint.getValue().getJobName()).isEqualTo("document-expiry");
+        return checkpoint.getValue();
+    }
+
+    private static Object[] row(Long documentId, LocalDate expiryDate) {
+        return new Object[]{documentId, 100 + documentId, DocumentType.CNI, expiryDate};
+    }
+}
@@ -11,6 +11,7 @@ import com.hrms.repository.ArrondissementRepository;
 import com.hrms.repository.DepartmentRepository;
 import com.hrms.repository.PersonnelRepository;
 import com.hrms.repository.RegionRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,6 +51,9 @@ class GeographicServiceTest {
     @Mock
     private PersonnelRepository personnelRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private GeographicService geographicService;
 
@@ -280,5 +285,22 @@ class GeographicServiceTest {
         assertThat(result.getCode()).isEqualTo("CE-MFOU-YDE1");
         verify(arrondissementRepository).findByIdWithDepartmentAndRegion(1L);
     }
-}
 
+    @Test
+    @DisplayName("Le flux des arrondissements d'une région détache chaque entité convertie")
+    void shouldStreamArrondissementsByRegionFromCursor() {
+        // Given
+        when(arrondissementRepository.streamActiveByRegionId(1L)).thenReturn(Stream.of(arrondissement));
+
+        // When
+        List<ArrondissementDTO> result;
+        try (Stream<ArrondissementDTO> stream = geographicService.streamArrondissementsByRegionId(1L)) {
+            result = stream.toList();
+        }
+
+        // Then
+        assertThat(result).extracting(ArrondissementDTO::getRegionCode).containsExactly("CE");
+        verify(entityManager).detach(arrondissement);
+        verify(arrondissementRepository, never()).findByRegionIdAndActiveTrue(anyLong());
+    }
+}
@@ -0,0 +1,159 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.PersonnelFacetSearchRequestDTO;
+import com.hrms.dto.PersonnelFacetSearchResultDTO;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.facets.PersonnelFacet;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.tenant.TenantProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour PersonnelFacetService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de l'index à facettes des personnels")
+class PersonnelFacetServiceTest {
+
+    @Mock
+    private PersonnelRepository personnelRepository;
+
+    @Mock
+    private WorkforceChangeTracker changeTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<TenantProperties> tenantProperties;
+
+    @InjectMocks
+    private PersonnelFacetService facetService;
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(facetService, "defaultTenant", "default");
+        when(changeTracker.currentTenant()).thenReturn("default");
+        rows.add(row(1L, "A1", "ACTIVE"));
+        rows.add(row(2L, "A2", "ACTIVE"));
+        when(personnelRepository.findFacetRows()).thenAnswer(invocation -> List.copyOf(rows));
+        facetService.loadIndexes();
+    }
+
+    @Test
+    @DisplayName("Les agents modifiés sont relus par le rafraîchissement, jamais par la recherche")
+    void shouldApplyChangesOnRefreshOnly() {
+        when(personnelRepository.findFacetRowsByIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(row(2L, "A1", "ACTIVE"), row(3L, "A1", "ACTIVE")));
+
+        facetService.onChanges(batch("Personnel", 2L, 3L));
+        assertThat(searchGrade("A1").getTotalElements()).isEqualTo(1);
+        verify(personnelRepository, never()).findFacetRowsByIds(anyCollection());
+
+        facetService.refreshIndexes();
+
+        assertThat(searchGrade("A1").getPersonnelIds()).containsExactly(1L, 2L, 3L);
+        assertThat(searchGrade("A2").getTotalElements()).isZero();
+        verify(personnelRepository, times(1)).findFacetRowsByIds(anyCollection());
+        verify(personnelRepository, times(1)).findFacetRows();
+    }
+
+    @Test
+    @DisplayName("Un changement de grade fait reconstruire puis substituer l'index hors des recherches")
+    void shouldRebuildIndexOnRefreshAfterGradeChange() {
+        facetService.onChanges(batch("Grade", 40L));
+        rows.add(row(4L, "A2", "ACTIVE"));
+        assertThat(searchGrade("A2").getTotalElements()).isEqualTo(1);
+        verify(personnelRepository, times(1)).findFacetRows();
+
+        facetService.refreshIndexes();
+
+        assertThat(searchGrade("A2").getPersonnelIds()).containsExactly(2L, 4L);
+        verify(personnelRepository, times(2)).findFacetRows();
+        facetService.refreshIndexes();
+        verify(personnelRepository, times(2)).findFacetRows();
+    }
+
+    @Test
+    @DisplayName("Un agent supprimé disparaît de l'index au rafraîchissement")
+    void shouldRemoveDeletedAgentOnRefresh() {
+        when(personnelRepository.findFacetRowsByIds(anyCollection())).thenReturn(List.of());
+
+        facetService.onChanges(batch("Personnel", 1L));
+        facetService.refreshIndexes();
+
+        assertThat(searchGrade("A1").getTotalElements()).isZero();
+    }
+
+    @Test
+    @DisplayName("Une relecture en échec garde les agents en attente pour le rafraîchissement suivant")
+    void shouldKeepPendingChangesWhenReadFails() {
+        when(personnelRepository.findFacetRowsByIds(anyCollection()))
+                .thenThrow(new IllegalStateException("base indisponible"))
+                .thenReturn(List.<Object[]>of(row(2L, "A1", "ACTIVE")));
+
+        facetService.onChanges(batch("Personnel", 2L));
+        facetService.refreshIndexes();
+        assertThat(searchGrade("A1").getTotalElements()).isEqualTo(1);
+
+        facetService.refreshIndexes();
+
+        assertThat(searchGrade("A1").getPersonnelIds()).containsExactly(1L, 2L);
+        verify(personnelRepository, times(2)).findFacetRowsByIds(Set.of(2L));
+    }
+
+    private PersonnelFacetSearchResultDTO searchGrade(String grade) {
+        PersonnelFacetSearchRequestDTO request = new PersonnelFacetSearchRequestDTO();
+        request.setSelections(Map.of(PersonnelFacet.GRADE, List.of(grade)));
+        return facetService.search(request);
+    }
+
+    private static Object[] row(Long id, String grade, String status) {
+        return new Object[]{id, grade, "CORPS-" + grade, "STRUCT-1", "CE", status, "M"};
+    }
+
+    private static ChangeBatch batch(String aggregateType, Long... aggregateIds) {
+        List<EntityChange> changes = new ArrayList<>();
+        long outboxId = 1;
+        for (Long aggregateId : aggregateIds) {
+            changes.add(EntityChange.builder()
+                    .outboxId(outboxId++)
+                    .tenant("default")
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .changeType(ChangeType.UPDATED)
+                    .changedProperties(Set.of())
+                    .build());
+        }
+        return new ChangeBatch("default", changes);
+    }
+}
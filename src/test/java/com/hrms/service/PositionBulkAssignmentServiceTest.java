@@ -0,0 +1,188 @@
+package com.hrms.service;
+
+import com.hrms.dto.BulkAssignmentRequestDTO;
+import com.hrms.dto.BulkAssignmentRequestDTO.AssignmentItemDTO;
+import com.hrms.dto.BulkAssignmentResultDTO;
+import com.hrms.dto.BulkAssignmentResultDTO.OutcomeDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.AssignmentHistory;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.Position;
+import com.hrms.repository.AssignmentHistoryRepository;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.PositionRepository;
+import com.hrms.util.AuditUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour PositionBulkAssignmentService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests des vagues d'affectations")
+class PositionBulkAssignmentServiceTest {
+
+    @Mock
+    private PositionRepository positionRepository;
+
+    @Mock
+    private PersonnelRepository personnelRepository;
+
+    @Mock
+    private AssignmentHistoryRepository assignmentHistoryRepository;
+
+    @Mock
+    private PositionOccupancyService positionOccupancyService;
+
+    @Mock
+    private AuditUtil auditUtil;
+
+    @InjectMocks
+    private PositionBulkAssignmentService bulkAssignmentService;
+
+    private AdministrativeStructure structureA;
+    private AdministrativeStructure structureB;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkAssignmentService, "maxItems", 2000);
+        ReflectionTestUtils.setField(bulkAssignmentService, "loadBatchSize", 2);
+        when(auditUtil.getCurrentUser()).thenReturn("admin");
+        when(assignmentHistoryRepository.findActiveAssignmentsByPersonnelIds(anyCollection())).thenReturn(List.of());
+
+        structureA = new AdministrativeStructure();
+        structureA.setId(1L);
+        structureB = new AdministrativeStructure();
+        structureB.setId(2L);
+    }
+
+    @Test
+    @DisplayName("Un poste libéré par la mutation de son titulaire est réattribué dans la même vague")
+    void testChainedMovesApplied() {
+        Position oldPost = position(10L, structureA);
+        Position newPost = position(11L, structureB);
+        Personnel moving = personnel(100L);
+        Personnel successor = personnel(101L);
+        occupy(oldPost, moving);
+        stubLoads(List.of(oldPost, newPost), List.of(moving, successor));
+
+        BulkAssignmentResultDTO result = bulkAssignmentService.applyBulkAssignment(request(
+                new AssignmentItemDTO(101L, 10L), new AssignmentItemDTO(100L, 11L)));
+
+        assertThat(result.getRejectedCount()).isZero();
+        assertThat(result.getAppliedCount()).isEqualTo(2);
+        assertThat(result.getOutcomes()).extracting(OutcomeDTO::getStatus).containsOnly("APPLIED");
+        assertThat(oldPost.getCurrentPersonnel()).isSameAs(successor);
+        assertThat(newPost.getCurrentPersonnel()).isSameAs(moving);
+        assertThat(moving.getCurrentPosition()).isSameAs(newPost);
+        assertThat(successor.getCurrentPosition()).isSameAs(oldPost);
+
+        // Compteurs : état d'occupation d'avant la vague pour chaque poste touché
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Boolean>> previous = ArgumentCaptor.forClass(Map.class);
+        verify(positionOccupancyService).occupancyChanged(anyCollection(), previous.capture());
+        assertThat(previous.getValue()).containsEntry(10L, true).containsEntry(11L, false);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AssignmentHistory>> history = ArgumentCaptor.forClass(List.class);
+        verify(assignmentHistoryRepository).saveAll(history.capture());
+        assertThat(history.getValue()).extracting(AssignmentHistory::getMovementType)
+                .containsExactlyInAnyOrder(AssignmentHistory.MovementType.AFFECTATION,
+                        AssignmentHistory.MovementType.MUTATION);
+    }
+
+    @Test
+    @DisplayName("Tout ou rien : un poste occupé non libéré bloque toute la vague")
+    void testAllOrNothingBlocksWave() {
+        Position vacant = position(10L, structureA);
+        Position occupied = position(11L, structureA);
+        Personnel holder = personnel(100L);
+        Personnel first = personnel(101L);
+        Personnel second = personnel(102L);
+        occupy(occupied, holder);
+        stubLoads(List.of(vacant, occupied), List.of(first, second));
+
+        BulkAssignmentRequestDTO request = request(
+                new AssignmentItemDTO(101L, 10L), new AssignmentItemDTO(102L, 11L));
+        request.setAllOrNothing(true);
+
+        BulkAssignmentResultDTO result = bulkAssignmentService.applyBulkAssignment(request);
+
+        assertThat(result.getRejectedCount()).isEqualTo(1);
+        assertThat(result.getAppliedCount()).isZero();
+        assertThat(result.getOutcomes()).extracting(OutcomeDTO::getStatus).containsExactly("VALID", "REJECTED");
+        assertThat(result.getOutcomes().get(1).getMessage()).contains("n'est pas libéré");
+        assertThat(vacant.getCurrentPersonnel()).isNull();
+        verify(positionRepository, never()).saveAll(any());
+        verify(positionOccupancyService, never()).occupancyChanged(anyCollection(), anyMap());
+    }
+
+    private void stubLoads(List<Position> positions, List<Personnel> personnel) {
+        when(positionRepository.findAllForAssignmentByIdIn(anyList())).thenAnswer(invocation ->
+                select(positions, invocation.getArgument(0), Position::getId));
+        when(personnelRepository.findAllForAssignmentByIdIn(anyList())).thenAnswer(invocation ->
+                select(personnel, invocation.getArgument(0), Personnel::getId));
+    }
+
+    private static <T> List<T> select(List<T> entities, Collection<Long> ids, Function<T, Long> idOf) {
+        List<T> selected = new ArrayList<>();
+        entities.stream().filter(entity -> ids.contains(idOf.apply(entity))).forEach(selected::add);
+        return selected;
+    }
+
+    private BulkAssignmentRequestDTO request(AssignmentItemDTO... items) {
+        BulkAssignmentRequestDTO request = new BulkAssignmentRequestDTO();
+        request.setAssignments(List.of(items));
+        request.setDecisionNumber("DEC-2024-001");
+        return request;
+    }
+
+    private Position position(Long id, AdministrativeStructure structure) {
+        Position position = new Position();
+        position.setId(id);
+        position.setCode("POS-" + id);
+        position.setStructure(structure);
+        position.setActive(true);
+        position.setStatus(Position.PositionStatus.VACANT);
+        return position;
+    }
+
+    private Personnel personnel(Long id) {
+        Personnel personnel = new Personnel();
+        personnel.setId(id);
+        personnel.setStatus(Personnel.PersonnelStatus.ACTIVE);
+        personnel.setSituation(Personnel.PersonnelSituation.EN_FONCTION);
+        personnel.setOfficialCumul(false);
+        return personnel;
+    }
+
+    private void occupy(Position position, Personnel personnel) {
+        position.assignPersonnel(personnel);
+        personnel.setCurrentPosition(position);
+    }
+}
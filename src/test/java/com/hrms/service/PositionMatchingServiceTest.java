@@ -0,0 +1,109 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.PositionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour PositionMatchingService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de l'index de rapprochement postes / agents")
+class PositionMatchingServiceTest {
+
+    @Mock
+    private PositionRepository positionRepository;
+
+    @Mock
+    private PersonnelRepository personnelRepository;
+
+    @Mock
+    private AdministrativeStructureRepository structureRepository;
+
+    @Mock
+    private WorkforceChangeTracker changeTracker;
+
+    @InjectMocks
+    private PositionMatchingService matchingService;
+
+    private final List<Object[]> vacancyRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(matchingService, "indexTtlMs", 900_000L);
+        ReflectionTestUtils.setField(matchingService, "defaultLimit", 20);
+        when(changeTracker.currentTenant()).thenReturn("default");
+        when(structureRepository.findPathById(1L)).thenReturn(Optional.of("/1/"));
+        when(structureRepository.findPathById(2L)).thenReturn(Optional.of("/2/"));
+        when(positionRepository.findVacancyRows()).thenAnswer(invocation -> List.copyOf(vacancyRows));
+        when(personnelRepository.findAssignableCandidateRows(any(), any())).thenReturn(List.of());
+        vacancyRows.add(vacancy(10L, 5L, "/1/5/"));
+    }
+
+    @Test
+    @DisplayName("Le déplacement d'une structure reconstruit l'index avec les nouveaux chemins")
+    void shouldRebuildIndexWhenStructureMoves() {
+        assertThat(matchingService.getFillPlan(1L, 5).getVacancyCount()).isEqualTo(1);
+        assertThat(matchingService.getFillPlan(2L, 5).getVacancyCount()).isZero();
+
+        vacancyRows.set(0, vacancy(10L, 5L, "/2/5/"));
+        matchingService.onChanges(structureChange(5L, "parentStructure"));
+
+        assertThat(matchingService.getFillPlan(1L, 5).getVacancyCount()).isZero();
+        assertThat(matchingService.getFillPlan(2L, 5).getVacancyCount()).isEqualTo(1);
+        verify(positionRepository, times(2)).findVacancyRows();
+    }
+
+    @Test
+    @DisplayName("Un renommage de structure ne reconstruit pas l'index")
+    void shouldKeepIndexWhenStructureIsRenamed() {
+        matchingService.getFillPlan(1L, 5);
+
+        matchingService.onChanges(structureChange(5L, "name"));
+        matchingService.getFillPlan(1L, 5);
+
+        verify(positionRepository, times(1)).findVacancyRows();
+    }
+
+    private static Object[] vacancy(Long positionId, Long structureId, String structurePath) {
+        return new Object[]{positionId, "P-" + positionId, "Chef de service", "CHEF_SERVICE", "A",
+                "A2", "ADMINISTRATEUR", 0, structureId, structurePath};
+    }
+
+    private static ChangeBatch structureChange(Long structureId, String... properties) {
+        return new ChangeBatch("default", List.of(EntityChange.builder()
+                .outboxId(1L)
+                .tenant("default")
+                .aggregateType("AdministrativeStructure")
+                .aggregateId(structureId)
+                .changeType(ChangeType.UPDATED)
+                .changedProperties(Set.of(properties))
+                .build()));
+    }
+}
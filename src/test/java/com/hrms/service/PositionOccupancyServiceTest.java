@@ -0,0 +1,218 @@
+package com.hrms.service;
+
+import com.hrms.dto.AdministrativeStructureUpdateDTO;
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.AdministrativeStructure.StructureType;
+import com.hrms.entity.Position;
+import com.hrms.mapper.AdministrativeStructureMapper;
+import com.hrms.util.AuditUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests d'intégration pour PositionOccupancyService (incréments en base sur le schéma réel, H2)
+ *
+ * Arborescence : MINAT (racine) → GOUV-A → PREF-A1, MINAT → GOUV-B
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PositionOccupancyService.class, AdministrativeStructureService.class})
+@DisplayName("Tests des compteurs de postes par structure")
+class PositionOccupancyServiceTest {
+
+    @Autowired
+    private PositionOccupancyService occupancyService;
+
+    @Autowired
+    private AdministrativeStructureService structureService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private AdministrativeStructureMapper structureMapper;
+
+    @MockBean
+    private AuditUtil auditUtil;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    private AdministrativeStructure ministry;
+    private AdministrativeStructure governorateA;
+    private AdministrativeStructure governorateB;
+    private AdministrativeStructure prefecture;
+
+    @BeforeEach
+    void setUp() {
+        when(auditUtil.getCurrentUser()).thenReturn("admin");
+        ministry = persistStructure("MINAT", StructureType.MINISTERE, null);
+        governorateA = persistStructure("GOUV-A", StructureType.GOUVERNORAT, ministry);
+        governorateB = persistStructure("GOUV-B", StructureType.GOUVERNORAT, ministry);
+        prefecture = persistStructure("PREF-A1", StructureType.PREFECTURE, governorateA);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Création d'un poste : structure, ancêtres et total global incrémentés")
+    void shouldCountCreatedPosition() {
+        addPosition("POS-1", prefecture);
+
+        assertThat(own(prefecture)).containsEntry("total", 1L).containsEntry("vacant", 1L);
+        assertThat(subtree(prefecture)).containsEntry("total", 1L);
+        assertThat(subtree(governorateA)).containsEntry("total", 1L);
+        assertThat(subtree(governorateB)).containsEntry("total", 0L);
+        assertThat(subtree(ministry)).containsEntry("total", 1L).containsEntry("vacant", 1L);
+        assertThat(occupancyService.getGlobalCounters()).containsEntry("total", 1L);
+    }
+
+    @Test
+    @DisplayName("Affectation puis libération : occupés et vacants suivent, sans écrire la ligne racine")
+    void shouldCountAssignmentAndRelease() {
+        Position position = addPosition("POS-1", prefecture);
+        addPosition("POS-2", prefecture);
+
+        position.setStatus(Position.PositionStatus.OCCUPE);
+        occupancyService.occupancyChanged(position, false);
+
+        assertThat(own(prefecture)).containsEntry("total", 2L).containsEntry("occupied", 1L).containsEntry("vacant", 1L);
+        assertThat(subtree(governorateA)).containsEntry("occupied", 1L);
+        assertThat(subtree(ministry)).containsEntry("total", 2L).containsEntry("occupied", 1L);
+        assertThat(occupancyService.getGlobalCounters()).containsEntry("occupied", 1L).containsEntry("vacant", 1L);
+        // La racine n'est jamais incrémentée : pas de verrou commun à toutes les affectations
+        assertThat(storedSubtreeTotal(ministry)).isZero();
+
+        position.setStatus(Position.PositionStatus.VACANT);
+        occupancyService.occupancyChanged(position, true);
+
+        assertThat(own(prefecture)).containsEntry("occupied", 0L).containsEntry("vacant", 2L);
+        assertThat(subtree(ministry)).containsEntry("occupied", 0L);
+    }
+
+    @Test
+    @DisplayName("Déplacement d'une structure : ses postes passent d'un ancêtre à l'autre")
+    void shouldMoveCountersWithSubtree() {
+        Position position = addPosition("POS-1", prefecture);
+        addPosition("POS-2", prefecture);
+        position.setStatus(Position.PositionStatus.OCCUPE);
+        occupancyService.occupancyChanged(position, false);
+        entityManager.clear();
+
+        structureService.updateStructure(prefecture.getId(), moveTo(governorateB));
+        entityManager.flush();
+
+        assertThat(subtree(governorateA)).containsEntry("total", 0L).containsEntry("occupied", 0L);
+        assertThat(subtree(governorateB)).containsEntry("total", 2L).containsEntry("occupied", 1L);
+        assertThat(subtree(prefecture)).containsEntry("total", 2L);
+        assertThat(subtree(ministry)).containsEntry("total", 2L).containsEntry("occupied", 1L);
+        // Chemins et compteurs réécrits en masse : ETags des arborescences invalidées explicitement
+        verify(dataVersionService, atLeastOnce()).changedAfterCommit("AdministrativeStructure", "Position");
+    }
+
+    @Test
+    @DisplayName("Une racine rattachée à une structure reçoit ses compteurs de sous-arbre")
+    void shouldMaterializeCountersOfMovedRoot() {
+        AdministrativeStructure otherRoot = persistStructure("ORG-X", StructureType.MINISTERE, null);
+        AdministrativeStructure child = persistStructure("ORG-X-1", StructureType.AUTRE, otherRoot);
+        entityManager.flush();
+        addPosition("POS-X", child);
+        assertThat(occupancyService.getGlobalCounters()).containsEntry("total", 1L);
+        entityManager.clear();
+
+        structureService.updateStructure(otherRoot.getId(), moveTo(governorateB));
+        entityManager.flush();
+
+        assertThat(storedSubtreeTotal(otherRoot)).isEqualTo(1);
+        assertThat(subtree(governorateB)).containsEntry("total", 1L);
+        assertThat(subtree(ministry)).containsEntry("total", 1L);
+        assertThat(occupancyService.getGlobalCounters()).containsEntry("total", 1L);
+    }
+
+    @Test
+    @DisplayName("La réconciliation corrige les compteurs faussés")
+    void shouldRepairDriftedCounters() {
+        addPosition("POS-1", prefecture);
+        Position occupied = addPosition("POS-2", prefecture);
+        occupied.setStatus(Position.PositionStatus.OCCUPE);
+        occupancyService.occupancyChanged(occupied, false);
+        entityManager.flush();
+
+        // Écritures hors service : postes 1 et 2 rattachés à PREF-A1 mais compteurs faux
+        entityManager.getEntityManager().createNativeQuery(
+                "UPDATE administrative_structures SET total_positions = 7, occupied_positions = 0, " +
+                "vacant_positions = 7, subtree_total_positions = 9 WHERE id = :id")
+                .setParameter("id", prefecture.getId())
+                .executeUpdate();
+        entityManager.getEntityManager().createNativeQuery(
+                "UPDATE administrative_structures SET subtree_total_positions = 5 WHERE id = :id")
+                .setParameter("id", ministry.getId())
+                .executeUpdate();
+
+        int repaired = occupancyService.reconcile();
+
+        assertThat(repaired).isEqualTo(2);
+        assertThat(own(prefecture)).containsEntry("total", 2L).containsEntry("occupied", 1L).containsEntry("vacant", 1L);
+        assertThat(subtree(prefecture)).containsEntry("total", 2L).containsEntry("occupied", 1L);
+        assertThat(storedSubtreeTotal(ministry)).isZero();
+        assertThat(subtree(ministry)).containsEntry("total", 2L);
+        assertThat(occupancyService.reconcile()).isZero();
+    }
+
+    private AdministrativeStructure persistStructure(String code, StructureType type, AdministrativeStructure parent) {
+        AdministrativeStructure structure = new AdministrativeStructure();
+        structure.setCode(code);
+        structure.setName("Structure " + code);
+        structure.setType(type);
+        structure.setParentStructure(parent);
+        return entityManager.persist(structure);
+    }
+
+    private Position addPosition(String code, AdministrativeStructure structure) {
+        Position position = new Position();
+        position.setCode(code);
+        position.setTitle("Poste " + code);
+        position.setStructure(structure);
+        entityManager.persist(position);
+        occupancyService.positionAdded(position);
+        return position;
+    }
+
+    private AdministrativeStructureUpdateDTO moveTo(AdministrativeStructure parent) {
+        AdministrativeStructureUpdateDTO dto = new AdministrativeStructureUpdateDTO();
+        dto.setParentStructureId(parent.getId());
+        return dto;
+    }
+
+    private Map<String, Long> subtree(AdministrativeStructure structure) {
+        return occupancyService.getSubtreeCounters(structure.getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> own(AdministrativeStructure structure) {
+        // Les incréments sont des UPDATE en base : relecture hors du contexte de persistance
+        entityManager.clear();
+        return (Map<String, Long>) occupancyService.getStructureCounters(structure.getId()).get("structure");
+    }
+
+    private int storedSubtreeTotal(AdministrativeStructure structure) {
+        Object value = entityManager.getEntityManager().createNativeQuery(
+                "SELECT subtree_total_positions FROM administrative_structures WHERE id = :id")
+                .setParameter("id", structure.getId())
+                .getSingleResult();
+        return ((Number) value).intValue();
+    }
+}
@@ -0,0 +1,135 @@
+package com.hrms.service;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.dto.TrainingGapQueryDTO;
+import com.hrms.entity.Personnel;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.PersonnelRepository;
+import com.hrms.repository.ProfessionalTrainingRepository;
+import com.hrms.repository.TrainingEnrollmentRepository;
+import com.hrms.repository.TrainingSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour TrainingNeedsService
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de l'index des besoins de formation")
+class TrainingNeedsServiceTest {
+
+    @Mock
+    private PersonnelRepository personnelRepository;
+
+    @Mock
+    private ProfessionalTrainingRepository professionalTrainingRepository;
+
+    @Mock
+    private TrainingEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private TrainingSessionRepository sessionRepository;
+
+    @Mock
+    private AdministrativeStructureRepository structureRepository;
+
+    @Mock
+    private WorkforceChangeTracker changeTracker;
+
+    @InjectMocks
+    private TrainingNeedsService trainingNeedsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trainingNeedsService, "indexTtlMs", 3_600_000L);
+        ReflectionTestUtils.setField(trainingNeedsService, "defaultRecencyYears", 3);
+        ReflectionTestUtils.setField(trainingNeedsService, "defaultLimit", 50);
+        when(changeTracker.currentTenant()).thenReturn("default");
+        when(personnelRepository.findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE)).thenReturn(List.of());
+        when(professionalTrainingRepository.findLastTrainingRows()).thenReturn(List.of());
+        when(enrollmentRepository.findLastAttendanceRows()).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Une présence validée reconstruit l'index du tenant")
+    void shouldRebuildAfterCommittedAttendance() {
+        analyze();
+        analyze();
+        verify(personnelRepository, times(1)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+
+        trainingNeedsService.onChanges(batch("default",
+                change("TrainingEnrollment", ChangeType.UPDATED, Set.of("status", "updatedAt"))));
+        analyze();
+
+        verify(personnelRepository, times(2)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Une inscription modifiée sans changement de statut, ou un autre tenant, garde l'index")
+    void shouldKeepIndexForUnrelatedChanges() {
+        analyze();
+
+        trainingNeedsService.onChanges(batch("default",
+                change("TrainingEnrollment", ChangeType.UPDATED, Set.of("score", "evaluation"))));
+        trainingNeedsService.onChanges(batch("autre",
+                change("ProfessionalTraining", ChangeType.CREATED, Set.of())));
+        analyze();
+
+        verify(personnelRepository, times(1)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Un index construit pendant une invalidation n'est pas conservé")
+    void shouldNotKeepIndexBuiltDuringInvalidation() {
+        when(professionalTrainingRepository.findLastTrainingRows()).thenAnswer(invocation -> {
+            trainingNeedsService.onChanges(batch("default",
+                    change("ProfessionalTraining", ChangeType.CREATED, Set.of())));
+            return List.of();
+        }).thenReturn(List.of());
+
+        analyze();
+        analyze();
+        analyze();
+
+        verify(personnelRepository, times(2)).findTrainingProfileRows(Personnel.PersonnelStatus.ACTIVE);
+    }
+
+    private void analyze() {
+        TrainingGapQueryDTO query = new TrainingGapQueryDTO();
+        query.setTrainingField("INFORMATIQUE");
+        trainingNeedsService.analyze(query);
+    }
+
+    private static ChangeBatch batch(String tenant, EntityChange change) {
+        return new ChangeBatch(tenant, List.of(change));
+    }
+
+    private static EntityChange change(String aggregateType, ChangeType changeType, Set<String> properties) {
+        return EntityChange.builder()
+                .outboxId(1L)
+                .aggregateType(aggregateType)
+                .aggregateId(10L)
+                .changeType(changeType)
+                .changedProperties(properties)
+                .build();
+    }
+}
@@ -0,0 +1,231 @@
+package com.hrms.service;
+
+import com.hrms.dto.SessionCompletionRequestDTO;
+import com.hrms.dto.SessionCompletionRequestDTO.AttendanceDTO;
+import com.hrms.dto.SessionCompletionResultDTO;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.ProfessionalTraining;
+import com.hrms.entity.Training;
+import com.hrms.entity.TrainingEnrollment;
+import com.hrms.entity.TrainingEnrollment.EnrollmentStatus;
+import com.hrms.entity.TrainingSession;
+import com.hrms.exception.BusinessException;
+import com.hrms.mapper.TrainingSessionMapper;
+import com.hrms.repository.AdministrativeStructureRepository;
+import com.hrms.repository.ProfessionalTrainingRepository;
+import com.hrms.repository.TrainerRepository;
+import com.hrms.repository.TrainingCostRepository;
+import com.hrms.repository.TrainingEnrollmentRepository;
+import com.hrms.repository.TrainingRepository;
+import com.hrms.repository.TrainingSessionRepository;
+import com.hrms.util.AuditUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour la clôture des sessions de formation (TrainingSessionService, TrainingHistoryService)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests de la clôture des sessions de formation")
+class TrainingSessionServiceTest {
+
+    private static final Long SESSION_ID = 7L;
+
+    @Mock
+    private TrainingSessionRepository sessionRepository;
+
+    @Mock
+    private TrainingEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private TrainingRepository trainingRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private AdministrativeStructureRepository structureRepository;
+
+    @Mock
+    private TrainingCostRepository costRepository;
+
+    @Mock
+    private TrainingSessionMapper sessionMapper;
+
+    @Mock
+    private AuditUtil auditUtil;
+
+    @Mock
+    private TrainingScheduleService scheduleService;
+
+    @Mock
+    private ProfessionalTrainingRepository professionalTrainingRepository;
+
+    private TrainingSessionService sessionService;
+    private TrainingSession session;
+
+    @BeforeEach
+    void setUp() {
+        // Historique réel : la vérification d'existence et les insertions sont testées avec la clôture
+        TrainingHistoryService historyService = new TrainingHistoryService(enrollmentRepository, professionalTrainingRepository);
+        sessionService = new TrainingSessionService(sessionRepository, enrollmentRepository, trainingRepository,
+                trainerRepository, structureRepository, costRepository, sessionMapper, auditUtil, scheduleService,
+                historyService);
+
+        Training training = new Training();
+        training.setTitle("Gestion budgétaire");
+        training.setTrainingField("FINANCES");
+        session = new TrainingSession();
+        session.setId(SESSION_ID);
+        session.setCode("SES-2024-007");
+        session.setTraining(training);
+        session.setStartDate(LocalDate.of(2024, 3, 4));
+        session.setEndDate(LocalDate.of(2024, 3, 8));
+        session.setStatus(TrainingSession.SessionStatus.IN_PROGRESS);
+
+        when(auditUtil.getCurrentUser()).thenReturn("admin");
+        when(sessionRepository.findForCompletion(SESSION_ID)).thenReturn(Optional.of(session));
+        when(professionalTrainingRepository.findPersonnelIdsWithTrainingOn(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Pointage explicite, puis inscriptions approuvées considérées présentes")
+    void shouldApplyExplicitAttendanceThenApprovedAsAttended() {
+        TrainingEnrollment absent = enrollment(1L, 100L, EnrollmentStatus.APPROVED);
+        TrainingEnrollment approved = enrollment(2L, 101L, EnrollmentStatus.APPROVED);
+        TrainingEnrollment pending = enrollment(3L, 102L, EnrollmentStatus.PENDING);
+        stubEnrollments(absent, approved, pending);
+
+        SessionCompletionRequestDTO request = new SessionCompletionRequestDTO();
+        request.setAttendances(List.of(AttendanceDTO.builder().enrollmentId(1L).attended(false).build()));
+
+        SessionCompletionResultDTO result = sessionService.closeSession(SESSION_ID, request);
+
+        assertThat(absent.getStatus()).isEqualTo(EnrollmentStatus.ABSENT);
+        assertThat(approved.getStatus()).isEqualTo(EnrollmentStatus.ATTENDED);
+        assertThat(pending.getStatus()).isEqualTo(EnrollmentStatus.PENDING);
+        assertThat(result.getEnrollmentCount()).isEqualTo(3);
+        assertThat(result.getAttendedCount()).isEqualTo(1);
+        assertThat(result.getAbsentCount()).isEqualTo(1);
+        assertThat(session.getStatus()).isEqualTo(TrainingSession.SessionStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Sans approvedAsAttended, seules les présences pointées comptent")
+    void shouldLeaveApprovedUnmarkedWhenDisabled() {
+        TrainingEnrollment marked = enrollment(1L, 100L, EnrollmentStatus.APPROVED);
+        TrainingEnrollment unmarked = enrollment(2L, 101L, EnrollmentStatus.APPROVED);
+        stubEnrollments(marked, unmarked);
+
+        SessionCompletionRequestDTO request = new SessionCompletionRequestDTO();
+        request.setApprovedAsAttended(false);
+        request.setAttendances(List.of(AttendanceDTO.builder().enrollmentId(1L).attended(true).score(15).build()));
+
+        SessionCompletionResultDTO result = sessionService.closeSession(SESSION_ID, request);
+
+        assertThat(marked.getStatus()).isEqualTo(EnrollmentStatus.ATTENDED);
+        assertThat(marked.getScore()).isEqualTo(15);
+        assertThat(unmarked.getStatus()).isEqualTo(EnrollmentStatus.APPROVED);
+        assertThat(result.getAttendedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Les attestations ne sont délivrées qu'au-dessus du taux de présence minimal")
+    void shouldIssueCertificatesAboveMinimumAttendance() {
+        TrainingEnrollment assiduous = enrollment(1L, 100L, EnrollmentStatus.APPROVED);
+        TrainingEnrollment irregular = enrollment(2L, 101L, EnrollmentStatus.APPROVED);
+        TrainingEnrollment unknownRate = enrollment(3L, 102L, EnrollmentStatus.APPROVED);
+        stubEnrollments(assiduous, irregular, unknownRate);
+
+        SessionCompletionRequestDTO request = new SessionCompletionRequestDTO();
+        request.setMinAttendanceRate(80.0);
+        request.setAttendances(List.of(
+                AttendanceDTO.builder().enrollmentId(1L).attended(true).attendanceRate(95.0).build(),
+                AttendanceDTO.builder().enrollmentId(2L).attended(true).attendanceRate(60.0).build()));
+
+        SessionCompletionResultDTO result = sessionService.closeSession(SESSION_ID, request);
+
+        assertThat(result.getAttendedCount()).isEqualTo(3);
+        assertThat(result.getCertificatesIssued()).isEqualTo(1);
+        assertThat(assiduous.getCertificateIssued()).isTrue();
+        assertThat(assiduous.getCertificateNumber()).startsWith("CERT-");
+        assertThat(irregular.getCertificateIssued()).isFalse();
+        assertThat(unknownRate.getCertificateIssued()).isFalse();
+    }
+
+    @Test
+    @DisplayName("L'historique n'est créé que pour les agents qui ne l'ont pas déjà")
+    void shouldSkipExistingHistoryRows() {
+        TrainingEnrollment alreadySynchronized = enrollment(1L, 100L, EnrollmentStatus.ATTENDED);
+        TrainingEnrollment newAttendee = enrollment(2L, 101L, EnrollmentStatus.APPROVED);
+        stubEnrollments(alreadySynchronized, newAttendee);
+        when(professionalTrainingRepository.findPersonnelIdsWithTrainingOn(anyCollection(),
+                eq(session.getStartDate()), eq(session.getEndDate()))).thenReturn(List.of(100L));
+
+        SessionCompletionResultDTO result = sessionService.closeSession(SESSION_ID, new SessionCompletionRequestDTO());
+
+        assertThat(result.getHistoryCreated()).isEqualTo(1);
+        assertThat(result.getHistoryAlreadyPresent()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProfessionalTraining>> saved = ArgumentCaptor.forClass(List.class);
+        verify(professionalTrainingRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(1);
+        ProfessionalTraining training = saved.getValue().get(0);
+        assertThat(training.getPersonnel().getId()).isEqualTo(101L);
+        assertThat(training.getTrainingField()).isEqualTo("FINANCES");
+        assertThat(training.getCertificateObtained()).isEqualTo(newAttendee.getCertificateNumber());
+    }
+
+    @Test
+    @DisplayName("Une présence pointée sur une inscription d'une autre session est refusée")
+    void shouldRejectForeignEnrollment() {
+        stubEnrollments(enrollment(1L, 100L, EnrollmentStatus.APPROVED));
+
+        SessionCompletionRequestDTO request = new SessionCompletionRequestDTO();
+        request.setAttendances(List.of(AttendanceDTO.builder().enrollmentId(99L).attended(true).build()));
+
+        assertThatThrownBy(() -> sessionService.closeSession(SESSION_ID, request))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("n'appartient pas à la session");
+        verify(sessionRepository, never()).save(any());
+    }
+
+    private void stubEnrollments(TrainingEnrollment... enrollments) {
+        when(enrollmentRepository.findBySessionIdWithPersonnel(SESSION_ID)).thenReturn(List.of(enrollments));
+    }
+
+    private TrainingEnrollment enrollment(Long id, Long personnelId, EnrollmentStatus status) {
+        Personnel personnel = new Personnel();
+        personnel.setId(personnelId);
+        TrainingEnrollment enrollment = new TrainingEnrollment();
+        enrollment.setId(id);
+        enrollment.setSession(session);
+        enrollment.setPersonnel(personnel);
+        enrollment.setStatus(status);
+        enrollment.setCertificateIssued(false);
+        return enrollment;
+    }
+}
@@ -0,0 +1,144 @@
+package com.hrms.template;
+
+import com.hrms.entity.AdministrativeStructure;
+import com.hrms.entity.OrganizationalPositionTemplate;
+import com.hrms.entity.OrganizationalTemplate;
+import com.hrms.entity.Personnel;
+import com.hrms.entity.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires du plan compilé des templates organisationnels
+ */
+@DisplayName("Tests du plan de template organisationnel")
+class TemplatePlanTest {
+
+    private OrganizationalTemplate template() {
+        OrganizationalTemplate template = OrganizationalTemplate.builder()
+                .code("TPL-SPREF")
+                .appliesTo(AdministrativeStructure.StructureType.SOUS_PREFECTURE)
+                .build();
+        template.setId(3L);
+        return template;
+    }
+
+    private OrganizationalPositionTemplate position(long id, String code, String subStructure, int level, int count) {
+        OrganizationalPositionTemplate positionTemplate = OrganizationalPositionTemplate.builder()
+                .code(code)
+                .title("Titre " + code)
+                .subStructureCode(subStructure)
+                .level(level)
+                .count(count)
+                .requiredGrade("A2")
+                .build();
+        positionTemplate.setId(id);
+        return positionTemplate;
+    }
+
+    private List<OrganizationalPositionTemplate> positionTemplates() {
+        return List.of(
+                position(1, "SPREF-SOUS-PREFET", null, 0, 1),
+                position(2, "SPREF-BAG-CHEF", "SPREF-BAG", 1, 1),
+                position(3, "SPREF-BAG-AGENT", "SPREF-BAG", 2, 2),
+                position(4, "SPREF-BAG-SCOUR-CHEF", "SPREF-BAG-SCOUR", 2, 1),
+                position(5, "SPREF-XYZ-ORPH-CHEF", "SPREF-XYZ-ORPH", 2, 1));
+    }
+
+    private AdministrativeStructure root() {
+        AdministrativeStructure root = AdministrativeStructure.builder().code("SPREF-CE-MFOU-1").build();
+        root.setId(100L);
+        return root;
+    }
+
+    @Test
+    @DisplayName("Compilation : structures parents d'abord, postes développés")
+    void shouldCompileFlatPlan() {
+        TemplatePlan plan = TemplatePlan.compile(template(), positionTemplates());
+
+        assertThat(plan.getStructures()).extracting(TemplatePlan.StructureSpec::getTemplateCode)
+                .containsExactly("SPREF-BAG", "SPREF-BAG-SCOUR");
+        assertThat(plan.getPositions()).extracting(TemplatePlan.PositionSpec::getCodeSuffix)
+                .containsExactly("PREFET", "AGENT", "AGENT-2", "CHEF", "CHEF");
+        assertThat(plan.getPositions().get(1).getTitle()).isEqualTo("Titre SPREF-BAG-AGENT N°1");
+    }
+
+    @Test
+    @DisplayName("Une structure vierge reçoit tout le plan")
+    void shouldPlanEverythingForNewStructure() {
+        TemplatePlan plan = TemplatePlan.compile(template(), positionTemplates());
+
+        TemplatePlan.Diff diff = plan.diff(root(), List.of(), List.of());
+
+        assertThat(diff.getMissingStructures()).hasSize(2);
+        assertThat(diff.getMissingPositions()).hasSize(5);
+        assertThat(diff.getObsoletePositions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Resynchronisation : seuls les écarts sont retenus")
+    void shouldDiffExistingStructure() {
+        TemplatePlan plan = TemplatePlan.compile(template(), positionTemplates());
+        AdministrativeStructure root = root();
+        AdministrativeStructure bag = plan.newStructure(plan.getStructures().get(0), root);
+
+        List<Position> existing = new ArrayList<>();
+        for (TemplatePlan.PositionSpec spec : plan.getPositions()) {
+            if (spec.getStructureTemplateCode() == null) {
+                existing.add(plan.newPosition(spec, root));
+            } else if ("SPREF-BAG".equals(spec.getStructureTemplateCode())) {
+                existing.add(plan.newPosition(spec, bag));
+            }
+        }
+        existing.get(0).setRequiredGrade("A1");
+
+        Position obsolete = Position.builder().code("POS-SPREF-CE-MFOU-1-BAG-ANCIEN").organizationalPositionTemplateId(9L)
+                .status(Position.PositionStatus.VACANT).build();
+        Position obsoleteOccupied = Position.builder().code("POS-SPREF-CE-MFOU-1-BAG-AUTRE").organizationalPositionTemplateId(9L)
+                .status(Position.PositionStatus.OCCUPE).currentPersonnel(new Personnel()).build();
+        existing.add(obsolete);
+        existing.add(obsoleteOccupied);
+
+        TemplatePlan.Diff diff = plan.diff(root, List.of(bag), existing);
+
+        assertThat(diff.getMissingStructures()).extracting(TemplatePlan.StructureSpec::getTemplateCode)
+                .containsExactly("SPREF-BAG-SCOUR");
+        assertThat(diff.getMissingPositions()).hasSize(1);
+        assertThat(diff.getChangedPositions()).extracting(change -> change.getPosition().getCode())
+                .containsExactly("POS-SPREF-CE-MFOU-1-PREFET");
+        assertThat(diff.getObsoletePositions()).containsExactly(obsolete);
+        assertThat(diff.getObsoleteOccupiedPositions()).containsExactly(obsoleteOccupied);
+    }
+
+    @Test
+    @DisplayName("Un poste retiré puis remis dans le template est restauré, pas recréé")
+    void shouldRestoreDeletedPositionBackInTemplate() {
+        TemplatePlan plan = TemplatePlan.compile(template(), positionTemplates());
+        AdministrativeStructure root = root();
+
+        // Poste du sous-préfet retiré par une resynchronisation précédente (spec supprimée puis rajoutée)
+        Position retired = plan.newPosition(plan.getPositions().get(0), root);
+        retired.setRequiredGrade("A1");
+        retired.softDelete("system");
+        retired.setActive(false);
+        Position retiredObsolete = Position.builder().code("POS-SPREF-CE-MFOU-1-ANCIEN").organizationalPositionTemplateId(9L)
+                .status(Position.PositionStatus.VACANT).build();
+        retiredObsolete.softDelete("system");
+
+        TemplatePlan.Diff diff = plan.diff(root, List.of(), List.of(retired, retiredObsolete));
+
+        assertThat(diff.getRestoredPositions()).extracting(TemplatePlan.PositionChange::getPosition)
+                .containsExactly(retired);
+        assertThat(diff.getMissingPositions()).extracting(TemplatePlan.PositionSpec::getCodeSuffix)
+                .doesNotContain("PREFET")
+                .hasSize(4);
+        assertThat(diff.getChangedPositions()).isEmpty();
+        assertThat(diff.getObsoletePositions()).isEmpty();
+        assertThat(diff.isEmpty()).isFalse();
+    }
+}
@@ -0,0 +1,96 @@
+package com.hrms.tenant;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour TenantRoutingDataSource
+ */
+@DisplayName("Tests du routage des connexions par tenant")
+class TenantRoutingDataSourceTest {
+
+    private final DataSource defaultPool = mock(DataSource.class);
+    private final DataSource acmePool = mock(DataSource.class);
+    private final Connection defaultConnection = mock(Connection.class);
+    private final Connection acmeConnection = mock(Connection.class);
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(defaultPool.getConnection()).thenReturn(defaultConnection);
+        when(acmePool.getConnection()).thenReturn(acmeConnection);
+
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new TenantRoutingDataSource("default", meterRegistry);
+        dataSource.setTargetDataSources(Map.of("default", defaultPool, "acme", acmePool));
+        dataSource.setDefaultTargetDataSource(defaultPool);
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("La connexion vient du pool du tenant courant")
+    void testConnectionFromTenantPool() throws SQLException {
+        TenantContext.setTenantId("acme");
+
+        assertThat(dataSource.getConnection()).isSameAs(acmeConnection);
+        verify(defaultPool, never()).getConnection();
+
+        Timer timer = meterRegistry.find("hrms.tenant.connection.acquire")
+                .tags("tenant", "acme", "outcome", "success").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sans tenant (tâche planifiée), le pool par défaut est utilisé")
+    void testDefaultPoolWithoutTenant() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(defaultConnection);
+        verify(acmePool, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Un tenant inconnu ne retombe pas sur le pool par défaut")
+    void testUnknownTenantRejected() throws SQLException {
+        TenantContext.setTenantId("inconnu");
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(IllegalStateException.class);
+        verify(defaultPool, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("Un échec d'acquisition est compté par tenant")
+    void testAcquisitionFailureRecorded() throws SQLException {
+        when(acmePool.getConnection()).thenThrow(new SQLException("pool épuisé"));
+        TenantContext.setTenantId("acme");
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLException.class);
+
+        Timer timer = meterRegistry.find("hrms.tenant.connection.acquire")
+                .tags("tenant", "acme", "outcome", "failure").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hrms.trainingneeds;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires de l'index des dernières formations
+ */
+@DisplayName("Tests de l'analyse des besoins de formation")
+class TrainingHistoryIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    private AgentProfile agent(long id, String path, String grade, String corps, LocalDate hireDate) {
+        return AgentProfile.builder()
+                .personnelId(id)
+                .matricule("M" + id)
+                .fullName("Agent " + id)
+                .structurePath(path)
+                .gradeCode(TrainingHistoryIndex.normalize(grade))
+                .corpsCode(TrainingHistoryIndex.normalize(corps))
+                .hireDate(hireDate)
+                .build();
+    }
+
+    private TrainingHistoryIndex index() {
+        TrainingHistoryIndex index = new TrainingHistoryIndex(List.of(
+                agent(1, "/1/5/", "A2", "ADMIN", LocalDate.of(2010, 1, 1)),
+                agent(2, "/1/5/23/", "A2", "ADMIN", LocalDate.of(2015, 1, 1)),
+                agent(3, "/1/5/23/", "B1", "ADMIN", LocalDate.of(2005, 1, 1)),
+                agent(4, "/1/6/", "A2", "ADMIN", LocalDate.of(2000, 1, 1)),
+                agent(5, "/1/5/", "A2", "FINANCES", LocalDate.of(2012, 1, 1))));
+        index.record(1, "Informatique", LocalDate.of(2024, 3, 1));
+        index.record(1, "informatique ", LocalDate.of(2019, 3, 1));
+        index.record(2, "Informatique", LocalDate.of(2020, 5, 1));
+        index.record(3, "Management", LocalDate.of(2024, 1, 1));
+        index.record(99, "Informatique", LocalDate.of(2024, 1, 1));
+        return index;
+    }
+
+    private GapQuery.GapQueryBuilder query() {
+        return GapQuery.builder()
+                .field("INFORMATIQUE")
+                .trainedSince(TODAY.minusYears(3))
+                .asOf(TODAY)
+                .limit(10);
+    }
+
+    @Test
+    @DisplayName("Seule la formation la plus récente par domaine est retenue, domaines normalisés")
+    void shouldKeepLatestTrainingPerField() {
+        TrainingHistoryIndex index = index();
+
+        assertThat(index.fieldCount()).isEqualTo(2);
+        assertThat(index.lastTraining(1, "Informatique")).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(index.lastTraining(3, null)).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(index.lastTraining(3, "Informatique")).isNull();
+    }
+
+    @Test
+    @DisplayName("Cohorte d'une structure : jamais formés d'abord, puis formation la plus ancienne")
+    void shouldPrioritiseNeverTrainedThenOldest() {
+        TrainingHistoryIndex.GapResult result = index().gaps(query().structurePath("/1/5/").build());
+
+        assertThat(result.getCohortSize()).isEqualTo(4);
+        assertThat(result.getGapCount()).isEqualTo(3);
+        assertThat(result.getNeverTrainedCount()).isEqualTo(2);
+        assertThat(result.getGaps()).extracting(gap -> gap.getAgent().getPersonnelId())
+                .containsExactly(3L, 5L, 2L);
+        assertThat(result.getGaps().get(2).getLastTrainingDate()).isEqualTo(LocalDate.of(2020, 5, 1));
+    }
+
+    @Test
+    @DisplayName("Filtres grade et corps, agents exclus et limite")
+    void shouldFilterCohortAndLimit() {
+        TrainingHistoryIndex index = index();
+
+        TrainingHistoryIndex.GapResult filtered = index.gaps(query()
+                .grades(Set.of("A2"))
+                .corps(Set.of("ADMIN"))
+                .excludedPersonnelIds(Set.of(4L))
+                .build());
+        assertThat(filtered.getCohortSize()).isEqualTo(2);
+        assertThat(filtered.getGaps()).extracting(gap -> gap.getAgent().getPersonnelId()).containsExactly(2L);
+
+        TrainingHistoryIndex.GapResult limited = index.gaps(query().limit(1).build());
+        assertThat(limited.getGapCount()).isEqualTo(4);
+        assertThat(limited.getGaps()).extracting(gap -> gap.getAgent().getPersonnelId()).containsExactly(4L);
+    }
+}
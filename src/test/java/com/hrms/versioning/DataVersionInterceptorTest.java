@@ -0,0 +1,144 @@
+package com.hrms.versioning;
+
+import com.hrms.analytics.WorkforceChangeTracker;
+import com.hrms.events.ChangeBatch;
+import com.hrms.events.ChangeType;
+import com.hrms.events.EntityChange;
+import com.hrms.service.DataVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour DataVersionInterceptor (versions en mémoire)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Tests des requêtes conditionnelles sur les versions des données")
+class DataVersionInterceptorTest {
+
+    @Mock
+    private WorkforceChangeTracker changeTracker;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    private DataVersionService dataVersionService;
+    private DataVersionInterceptor interceptor;
+    private HandlerMethod treeHandler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        when(changeTracker.currentTenant()).thenReturn("default");
+        dataVersionService = new DataVersionService(changeTracker, redisTemplate);
+        ReflectionTestUtils.setField(dataVersionService, "sharedVersions", false);
+        interceptor = new DataVersionInterceptor(dataVersionService);
+        treeHandler = new HandlerMethod(new TreeEndpoint(), TreeEndpoint.class.getMethod("tree"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Un If-None-Match égal à l'ETag courante reçoit 304 sans exécuter le point d'accès")
+    void shouldAnswerNotModifiedForMatchingEtag() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(null), first, treeHandler)).isTrue();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"default-");
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(etag), second, treeHandler)).isFalse();
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    @DisplayName("L'ETag change après un changement validé d'un agrégat déclaré")
+    void shouldChangeEtagAfterCommittedChange() {
+        String etag = currentEtag();
+
+        dataVersionService.onChanges(new ChangeBatch("default", List.of(EntityChange.builder()
+                .outboxId(1L)
+                .tenant("default")
+                .aggregateType("Position")
+                .aggregateId(10L)
+                .changeType(ChangeType.UPDATED)
+                .changedProperties(Set.of("status"))
+                .build())));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(etag), response, treeHandler)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Une mise à jour en masse change l'ETag au commit, pas avant")
+    void shouldChangeEtagAfterCommitOfBulkUpdate() {
+        String etag = currentEtag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        dataVersionService.changedAfterCommit("AdministrativeStructure", "Position");
+        assertThat(currentEtag()).isEqualTo(etag);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(currentEtag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Les types non déclarés par le point d'accès ne changent pas son ETag")
+    void shouldKeepEtagForUndeclaredAggregate() {
+        String etag = currentEtag();
+
+        dataVersionService.changedAfterCommit("TrainingEnrollment");
+
+        assertThat(currentEtag()).isEqualTo(etag);
+    }
+
+    private String currentEtag() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(get(null), response, treeHandler);
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/structures/tree");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    @DataVersioned({"AdministrativeStructure", "Position"})
+    static class TreeEndpoint {
+
+        public String tree() {
+            return "tree";
+        }
+    }
+}